@@ -0,0 +1,40 @@
+package com.example.ordermanagement.benchmark;
+
+import com.example.ordermanagement.entity.Item;
+import com.example.ordermanagement.entity.Order;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Fixture builders shared by the benchmarks.
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static Order order(int itemCount) {
+        Order order = Order.builder()
+                .id(1L)
+                .orderNumber("ORD-BENCH-0001")
+                .customerName("Benchmark Customer")
+                .shippingAddress("1 Benchmark Street, Springfield")
+                .billingAddress("1 Benchmark Street, Springfield")
+                .createdAt(LocalDateTime.of(2025, 1, 1, 12, 0))
+                .build();
+        for (int i = 0; i < itemCount; i++) {
+            order.addItem(Item.builder()
+                    .id((long) i + 1)
+                    .sku("SKU-" + (1000 + i))
+                    .name("Item " + i)
+                    .quantity(1 + i % 5)
+                    .unitPrice(BigDecimal.valueOf(199 + i * 7L, 2))
+                    .imageUrl("https://cdn.example.com/items/" + i + ".png")
+                    .weight(BigDecimal.valueOf(250 + i, 3))
+                    .build());
+        }
+        order.calculateTotalAmount();
+        return order;
+    }
+}
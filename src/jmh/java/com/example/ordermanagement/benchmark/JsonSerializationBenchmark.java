@@ -0,0 +1,62 @@
+package com.example.ordermanagement.benchmark;
+
+import com.example.ordermanagement.dto.OrderResponse;
+import com.example.ordermanagement.dto.PagedResponse;
+import com.example.ordermanagement.mapper.OrderMapper;
+import com.example.ordermanagement.mapper.OrderMapperImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the response DTOs, using the same defaults Spring Boot applies to its ObjectMapper.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private OrderResponse orderResponse;
+    private PagedResponse<OrderResponse> pagedResponse;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        OrderMapper orderMapper = new OrderMapperImpl();
+        orderResponse = orderMapper.toResponse(BenchmarkData.order(10));
+
+        List<OrderResponse> content = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            content.add(orderMapper.toResponse(BenchmarkData.order(10)));
+        }
+        pagedResponse = PagedResponse.<OrderResponse>builder()
+                .content(content)
+                .pageNumber(0)
+                .pageSize(20)
+                .totalElements(1_000)
+                .totalPages(50)
+                .last(false)
+                .build();
+    }
+
+    @Benchmark
+    public byte[] orderResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(orderResponse);
+    }
+
+    @Benchmark
+    public byte[] pagedResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(pagedResponse);
+    }
+}
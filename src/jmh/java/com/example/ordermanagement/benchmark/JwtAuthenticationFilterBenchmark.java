@@ -0,0 +1,61 @@
+package com.example.ordermanagement.benchmark;
+
+import com.example.ordermanagement.config.JwtAuthenticationFilter;
+import com.example.ordermanagement.service.CustomUserDetailsService;
+import com.example.ordermanagement.service.JwtService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The JWT filter end to end for an authenticated request. User lookup is stubbed so the numbers cover token handling
+ * and security context setup rather than the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtAuthenticationFilterBenchmark {
+
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        JwtService jwtService = new JwtService();
+        UserDetails admin = new User("admin", "ignored", List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        CustomUserDetailsService userDetailsService = new CustomUserDetailsService(null) {
+            @Override
+            public UserDetails loadUserByUsername(String username) {
+                return admin;
+            }
+        };
+        filter = new JwtAuthenticationFilter(jwtService, userDetailsService);
+        authorization = "Bearer " + jwtService.generateToken("admin");
+    }
+
+    @Benchmark
+    public Object authenticatedRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders");
+        request.addHeader("Authorization", authorization);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
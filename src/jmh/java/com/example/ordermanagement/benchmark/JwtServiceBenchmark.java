@@ -0,0 +1,50 @@
+package com.example.ordermanagement.benchmark;
+
+import com.example.ordermanagement.service.JwtService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access token generation, parsing and validation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtServiceBenchmark {
+
+    private JwtService jwtService;
+    private String token;
+    private UserDetails userDetails;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService();
+        token = jwtService.generateToken("admin");
+        userDetails = new User("admin", "ignored", List.of());
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken("admin");
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtService.extractUsername(token);
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtService.validateToken(token, userDetails);
+    }
+}
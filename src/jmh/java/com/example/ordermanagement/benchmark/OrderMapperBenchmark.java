@@ -0,0 +1,48 @@
+package com.example.ordermanagement.benchmark;
+
+import com.example.ordermanagement.dto.OrderResponse;
+import com.example.ordermanagement.entity.Order;
+import com.example.ordermanagement.mapper.OrderMapper;
+import com.example.ordermanagement.mapper.OrderMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping and total calculation on orders of different sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OrderMapperBenchmark {
+
+    @Param({"1", "10", "500"})
+    private int itemCount;
+
+    private OrderMapper orderMapper;
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        orderMapper = new OrderMapperImpl();
+        order = BenchmarkData.order(itemCount);
+    }
+
+    @Benchmark
+    public OrderResponse toResponse() {
+        return orderMapper.toResponse(order);
+    }
+
+    @Benchmark
+    public Object calculateTotalAmount() {
+        order.calculateTotalAmount();
+        return order.getTotalAmount();
+    }
+}
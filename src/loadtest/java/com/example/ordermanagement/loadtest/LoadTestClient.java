@@ -0,0 +1,107 @@
+package com.example.ordermanagement.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+/**
+ * Thin HTTP client for the public API, used both to seed data and to drive the workload.
+ */
+class LoadTestClient {
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+    private volatile String accessToken;
+
+    LoadTestClient(int port) {
+        this.baseUrl = "http://localhost:" + port;
+        this.httpClient = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    /**
+     * Logs in and keeps the access token for later calls.
+     *
+     * @return the HTTP status
+     */
+    int login(String username, String password) throws IOException, InterruptedException {
+        ObjectNode body = objectMapper.createObjectNode().put("username", username).put("password", password);
+        HttpResponse<String> response = send(post("/api/auth/login", body, false));
+        if (response.statusCode() == 200) {
+            accessToken = objectMapper.readTree(response.body()).get("accessToken").asText();
+        }
+        return response.statusCode();
+    }
+
+    HttpResponse<String> listOrders(int page, int size) throws IOException, InterruptedException {
+        return send(authorized("/api/orders?page=" + page + "&size=" + size).GET().build());
+    }
+
+    HttpResponse<String> getOrder(long id) throws IOException, InterruptedException {
+        return send(authorized("/api/orders/" + id).GET().build());
+    }
+
+    HttpResponse<String> createOrder(String orderNumber, int itemCount) throws IOException, InterruptedException {
+        ObjectNode body = objectMapper.createObjectNode()
+                .put("orderNumber", orderNumber)
+                .put("customerName", "Load Test Customer")
+                .put("shippingAddress", "1 Load Street")
+                .put("billingAddress", "1 Load Street");
+        ArrayNode items = body.putArray("items");
+        for (int i = 0; i < itemCount; i++) {
+            items.add(item("SKU-" + (i % 50), i + 1));
+        }
+        return send(post("/api/orders", body, true));
+    }
+
+    HttpResponse<String> updateItem(long itemId, int quantity) throws IOException, InterruptedException {
+        HttpRequest request = authorized("/api/items/" + itemId)
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(item("SKU-UPDATED", quantity).toString()))
+                .build();
+        return send(request);
+    }
+
+    JsonNode readJson(HttpResponse<String> response) throws IOException {
+        return objectMapper.readTree(response.body());
+    }
+
+    private ObjectNode item(String sku, int quantity) {
+        return objectMapper.createObjectNode()
+                .put("sku", sku)
+                .put("name", "Item " + sku)
+                .put("quantity", quantity)
+                .put("unitPrice", new BigDecimal("19.99"))
+                .put("weight", new BigDecimal("0.5"));
+    }
+
+    private HttpRequest post(String path, JsonNode body, boolean authorized) {
+        HttpRequest.Builder builder = authorized ? authorized(path) : HttpRequest.newBuilder(URI.create(baseUrl + path));
+        return builder.header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+    }
+
+    private HttpRequest.Builder authorized(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + accessToken);
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.ordermanagement.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Load test settings, read from {@code loadtest.*} system properties.
+ *
+ * @param clients
+ *            maximum number of requests in flight; each runs on its own virtual thread
+ * @param ratePerSecond
+ *            open-model arrival rate, independent of how fast responses come back
+ * @param warmup
+ *            time the workload runs before latencies are recorded
+ * @param duration
+ *            measured run time
+ * @param seedOrders
+ *            orders created through the API before the run
+ * @param itemsPerOrder
+ *            items on each seeded or created order
+ * @param mix
+ *            relative weight of each operation
+ * @param reportDir
+ *            where the JSON, HTML and HdrHistogram reports are written
+ */
+record LoadTestConfig(int clients, double ratePerSecond, Duration warmup, Duration duration, int seedOrders,
+        int itemsPerOrder, Map<Operation, Integer> mix, Path reportDir) {
+
+    static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                Integer.getInteger("loadtest.clients", 64),
+                Double.parseDouble(System.getProperty("loadtest.rate", "200")),
+                Duration.ofSeconds(Long.getLong("loadtest.warmupSeconds", 10)),
+                Duration.ofSeconds(Long.getLong("loadtest.durationSeconds", 30)),
+                Integer.getInteger("loadtest.seedOrders", 500),
+                Integer.getInteger("loadtest.itemsPerOrder", 5),
+                parseMix(System.getProperty("loadtest.mix", "login:2,list:20,get:55,create:13,item_update:10")),
+                Path.of(System.getProperty("loadtest.reportDir", "target/loadtest")));
+    }
+
+    /**
+     * Parses {@code name:weight} pairs, e.g. {@code get:80,create:20}.
+     */
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(Operation.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Workload mix is empty: " + mix);
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.ordermanagement.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-endpoint latency results of a load test run, written as JSON (for comparing runs), HTML (for reading) and
+ * HdrHistogram percentile distributions ({@code .hgrm}, for plotting).
+ */
+class LoadTestReport {
+
+    private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9, 99.99};
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")
+            .withZone(ZoneOffset.UTC);
+
+    private final LoadTestConfig config;
+    private final Instant startedAt;
+    private final long elapsedNanos;
+    private final Map<Operation, Histogram> histograms = new LinkedHashMap<>();
+    private final List<Map<String, Object>> results = new ArrayList<>();
+
+    LoadTestReport(LoadTestConfig config, Instant startedAt, long elapsedNanos) {
+        this.config = config;
+        this.startedAt = startedAt;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    void add(Operation operation, Histogram histogram, long errors) {
+        if (histogram.getTotalCount() == 0) {
+            return;
+        }
+        histograms.put(operation, histogram);
+        double seconds = elapsedNanos / 1e9;
+
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("mean", histogram.getMean() / 1000.0);
+        for (double percentile : PERCENTILES) {
+            latency.put("p" + percentileLabel(percentile), histogram.getValueAtPercentile(percentile) / 1000.0);
+        }
+        latency.put("max", histogram.getMaxValue() / 1000.0);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("operation", operation.name());
+        result.put("endpoint", operation.endpoint());
+        result.put("requests", histogram.getTotalCount());
+        result.put("errors", errors);
+        result.put("throughputPerSecond", histogram.getTotalCount() / seconds);
+        result.put("latencyMs", latency);
+        results.add(result);
+    }
+
+    void print(PrintStream out) {
+        out.printf("%n%-26s %9s %7s %9s %9s %9s %9s %9s%n", "endpoint", "requests", "errors", "req/s", "p50 ms",
+                "p99 ms", "p99.9 ms", "max ms");
+        for (Map<String, Object> result : results) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> latency = (Map<String, Object>) result.get("latencyMs");
+            out.printf("%-26s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n", result.get("endpoint"),
+                    result.get("requests"), result.get("errors"), result.get("throughputPerSecond"),
+                    latency.get("p50"), latency.get("p99"), latency.get("p99_9"), latency.get("max"));
+        }
+    }
+
+    void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        String baseName = "loadtest-" + FILE_TIMESTAMP.format(startedAt);
+
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("clients", config.clients());
+        settings.put("ratePerSecond", config.ratePerSecond());
+        settings.put("warmupSeconds", config.warmup().toSeconds());
+        settings.put("durationSeconds", config.duration().toSeconds());
+        settings.put("seedOrders", config.seedOrders());
+        settings.put("itemsPerOrder", config.itemsPerOrder());
+        settings.put("mix", config.mix());
+
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("startedAt", startedAt);
+        document.put("elapsedSeconds", TimeUnit.NANOSECONDS.toMillis(elapsedNanos) / 1000.0);
+        document.put("javaVersion", Runtime.version().toString());
+        document.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        document.put("config", settings);
+        document.put("results", results);
+
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .enable(SerializationFeature.INDENT_OUTPUT);
+        objectMapper.writeValue(directory.resolve(baseName + ".json").toFile(), document);
+        Files.writeString(directory.resolve(baseName + ".html"), html(settings));
+
+        for (Map.Entry<Operation, Histogram> entry : histograms.entrySet()) {
+            Path file = directory.resolve(baseName + "-" + entry.getKey().name().toLowerCase() + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                // Values are recorded in microseconds; scale the output to milliseconds
+                entry.getValue().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        System.out.println("Reports written to " + directory.resolve(baseName) + ".{json,html,*.hgrm}");
+    }
+
+    private String html(Map<String, Object> settings) {
+        StringBuilder html = new StringBuilder();
+        html.append("<!DOCTYPE html>\n<html><head><meta charset=\"utf-8\"><title>Load test ").append(startedAt)
+                .append("</title>\n<style>body{font-family:sans-serif}table{border-collapse:collapse}")
+                .append("td,th{border:1px solid #ccc;padding:4px 8px;text-align:right}")
+                .append("td:first-child,th:first-child{text-align:left}</style></head><body>\n")
+                .append("<h1>Load test ").append(startedAt).append("</h1>\n<p>");
+        settings.forEach((key, value) -> html.append(key).append(": <b>").append(value).append("</b> &nbsp; "));
+        html.append("</p>\n<table><tr><th>Endpoint</th><th>Requests</th><th>Errors</th><th>req/s</th>"
+                + "<th>mean ms</th>");
+        for (double percentile : PERCENTILES) {
+            html.append("<th>p").append(percentileLabel(percentile).replace('_', '.')).append(" ms</th>");
+        }
+        html.append("<th>max ms</th></tr>\n");
+        for (Map<String, Object> result : results) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> latency = (Map<String, Object>) result.get("latencyMs");
+            html.append("<tr><td>").append(result.get("endpoint")).append("</td><td>")
+                    .append(result.get("requests")).append("</td><td>").append(result.get("errors"))
+                    .append("</td><td>").append(String.format("%.1f", result.get("throughputPerSecond")))
+                    .append("</td>");
+            latency.values().forEach(value -> html.append("<td>").append(String.format("%.2f", value))
+                    .append("</td>"));
+            html.append("</tr>\n");
+        }
+        return html.append("</table>\n</body></html>\n").toString();
+    }
+
+    private static String percentileLabel(double percentile) {
+        String label = percentile == Math.floor(percentile)
+                ? String.valueOf((int) percentile)
+                : String.valueOf(percentile);
+        return label.replace('.', '_');
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.ordermanagement.loadtest;
+
+import com.example.ordermanagement.OrderManagementBackendApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.http.HttpResponse;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * In-process end-to-end load test.
+ * <p>
+ * Starts the application on a random port with a private in-memory H2 database, seeds orders through the REST API,
+ * then drives a weighted mix of requests at a fixed arrival rate (open model). Each request runs on a virtual thread
+ * and at most {@link LoadTestConfig#clients()} are in flight. Latency is measured from the time a request was
+ * <em>scheduled</em> to start, so queueing behind a saturated server is included rather than hidden (no coordinated
+ * omission).
+ * </p>
+ * <p>
+ * Run with {@code mvn -Ploadtest test-compile exec:exec}; see the {@code loadtest} profile in the pom for the
+ * available {@code -Dloadtest.*} settings.
+ * </p>
+ */
+public class LoadTestRunner {
+
+    private final LoadTestConfig config;
+    private final LoadTestClient client;
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final Operation[] weightedOperations;
+    private final AtomicLong orderSequence = new AtomicLong();
+    private final List<Long> orderIds = new ArrayList<>();
+    private final List<Long> itemIds = new ArrayList<>();
+
+    LoadTestRunner(LoadTestConfig config, LoadTestClient client) {
+        this.config = config;
+        this.client = client;
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder(3));
+            errors.put(operation, new LongAdder());
+        }
+        List<Operation> weighted = new ArrayList<>();
+        config.mix().forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(operation);
+            }
+        });
+        this.weightedOperations = weighted.toArray(new Operation[0]);
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        // DevTools is on the test classpath; its restarter would relaunch the app on another thread
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        ConfigurableApplicationContext context = SpringApplication.run(OrderManagementBackendApplication.class,
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.example=WARN",
+                "--spring.output.ansi.enabled=NEVER");
+        try {
+            int port = Integer.parseInt(context.getEnvironment().getRequiredProperty("local.server.port"));
+            LoadTestClient client = new LoadTestClient(port);
+            if (client.login("admin", "admin") != 200) {
+                throw new IllegalStateException("Could not log in as admin");
+            }
+
+            LoadTestRunner runner = new LoadTestRunner(config, client);
+            runner.seed();
+            System.out.printf("Warming up for %ds at %.0f req/s%n", config.warmup().toSeconds(),
+                    config.ratePerSecond());
+            runner.run(config.warmup().toNanos());
+            runner.resetRecorders();
+
+            System.out.printf("Measuring for %ds at %.0f req/s with %d clients%n", config.duration().toSeconds(),
+                    config.ratePerSecond(), config.clients());
+            Instant startedAt = Instant.now();
+            long elapsedNanos = runner.run(config.duration().toNanos());
+
+            LoadTestReport report = new LoadTestReport(config, startedAt, elapsedNanos);
+            for (Operation operation : Operation.values()) {
+                report.add(operation, runner.recorders.get(operation).getIntervalHistogram(),
+                        runner.errors.get(operation).sum());
+            }
+            report.print(System.out);
+            report.write(config.reportDir());
+        } finally {
+            context.close();
+        }
+    }
+
+    /**
+     * Creates the seed orders through the API on virtual threads and remembers their order and item ids.
+     */
+    void seed() throws InterruptedException {
+        System.out.printf("Seeding %d orders%n", config.seedOrders());
+        List<Long> seededOrders = Collections.synchronizedList(new ArrayList<>());
+        List<Long> seededItems = Collections.synchronizedList(new ArrayList<>());
+        Semaphore permits = new Semaphore(config.clients());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < config.seedOrders(); i++) {
+                permits.acquire();
+                executor.submit(() -> {
+                    try {
+                        HttpResponse<String> response = client.createOrder(nextOrderNumber(),
+                                config.itemsPerOrder());
+                        if (response.statusCode() == 201) {
+                            JsonNode order = client.readJson(response);
+                            seededOrders.add(order.get("id").asLong());
+                            order.get("items").forEach(item -> seededItems.add(item.get("id").asLong()));
+                        }
+                    } catch (Exception e) {
+                        System.err.println("Seeding request failed: " + e.getMessage());
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+        if (seededOrders.isEmpty()) {
+            throw new IllegalStateException("No orders could be seeded");
+        }
+        orderIds.addAll(seededOrders);
+        itemIds.addAll(seededItems);
+    }
+
+    /**
+     * Issues requests at the configured arrival rate for the given time and waits for all of them to complete.
+     *
+     * @return the wall clock time the phase took, including draining in-flight requests
+     */
+    long run(long durationNanos) {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / config.ratePerSecond());
+        Semaphore permits = new Semaphore(config.clients());
+        SplittableRandom random = new SplittableRandom(42);
+        long start = System.nanoTime();
+        long end = start + durationNanos;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long next = start; next < end; next += intervalNanos) {
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                long intendedStart = next;
+                Operation operation = weightedOperations[random.nextInt(weightedOperations.length)];
+                SplittableRandom requestRandom = random.split();
+                executor.submit(() -> execute(operation, intendedStart, permits, requestRandom));
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private void execute(Operation operation, long intendedStart, Semaphore permits, SplittableRandom random) {
+        boolean success = false;
+        try {
+            permits.acquire();
+            try {
+                success = switch (operation) {
+                    case LOGIN -> client.login("admin", "admin") == 200;
+                    case LIST -> isOk(client.listOrders(random.nextInt(Math.max(1, orderIds.size() / 20)), 20));
+                    case GET -> isOk(client.getOrder(orderIds.get(random.nextInt(orderIds.size()))));
+                    case CREATE -> isOk(client.createOrder(nextOrderNumber(), config.itemsPerOrder()));
+                    case ITEM_UPDATE -> itemIds.isEmpty()
+                            || isOk(client.updateItem(itemIds.get(random.nextInt(itemIds.size())),
+                                    1 + random.nextInt(10)));
+                };
+            } finally {
+                permits.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            success = false;
+        }
+        long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStart);
+        recorders.get(operation).recordValue(Math.max(1, latencyMicros));
+        if (!success) {
+            errors.get(operation).increment();
+        }
+    }
+
+    private void resetRecorders() {
+        recorders.values().forEach(Recorder::reset);
+        errors.values().forEach(LongAdder::reset);
+    }
+
+    private String nextOrderNumber() {
+        return "LT-" + ProcessHandle.current().pid() + "-" + orderSequence.incrementAndGet();
+    }
+
+    private static boolean isOk(HttpResponse<String> response) {
+        return response.statusCode() / 100 == 2;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.ordermanagement.loadtest;
+
+/**
+ * Request types in the load test workload mix.
+ */
+enum Operation {
+    LOGIN("POST /api/auth/login"),
+    LIST("GET /api/orders"),
+    GET("GET /api/orders/{id}"),
+    CREATE("POST /api/orders"),
+    ITEM_UPDATE("PUT /api/items/{id}");
+
+    private final String endpoint;
+
+    Operation(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    String endpoint() {
+        return endpoint;
+    }
+}
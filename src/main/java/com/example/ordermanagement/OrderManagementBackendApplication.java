@@ -1,11 +1,16 @@
 package com.example.ordermanagement;
 
+import com.example.ordermanagement.config.NativeRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
 @EnableCaching
+@ConfigurationPropertiesScan
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class OrderManagementBackendApplication {
 
     public static void main(String[] args) {
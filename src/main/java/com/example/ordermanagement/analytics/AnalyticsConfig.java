@@ -0,0 +1,25 @@
+package com.example.ordermanagement.analytics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+/**
+ * Schedules {@link SalesRollupWriter}.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(prefix = "app.analytics", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AnalyticsConfig {
+
+    @Bean
+    public SalesRollupWriter salesRollupWriter(DataSource dataSource, PlatformTransactionManager transactionManager,
+            AnalyticsProperties properties, MeterRegistry meterRegistry) {
+        return new SalesRollupWriter(dataSource, transactionManager, properties, meterRegistry);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.ordermanagement.analytics;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the sales rollups behind the analytics endpoints.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.analytics")
+public class AnalyticsProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * How often the changed orders are applied to the rollups, and so how far the rollups may lag behind.
+     */
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    /**
+     * Changed orders applied per transaction.
+     */
+    private int flushChunkSize = 500;
+
+    /**
+     * When the rollups are rebuilt from the orders, correcting any drift, such as changes lost in a crash before they
+     * were applied.
+     */
+    private String rebuildCron = "0 30 3 * * *";
+
+    private boolean rebuildOnStartup = true;
+
+    /**
+     * Threads, and so database connections, that read the orders during a rebuild.
+     */
+    private int rebuildParallelism = 4;
+
+    /**
+     * Ids of orders read by one task of a rebuild; larger ranges are split.
+     */
+    private int rebuildRangeSize = 10_000;
+}
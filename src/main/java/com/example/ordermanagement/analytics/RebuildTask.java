@@ -0,0 +1,77 @@
+package com.example.ordermanagement.analytics;
+
+import com.example.ordermanagement.analytics.SalesRollup.ItemState;
+import com.example.ordermanagement.analytics.SalesRollup.OrderState;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Reads the orders of an id range and adds up their rollups. Ranges larger than the configured size are split in
+ * halves that run in parallel and whose results are merged; each smallest range is read with two statements on its
+ * own connection.
+ */
+class RebuildTask extends RecursiveTask<RebuildTask.Result> {
+
+    /**
+     * The rollups of a range, and the contributions to record for its orders.
+     */
+    record Result(SalesRollup rollup, List<OrderState> orders, List<ItemState> items) {
+
+        static Result empty() {
+            return new Result(new SalesRollup(), new ArrayList<>(), new ArrayList<>());
+        }
+
+        Result merge(Result other) {
+            rollup.merge(other.rollup());
+            orders.addAll(other.orders());
+            items.addAll(other.items());
+            return this;
+        }
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final long fromId;
+    private final long toId;
+    private final int rangeSize;
+
+    /**
+     * @param fromId first id of the range
+     * @param toId   id after the range
+     */
+    RebuildTask(NamedParameterJdbcTemplate jdbcTemplate, long fromId, long toId, int rangeSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fromId = fromId;
+        this.toId = toId;
+        this.rangeSize = Math.max(1, rangeSize);
+    }
+
+    @Override
+    protected Result compute() {
+        if (toId - fromId > rangeSize) {
+            long middle = fromId + (toId - fromId) / 2;
+            RebuildTask upper = new RebuildTask(jdbcTemplate, middle, toId, rangeSize);
+            upper.fork();
+            Result lower = new RebuildTask(jdbcTemplate, fromId, middle, rangeSize).compute();
+            return lower.merge(upper.join());
+        }
+
+        MapSqlParameterSource range = new MapSqlParameterSource("from", fromId).addValue("to", toId);
+        Map<Long, OrderState> orders = SalesRollupWriter.readOrders(jdbcTemplate,
+                "id >= :from AND id < :to", range);
+        Map<Long, List<ItemState>> items = SalesRollupWriter.readItems(jdbcTemplate,
+                "order_id >= :from AND order_id < :to", range, orders.keySet());
+        Result result = Result.empty();
+        for (OrderState order : orders.values()) {
+            List<ItemState> orderItems = items.getOrDefault(order.orderId(), List.of());
+            result.rollup().add(order, orderItems, 1);
+            result.orders().add(order);
+            result.items().addAll(orderItems);
+        }
+        return result;
+    }
+}
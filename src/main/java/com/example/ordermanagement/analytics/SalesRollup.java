@@ -0,0 +1,95 @@
+package com.example.ordermanagement.analytics;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sales totals by rollup row, added up from the contributions of single orders. Used both for the differences
+ * applied to the rollup tables and for the totals of a rebuild.
+ */
+class SalesRollup {
+
+    /**
+     * Key of a row of {@code sales_rollup}.
+     */
+    record OrderKey(LocalDate day, String status, String paymentStatus) {
+    }
+
+    /**
+     * Key of a row of {@code sku_sales_rollup}.
+     */
+    record SkuKey(LocalDate day, String sku, String status) {
+    }
+
+    /**
+     * What an order adds to {@code sales_rollup}, as recorded in {@code sales_rollup_order}.
+     */
+    record OrderState(long orderId, LocalDate day, String status, String paymentStatus, BigDecimal revenue) {
+    }
+
+    /**
+     * What the items of one SKU in an order add to {@code sku_sales_rollup}, as recorded in
+     * {@code sales_rollup_item}. The day and status are those of the order.
+     */
+    record ItemState(long orderId, String sku, long quantity, BigDecimal revenue) {
+    }
+
+    /**
+     * Orders, or units for a SKU, and their revenue.
+     */
+    static final class Totals {
+
+        private long count;
+        private BigDecimal revenue = BigDecimal.ZERO;
+
+        long count() {
+            return count;
+        }
+
+        BigDecimal revenue() {
+            return revenue;
+        }
+
+        boolean isZero() {
+            return count == 0 && revenue.signum() == 0;
+        }
+
+        private void add(long count, BigDecimal revenue) {
+            this.count += count;
+            this.revenue = this.revenue.add(revenue);
+        }
+    }
+
+    private final Map<OrderKey, Totals> orders = new HashMap<>();
+    private final Map<SkuKey, Totals> skus = new HashMap<>();
+
+    /**
+     * Adds the contribution of the order and its items, or with a {@code sign} of -1 takes it away.
+     */
+    void add(OrderState order, List<ItemState> items, int sign) {
+        orders.computeIfAbsent(new OrderKey(order.day(), order.status(), order.paymentStatus()), key -> new Totals())
+                .add(sign, order.revenue().multiply(BigDecimal.valueOf(sign)));
+        for (ItemState item : items) {
+            skus.computeIfAbsent(new SkuKey(order.day(), item.sku(), order.status()), key -> new Totals())
+                    .add(sign * item.quantity(), item.revenue().multiply(BigDecimal.valueOf(sign)));
+        }
+    }
+
+    void merge(SalesRollup other) {
+        other.orders.forEach((key, totals) -> orders.computeIfAbsent(key, k -> new Totals())
+                .add(totals.count, totals.revenue));
+        other.skus.forEach((key, totals) -> skus.computeIfAbsent(key, k -> new Totals())
+                .add(totals.count, totals.revenue));
+    }
+
+    Map<OrderKey, Totals> orders() {
+        return orders;
+    }
+
+    Map<SkuKey, Totals> skus() {
+        return skus;
+    }
+}
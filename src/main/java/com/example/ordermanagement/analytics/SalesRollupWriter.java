@@ -0,0 +1,300 @@
+package com.example.ordermanagement.analytics;
+
+import com.example.ordermanagement.analytics.SalesRollup.ItemState;
+import com.example.ordermanagement.analytics.SalesRollup.OrderKey;
+import com.example.ordermanagement.analytics.SalesRollup.OrderState;
+import com.example.ordermanagement.analytics.SalesRollup.SkuKey;
+import com.example.ordermanagement.analytics.SalesRollup.Totals;
+import com.example.ordermanagement.events.OrderEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Keeps the sales rollups current, so that reports never aggregate the orders and items tables.
+ * <p>
+ * Committed order events only mark their order as changed. Every flush then applies the changed orders in chunks,
+ * each in one transaction: it reads the orders and their items, compares them with what they added to the rollups
+ * so far ({@code sales_rollup_order} and {@code sales_rollup_item}), adds the difference to the rollup rows with
+ * {@code MERGE} statements and records the new contributions. The order transactions themselves never touch the
+ * rollups, so the rows of a busy day are not a point of contention for them, and a flush is correct however many
+ * events of an order it covers.
+ * </p>
+ * <p>
+ * Changes not yet flushed are lost if the application stops, so the rollups are also rebuilt from scratch at
+ * startup and on a schedule. The rebuild splits the id range of the orders into a fork-join tree of tasks that read
+ * and add up their ranges in parallel, and then replaces the rollups and contributions in one transaction.
+ * </p>
+ */
+public class SalesRollupWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesRollupWriter.class);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AnalyticsProperties properties;
+    private final Set<Long> changed = ConcurrentHashMap.newKeySet();
+    private final Timer flushTimer;
+    private final Timer rebuildTimer;
+
+    public SalesRollupWriter(DataSource dataSource, PlatformTransactionManager transactionManager,
+            AnalyticsProperties properties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        Gauge.builder("app.analytics.pending", changed, Set::size)
+                .description("Changed orders not yet applied to the sales rollups")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("app.analytics.flush")
+                .description("Time taken to apply changed orders to the sales rollups")
+                .register(meterRegistry);
+        this.rebuildTimer = Timer.builder("app.analytics.rebuild")
+                .description("Time taken to rebuild the sales rollups")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (properties.isRebuildOnStartup()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Marks the order of a committed change for the next flush.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderEvent(OrderEvent event) {
+        changed.add(event.orderId());
+    }
+
+    /**
+     * Applies the changed orders to the rollups.
+     *
+     * @return the number of orders applied
+     */
+    @Scheduled(fixedDelayString = "${app.analytics.flush-interval:1s}")
+    public synchronized int flush() {
+        if (changed.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = new ArrayList<>();
+        for (Iterator<Long> iterator = changed.iterator(); iterator.hasNext(); ) {
+            ids.add(iterator.next());
+            iterator.remove();
+        }
+        long start = System.nanoTime();
+        int chunkSize = Math.max(1, properties.getFlushChunkSize());
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> apply(chunk));
+            } catch (RuntimeException ex) {
+                // Retried with the next flush, together with whatever changed meanwhile
+                changed.addAll(ids.subList(from, ids.size()));
+                logger.error("Could not apply {} changed orders to the sales rollups", ids.size() - from, ex);
+                return from;
+            }
+        }
+        flushTimer.record(Duration.ofNanos(System.nanoTime() - start));
+        return ids.size();
+    }
+
+    /**
+     * Replaces the rollups with totals computed from the orders and items tables.
+     *
+     * @return the number of orders in the rollups
+     */
+    @Scheduled(cron = "${app.analytics.rebuild-cron:0 30 3 * * *}")
+    public synchronized int rebuild() {
+        long start = System.nanoTime();
+        Map<String, Object> range = jdbcTemplate.queryForMap("SELECT MIN(id) AS min_id, MAX(id) AS max_id "
+                + "FROM orders", new MapSqlParameterSource());
+        RebuildTask.Result result = RebuildTask.Result.empty();
+        if (range.get("min_id") != null) {
+            ForkJoinPool pool = new ForkJoinPool(Math.max(1, properties.getRebuildParallelism()));
+            try {
+                result = pool.invoke(new RebuildTask(jdbcTemplate, ((Number) range.get("min_id")).longValue(),
+                        ((Number) range.get("max_id")).longValue() + 1, properties.getRebuildRangeSize()));
+            } finally {
+                pool.shutdown();
+            }
+        }
+        // Orders changed after their range was read are marked as changed, and the next flush applies them
+        RebuildTask.Result rebuilt = result;
+        transactionTemplate.executeWithoutResult(status -> {
+            MapSqlParameterSource none = new MapSqlParameterSource();
+            jdbcTemplate.update("DELETE FROM sales_rollup", none);
+            jdbcTemplate.update("DELETE FROM sku_sales_rollup", none);
+            jdbcTemplate.update("DELETE FROM sales_rollup_order", none);
+            jdbcTemplate.update("DELETE FROM sales_rollup_item", none);
+            insertStates(rebuilt.orders(), rebuilt.items());
+            jdbcTemplate.batchUpdate("INSERT INTO sales_rollup (sales_day, status, payment_status, order_count, "
+                    + "revenue) VALUES (:day, :status, :paymentStatus, :count, :revenue)",
+                    orderRows(rebuilt.rollup().orders()));
+            jdbcTemplate.batchUpdate("INSERT INTO sku_sales_rollup (sales_day, sku, status, quantity, revenue) "
+                    + "VALUES (:day, :sku, :status, :count, :revenue)", skuRows(rebuilt.rollup().skus()));
+        });
+        Duration duration = Duration.ofNanos(System.nanoTime() - start);
+        rebuildTimer.record(duration);
+        logger.info("Rebuilt the sales rollups of {} orders in {} ms", rebuilt.orders().size(), duration.toMillis());
+        return rebuilt.orders().size();
+    }
+
+    private void apply(List<Long> ids) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource("ids", ids);
+        // Locked, so that flushes on several nodes apply each change once
+        Map<Long, OrderState> previousOrders = new HashMap<>();
+        jdbcTemplate.query("SELECT order_id, sales_day, status, payment_status, revenue FROM sales_rollup_order "
+                + "WHERE order_id IN (:ids) FOR UPDATE", parameters, rs -> {
+                    previousOrders.put(rs.getLong("order_id"), new OrderState(rs.getLong("order_id"),
+                            rs.getDate("sales_day").toLocalDate(), rs.getString("status"),
+                            rs.getString("payment_status"), rs.getBigDecimal("revenue")));
+                });
+        Map<Long, List<ItemState>> previousItems = new HashMap<>();
+        jdbcTemplate.query("SELECT order_id, sku, quantity, revenue FROM sales_rollup_item WHERE order_id IN (:ids)",
+                parameters, rs -> {
+                    previousItems.computeIfAbsent(rs.getLong("order_id"), id -> new ArrayList<>())
+                            .add(new ItemState(rs.getLong("order_id"), rs.getString("sku"), rs.getLong("quantity"),
+                                    rs.getBigDecimal("revenue")));
+                });
+        Map<Long, OrderState> orders = readOrders(jdbcTemplate, "id IN (:ids)", parameters);
+        Map<Long, List<ItemState>> items = readItems(jdbcTemplate, "order_id IN (:ids)", parameters,
+                orders.keySet());
+
+        SalesRollup difference = new SalesRollup();
+        previousOrders.values().forEach(order -> difference.add(order,
+                previousItems.getOrDefault(order.orderId(), List.of()), -1));
+        orders.values().forEach(order -> difference.add(order, items.getOrDefault(order.orderId(), List.of()), 1));
+
+        jdbcTemplate.update("DELETE FROM sales_rollup_item WHERE order_id IN (:ids)", parameters);
+        jdbcTemplate.update("DELETE FROM sales_rollup_order WHERE order_id IN (:ids)", parameters);
+        insertStates(orders.values(), items.values().stream().flatMap(List::stream).toList());
+
+        Map<OrderKey, Totals> orderTotals = withoutZeros(difference.orders());
+        Map<SkuKey, Totals> skuTotals = withoutZeros(difference.skus());
+        jdbcTemplate.batchUpdate("MERGE INTO sales_rollup r USING (VALUES (CAST(:day AS DATE), "
+                + "CAST(:status AS VARCHAR(32)), CAST(:paymentStatus AS VARCHAR(32)), CAST(:count AS BIGINT), "
+                + "CAST(:revenue AS DECIMAL(19, 2)))) d (sales_day, status, payment_status, order_count, revenue) "
+                + "ON r.sales_day = d.sales_day AND r.status = d.status AND r.payment_status = d.payment_status "
+                + "WHEN MATCHED THEN UPDATE SET order_count = r.order_count + d.order_count, "
+                + "revenue = r.revenue + d.revenue "
+                + "WHEN NOT MATCHED THEN INSERT VALUES (d.sales_day, d.status, d.payment_status, d.order_count, "
+                + "d.revenue)", orderRows(orderTotals));
+        jdbcTemplate.batchUpdate("MERGE INTO sku_sales_rollup r USING (VALUES (CAST(:day AS DATE), "
+                + "CAST(:sku AS VARCHAR(255)), CAST(:status AS VARCHAR(32)), CAST(:count AS BIGINT), "
+                + "CAST(:revenue AS DECIMAL(19, 2)))) d (sales_day, sku, status, quantity, revenue) "
+                + "ON r.sales_day = d.sales_day AND r.sku = d.sku AND r.status = d.status "
+                + "WHEN MATCHED THEN UPDATE SET quantity = r.quantity + d.quantity, revenue = r.revenue + d.revenue "
+                + "WHEN NOT MATCHED THEN INSERT VALUES (d.sales_day, d.sku, d.status, d.quantity, d.revenue)",
+                skuRows(skuTotals));
+        // Rows left without orders are removed, so that the reports only see days and SKUs with sales
+        jdbcTemplate.batchUpdate("DELETE FROM sales_rollup WHERE sales_day = :day AND status = :status "
+                + "AND payment_status = :paymentStatus AND order_count = 0", orderRows(orderTotals));
+        jdbcTemplate.batchUpdate("DELETE FROM sku_sales_rollup WHERE sales_day = :day AND sku = :sku "
+                + "AND status = :status AND quantity = 0 AND revenue = 0", skuRows(skuTotals));
+    }
+
+    private void insertStates(Collection<OrderState> orders, Collection<ItemState> items) {
+        jdbcTemplate.batchUpdate("INSERT INTO sales_rollup_order (order_id, sales_day, status, payment_status, "
+                + "revenue) VALUES (:orderId, :day, :status, :paymentStatus, :revenue)", orders.stream()
+                .map(order -> new MapSqlParameterSource("orderId", order.orderId())
+                        .addValue("day", Date.valueOf(order.day()))
+                        .addValue("status", order.status())
+                        .addValue("paymentStatus", order.paymentStatus())
+                        .addValue("revenue", order.revenue()))
+                .toArray(SqlParameterSource[]::new));
+        jdbcTemplate.batchUpdate("INSERT INTO sales_rollup_item (order_id, sku, quantity, revenue) "
+                + "VALUES (:orderId, :sku, :quantity, :revenue)", items.stream()
+                .map(item -> new MapSqlParameterSource("orderId", item.orderId())
+                        .addValue("sku", item.sku())
+                        .addValue("quantity", item.quantity())
+                        .addValue("revenue", item.revenue()))
+                .toArray(SqlParameterSource[]::new));
+    }
+
+    /**
+     * The live orders matching the condition, as they contribute to the rollups: on the day they were created.
+     */
+    static Map<Long, OrderState> readOrders(NamedParameterJdbcTemplate jdbcTemplate, String condition,
+            MapSqlParameterSource parameters) {
+        Map<Long, OrderState> orders = new HashMap<>();
+        jdbcTemplate.query("SELECT id, created_at, status, payment_status, total_amount FROM orders WHERE "
+                + condition + " AND deleted_at IS NULL", parameters, rs -> {
+                    BigDecimal revenue = rs.getBigDecimal("total_amount");
+                    orders.put(rs.getLong("id"), new OrderState(rs.getLong("id"),
+                            rs.getTimestamp("created_at").toLocalDateTime().toLocalDate(), rs.getString("status"),
+                            rs.getString("payment_status"), revenue != null ? revenue : BigDecimal.ZERO));
+                });
+        return orders;
+    }
+
+    /**
+     * The items matching the condition, added up per order and SKU, of the given orders only: items of an order
+     * deleted after it was read are left out.
+     */
+    static Map<Long, List<ItemState>> readItems(NamedParameterJdbcTemplate jdbcTemplate, String condition,
+            MapSqlParameterSource parameters, Set<Long> orderIds) {
+        Map<Long, List<ItemState>> items = new HashMap<>();
+        jdbcTemplate.query("SELECT order_id, sku, SUM(quantity) AS quantity, SUM(quantity * unit_price) AS revenue "
+                + "FROM items WHERE " + condition + " GROUP BY order_id, sku", parameters, rs -> {
+                    long orderId = rs.getLong("order_id");
+                    if (orderIds.contains(orderId)) {
+                        items.computeIfAbsent(orderId, id -> new ArrayList<>()).add(new ItemState(orderId,
+                                rs.getString("sku"), rs.getLong("quantity"), rs.getBigDecimal("revenue")));
+                    }
+                });
+        return items;
+    }
+
+    private static <K> Map<K, Totals> withoutZeros(Map<K, Totals> totals) {
+        Map<K, Totals> changed = new HashMap<>(totals);
+        changed.values().removeIf(Totals::isZero);
+        return changed;
+    }
+
+    private static SqlParameterSource[] orderRows(Map<OrderKey, Totals> totals) {
+        return totals.entrySet().stream()
+                .map(entry -> new MapSqlParameterSource("day", Date.valueOf(entry.getKey().day()))
+                        .addValue("status", entry.getKey().status())
+                        .addValue("paymentStatus", entry.getKey().paymentStatus())
+                        .addValue("count", entry.getValue().count())
+                        .addValue("revenue", entry.getValue().revenue()))
+                .toArray(SqlParameterSource[]::new);
+    }
+
+    private static SqlParameterSource[] skuRows(Map<SkuKey, Totals> totals) {
+        return totals.entrySet().stream()
+                .map(entry -> new MapSqlParameterSource("day", Date.valueOf(entry.getKey().day()))
+                        .addValue("sku", entry.getKey().sku())
+                        .addValue("status", entry.getKey().status())
+                        .addValue("count", entry.getValue().count())
+                        .addValue("revenue", entry.getValue().revenue()))
+                .toArray(SqlParameterSource[]::new);
+    }
+}
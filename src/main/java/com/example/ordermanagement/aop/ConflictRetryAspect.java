@@ -0,0 +1,100 @@
+package com.example.ordermanagement.aop;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retries {@link RetryOnConflict} methods that fail with an optimistic locking conflict, after a random wait ("full
+ * jitter": uniform between zero and an exponentially growing bound), so that writers that collided spread out
+ * instead of colliding again. Nothing is locked: concurrent writers to different orders never wait for each other,
+ * and writers to the same order only pay when they actually collide.
+ * <p>
+ * Ordered just ahead of the transaction interceptor, so that every attempt runs in a transaction of its own and
+ * conflicts detected at commit are retried too. Each method gets an {@code app.conflict-retry.conflicts} counter for
+ * the conflicts it ran into and an {@code app.conflict-retry.retries} counter for the attempts that followed.
+ * </p>
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class ConflictRetryAspect {
+
+    static final String CONFLICTS_METRIC = "app.conflict-retry.conflicts";
+    static final String RETRIES_METRIC = "app.conflict-retry.retries";
+
+    private static final Logger logger = LoggerFactory.getLogger(ConflictRetryAspect.class);
+
+    private final MeterRegistry meterRegistry;
+    private final ConflictRetryProperties properties;
+    private final ConcurrentMap<Method, RetryMeters> meters = new ConcurrentHashMap<>();
+
+    public ConflictRetryAspect(MeterRegistry meterRegistry, ConflictRetryProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+    }
+
+    @Around("@annotation(com.example.ordermanagement.aop.RetryOnConflict)")
+    public Object retryOnConflict(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        int maxAttempts = properties.isEnabled() ? Math.max(1, properties.getMaxAttempts()) : 1;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (OptimisticLockingFailureException ex) {
+                RetryMeters retryMeters = meters.computeIfAbsent(method, this::register);
+                retryMeters.conflicts.increment();
+                if (attempt >= maxAttempts) {
+                    throw ex;
+                }
+                retryMeters.retries.increment();
+                long backoff = backoffMillis(attempt);
+                logger.debug("Conflict in {}.{}, attempt {} of {}, retrying in {} ms",
+                        method.getDeclaringClass().getSimpleName(), method.getName(), attempt, maxAttempts, backoff);
+                Thread.sleep(backoff);
+            }
+        }
+    }
+
+    long backoffMillis(int attempt) {
+        long bound = properties.getInitialBackoff().toMillis() << Math.min(attempt - 1, 30);
+        bound = Math.min(Math.max(bound, 0), properties.getMaxBackoff().toMillis());
+        return bound > 0 ? ThreadLocalRandom.current().nextLong(bound + 1) : 0;
+    }
+
+    private RetryMeters register(Method method) {
+        String className = method.getDeclaringClass().getSimpleName();
+        return new RetryMeters(
+                Counter.builder(CONFLICTS_METRIC)
+                        .description("Optimistic locking conflicts")
+                        .tag("class", className)
+                        .tag("method", method.getName())
+                        .register(meterRegistry),
+                Counter.builder(RETRIES_METRIC)
+                        .description("Attempts made again after an optimistic locking conflict")
+                        .tag("class", className)
+                        .tag("method", method.getName())
+                        .register(meterRegistry));
+    }
+
+    private record RetryMeters(Counter conflicts, Counter retries) {
+    }
+}
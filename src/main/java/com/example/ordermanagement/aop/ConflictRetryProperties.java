@@ -0,0 +1,37 @@
+package com.example.ordermanagement.aop;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for retrying {@link RetryOnConflict} methods after an optimistic locking conflict.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.conflict-retry")
+public class ConflictRetryProperties {
+
+    /**
+     * Whether conflicts are retried. When off, every conflict is reported to the client as {@code 409 Conflict}.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Attempts per call, including the first. An attempt only fails because another write to the same order
+     * committed in the meantime, so with N concurrent writers to one order, N attempts are always enough.
+     */
+    private int maxAttempts = 5;
+
+    /**
+     * Upper bound of the random wait before the first retry; it doubles for every further retry.
+     */
+    private Duration initialBackoff = Duration.ofMillis(10);
+
+    /**
+     * Upper bound of the random wait before any retry.
+     */
+    private Duration maxBackoff = Duration.ofMillis(200);
+}
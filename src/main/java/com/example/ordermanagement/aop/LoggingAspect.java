@@ -1,23 +1,56 @@
 package com.example.ordermanagement.aop;
 
+import io.micrometer.core.instrument.LongTaskTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.http.HttpServletRequest;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every controller and service method with Micrometer.
+ * <p>
+ * Each method gets an {@code app.method.duration} timer tagged with layer, class, method and outcome. Controller
+ * methods also get an {@code app.method.active} long task timer so in-flight requests are visible. Meters are
+ * resolved once per method and cached, so the hot path is two {@link System#nanoTime()} calls and a timer record.
+ * Nothing is logged unless a call exceeds {@link MethodMetricsProperties#getSlowThreshold()}, and even then only a
+ * sampled fraction of slow calls is written.
+ * </p>
+ */
 @Aspect
 @Component
 public class LoggingAspect {
 
+    static final String DURATION_METRIC = "app.method.duration";
+    static final String ACTIVE_METRIC = "app.method.active";
+
     private static final Logger logger = LoggerFactory.getLogger(LoggingAspect.class);
 
+    private final MeterRegistry meterRegistry;
+    private final MethodMetricsProperties properties;
+    private final ConcurrentMap<Method, MethodMeters> meters = new ConcurrentHashMap<>();
+
+    public LoggingAspect(MeterRegistry meterRegistry, MethodMetricsProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+    }
+
     @Pointcut("execution(* com.example.ordermanagement.service.*.*(..))")
     public void serviceLayerExecution() {
     }
@@ -28,60 +61,82 @@ public class LoggingAspect {
 
     @Around("serviceLayerExecution()")
     public Object logServiceExecution(ProceedingJoinPoint joinPoint) throws Throwable {
-        String className = joinPoint.getTarget().getClass().getSimpleName();
-        String methodName = joinPoint.getSignature().getName();
-
-        logger.info("Entering service method: {}.{}", className, methodName);
-
-        long start = System.currentTimeMillis();
-        Object proceed;
-        try {
-            proceed = joinPoint.proceed();
-        } catch (Throwable e) {
-            long executionTime = System.currentTimeMillis() - start;
-            logger.error("Service method {}.{} failed in {} ms with exception: {}", className, methodName,
-                    executionTime, e.getMessage());
-            throw e;
-        }
-
-        long executionTime = System.currentTimeMillis() - start;
-        logger.info("Exiting service method: {}.{}. Execution time: {} ms", className, methodName, executionTime);
-
-        return proceed;
+        return time(joinPoint, "service");
     }
 
     @Around("controllerLayerExecution()")
     public Object logControllerExecution(ProceedingJoinPoint joinPoint) throws Throwable {
-        String className = joinPoint.getTarget().getClass().getSimpleName();
-        String methodName = joinPoint.getSignature().getName();
+        return time(joinPoint, "controller");
+    }
 
-        HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes())
-                .getRequest();
-        String endpoint = request.getRequestURI();
-        String httpMethod = request.getMethod();
+    private Object time(ProceedingJoinPoint joinPoint, String layer) throws Throwable {
+        if (!properties.isEnabled()) {
+            return joinPoint.proceed();
+        }
 
-        logger.info("Incoming request: {} {} -> {}.{}", httpMethod, endpoint, className, methodName);
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        MethodMeters methodMeters = meters.get(method);
+        if (methodMeters == null) {
+            methodMeters = meters.computeIfAbsent(method, m -> register(m, layer));
+        }
 
-        long start = System.currentTimeMillis();
-        Object result;
+        LongTaskTimer.Sample active = methodMeters.active != null ? methodMeters.active.start() : null;
+        long start = System.nanoTime();
+        boolean failed = true;
         try {
-            result = joinPoint.proceed();
-        } catch (Throwable e) {
-            long executionTime = System.currentTimeMillis() - start;
-            logger.error("Request {} {} failed in {} ms with exception: {}", httpMethod, endpoint, executionTime,
-                    e.getMessage());
-            throw e;
+            Object result = joinPoint.proceed();
+            failed = false;
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            (failed ? methodMeters.error : methodMeters.success).record(elapsed, TimeUnit.NANOSECONDS);
+            if (active != null) {
+                active.stop();
+            }
+            if (elapsed >= properties.getSlowThreshold().toNanos()) {
+                logSlowCall(method, layer, elapsed, failed);
+            }
         }
+    }
 
-        long executionTime = System.currentTimeMillis() - start;
-        int statusCode = 200; // Default
-        if (result instanceof ResponseEntity<?>) {
-            statusCode = ((ResponseEntity<?>) result).getStatusCode().value();
-        }
+    private MethodMeters register(Method method, String layer) {
+        Tags tags = Tags.of("layer", layer, "class", method.getDeclaringClass().getSimpleName(), "method",
+                method.getName());
+        boolean histogram = properties.isPercentileHistogram();
+        Timer success = Timer.builder(DURATION_METRIC)
+                .tags(tags.and("outcome", "success"))
+                .publishPercentileHistogram(histogram)
+                .register(meterRegistry);
+        Timer error = Timer.builder(DURATION_METRIC)
+                .tags(tags.and("outcome", "error"))
+                .publishPercentileHistogram(histogram)
+                .register(meterRegistry);
+        LongTaskTimer active = "controller".equals(layer)
+                ? LongTaskTimer.builder(ACTIVE_METRIC).tags(tags).register(meterRegistry)
+                : null;
+        return new MethodMeters(success, error, active);
+    }
 
-        logger.info("Completed request: {} {} -> Status: {}, Time: {} ms", httpMethod, endpoint, statusCode,
-                executionTime);
+    private void logSlowCall(Method method, String layer, long elapsedNanos, boolean failed) {
+        if (ThreadLocalRandom.current().nextDouble() >= properties.getSlowLogSampleRate()) {
+            return;
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        String className = method.getDeclaringClass().getSimpleName();
+        String outcome = failed ? "error" : "success";
+
+        // The request is only looked up for calls that are actually logged
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if ("controller".equals(layer) && attributes instanceof ServletRequestAttributes servletAttributes) {
+            HttpServletRequest request = servletAttributes.getRequest();
+            logger.warn("Slow request: {} {} -> {}.{} took {} ms ({})", request.getMethod(),
+                    request.getRequestURI(), className, method.getName(), elapsedMs, outcome);
+        } else {
+            logger.warn("Slow {} method: {}.{} took {} ms ({})", layer, className, method.getName(), elapsedMs,
+                    outcome);
+        }
+    }
 
-        return result;
+    private record MethodMeters(Timer success, Timer error, LongTaskTimer active) {
     }
-}
\ No newline at end of file
+}
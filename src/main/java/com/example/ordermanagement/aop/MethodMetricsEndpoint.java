@@ -0,0 +1,55 @@
+package com.example.ordermanagement.aop;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint for switching the method timing aspect at runtime.
+ * <p>
+ * {@code GET /actuator/methodmetrics} shows the current settings, {@code POST /actuator/methodmetrics} with any of
+ * {@code enabled}, {@code slowThresholdMs} or {@code slowLogSampleRate} changes them without a restart. Unlike the
+ * other actuator endpoints, both need an authenticated user.
+ * </p>
+ */
+@Component
+@Endpoint(id = "methodmetrics")
+public class MethodMetricsEndpoint {
+
+    private final MethodMetricsProperties properties;
+
+    public MethodMetricsEndpoint(MethodMetricsProperties properties) {
+        this.properties = properties;
+    }
+
+    @ReadOperation
+    public Map<String, Object> settings() {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("enabled", properties.isEnabled());
+        settings.put("percentileHistogram", properties.isPercentileHistogram());
+        settings.put("slowThresholdMs", properties.getSlowThreshold().toMillis());
+        settings.put("slowLogSampleRate", properties.getSlowLogSampleRate());
+        return settings;
+    }
+
+    @WriteOperation
+    public Map<String, Object> update(@Nullable Boolean enabled, @Nullable Long slowThresholdMs,
+            @Nullable Double slowLogSampleRate) {
+        if (enabled != null) {
+            properties.setEnabled(enabled);
+        }
+        if (slowThresholdMs != null) {
+            properties.setSlowThreshold(Duration.ofMillis(slowThresholdMs));
+        }
+        if (slowLogSampleRate != null) {
+            properties.setSlowLogSampleRate(Math.max(0.0, Math.min(1.0, slowLogSampleRate)));
+        }
+        return settings();
+    }
+}
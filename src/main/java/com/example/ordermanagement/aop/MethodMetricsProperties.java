@@ -0,0 +1,40 @@
+package com.example.ordermanagement.aop;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the method timing aspect.
+ * <p>
+ * Fields are volatile because they can be changed at runtime through the {@code methodmetrics} actuator endpoint while
+ * request threads are reading them.
+ * </p>
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.method-metrics")
+public class MethodMetricsProperties {
+
+    /**
+     * Whether controller and service methods are timed at all.
+     */
+    private volatile boolean enabled = true;
+
+    /**
+     * Whether timers publish percentile histogram buckets. Only read when a timer is first registered.
+     */
+    private volatile boolean percentileHistogram = true;
+
+    /**
+     * Calls slower than this are candidates for a WARN log line.
+     */
+    private volatile Duration slowThreshold = Duration.ofMillis(500);
+
+    /**
+     * Fraction (0.0 - 1.0) of slow calls that are actually logged.
+     */
+    private volatile double slowLogSampleRate = 0.1;
+}
@@ -0,0 +1,23 @@
+package com.example.ordermanagement.aop;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs a transactional method again, in a new transaction, when it fails with an optimistic locking conflict.
+ * <p>
+ * Only for methods whose every effect is inside their own transaction, so that a failed attempt leaves nothing
+ * behind and running it again against the current state is safe. A call made inside a caller's transaction is not
+ * retried: that transaction is already marked for rollback, so the conflict is passed on to the caller.
+ * </p>
+ *
+ * @see ConflictRetryAspect
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+}
@@ -0,0 +1,129 @@
+package com.example.ordermanagement.cache;
+
+import com.example.ordermanagement.entity.Item;
+import com.example.ordermanagement.entity.Order;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cache.spi.access.AccessType;
+import org.hibernate.cfg.AvailableSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import java.util.Map;
+import java.util.OptionalLong;
+
+/**
+ * Wires the Hibernate second-level cache: a read-write entity region for {@link Order} and {@link Item}, a
+ * collection region for {@code Order.items} and a query region for the order-number lookups, each a bounded Caffeine
+ * cache behind the JCache API.
+ * <p>
+ * The regions are assigned here through Hibernate's {@code hibernate.classcache.*} and
+ * {@code hibernate.collectioncache.*} settings rather than {@code @Cache} on the entities, so that a region switched
+ * off in {@link SecondLevelCacheProperties} leaves its entity or collection uncached.
+ * </p>
+ * <p>
+ * Rows written with plain JDBC are not seen by the cache, and neither do they invalidate the cached query results,
+ * which Hibernate only drops when it writes the {@code orders} table itself. The seeder and the snapshot restore run
+ * at startup, before anything is cached. Everything that writes orders or items with JDBC at runtime evicts the rows
+ * it changed once its transaction has committed: the batched item writes of {@code ItemService}, the bulk delete and
+ * the purge of deleted orders, and the bulk status updates, which include the cancellations of unpaid orders. The
+ * bulk delete and the purge also take orders out of the order-number lookups and so evict the
+ * {@value #ORDER_QUERIES_REGION} region as well. New JDBC writes to these tables must do the same.
+ * </p>
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.l2-cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SecondLevelCacheConfig {
+
+    public static final String ORDER_REGION = "order";
+    public static final String ORDER_ITEMS_REGION = "order-items";
+    public static final String ITEM_REGION = "item";
+    public static final String ORDER_QUERIES_REGION = "order-queries";
+
+    private static final Logger logger = LoggerFactory.getLogger(SecondLevelCacheConfig.class);
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(SecondLevelCacheProperties properties) {
+        // A provider of our own, so that every application context gets an independent cache manager
+        CacheManager cacheManager = new CaffeineCachingProvider().getCacheManager();
+        createRegion(cacheManager, ORDER_REGION, properties.getOrder());
+        createRegion(cacheManager, ORDER_ITEMS_REGION, properties.getOrderItems());
+        createRegion(cacheManager, ITEM_REGION, properties.getItem());
+        createRegion(cacheManager, ORDER_QUERIES_REGION, properties.getOrderQueries());
+        // Hibernate always creates the default query region when the query cache is on; nothing is cached there
+        createRegion(cacheManager, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                properties.getOrderQueries());
+        // One entry per table. Must not evict, or cached query results would outlive the writes that invalidate them
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                new CaffeineConfiguration<>().setNativeStatisticsEnabled(true));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager,
+            SecondLevelCacheProperties properties) {
+        return hibernateProperties -> applyCacheSettings(hibernateProperties, hibernateCacheManager, properties);
+    }
+
+    /**
+     * Registers the size, hit, miss and eviction statistics of every region as {@code cache.*} meters, tagged with
+     * the region name as {@code cache} and {@code cache.manager=hibernate}.
+     */
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(CacheManager hibernateCacheManager) {
+        return registry -> {
+            for (String region : hibernateCacheManager.getCacheNames()) {
+                com.github.benmanes.caffeine.cache.Cache<?, ?> cache = hibernateCacheManager.getCache(region)
+                        .unwrap(com.github.benmanes.caffeine.cache.Cache.class);
+                CaffeineCacheMetrics.monitor(registry, cache, region, Tags.of("cache.manager", "hibernate"));
+            }
+        };
+    }
+
+    static void applyCacheSettings(Map<String, Object> hibernateProperties, CacheManager cacheManager,
+            SecondLevelCacheProperties properties) {
+        hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+        hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+        hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+        hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        // ItemService saves and deletes items without going through Order.items, so the collection must be evicted
+        // from the item side as well
+        hibernateProperties.put(AvailableSettings.AUTO_EVICT_COLLECTION_CACHE, true);
+        hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, properties.getOrderQueries().isEnabled());
+
+        String readWrite = AccessType.READ_WRITE.getExternalName();
+        if (properties.getOrder().isEnabled()) {
+            hibernateProperties.put(AvailableSettings.CLASS_CACHE_PREFIX + "." + Order.class.getName(),
+                    readWrite + "," + ORDER_REGION);
+        }
+        if (properties.getItem().isEnabled()) {
+            hibernateProperties.put(AvailableSettings.CLASS_CACHE_PREFIX + "." + Item.class.getName(),
+                    readWrite + "," + ITEM_REGION);
+        }
+        if (properties.getOrderItems().isEnabled() && !properties.getItem().isEnabled()) {
+            logger.warn("Second-level cache region '{}' is off because region '{}' is off", ORDER_ITEMS_REGION,
+                    ITEM_REGION);
+        } else if (properties.getOrderItems().isEnabled()) {
+            hibernateProperties.put(AvailableSettings.COLLECTION_CACHE_PREFIX + "." + Order.class.getName() + ".items",
+                    readWrite + "," + ORDER_ITEMS_REGION);
+        }
+    }
+
+    private static void createRegion(CacheManager cacheManager, String name,
+            SecondLevelCacheProperties.Region region) {
+        cacheManager.createCache(name, new CaffeineConfiguration<>()
+                .setMaximumSize(OptionalLong.of(region.getMaxEntries()))
+                .setExpireAfterWrite(OptionalLong.of(region.getTimeToLive().toNanos()))
+                .setNativeStatisticsEnabled(true));
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.ordermanagement.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the Hibernate second-level cache. Each region is a bounded in-memory cache that can be sized or
+ * switched off on its own.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.l2-cache")
+public class SecondLevelCacheProperties {
+
+    /**
+     * Whether Hibernate uses a second-level cache at all. When off, every region below is ignored.
+     */
+    private boolean enabled = true;
+
+    /**
+     * {@code Order} entities by id.
+     */
+    private Region order = new Region(true, 10_000, Duration.ofMinutes(10));
+
+    /**
+     * The item ids of {@code Order.items}. Needs the {@link #item} region, otherwise every cached collection would
+     * load its items one by one, so it is treated as off when that region is off.
+     */
+    private Region orderItems = new Region(true, 10_000, Duration.ofMinutes(10));
+
+    /**
+     * {@code Item} entities by id.
+     */
+    private Region item = new Region(true, 50_000, Duration.ofMinutes(10));
+
+    /**
+     * Results of the cacheable {@code OrderRepository} lookups by order number. Any write to the {@code orders}
+     * table through Hibernate invalidates the whole region.
+     */
+    private Region orderQueries = new Region(true, 10_000, Duration.ofMinutes(5));
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Region {
+
+        private boolean enabled = true;
+
+        /**
+         * Upper bound on the number of entries; the least valuable ones are evicted first.
+         */
+        private long maxEntries = 10_000;
+
+        /**
+         * How long an entry may live after it was written.
+         */
+        private Duration timeToLive = Duration.ofMinutes(10);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.ordermanagement.changes;
+
+import com.example.ordermanagement.mapper.OrderMapper;
+import com.example.ordermanagement.repository.OrderRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import javax.sql.DataSource;
+
+/**
+ * Creates the {@link OrderChangeFeed} and schedules its check for waiting requests.
+ */
+@Configuration
+@EnableScheduling
+public class ChangeFeedConfig {
+
+    @Bean
+    public OrderChangeFeed orderChangeFeed(DataSource dataSource, OrderRepository orderRepository,
+            OrderMapper orderMapper, ChangeFeedProperties properties, MeterRegistry meterRegistry) {
+        return new OrderChangeFeed(dataSource, orderRepository, orderMapper, properties, meterRegistry);
+    }
+}
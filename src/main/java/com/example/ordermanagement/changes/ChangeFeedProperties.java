@@ -0,0 +1,40 @@
+package com.example.ordermanagement.changes;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the order change feed.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.change-feed")
+public class ChangeFeedProperties {
+
+    /**
+     * Largest page a client may ask for.
+     */
+    private int maxLimit = 1000;
+
+    /**
+     * How long a change is held back before it is served. Change numbers are drawn when a row is written, not when
+     * its transaction commits, so a change may become visible after one with a higher number. Holding back recent
+     * changes keeps a cursor from moving past a lower number whose transaction has not committed yet; it must
+     * exceed the longest write transaction.
+     */
+    private Duration visibilityDelay = Duration.ofMillis(500);
+
+    /**
+     * Longest a long-polling request may wait for changes.
+     */
+    private Duration maxWait = Duration.ofSeconds(30);
+
+    /**
+     * How often waiting requests are checked against the latest change number. One query per check serves all of
+     * them.
+     */
+    private Duration pollInterval = Duration.ofMillis(100);
+}
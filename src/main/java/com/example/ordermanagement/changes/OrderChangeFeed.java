@@ -0,0 +1,224 @@
+package com.example.ordermanagement.changes;
+
+import com.example.ordermanagement.dto.OrderChangesResponse;
+import com.example.ordermanagement.entity.Order;
+import com.example.ordermanagement.exception.ChangeFeedExpiredException;
+import com.example.ordermanagement.exception.InvalidRequestException;
+import com.example.ordermanagement.mapper.OrderMapper;
+import com.example.ordermanagement.repository.OrderRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Serves the changes to orders in the order they were made, so that a client can keep a copy of the orders in sync
+ * by asking only for what changed since its last request.
+ * <p>
+ * Every write to an order row draws a new {@code change_seq} from a database sequence, and item changes write the
+ * order row as well. A page is one range scan of the {@code change_seq} index past the client's cursor, so its cost
+ * depends on the number of changes, not on the number of orders. Each order appears with its current state at its
+ * latest change; an order that changes again moves to the end of the feed. Deleted orders are served as tombstones
+ * until they are purged. The purge job records the highest change number it removed, and a cursor behind it is
+ * rejected, since it may have skipped a deletion.
+ * </p>
+ * <p>
+ * A request may wait for changes instead of returning an empty page. Waiting requests hold no thread: a scheduled
+ * check reads the latest change number once for all of them and completes those it has changes for.
+ * </p>
+ */
+public class OrderChangeFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderChangeFeed.class);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final OrderRepository orderRepository;
+    private final OrderMapper orderMapper;
+    private final ChangeFeedProperties properties;
+    private final Clock clock;
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+
+    public OrderChangeFeed(DataSource dataSource, OrderRepository orderRepository, OrderMapper orderMapper,
+            ChangeFeedProperties properties, MeterRegistry meterRegistry) {
+        this(dataSource, orderRepository, orderMapper, properties, meterRegistry, Clock.systemDefaultZone());
+    }
+
+    OrderChangeFeed(DataSource dataSource, OrderRepository orderRepository, OrderMapper orderMapper,
+            ChangeFeedProperties properties, MeterRegistry meterRegistry, Clock clock) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.orderRepository = orderRepository;
+        this.orderMapper = orderMapper;
+        this.properties = properties;
+        this.clock = clock;
+        Gauge.builder("app.change-feed.waiting", waiters, Queue::size)
+                .description("Change feed requests waiting for changes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the next changes after {@code since}. If there are none yet, the result completes with the first
+     * changes made within {@code wait}, or with an empty page once it has passed.
+     */
+    public DeferredResult<OrderChangesResponse> changes(long since, int limit, Duration wait) {
+        if (since < 0) {
+            throw new InvalidRequestException("since must not be negative");
+        }
+        if (limit < 1 || limit > properties.getMaxLimit()) {
+            throw new InvalidRequestException("limit must be between 1 and " + properties.getMaxLimit());
+        }
+        if (wait.isNegative() || wait.compareTo(properties.getMaxWait()) > 0) {
+            throw new InvalidRequestException("wait must be between 0 and " + properties.getMaxWait().toSeconds()
+                    + " seconds");
+        }
+        OrderChangesResponse page = page(since, limit);
+        if (!page.getChanges().isEmpty() || wait.isZero()) {
+            DeferredResult<OrderChangesResponse> result = new DeferredResult<>();
+            result.setResult(page);
+            return result;
+        }
+        DeferredResult<OrderChangesResponse> result = new DeferredResult<>(wait.toMillis(), () -> page);
+        Waiter waiter = new Waiter(since, limit, result);
+        result.onCompletion(() -> waiters.remove(waiter));
+        waiters.add(waiter);
+        return result;
+    }
+
+    /**
+     * Completes the waiting requests for which changes are ready. Requests with the same cursor and limit share one
+     * page.
+     */
+    @Scheduled(fixedDelayString = "${app.change-feed.poll-interval:100ms}")
+    public void completeWaiters() {
+        if (waiters.isEmpty()) {
+            return;
+        }
+        long latest = latestChange();
+        Map<PageKey, OrderChangesResponse> pages = new HashMap<>();
+        for (Waiter waiter : waiters) {
+            if (waiter.result().isSetOrExpired()) {
+                waiters.remove(waiter);
+                continue;
+            }
+            if (waiter.since() >= latest) {
+                continue;
+            }
+            try {
+                OrderChangesResponse page = pages.computeIfAbsent(new PageKey(waiter.since(), waiter.limit()),
+                        key -> page(key.since(), key.limit()));
+                // Changes that are still held back leave the page empty; the next check tries again
+                if (!page.getChanges().isEmpty()) {
+                    waiter.result().setResult(page);
+                    waiters.remove(waiter);
+                }
+            } catch (RuntimeException ex) {
+                logger.warn("Could not read order changes after {}", waiter.since(), ex);
+                waiter.result().setErrorResult(ex);
+                waiters.remove(waiter);
+            }
+        }
+    }
+
+    /**
+     * A restored snapshot brings back the change numbers of the orders but not the sequence, so it is moved past the
+     * highest one; new changes would otherwise get numbers that clients have already passed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void skipRestoredChanges() {
+        long highest = latestChange();
+        Long next = jdbcTemplate.getJdbcOperations().queryForObject("SELECT NEXT VALUE FOR "
+                + Order.CHANGE_SEQUENCE, Long.class);
+        if (next != null && next <= highest) {
+            jdbcTemplate.getJdbcOperations().execute("ALTER SEQUENCE " + Order.CHANGE_SEQUENCE + " RESTART WITH "
+                    + (highest + 1));
+            logger.info("Moved sequence {} past the highest existing change {}", Order.CHANGE_SEQUENCE, highest);
+        }
+    }
+
+    private OrderChangesResponse page(long since, int limit) {
+        long purgedThrough = jdbcTemplate.queryForObject("SELECT purged_through FROM order_change_horizon",
+                Map.of(), Long.class);
+        if (since > 0 && since < purgedThrough) {
+            throw new ChangeFeedExpiredException("Changes up to " + purgedThrough
+                    + " include purged deletions, sync again from 0");
+        }
+
+        List<Row> rows = jdbcTemplate.query("SELECT id, change_seq, updated_at, deleted_at FROM orders "
+                + "WHERE change_seq > :since ORDER BY change_seq FETCH FIRST :limit ROWS ONLY",
+                new MapSqlParameterSource("since", since).addValue("limit", limit), (rs, rowNum) -> new Row(
+                        rs.getLong("id"), rs.getLong("change_seq"), toLocalDateTime(rs.getTimestamp("updated_at")),
+                        toLocalDateTime(rs.getTimestamp("deleted_at"))));
+        LocalDateTime settled = LocalDateTime.now(clock).minus(properties.getVisibilityDelay());
+        List<Row> ready = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            if (row.updatedAt() != null && row.updatedAt().isAfter(settled)) {
+                break;
+            }
+            ready.add(row);
+        }
+
+        List<Long> live = ready.stream().filter(row -> row.deletedAt() == null).map(Row::id).toList();
+        Map<Long, Order> orders = live.isEmpty() ? Map.of() : orderRepository.findWithItemsByIdIn(live).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+        List<OrderChangesResponse.Change> changes = new ArrayList<>(ready.size());
+        for (Row row : ready) {
+            OrderChangesResponse.Change change = OrderChangesResponse.Change.builder()
+                    .seq(row.seq())
+                    .orderId(row.id())
+                    .deleted(row.deletedAt() != null)
+                    .deletedAt(row.deletedAt())
+                    .build();
+            if (!change.isDeleted()) {
+                Order order = orders.get(row.id());
+                if (order == null) {
+                    // Deleted since the scan; its tombstone follows with a later change number
+                    continue;
+                }
+                change.setOrder(orderMapper.toResponse(order));
+            }
+            changes.add(change);
+        }
+        return OrderChangesResponse.builder()
+                .changes(changes)
+                .nextSince(ready.isEmpty() ? since : ready.get(ready.size() - 1).seq())
+                .hasMore(rows.size() == limit && ready.size() == rows.size())
+                .build();
+    }
+
+    private long latestChange() {
+        Long latest = jdbcTemplate.queryForObject("SELECT MAX(change_seq) FROM orders", Map.of(), Long.class);
+        return latest != null ? latest : 0;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    private record Row(long id, long seq, LocalDateTime updatedAt, LocalDateTime deletedAt) {
+    }
+
+    private record PageKey(long since, int limit) {
+    }
+
+    private record Waiter(long since, int limit, DeferredResult<OrderChangesResponse> result) {
+    }
+}
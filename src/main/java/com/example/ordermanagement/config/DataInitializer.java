@@ -3,10 +3,12 @@ package com.example.ordermanagement.config;
 import com.example.ordermanagement.entity.User;
 import com.example.ordermanagement.repository.UserRepository;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import javax.sql.DataSource;
 import java.util.Collections;
 import java.util.HashSet;
 
@@ -41,4 +43,13 @@ public class DataInitializer {
             }
         };
     }
-}
\ No newline at end of file
+
+    /**
+     * Opt-in bulk data generation for performance testing, see {@link SeedProperties}.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "app.seed", name = "enabled", havingValue = "true")
+    public CommandLineRunner seedOrders(DataSource dataSource, SeedProperties seedProperties) {
+        return args -> new OrderDataSeeder(dataSource, seedProperties).seed();
+    }
+}
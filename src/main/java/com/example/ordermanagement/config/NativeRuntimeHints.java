@@ -0,0 +1,122 @@
+package com.example.ordermanagement.config;
+
+import com.example.ordermanagement.aop.ConflictRetryAspect;
+import com.example.ordermanagement.aop.LoggingAspect;
+import com.example.ordermanagement.dto.AuthRequest;
+import com.example.ordermanagement.dto.AuthResponse;
+import com.example.ordermanagement.dto.BulkDeleteRequest;
+import com.example.ordermanagement.dto.BulkDeleteResponse;
+import com.example.ordermanagement.dto.BulkStatusUpdateRequest;
+import com.example.ordermanagement.dto.BulkStatusUpdateResponse;
+import com.example.ordermanagement.dto.ItemBatchRequest;
+import com.example.ordermanagement.dto.ItemBatchResponse;
+import com.example.ordermanagement.dto.ItemRequest;
+import com.example.ordermanagement.dto.ItemResponse;
+import com.example.ordermanagement.dto.OrderChangesResponse;
+import com.example.ordermanagement.dto.OrderRequest;
+import com.example.ordermanagement.dto.OrderResponse;
+import com.example.ordermanagement.dto.OrderStateResponse;
+import com.example.ordermanagement.dto.PagedResponse;
+import com.example.ordermanagement.dto.PaymentUpdateRequest;
+import com.example.ordermanagement.dto.RefreshTokenRequest;
+import com.example.ordermanagement.dto.SalesReportResponse;
+import com.example.ordermanagement.dto.SkuSalesResponse;
+import com.example.ordermanagement.dto.StatusUpdateRequest;
+import com.example.ordermanagement.dto.TrackingUpdateRequest;
+import com.example.ordermanagement.dto.WebhookSubscriptionRequest;
+import com.example.ordermanagement.dto.WebhookSubscriptionResponse;
+import com.example.ordermanagement.entity.Item;
+import com.example.ordermanagement.entity.Order;
+import com.example.ordermanagement.entity.OrderStatus;
+import com.example.ordermanagement.entity.PaymentStatus;
+import com.example.ordermanagement.entity.RefreshToken;
+import com.example.ordermanagement.entity.User;
+import com.example.ordermanagement.entity.WebhookSubscription;
+import com.example.ordermanagement.events.OrderEvent;
+import com.example.ordermanagement.exception.ErrorResponse;
+import com.example.ordermanagement.outbox.OutboxMessage;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import java.util.List;
+
+/**
+ * Reachability metadata for the GraalVM native image that Spring AOT cannot infer from the bean definitions.
+ * <p>
+ * Covers:
+ * <ul>
+ * <li>JJWT: the API module instantiates its implementation classes and the Jackson serializer by name.</li>
+ * <li>The Lombok-generated accessors and constructors of the entities, which Hibernate reads reflectively, including
+ * the {@code @PrePersist}/{@code @PreUpdate} callbacks. The build enhances the entities, so lazy {@code Item.order}
+ * associations need no runtime-generated proxy classes.</li>
+ * <li>The request and response DTOs that Jackson binds, including those only reached through the MapStruct
+ * {@code OrderMapper} implementation and the exception handler.</li>
+ * <li>The {@link OrderEvent}s and {@link OutboxMessage}s that are written as JSON to the event streams, the outbox and
+ * the webhooks.</li>
+ * <li>The advice methods of {@link LoggingAspect} and {@link ConflictRetryAspect}, which Spring AOP invokes
+ * reflectively.</li>
+ * </ul>
+ * </p>
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final List<String> JJWT_TYPES = List.of(
+            "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+            "io.jsonwebtoken.impl.security.DefaultDynamicJwkBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkParserBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkSetBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkSetParserBuilder",
+            "io.jsonwebtoken.impl.security.DefaultKeyOperationBuilder",
+            "io.jsonwebtoken.impl.security.DefaultKeyOperationPolicyBuilder",
+            "io.jsonwebtoken.impl.security.JwksBridge",
+            "io.jsonwebtoken.impl.security.KeysBridge",
+            "io.jsonwebtoken.impl.security.StandardCurves",
+            "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyOperations",
+            "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer");
+
+    private static final List<Class<?>> ENTITY_TYPES = List.of(Order.class, Item.class, User.class,
+            RefreshToken.class, WebhookSubscription.class, OrderStatus.class, PaymentStatus.class);
+
+    private static final List<Class<?>> DTO_TYPES = List.of(OrderRequest.class, OrderResponse.class,
+            ItemRequest.class, ItemResponse.class, PagedResponse.class, AuthRequest.class, AuthResponse.class,
+            RefreshTokenRequest.class, ErrorResponse.class, StatusUpdateRequest.class, PaymentUpdateRequest.class,
+            TrackingUpdateRequest.class, OrderStateResponse.class, BulkStatusUpdateRequest.class,
+            BulkStatusUpdateResponse.class, ItemBatchRequest.class, ItemBatchResponse.class, BulkDeleteRequest.class,
+            BulkDeleteResponse.class, OrderChangesResponse.class, WebhookSubscriptionRequest.class,
+            WebhookSubscriptionResponse.class, SalesReportResponse.class, SkuSalesResponse.class);
+
+    private static final List<Class<?>> EVENT_TYPES = List.of(OrderEvent.class, OutboxMessage.class);
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (String type : JJWT_TYPES) {
+            hints.reflection().registerType(TypeReference.of(type), MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+        }
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+
+        for (Class<?> type : ENTITY_TYPES) {
+            hints.reflection().registerType(type, MemberCategory.DECLARED_FIELDS,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS);
+        }
+
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                DTO_TYPES.toArray(new Class<?>[0]));
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                EVENT_TYPES.toArray(new Class<?>[0]));
+
+        hints.reflection().registerType(LoggingAspect.class, MemberCategory.INVOKE_DECLARED_METHODS);
+        hints.reflection().registerType(ConflictRetryAspect.class, MemberCategory.INVOKE_DECLARED_METHODS);
+    }
+}
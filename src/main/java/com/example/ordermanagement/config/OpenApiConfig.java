@@ -6,11 +6,21 @@ import io.swagger.v3.oas.models.info.Info;
 import io.swagger.v3.oas.models.security.SecurityRequirement;
 import io.swagger.v3.oas.models.security.SecurityScheme;
 import org.springdoc.core.utils.SpringDocUtils;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.security.core.userdetails.UserDetails;
 
+/**
+ * OpenAPI metadata for the Swagger UI.
+ * <p>
+ * Skipped entirely when {@code springdoc.api-docs.enabled=false} (the {@code prod} profile). Otherwise the definition
+ * is only built when the API docs are first requested.
+ * </p>
+ */
 @Configuration
+@ConditionalOnProperty(name = "springdoc.api-docs.enabled", matchIfMissing = true)
 public class OpenApiConfig {
 
     static {
@@ -18,6 +28,7 @@ public class OpenApiConfig {
     }
 
     @Bean
+    @Lazy
     public OpenAPI customOpenAPI() {
         final String securitySchemeName = "bearerAuth";
         return new OpenAPI()
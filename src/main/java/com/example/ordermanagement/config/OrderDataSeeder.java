@@ -0,0 +1,354 @@
+package com.example.ordermanagement.config;
+
+import com.example.ordermanagement.entity.OrderStatus;
+import com.example.ordermanagement.entity.PaymentStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Generates large volumes of realistic orders and items straight into the database with batched JDBC inserts,
+ * bypassing JPA.
+ * <p>
+ * The orders are cut into chunks of {@link SeedProperties#getBatchSize()}. Each chunk is generated from its own
+ * random stream, derived from the seed and the chunk number, and written in one transaction on its own connection.
+ * Chunks run in parallel, but their content and primary keys depend only on the chunk number, so the result does
+ * not depend on thread scheduling.
+ * </p>
+ * <p>
+ * Distributions:
+ * <ul>
+ * <li>Items per order: geometric with the configured mean, at least one.</li>
+ * <li>SKU popularity: Zipf over the catalogue, so a few products dominate sales.</li>
+ * <li>Created at: denser towards the reference date, with a daytime peak.</li>
+ * <li>Status and payment status: depend on the age of the order. Recent orders are mostly pending or confirmed,
+ * while old ones are delivered or cancelled.</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Keys are assigned explicitly above the current maximum, and the identity columns are restarted afterwards. The
+ * {@code RESTART WITH} statement is H2 syntax.
+ * </p>
+ */
+public class OrderDataSeeder {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderDataSeeder.class);
+
+    private static final String INSERT_ORDER = "INSERT INTO orders (id, order_number, customer_name, created_at, "
+            + "total_amount, status, payment_status, shipping_address, billing_address, tracking_number, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ITEM = "INSERT INTO items (id, sku, name, quantity, unit_price, order_id, "
+            + "image_url, weight) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+    // Weights per OrderStatus (PENDING, CONFIRMED, SHIPPED, DELIVERED, CANCELLED) for orders under a day old, under
+    // a week old and older
+    private static final int[][] STATUS_WEIGHTS_BY_AGE = {
+            {50, 35, 5, 0, 10},
+            {5, 15, 45, 25, 10},
+            {0, 0, 2, 90, 8}};
+    // Relative order volume per hour of the day, peaking in the evening
+    private static final int[] HOUR_WEIGHTS = {2, 1, 1, 1, 1, 2, 3, 5, 7, 8, 9, 10, 11, 10, 9, 9, 10, 11, 13, 15, 14,
+            11, 7, 4};
+    private static final String[] FIRST_NAMES = {"Olivia", "Liam", "Emma", "Noah", "Ava", "Elijah", "Sophia",
+            "James", "Isabella", "Lucas", "Mia", "Mateo", "Amelia", "Ethan", "Harper", "Arjun", "Priya", "Wei",
+            "Yuki", "Fatima", "Omar", "Chloe", "Hugo", "Ingrid"};
+    private static final String[] LAST_NAMES = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia",
+            "Miller", "Davis", "Martinez", "Lopez", "Wilson", "Anderson", "Taylor", "Thomas", "Moore", "Patel",
+            "Kumar", "Chen", "Tanaka", "Nguyen", "Khan", "Dubois", "Schmidt", "Larsen"};
+    private static final String[] STREETS = {"Main St", "Oak Ave", "Maple Dr", "Cedar Ln", "Park Rd", "Elm St",
+            "High St", "Station Rd", "Lake View", "Hill Crest"};
+    private static final String[] CITIES = {"Springfield", "Riverton", "Fairview", "Georgetown", "Madison",
+            "Franklin", "Clinton", "Salem", "Ashland", "Bristol"};
+
+    private final DataSource dataSource;
+    private final SeedProperties properties;
+
+    public OrderDataSeeder(DataSource dataSource, SeedProperties properties) {
+        this.dataSource = dataSource;
+        this.properties = properties;
+    }
+
+    /**
+     * Result of a seeding run.
+     */
+    public record Result(long orders, long items, long elapsedMillis) {
+    }
+
+    /**
+     * Generates {@link SeedProperties#getOrders()} orders, unless orders from the same seed already exist.
+     */
+    public Result seed() {
+        String orderNumberPrefix = "SEED-" + properties.getSeed() + "-";
+        long firstOrderId;
+        long firstItemId;
+        try (Connection connection = dataSource.getConnection()) {
+            if (exists(connection, orderNumberPrefix)) {
+                logger.info("Orders for seed {} already exist, skipping data generation", properties.getSeed());
+                return new Result(0, 0, 0);
+            }
+            firstOrderId = maxId(connection, "orders") + 1;
+            firstItemId = maxId(connection, "items") + 1;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not prepare data generation", e);
+        }
+
+        Catalogue catalogue = new Catalogue(properties);
+        LocalDate referenceDate = properties.getReferenceDate() != null
+                ? properties.getReferenceDate()
+                : LocalDate.now();
+        int chunks = (properties.getOrders() + properties.getBatchSize() - 1) / properties.getBatchSize();
+        logger.info("Generating {} orders in {} chunks on {} threads (seed {})", properties.getOrders(), chunks,
+                properties.getThreads(), properties.getSeed());
+
+        long start = System.nanoTime();
+        long items = 0;
+        ExecutorService executor = Executors.newFixedThreadPool(properties.getThreads());
+        try {
+            List<Future<Integer>> results = new ArrayList<>(chunks);
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                ChunkWriter writer = new ChunkWriter(chunk, firstOrderId, firstItemId, orderNumberPrefix,
+                        referenceDate, catalogue);
+                results.add(executor.submit(writer::write));
+            }
+            for (Future<Integer> result : results) {
+                items += result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Data generation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Data generation failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long nextItemId = firstItemId + (long) properties.getOrders() * properties.getMaxItemsPerOrder();
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE orders ALTER COLUMN id RESTART WITH "
+                    + (firstOrderId + properties.getOrders()));
+            statement.execute("ALTER TABLE items ALTER COLUMN id RESTART WITH " + nextItemId);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not advance identity columns", e);
+        }
+
+        long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        long rows = properties.getOrders() + items;
+        logger.info("Generated {} orders and {} items in {} ms ({} rows/s)", properties.getOrders(), items,
+                elapsedMillis, rows * 1000 / elapsedMillis);
+        return new Result(properties.getOrders(), items, elapsedMillis);
+    }
+
+    private static boolean exists(Connection connection, String orderNumberPrefix) throws SQLException {
+        try (PreparedStatement statement = connection
+                .prepareStatement("SELECT 1 FROM orders WHERE order_number LIKE ? FETCH FIRST 1 ROWS ONLY")) {
+            statement.setString(1, orderNumberPrefix + "%");
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next();
+            }
+        }
+    }
+
+    private static long maxId(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    /**
+     * Generates and inserts one chunk of orders. Order ids are contiguous per chunk, and each order owns a fixed
+     * range of {@code maxItemsPerOrder} item ids, so keys never depend on how chunks interleave.
+     */
+    private class ChunkWriter {
+
+        private final int chunk;
+        private final long firstOrderId;
+        private final long firstItemId;
+        private final String orderNumberPrefix;
+        private final LocalDate referenceDate;
+        private final Catalogue catalogue;
+        private final SplittableRandom random;
+
+        ChunkWriter(int chunk, long firstOrderId, long firstItemId, String orderNumberPrefix,
+                LocalDate referenceDate, Catalogue catalogue) {
+            this.chunk = chunk;
+            this.firstOrderId = firstOrderId;
+            this.firstItemId = firstItemId;
+            this.orderNumberPrefix = orderNumberPrefix;
+            this.referenceDate = referenceDate;
+            this.catalogue = catalogue;
+            this.random = new SplittableRandom(properties.getSeed() * 0x9E3779B97F4A7C15L + chunk);
+        }
+
+        int write() throws SQLException {
+            int from = chunk * properties.getBatchSize();
+            int to = Math.min(properties.getOrders(), from + properties.getBatchSize());
+            int itemCount = 0;
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(false);
+                try (PreparedStatement orders = connection.prepareStatement(INSERT_ORDER);
+                        PreparedStatement items = connection.prepareStatement(INSERT_ITEM)) {
+                    for (int index = from; index < to; index++) {
+                        itemCount += addOrder(orders, items, index);
+                    }
+                    orders.executeBatch();
+                    items.executeBatch();
+                    connection.commit();
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(true);
+                }
+            }
+            return itemCount;
+        }
+
+        private int addOrder(PreparedStatement orders, PreparedStatement items, int index) throws SQLException {
+            long orderId = firstOrderId + index;
+            double ageDays = properties.getDays() * Math.pow(random.nextDouble(), 2);
+            LocalDateTime createdAt = referenceDate.minusDays((long) ageDays)
+                    .atTime(pick(HOUR_WEIGHTS), random.nextInt(60), random.nextInt(60));
+            OrderStatus status = STATUSES[pick(STATUS_WEIGHTS_BY_AGE[ageDays < 1 ? 0 : ageDays < 7 ? 1 : 2])];
+
+            int itemCount = itemCount();
+            BigDecimal total = BigDecimal.ZERO;
+            for (int i = 0; i < itemCount; i++) {
+                int sku = catalogue.nextSku(random);
+                int quantity = quantity();
+                BigDecimal unitPrice = catalogue.prices[sku];
+                total = total.add(unitPrice.multiply(BigDecimal.valueOf(quantity)));
+
+                items.setLong(1, firstItemId + (long) index * properties.getMaxItemsPerOrder() + i);
+                items.setString(2, catalogue.skuCodes[sku]);
+                items.setString(3, "Product " + (sku + 1));
+                items.setInt(4, quantity);
+                items.setBigDecimal(5, unitPrice);
+                items.setLong(6, orderId);
+                items.setString(7, null);
+                items.setBigDecimal(8, catalogue.weights[sku]);
+                items.addBatch();
+            }
+
+            String shippingAddress = address();
+            orders.setLong(1, orderId);
+            orders.setString(2, orderNumberPrefix + orderId);
+            orders.setString(3, FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                    + LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+            orders.setTimestamp(4, Timestamp.valueOf(createdAt));
+            orders.setBigDecimal(5, total);
+            orders.setString(6, status.name());
+            orders.setString(7, paymentStatus(status).name());
+            orders.setString(8, shippingAddress);
+            orders.setString(9, random.nextInt(100) < 85 ? shippingAddress : address());
+            orders.setString(10, status == OrderStatus.SHIPPED || status == OrderStatus.DELIVERED
+                    ? "TRK" + (1_000_000_000L + random.nextLong(9_000_000_000L))
+                    : null);
+            orders.setTimestamp(11, Timestamp.valueOf(createdAt));
+            orders.addBatch();
+            return itemCount;
+        }
+
+        private int itemCount() {
+            // Geometric number of extra items on top of the first one
+            double p = 1.0 / properties.getMeanItemsPerOrder();
+            int extra = (int) (Math.log(1.0 - random.nextDouble()) / Math.log(1.0 - p));
+            return Math.min(properties.getMaxItemsPerOrder(), 1 + extra);
+        }
+
+        private int quantity() {
+            int roll = random.nextInt(100);
+            return roll < 70 ? 1 : roll < 90 ? 2 : 3 + random.nextInt(3);
+        }
+
+        private PaymentStatus paymentStatus(OrderStatus status) {
+            int roll = random.nextInt(100);
+            return switch (status) {
+                case PENDING -> roll < 20 ? PaymentStatus.PAID : PaymentStatus.UNPAID;
+                case CONFIRMED -> roll < 90 ? PaymentStatus.PAID : PaymentStatus.UNPAID;
+                case SHIPPED, DELIVERED -> PaymentStatus.PAID;
+                case CANCELLED -> roll < 60 ? PaymentStatus.REFUNDED : PaymentStatus.UNPAID;
+            };
+        }
+
+        private String address() {
+            return (1 + random.nextInt(9_999)) + " " + STREETS[random.nextInt(STREETS.length)] + ", "
+                    + CITIES[random.nextInt(CITIES.length)];
+        }
+
+        private int pick(int[] weights) {
+            int total = 0;
+            for (int weight : weights) {
+                total += weight;
+            }
+            int roll = random.nextInt(total);
+            for (int i = 0; i < weights.length; i++) {
+                roll -= weights[i];
+                if (roll < 0) {
+                    return i;
+                }
+            }
+            return weights.length - 1;
+        }
+    }
+
+    /**
+     * Product catalogue shared by all chunks: SKU codes, log-normally distributed prices and weights, and the
+     * cumulative Zipf distribution used to pick products.
+     */
+    private static final class Catalogue {
+
+        private final String[] skuCodes;
+        private final BigDecimal[] prices;
+        private final BigDecimal[] weights;
+        private final double[] cumulativePopularity;
+
+        Catalogue(SeedProperties properties) {
+            int size = properties.getSkus();
+            SplittableRandom random = new SplittableRandom(properties.getSeed());
+            skuCodes = new String[size];
+            prices = new BigDecimal[size];
+            weights = new BigDecimal[size];
+            cumulativePopularity = new double[size];
+            double sum = 0;
+            for (int i = 0; i < size; i++) {
+                skuCodes[i] = String.format("SKU-%06d", i + 1);
+                prices[i] = BigDecimal.valueOf(Math.max(0.99, Math.exp(3.0 + random.nextGaussian())))
+                        .setScale(2, RoundingMode.HALF_UP);
+                weights[i] = BigDecimal.valueOf(Math.max(0.05, Math.exp(-0.7 + random.nextGaussian())))
+                        .setScale(2, RoundingMode.HALF_UP);
+                sum += 1.0 / Math.pow(i + 1, properties.getSkuSkew());
+                cumulativePopularity[i] = sum;
+            }
+            for (int i = 0; i < size; i++) {
+                cumulativePopularity[i] /= sum;
+            }
+        }
+
+        int nextSku(SplittableRandom random) {
+            int index = Arrays.binarySearch(cumulativePopularity, random.nextDouble());
+            return Math.min(cumulativePopularity.length - 1, index >= 0 ? index : -index - 1);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.ordermanagement.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.LocalDate;
+
+/**
+ * Settings for the bulk test data generator run by {@link DataInitializer} when {@code app.seed.enabled=true}.
+ * <p>
+ * The generated rows depend only on these values, so two runs with the same settings (and the same
+ * {@link #referenceDate}) produce identical data.
+ * </p>
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.seed")
+public class SeedProperties {
+
+    /**
+     * Whether orders are generated at startup.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Number of orders to generate.
+     */
+    private int orders = 1_000_000;
+
+    /**
+     * Random seed; the same seed produces the same orders.
+     */
+    private long seed = 42;
+
+    /**
+     * Orders per JDBC batch and transaction.
+     */
+    private int batchSize = 1_000;
+
+    /**
+     * Number of parallel writers. Each holds one pooled connection while seeding.
+     */
+    private int threads = Math.min(8, Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Size of the product catalogue that items are drawn from.
+     */
+    private int skus = 5_000;
+
+    /**
+     * Zipf exponent of SKU popularity; higher values concentrate sales on fewer products.
+     */
+    private double skuSkew = 1.1;
+
+    /**
+     * Mean number of items per order (geometrically distributed, at least one).
+     */
+    private double meanItemsPerOrder = 2.5;
+
+    /**
+     * Upper bound on items per order.
+     */
+    private int maxItemsPerOrder = 25;
+
+    /**
+     * Orders are spread over this many days up to the reference date, denser towards recent days.
+     */
+    private int days = 365;
+
+    /**
+     * Last day of the generated range; defaults to today.
+     */
+    private LocalDate referenceDate;
+}
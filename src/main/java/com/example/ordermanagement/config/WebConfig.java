@@ -1,5 +1,6 @@
 package com.example.ordermanagement.config;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -50,7 +51,8 @@ public class WebConfig {
      * <ul>
      * <li>Endpoints under {@code /api/public/**} are accessible without authentication.</li>
      * <li>Endpoints under {@code /api/auth/**} are accessible without authentication (Login/Refresh).</li>
-     * <li>Actuator endpoints under {@code /actuator/**} are accessible without authentication (for demo purposes).</li>
+     * <li>Actuator endpoints under {@code /actuator/**} are accessible without authentication (for demo purposes),
+     * except {@code /actuator/methodmetrics}, which changes settings of the running application.</li>
      * <li>Swagger UI and API Docs endpoints are accessible without authentication.</li>
      * <li>H2 Console endpoints are accessible without authentication.</li>
      * <li>All other requests require authentication.</li>
@@ -77,8 +79,12 @@ public class WebConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 // Define authorization rules
                 .authorizeHttpRequests(auth -> auth
+                        // Completion of a long-polling request, which was authorized when it started
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/public/**").permitAll() // Public endpoints
                         .requestMatchers("/api/auth/**").permitAll() // Auth endpoints (Login, Refresh)
+                        // Changes runtime settings, so unlike the read-only actuator endpoints it needs a login
+                        .requestMatchers("/actuator/methodmetrics/**", "/actuator/methodmetrics").authenticated()
                         .requestMatchers("/actuator/**").permitAll() // Actuator endpoints
                         .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll() // Swagger
                                                                                                               // endpoints
@@ -147,7 +153,7 @@ public class WebConfig {
         // Allow frontend origin
         configuration.setAllowedOrigins(List.of("http://localhost:4200"));
         // Allow standard HTTP methods
-        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         // Allow all headers
         configuration.setAllowedHeaders(List.of("*"));
         // Allow credentials (cookies, authorization headers)
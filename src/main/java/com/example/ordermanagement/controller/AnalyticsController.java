@@ -0,0 +1,63 @@
+package com.example.ordermanagement.controller;
+
+import com.example.ordermanagement.dto.SalesReportResponse;
+import com.example.ordermanagement.dto.SkuSalesResponse;
+import com.example.ordermanagement.entity.OrderStatus;
+import com.example.ordermanagement.entity.PaymentStatus;
+import com.example.ordermanagement.service.AnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/analytics")
+@CrossOrigin(origins = "http://localhost:4200")
+@Tag(name = "Analytics", description = "APIs for sales reports")
+@SecurityRequirement(name = "bearerAuth")
+public class AnalyticsController {
+
+    private final AnalyticsService analyticsService;
+
+    public AnalyticsController(AnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+
+    @Operation(summary = "Get orders and revenue", description = "Totals per day, status and payment status of the orders created in the date range, from precomputed rollups. The range defaults to the last 30 days")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully computed the report", content = @Content(mediaType = "application/json", schema = @Schema(implementation = SalesReportResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid date range", content = @Content)
+    })
+    @GetMapping("/sales")
+    public ResponseEntity<SalesReportResponse> getSalesReport(
+            @Parameter(description = "First day, inclusive", example = "2025-06-01") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day, inclusive; defaults to today", example = "2025-06-30") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Only orders in these statuses") @RequestParam(name = "status", required = false) Set<OrderStatus> statuses,
+            @Parameter(description = "Only orders in these payment statuses") @RequestParam(name = "paymentStatus", required = false) Set<PaymentStatus> paymentStatuses) {
+        return ResponseEntity.ok(analyticsService.getSalesReport(from, to, statuses, paymentStatuses));
+    }
+
+    @Operation(summary = "Get the best-selling SKUs", description = "Units sold and revenue per SKU in the orders created in the date range, highest revenue first, from precomputed rollups. The range defaults to the last 30 days")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully computed the report", content = @Content(mediaType = "application/json", schema = @Schema(implementation = SkuSalesResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid date range or limit", content = @Content)
+    })
+    @GetMapping("/skus")
+    public ResponseEntity<SkuSalesResponse> getSkuSales(
+            @Parameter(description = "First day, inclusive", example = "2025-06-01") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day, inclusive; defaults to today", example = "2025-06-30") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Only orders in these statuses") @RequestParam(name = "status", required = false) Set<OrderStatus> statuses,
+            @Parameter(description = "Maximum number of SKUs", example = "20") @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(analyticsService.getSkuSales(from, to, statuses, limit));
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.ordermanagement.controller;
 
+import com.example.ordermanagement.dto.ItemBatchRequest;
+import com.example.ordermanagement.dto.ItemBatchResponse;
 import com.example.ordermanagement.dto.ItemRequest;
 import com.example.ordermanagement.dto.ItemResponse;
 import com.example.ordermanagement.service.ItemService;
@@ -52,6 +54,20 @@ public class ItemController {
         return ResponseEntity.created(location).body(createdItem);
     }
 
+    @Operation(summary = "Change many items of an order at once", description = "Creates, updates and deletes items of one order in a single transaction. Either all changes are applied or none; the order total is recomputed once")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch successfully applied", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ItemBatchResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input data, or an item given more than once", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Order not found, or an item to update or delete is not in the order", content = @Content),
+            @ApiResponse(responseCode = "409", description = "The order is no longer at the given version", content = @Content)
+    })
+    @PostMapping("/order/{orderId}/batch")
+    public ResponseEntity<ItemBatchResponse> batchItems(
+            @Parameter(description = "ID of the order whose items are changed", required = true) @PathVariable Long orderId,
+            @Parameter(description = "Items to create, update and delete, and optionally the expected order version", required = true) @Valid @RequestBody ItemBatchRequest request) {
+        return ResponseEntity.ok(itemService.batch(orderId, request));
+    }
+
     @Operation(summary = "Update an existing item", description = "Updates the details of an existing item")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Item successfully updated", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ItemResponse.class))),
@@ -1,8 +1,24 @@
 package com.example.ordermanagement.controller;
 
+import com.example.ordermanagement.changes.OrderChangeFeed;
+import com.example.ordermanagement.dto.BulkDeleteRequest;
+import com.example.ordermanagement.dto.BulkDeleteResponse;
+import com.example.ordermanagement.dto.BulkStatusUpdateRequest;
+import com.example.ordermanagement.dto.BulkStatusUpdateResponse;
+import com.example.ordermanagement.dto.OrderChangesResponse;
 import com.example.ordermanagement.dto.OrderRequest;
 import com.example.ordermanagement.dto.OrderResponse;
+import com.example.ordermanagement.dto.OrderStateResponse;
 import com.example.ordermanagement.dto.PagedResponse;
+import com.example.ordermanagement.dto.PaymentUpdateRequest;
+import com.example.ordermanagement.dto.StatusUpdateRequest;
+import com.example.ordermanagement.dto.TrackingUpdateRequest;
+import com.example.ordermanagement.entity.OrderStatus;
+import com.example.ordermanagement.events.OrderEvent;
+import com.example.ordermanagement.events.OrderEventFilter;
+import com.example.ordermanagement.events.OrderEventStream;
+import com.example.ordermanagement.service.BulkDeleteService;
+import com.example.ordermanagement.service.BulkStatusService;
 import com.example.ordermanagement.service.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -16,13 +32,18 @@ import jakarta.validation.Valid;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
+import java.time.Duration;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -32,9 +53,18 @@ import java.net.URI;
 public class OrderController {
 
     private final OrderService orderService;
+    private final BulkStatusService bulkStatusService;
+    private final BulkDeleteService bulkDeleteService;
+    private final OrderChangeFeed orderChangeFeed;
+    private final OrderEventStream orderEventStream;
 
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, BulkStatusService bulkStatusService,
+            BulkDeleteService bulkDeleteService, OrderChangeFeed orderChangeFeed, OrderEventStream orderEventStream) {
         this.orderService = orderService;
+        this.bulkStatusService = bulkStatusService;
+        this.bulkDeleteService = bulkDeleteService;
+        this.orderChangeFeed = orderChangeFeed;
+        this.orderEventStream = orderEventStream;
     }
 
     @Operation(summary = "Get all orders", description = "Retrieves a paginated list of all orders in the system")
@@ -55,6 +85,34 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
 
+    @Operation(summary = "Get order changes", description = "Returns the orders changed after the given change number, oldest change first, each with its current state. Item changes count as changes of their order, and deleted orders are returned as tombstones. Start with since=0 and pass nextSince of each response to the next request. With wait, an empty result is held back until changes arrive or the wait is over")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Next page of changes", content = @Content(mediaType = "application/json", schema = @Schema(implementation = OrderChangesResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid since, limit or wait", content = @Content),
+            @ApiResponse(responseCode = "410", description = "Deletions after since have been purged; sync again from 0", content = @Content)
+    })
+    @GetMapping("/changes")
+    public DeferredResult<OrderChangesResponse> getOrderChanges(
+            @Parameter(description = "Change number of the last change seen, 0 for all", example = "0") @RequestParam(defaultValue = "0") long since,
+            @Parameter(description = "Maximum number of changes", example = "100") @RequestParam(defaultValue = "100") int limit,
+            @Parameter(description = "Seconds to wait for changes if there are none yet", example = "0") @RequestParam(defaultValue = "0") long wait) {
+        return orderChangeFeed.changes(since, limit, Duration.ofSeconds(wait));
+    }
+
+    @Operation(summary = "Stream order events", description = "Opens a server-sent event stream of order events as they are committed: creation, updates, status, payment and tracking changes, item changes and deletion. The event name is the event type and its id can be sent as Last-Event-ID to resume after a reconnect. A resync event means events were missed and the orders should be reloaded. Without filters all events are sent")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Event stream", content = @Content(mediaType = "text/event-stream", schema = @Schema(implementation = OrderEvent.class))),
+            @ApiResponse(responseCode = "503", description = "This node serves its maximum number of streams", content = @Content)
+    })
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrderEvents(
+            @Parameter(description = "Only events of these orders") @RequestParam(name = "orderId", required = false) Set<Long> orderIds,
+            @Parameter(description = "Only events of these types") @RequestParam(name = "type", required = false) Set<OrderEvent.Type> types,
+            @Parameter(description = "Only events of orders in these statuses") @RequestParam(name = "status", required = false) Set<OrderStatus> statuses,
+            @Parameter(description = "Id of the last event received before reconnecting") @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+        return orderEventStream.subscribe(new OrderEventFilter(orderIds, types, statuses), lastEventId);
+    }
+
     @Operation(summary = "Get order by ID", description = "Retrieves a specific order by its unique identifier")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved the order", content = @Content(mediaType = "application/json", schema = @Schema(implementation = OrderResponse.class))),
@@ -102,7 +160,60 @@ public class OrderController {
         return ResponseEntity.ok(updatedOrder);
     }
 
-    @Operation(summary = "Delete an order", description = "Deletes an order from the system by its ID")
+    @Operation(summary = "Change the status of an order", description = "Moves an order to another status without touching its other fields or items. Only forward transitions are allowed: PENDING to CONFIRMED, CONFIRMED to SHIPPED, SHIPPED to DELIVERED, and PENDING or CONFIRMED to CANCELLED")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Status successfully changed", content = @Content(mediaType = "application/json", schema = @Schema(implementation = OrderStateResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input data", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Order not found", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Transition not allowed, or the order is no longer at the given version", content = @Content)
+    })
+    @PatchMapping("/{id}/status")
+    public ResponseEntity<OrderStateResponse> updateOrderStatus(
+            @Parameter(description = "ID of the order to be updated", required = true) @PathVariable Long id,
+            @Parameter(description = "New status and, optionally, the expected version", required = true) @Valid @RequestBody StatusUpdateRequest request) {
+        return ResponseEntity.ok(orderService.updateStatus(id, request.getStatus(), request.getVersion()));
+    }
+
+    @Operation(summary = "Change the status of many orders", description = "Moves the given orders, or all orders matching a filter on current status and creation time, to one status. The same transition rules as for a single order apply; orders that may not make the transition are reported and left alone. Orders are updated in chunks, each committed on its own")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Per-order outcome of the update", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BulkStatusUpdateResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input data, or not exactly one of ids and filter", content = @Content)
+    })
+    @PostMapping("/status:bulk")
+    public ResponseEntity<BulkStatusUpdateResponse> updateStatuses(
+            @Parameter(description = "Target status, and the orders as ids or as a filter", required = true) @Valid @RequestBody BulkStatusUpdateRequest request) {
+        return ResponseEntity.ok(bulkStatusService.updateStatus(request));
+    }
+
+    @Operation(summary = "Change the payment status of an order", description = "Sets the payment status without touching the order's other fields or items")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Payment status successfully changed", content = @Content(mediaType = "application/json", schema = @Schema(implementation = OrderStateResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input data", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Order not found", content = @Content),
+            @ApiResponse(responseCode = "409", description = "The order is no longer at the given version", content = @Content)
+    })
+    @PatchMapping("/{id}/payment")
+    public ResponseEntity<OrderStateResponse> updatePaymentStatus(
+            @Parameter(description = "ID of the order to be updated", required = true) @PathVariable Long id,
+            @Parameter(description = "New payment status and, optionally, the expected version", required = true) @Valid @RequestBody PaymentUpdateRequest request) {
+        return ResponseEntity.ok(orderService.updatePaymentStatus(id, request.getPaymentStatus(), request.getVersion()));
+    }
+
+    @Operation(summary = "Set the tracking number of an order", description = "Sets the tracking number without touching the order's other fields or items")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tracking number successfully set", content = @Content(mediaType = "application/json", schema = @Schema(implementation = OrderStateResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input data", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Order not found", content = @Content),
+            @ApiResponse(responseCode = "409", description = "The order is no longer at the given version", content = @Content)
+    })
+    @PatchMapping("/{id}/tracking")
+    public ResponseEntity<OrderStateResponse> updateTrackingNumber(
+            @Parameter(description = "ID of the order to be updated", required = true) @PathVariable Long id,
+            @Parameter(description = "New tracking number and, optionally, the expected version", required = true) @Valid @RequestBody TrackingUpdateRequest request) {
+        return ResponseEntity.ok(orderService.updateTrackingNumber(id, request.getTrackingNumber(), request.getVersion()));
+    }
+
+    @Operation(summary = "Delete an order", description = "Deletes an order from the system by its ID. The order disappears at once; it and its items are removed from the database later")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Order successfully deleted", content = @Content),
             @ApiResponse(responseCode = "404", description = "Order not found", content = @Content)
@@ -113,4 +224,15 @@ public class OrderController {
         orderService.delete(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    @Operation(summary = "Delete all orders matching criteria", description = "Deletes every order matching all given criteria: status, creation time range and order number prefix. At least one criterion is required. The orders disappear at once; they and their items are removed from the database later")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Number of deleted orders", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BulkDeleteResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input data, or no criterion given", content = @Content)
+    })
+    @PostMapping("/delete:bulk")
+    public ResponseEntity<BulkDeleteResponse> deleteOrders(
+            @Parameter(description = "Criteria the orders to delete must all match", required = true) @Valid @RequestBody BulkDeleteRequest request) {
+        return ResponseEntity.ok(bulkDeleteService.delete(request));
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.ordermanagement.controller;
+
+import com.example.ordermanagement.dto.WebhookSubscriptionRequest;
+import com.example.ordermanagement.dto.WebhookSubscriptionResponse;
+import com.example.ordermanagement.service.WebhookSubscriptionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/webhooks")
+@CrossOrigin(origins = "http://localhost:4200")
+@Tag(name = "Webhooks", description = "APIs for managing HTTP callbacks on order changes")
+@SecurityRequirement(name = "bearerAuth")
+public class WebhookController {
+
+    private final WebhookSubscriptionService webhookSubscriptionService;
+
+    public WebhookController(WebhookSubscriptionService webhookSubscriptionService) {
+        this.webhookSubscriptionService = webhookSubscriptionService;
+    }
+
+    @Operation(summary = "Get all webhook subscriptions", description = "Lists the subscriptions with the number of events waiting for delivery and whether deliveries are suspended after repeated failures")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved the subscriptions", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = WebhookSubscriptionResponse.class))))
+    @GetMapping
+    public ResponseEntity<List<WebhookSubscriptionResponse>> getAllWebhooks() {
+        return ResponseEntity.ok(webhookSubscriptionService.findAll());
+    }
+
+    @Operation(summary = "Subscribe to order events", description = "Registers an endpoint that receives order events as POST requests with a JSON array of events. Deliveries start at once; failed requests are retried with exponential backoff")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Subscription successfully created", content = @Content(mediaType = "application/json", schema = @Schema(implementation = WebhookSubscriptionResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input data", content = @Content)
+    })
+    @PostMapping
+    public ResponseEntity<WebhookSubscriptionResponse> createWebhook(
+            @Parameter(description = "Endpoint URL and the event types to send", required = true) @Valid @RequestBody WebhookSubscriptionRequest request) {
+        WebhookSubscriptionResponse created = webhookSubscriptionService.create(request);
+
+        URI location = ServletUriComponentsBuilder
+                .fromCurrentRequest()
+                .path("/{id}")
+                .buildAndExpand(created.getId())
+                .toUri();
+
+        return ResponseEntity.created(location).body(created);
+    }
+
+    @Operation(summary = "Delete a webhook subscription", description = "Stops the deliveries to the endpoint; events still waiting for it are discarded")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Subscription successfully deleted"),
+            @ApiResponse(responseCode = "404", description = "Subscription not found", content = @Content)
+    })
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteWebhook(
+            @Parameter(description = "ID of the subscription to be deleted", required = true) @PathVariable Long id) {
+        webhookSubscriptionService.delete(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.ordermanagement.deadlines;
+
+import com.example.ordermanagement.service.BulkStatusService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import javax.sql.DataSource;
+
+/**
+ * Schedules {@link OrderDeadlineScheduler}.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(prefix = "app.deadlines", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class DeadlineConfig {
+
+    @Bean
+    public OrderDeadlineScheduler orderDeadlineScheduler(DataSource dataSource, BulkStatusService bulkStatusService,
+            DeadlineProperties properties, MeterRegistry meterRegistry) {
+        return new OrderDeadlineScheduler(dataSource, bulkStatusService, properties, meterRegistry);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.ordermanagement.deadlines;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the order deadlines.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.deadlines")
+public class DeadlineProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * How long an order may stay pending and unpaid after it was created before it is cancelled.
+     */
+    private Duration unpaidTimeout = Duration.ofHours(24);
+
+    /**
+     * How long an order may stay confirmed before an SLA alert is raised for it.
+     */
+    private Duration confirmedSla = Duration.ofHours(48);
+
+    /**
+     * Resolution of the deadlines, and how often the due ones are fired.
+     */
+    private Duration tick = Duration.ofSeconds(1);
+
+    /**
+     * Slots per level of the timing wheel. Deadlines within this many ticks are kept in the lowest level.
+     */
+    private int wheelSize = 512;
+
+    /**
+     * Delay before deadlines are fired again after their transition failed.
+     */
+    private Duration retryDelay = Duration.ofMinutes(1);
+}
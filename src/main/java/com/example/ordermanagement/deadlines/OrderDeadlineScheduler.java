@@ -0,0 +1,234 @@
+package com.example.ordermanagement.deadlines;
+
+import com.example.ordermanagement.dto.BulkStatusUpdateResponse;
+import com.example.ordermanagement.entity.OrderStatus;
+import com.example.ordermanagement.entity.PaymentStatus;
+import com.example.ordermanagement.events.OrderEvent;
+import com.example.ordermanagement.service.BulkStatusService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Acts on orders that stay too long in one status: pending, unpaid orders are cancelled after
+ * {@link DeadlineProperties#getUnpaidTimeout()}, and an SLA alert is raised for orders confirmed for longer than
+ * {@link DeadlineProperties#getConfirmedSla()}.
+ * <p>
+ * Instead of querying the orders table for overdue orders on every run, the deadline of every pending, unpaid and
+ * every confirmed order is kept in a {@link TimingWheel}. It is filled at startup with two queries on the
+ * {@code status} index and then kept current from the committed order events. Every tick fires the due deadlines:
+ * the unpaid orders are cancelled together through {@link BulkStatusService}, whose {@code UPDATE} only matches
+ * orders that are still pending and unpaid. A deadline that outlived its reason, because the order was confirmed or
+ * paid on another node, or after the deadline was taken off the wheel, thus changes nothing.
+ * </p>
+ * <p>
+ * The confirmation deadline runs from the event that confirmed the order. At startup it runs from the order's last
+ * update instead, as the orders table does not record when the status last changed; alerts for orders updated
+ * after their confirmation are then late, never early.
+ * </p>
+ */
+public class OrderDeadlineScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderDeadlineScheduler.class);
+
+    /**
+     * Orders looked up per statement when checking SLA deadlines.
+     */
+    private static final int CHUNK_SIZE = 1000;
+
+    enum Kind {
+        /** The order is cancelled unless it was paid. */
+        PAYMENT,
+        /** An SLA alert is raised unless the order moved on. */
+        CONFIRMATION
+    }
+
+    record Deadline(Kind kind, long orderId) {
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final BulkStatusService bulkStatusService;
+    private final DeadlineProperties properties;
+    private final Clock clock;
+    private final TimingWheel<Deadline> wheel;
+    private final Counter cancelled;
+    private final Counter slaBreaches;
+
+    public OrderDeadlineScheduler(DataSource dataSource, BulkStatusService bulkStatusService,
+            DeadlineProperties properties, MeterRegistry meterRegistry) {
+        this(dataSource, bulkStatusService, properties, meterRegistry, Clock.systemDefaultZone());
+    }
+
+    OrderDeadlineScheduler(DataSource dataSource, BulkStatusService bulkStatusService, DeadlineProperties properties,
+            MeterRegistry meterRegistry, Clock clock) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.bulkStatusService = bulkStatusService;
+        this.properties = properties;
+        this.clock = clock;
+        this.wheel = new TimingWheel<>(properties.getTick().toMillis(), properties.getWheelSize(), clock.millis());
+        Gauge.builder("app.deadlines.scheduled", this, OrderDeadlineScheduler::scheduled)
+                .description("Order deadlines waiting to be fired")
+                .register(meterRegistry);
+        this.cancelled = Counter.builder("app.deadlines.cancelled")
+                .description("Orders cancelled because they stayed unpaid")
+                .register(meterRegistry);
+        this.slaBreaches = Counter.builder("app.deadlines.sla-breaches")
+                .description("Orders that stayed confirmed for longer than the SLA")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Fills the wheel with the deadlines of the orders in the database.
+     *
+     * @return the number of deadlines scheduled
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public int rebuild() {
+        List<Deadline> deadlines = new ArrayList<>();
+        List<Long> times = new ArrayList<>();
+        jdbcTemplate.query("SELECT id, created_at FROM orders "
+                + "WHERE status = 'PENDING' AND payment_status = 'UNPAID' AND deleted_at IS NULL",
+                rs -> {
+                    deadlines.add(new Deadline(Kind.PAYMENT, rs.getLong("id")));
+                    times.add(deadline(rs.getTimestamp("created_at").toLocalDateTime(),
+                            properties.getUnpaidTimeout()));
+                });
+        jdbcTemplate.query("SELECT id, updated_at FROM orders WHERE status = 'CONFIRMED' AND deleted_at IS NULL",
+                rs -> {
+                    deadlines.add(new Deadline(Kind.CONFIRMATION, rs.getLong("id")));
+                    times.add(deadline(rs.getTimestamp("updated_at").toLocalDateTime(),
+                            properties.getConfirmedSla()));
+                });
+        int scheduled = 0;
+        synchronized (wheel) {
+            for (int i = 0; i < deadlines.size(); i++) {
+                // Events that arrived meanwhile are more recent than the rows read
+                if (wheel.scheduleIfAbsent(deadlines.get(i), times.get(i))) {
+                    scheduled++;
+                }
+            }
+        }
+        logger.info("Scheduled {} order deadlines", scheduled);
+        return scheduled;
+    }
+
+    /**
+     * Starts or stops the deadlines of the order after a committed change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderEvent(OrderEvent event) {
+        Deadline payment = new Deadline(Kind.PAYMENT, event.orderId());
+        Deadline confirmation = new Deadline(Kind.CONFIRMATION, event.orderId());
+        synchronized (wheel) {
+            if (event.type() == OrderEvent.Type.DELETED) {
+                wheel.cancel(payment);
+                wheel.cancel(confirmation);
+                return;
+            }
+            // Only a change into the status starts the clock; later changes within it leave the deadline as it is
+            if (event.status() == OrderStatus.PENDING && event.paymentStatus() == PaymentStatus.UNPAID) {
+                wheel.scheduleIfAbsent(payment, deadline(event.occurredAt(), properties.getUnpaidTimeout()));
+            } else {
+                wheel.cancel(payment);
+            }
+            if (event.status() == OrderStatus.CONFIRMED) {
+                wheel.scheduleIfAbsent(confirmation, deadline(event.occurredAt(), properties.getConfirmedSla()));
+            } else {
+                wheel.cancel(confirmation);
+            }
+        }
+    }
+
+    /**
+     * Fires the deadlines that are due.
+     *
+     * @return the number of deadlines fired
+     */
+    @Scheduled(fixedDelayString = "${app.deadlines.tick:1s}")
+    public int fire() {
+        List<Deadline> due;
+        synchronized (wheel) {
+            due = wheel.advance(clock.millis());
+        }
+        if (due.isEmpty()) {
+            return 0;
+        }
+        List<Long> unpaid = new ArrayList<>();
+        List<Long> confirmed = new ArrayList<>();
+        for (Deadline deadline : due) {
+            (deadline.kind() == Kind.PAYMENT ? unpaid : confirmed).add(deadline.orderId());
+        }
+        if (!unpaid.isEmpty()) {
+            process(Kind.PAYMENT, unpaid);
+        }
+        if (!confirmed.isEmpty()) {
+            process(Kind.CONFIRMATION, confirmed);
+        }
+        return due.size();
+    }
+
+    int scheduled() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    private void process(Kind kind, List<Long> orderIds) {
+        try {
+            if (kind == Kind.PAYMENT) {
+                cancelUnpaid(orderIds);
+            } else {
+                alertConfirmed(orderIds);
+            }
+        } catch (RuntimeException ex) {
+            logger.error("Could not process {} {} deadlines, retrying in {}", orderIds.size(), kind,
+                    properties.getRetryDelay(), ex);
+            long retryAt = clock.millis() + properties.getRetryDelay().toMillis();
+            synchronized (wheel) {
+                // Not over a deadline scheduled meanwhile by an event
+                orderIds.forEach(id -> wheel.scheduleIfAbsent(new Deadline(kind, id), retryAt));
+            }
+        }
+    }
+
+    private void cancelUnpaid(List<Long> orderIds) {
+        BulkStatusUpdateResponse response = bulkStatusService.updateStatus(orderIds, OrderStatus.PENDING,
+                PaymentStatus.UNPAID, OrderStatus.CANCELLED);
+        cancelled.increment(response.getUpdated());
+        logger.info("Cancelled {} orders unpaid for {}, {} had moved on", response.getUpdated(),
+                properties.getUnpaidTimeout(), orderIds.size() - response.getUpdated());
+    }
+
+    private void alertConfirmed(List<Long> orderIds) {
+        for (int from = 0; from < orderIds.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = orderIds.subList(from, Math.min(from + CHUNK_SIZE, orderIds.size()));
+            jdbcTemplate.query("SELECT id, order_number, updated_at FROM orders "
+                    + "WHERE id IN (:ids) AND status = 'CONFIRMED' AND deleted_at IS NULL",
+                    new MapSqlParameterSource("ids", chunk), rs -> {
+                        slaBreaches.increment();
+                        logger.warn("SLA breached: order {} (id {}) has been confirmed for longer than {}, "
+                                + "last updated at {}", rs.getString("order_number"), rs.getLong("id"),
+                                properties.getConfirmedSla(), rs.getTimestamp("updated_at").toLocalDateTime());
+                    });
+        }
+    }
+
+    private long deadline(LocalDateTime start, Duration window) {
+        return start.plus(window).atZone(clock.getZone()).toInstant().toEpochMilli();
+    }
+}
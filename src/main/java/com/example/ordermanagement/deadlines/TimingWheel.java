@@ -0,0 +1,172 @@
+package com.example.ordermanagement.deadlines;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hierarchical timing wheel: keeps any number of keyed deadlines, schedules and cancels them in constant time, and
+ * hands out the due ones as time advances without looking at the others.
+ * <p>
+ * The lowest wheel has {@code wheelSize} slots of one tick each. Each further wheel has as many slots, each as long
+ * as the whole wheel below it; wheels are added as far-off deadlines require them. A deadline goes into the lowest
+ * wheel whose range covers it. When time reaches a slot of a higher wheel, the slot's deadlines move down into the
+ * lower wheels; when it reaches a slot of the lowest wheel, the slot's deadlines are due. Deadlines are rounded up to
+ * whole ticks, so a key is never due early and at most one tick late.
+ * </p>
+ * <p>
+ * Not thread-safe; callers synchronize.
+ * </p>
+ *
+ * @param <K> the key of a deadline; scheduling a key again replaces its earlier deadline
+ */
+class TimingWheel<K> {
+
+    private record Position(long deadline, int wheel, int slot) {
+    }
+
+    private final long tick;
+    private final int wheelSize;
+    private final List<Long> spans = new ArrayList<>();
+    private final List<List<Set<K>>> wheels = new ArrayList<>();
+    private final Map<K, Position> positions = new HashMap<>();
+    private final Set<K> due = new LinkedHashSet<>();
+    private long currentTime;
+
+    /**
+     * @param tick      length of a slot of the lowest wheel, in milliseconds
+     * @param startTime the current time, in milliseconds
+     */
+    TimingWheel(long tick, int wheelSize, long startTime) {
+        if (tick <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("The tick must be positive and a wheel needs at least two slots");
+        }
+        this.tick = tick;
+        this.wheelSize = wheelSize;
+        this.currentTime = floor(startTime, tick);
+        addWheel();
+    }
+
+    /**
+     * Schedules the key at the deadline, in milliseconds, replacing any earlier deadline of the key. A deadline that
+     * has passed is due at the next {@link #advance}.
+     */
+    void schedule(K key, long deadline) {
+        cancel(key);
+        place(key, -floor(-deadline, tick));
+    }
+
+    /**
+     * Schedules the key unless it is scheduled already.
+     *
+     * @return whether the key was scheduled
+     */
+    boolean scheduleIfAbsent(K key, long deadline) {
+        if (positions.containsKey(key)) {
+            return false;
+        }
+        schedule(key, deadline);
+        return true;
+    }
+
+    /**
+     * @return whether the key was scheduled
+     */
+    boolean cancel(K key) {
+        Position position = positions.remove(key);
+        if (position == null) {
+            return false;
+        }
+        if (position.wheel() < 0) {
+            due.remove(key);
+        } else {
+            wheels.get(position.wheel()).get(position.slot()).remove(key);
+        }
+        return true;
+    }
+
+    boolean contains(K key) {
+        return positions.containsKey(key);
+    }
+
+    /**
+     * Number of scheduled keys, due ones included.
+     */
+    int size() {
+        return positions.size();
+    }
+
+    /**
+     * Moves the wheel to the given time and removes and returns the keys due by then, in no particular order.
+     */
+    List<K> advance(long now) {
+        long target = floor(now, tick);
+        while (currentTime < target) {
+            if (positions.size() == due.size()) {
+                // Nothing left in the wheels, so there is no slot to visit on the way
+                currentTime = target;
+                break;
+            }
+            currentTime += tick;
+            // Higher wheels first, so that deadlines moving down are picked up by the lower wheels at the same time
+            for (int wheel = wheels.size() - 1; wheel >= 0; wheel--) {
+                if (Math.floorMod(currentTime, spans.get(wheel)) == 0) {
+                    List<Set<K>> slots = wheels.get(wheel);
+                    int slot = slot(currentTime, wheel);
+                    Set<K> keys = slots.get(slot);
+                    if (keys != null) {
+                        slots.set(slot, null);
+                        keys.forEach(key -> place(key, positions.get(key).deadline()));
+                    }
+                }
+            }
+        }
+        List<K> expired = new ArrayList<>(due);
+        due.clear();
+        expired.forEach(positions::remove);
+        return expired;
+    }
+
+    private void place(K key, long deadline) {
+        if (deadline <= currentTime) {
+            due.add(key);
+            positions.put(key, new Position(deadline, -1, -1));
+            return;
+        }
+        int wheel = 0;
+        while (deadline >= floor(currentTime, spans.get(wheel)) + spans.get(wheel) * wheelSize) {
+            wheel++;
+            if (wheel == wheels.size()) {
+                addWheel();
+            }
+        }
+        int slot = slot(deadline, wheel);
+        List<Set<K>> slots = wheels.get(wheel);
+        if (slots.get(slot) == null) {
+            slots.set(slot, new HashSet<>());
+        }
+        slots.get(slot).add(key);
+        positions.put(key, new Position(deadline, wheel, slot));
+    }
+
+    private int slot(long time, int wheel) {
+        return (int) Math.floorMod(Math.floorDiv(time, spans.get(wheel)), (long) wheelSize);
+    }
+
+    private void addWheel() {
+        spans.add(spans.isEmpty() ? tick : Math.multiplyExact(spans.get(spans.size() - 1), (long) wheelSize));
+        List<Set<K>> slots = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            slots.add(null);
+        }
+        wheels.add(slots);
+    }
+
+    private static long floor(long time, long unit) {
+        return time - Math.floorMod(time, unit);
+    }
+}
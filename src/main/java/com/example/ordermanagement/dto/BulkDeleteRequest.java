@@ -0,0 +1,35 @@
+package com.example.ordermanagement.dto;
+
+import com.example.ordermanagement.entity.OrderStatus;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Deletes every order matching all the given criteria. At least one criterion is required.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkDeleteRequest {
+
+    private OrderStatus status;
+
+    /**
+     * Inclusive lower bound of {@code createdAt}.
+     */
+    private LocalDateTime createdFrom;
+
+    /**
+     * Exclusive upper bound of {@code createdAt}.
+     */
+    private LocalDateTime createdTo;
+
+    @Size(min = 1, max = 255, message = "Order number prefix must be between 1 and 255 characters")
+    private String orderNumberPrefix;
+}
@@ -0,0 +1,18 @@
+package com.example.ordermanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkDeleteResponse {
+
+    private int deleted;
+    private LocalDateTime deletedAt;
+}
@@ -0,0 +1,55 @@
+package com.example.ordermanagement.dto;
+
+import com.example.ordermanagement.entity.OrderStatus;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves many orders to one status. The orders are given either as {@link #ids} or as a {@link #filter}, not both.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkStatusUpdateRequest {
+
+    @NotNull(message = "Status is required")
+    private OrderStatus status;
+
+    @Size(max = 10_000, message = "At most 10000 ids per request")
+    private List<Long> ids;
+
+    @Valid
+    private Filter filter;
+
+    /**
+     * Selects orders by current status and creation time. Unset fields do not restrict the selection, but at least
+     * one must be set.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Filter {
+
+        private OrderStatus currentStatus;
+
+        /**
+         * Inclusive lower bound of {@code createdAt}.
+         */
+        private LocalDateTime createdFrom;
+
+        /**
+         * Exclusive upper bound of {@code createdAt}.
+         */
+        private LocalDateTime createdTo;
+    }
+}
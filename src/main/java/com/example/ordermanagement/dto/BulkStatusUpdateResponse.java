@@ -0,0 +1,43 @@
+package com.example.ordermanagement.dto;
+
+import com.example.ordermanagement.entity.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkStatusUpdateResponse {
+
+    private OrderStatus status;
+    private int updated;
+    private int unchanged;
+    private int rejected;
+    private int notFound;
+
+    @Builder.Default
+    private List<Result> results = new ArrayList<>();
+
+    public enum Outcome {
+        /** Moved to the requested status. */
+        UPDATED,
+        /** Already in the requested status. */
+        UNCHANGED,
+        /** Its current status does not allow the transition. */
+        REJECTED,
+        /** No order with this id. */
+        NOT_FOUND
+    }
+
+    /**
+     * @param previousStatus the status before the request; {@code null} if the order was not found
+     */
+    public record Result(Long id, Outcome outcome, OrderStatus previousStatus) {
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.ordermanagement.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Creates, updates and deletes items of one order together. Each list may be omitted. An item may be updated or
+ * deleted, but not both, and only once.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ItemBatchRequest {
+
+    /**
+     * When set, the batch is only applied if the order is still at this version.
+     */
+    private Long version;
+
+    @Valid
+    @Size(max = 1000, message = "At most 1000 items to create per batch")
+    private List<ItemRequest> create;
+
+    @Valid
+    @Size(max = 1000, message = "At most 1000 items to update per batch")
+    private List<ItemUpdate> update;
+
+    @Size(max = 1000, message = "At most 1000 items to delete per batch")
+    private List<@NotNull(message = "Item id is required") Long> delete;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ItemUpdate {
+
+        @NotNull(message = "Item id is required")
+        private Long id;
+
+        @NotNull(message = "Item details are required")
+        @Valid
+        private ItemRequest item;
+    }
+}
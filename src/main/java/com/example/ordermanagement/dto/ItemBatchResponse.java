@@ -0,0 +1,33 @@
+package com.example.ordermanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of an item batch: the items as written, and the order's new total and version.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ItemBatchResponse {
+
+    private Long orderId;
+    private Long version;
+    private BigDecimal totalAmount;
+
+    @Builder.Default
+    private List<ItemResponse> created = new ArrayList<>();
+
+    @Builder.Default
+    private List<ItemResponse> updated = new ArrayList<>();
+
+    @Builder.Default
+    private List<Long> deleted = new ArrayList<>();
+}
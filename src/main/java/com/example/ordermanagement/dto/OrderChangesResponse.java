@@ -0,0 +1,47 @@
+package com.example.ordermanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderChangesResponse {
+
+    @Builder.Default
+    private List<Change> changes = new ArrayList<>();
+
+    /**
+     * Cursor for the next request: the change number of the last change in this page, or the requested one if the
+     * page is empty.
+     */
+    private long nextSince;
+
+    /**
+     * Whether more changes are ready, so the next page can be requested at once.
+     */
+    private boolean hasMore;
+
+    /**
+     * The latest state of one order. A deleted order is a tombstone: {@code deleted} is set and {@code order} is
+     * {@code null}.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Change {
+        private long seq;
+        private Long orderId;
+        private boolean deleted;
+        private LocalDateTime deletedAt;
+        private OrderResponse order;
+    }
+}
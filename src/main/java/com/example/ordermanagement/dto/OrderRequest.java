@@ -3,6 +3,7 @@ package com.example.ordermanagement.dto;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -17,7 +18,11 @@ import java.util.List;
 @Builder
 public class OrderRequest {
 
-    @NotBlank(message = "Order number is required")
+    /**
+     * Required, unless the server generates order numbers ({@code app.order-numbers.server-generated}). On update, a
+     * missing number keeps the current one.
+     */
+    @Size(max = 255, message = "Order number must be at most 255 characters")
     private String orderNumber;
 
     @NotBlank(message = "Customer name is required")
@@ -19,9 +19,15 @@ import java.util.List;
 public class OrderResponse {
 
     private Long id;
+
+    /**
+     * Increases with every change to the order or its items.
+     */
+    private Long version;
     private String orderNumber;
     private String customerName;
     private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
     private BigDecimal totalAmount;
     private OrderStatus status;
     private PaymentStatus paymentStatus;
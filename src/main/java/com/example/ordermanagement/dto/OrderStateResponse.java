@@ -0,0 +1,28 @@
+package com.example.ordermanagement.dto;
+
+import com.example.ordermanagement.entity.OrderStatus;
+import com.example.ordermanagement.entity.PaymentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * The fulfilment state of an order without its items, returned by the status, payment and tracking updates.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderStateResponse {
+
+    private Long id;
+    private Long version;
+    private String orderNumber;
+    private OrderStatus status;
+    private PaymentStatus paymentStatus;
+    private String trackingNumber;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,23 @@
+package com.example.ordermanagement.dto;
+
+import com.example.ordermanagement.entity.PaymentStatus;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PaymentUpdateRequest {
+
+    @NotNull(message = "Payment status is required")
+    private PaymentStatus paymentStatus;
+
+    /**
+     * When set, the change is only applied if the order is still at this version.
+     */
+    private Long version;
+}
@@ -0,0 +1,43 @@
+package com.example.ordermanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SalesReportResponse {
+
+    private LocalDate from;
+    private LocalDate to;
+    private long orderCount;
+
+    @Builder.Default
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    /**
+     * Days with orders, in date order.
+     */
+    @Builder.Default
+    private List<Bucket> byDay = new ArrayList<>();
+
+    @Builder.Default
+    private List<Bucket> byStatus = new ArrayList<>();
+
+    @Builder.Default
+    private List<Bucket> byPaymentStatus = new ArrayList<>();
+
+    /**
+     * @param key the day, status or payment status
+     */
+    public record Bucket(String key, long orderCount, BigDecimal revenue) {
+    }
+}
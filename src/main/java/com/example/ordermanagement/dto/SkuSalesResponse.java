@@ -0,0 +1,30 @@
+package com.example.ordermanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SkuSalesResponse {
+
+    private LocalDate from;
+    private LocalDate to;
+
+    /**
+     * The best-selling SKUs, by revenue.
+     */
+    @Builder.Default
+    private List<SkuSales> skus = new ArrayList<>();
+
+    public record SkuSales(String sku, long quantity, BigDecimal revenue) {
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.ordermanagement.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TrackingUpdateRequest {
+
+    @NotBlank(message = "Tracking number is required")
+    @Size(max = 255, message = "Tracking number must be at most 255 characters")
+    private String trackingNumber;
+
+    /**
+     * When set, the change is only applied if the order is still at this version.
+     */
+    private Long version;
+}
@@ -0,0 +1,29 @@
+package com.example.ordermanagement.dto;
+
+import com.example.ordermanagement.events.OrderEvent;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WebhookSubscriptionRequest {
+
+    @NotBlank(message = "URL is required")
+    @Size(max = 2048, message = "URL must be at most 2048 characters")
+    @Pattern(regexp = "https?://\\S+", message = "URL must be an http or https URL")
+    private String url;
+
+    /**
+     * The event types to send; all of them when empty.
+     */
+    private Set<OrderEvent.Type> eventTypes;
+}
@@ -0,0 +1,32 @@
+package com.example.ordermanagement.dto;
+
+import com.example.ordermanagement.events.OrderEvent;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WebhookSubscriptionResponse {
+
+    private Long id;
+    private String url;
+    private Set<OrderEvent.Type> eventTypes;
+    private LocalDateTime createdAt;
+
+    /**
+     * Events waiting for delivery to the endpoint.
+     */
+    private int queued;
+
+    /**
+     * Whether deliveries are suspended after repeated failures.
+     */
+    private boolean circuitOpen;
+}
@@ -3,30 +3,37 @@ package com.example.ordermanagement.entity;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 
 import java.math.BigDecimal;
 
 @Entity
 @Table(name = "items")
-@Data
+@Getter
+@Setter
+@ToString(onlyExplicitlyIncluded = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Item {
 
     @Id
+    @ToString.Include
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     @Column(nullable = false)
+    @ToString.Include
     private String sku;
 
     @Column(nullable = false)
     private String name;
 
     @Column(nullable = false)
+    @ToString.Include
     private Integer quantity;
 
     @Column(nullable = false, precision = 10, scale = 2)
@@ -38,4 +45,21 @@ public class Item {
 
     private String imageUrl;
     private BigDecimal weight;
-}
\ No newline at end of file
+
+    // Identity-based equality, see Order#equals
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Item other)) {
+            return false;
+        }
+        return id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Item.class.hashCode();
+    }
+}
@@ -3,27 +3,76 @@ package com.example.ordermanagement.entity;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.SQLRestriction;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * An order. Updates only write the columns that changed, so a status, payment or tracking update is a narrow
+ * {@code UPDATE} that leaves the items alone.
+ * <p>
+ * Deleting an order only sets {@link #deletedAt}; the row and its items are removed later by the purge job. Reads
+ * from the database skip deleted orders, but a lookup by id can be served from the second-level cache, so such
+ * lookups go through {@code OrderRepository.findActiveById}.
+ * </p>
+ * <p>
+ * Every insert and every update of the row, including those made with plain JDBC, draws a new {@link #changeSeq}
+ * from a database sequence. Item changes update the order row, so they advance it too.
+ * </p>
+ */
 @Entity
-@Table(name = "orders")
-@Data
+@DynamicUpdate
+@SQLRestriction("deleted_at IS NULL")
+@Table(name = "orders", uniqueConstraints = @UniqueConstraint(name = Order.ORDER_NUMBER_CONSTRAINT,
+        columnNames = "order_number"), indexes = {
+        @Index(name = "idx_orders_deleted_at", columnList = "deleted_at"),
+        @Index(name = "idx_orders_change_seq", columnList = "change_seq"),
+        @Index(name = "idx_orders_status", columnList = "status, payment_status")})
+@Getter
+@Setter
+@ToString(onlyExplicitlyIncluded = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Order {
 
+    /**
+     * Name of the unique constraint on {@link #orderNumber}, used to recognise its violations.
+     */
+    public static final String ORDER_NUMBER_CONSTRAINT = "uk_orders_order_number";
+
+    /**
+     * Database sequence behind {@link #changeSeq}, created by {@code schema.sql}.
+     */
+    public static final String CHANGE_SEQUENCE = "order_change_seq";
+
     @Id
+    @ToString.Include
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(unique = true, nullable = false)
+    /**
+     * Optimistic lock version. Item changes {@link #touch()} the order, so they increment it too: two concurrent
+     * writes to an order or to its items conflict instead of overwriting each other. Rows inserted with plain JDBC
+     * start at 0.
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(nullable = false)
+    @ToString.Include
     private String orderNumber;
 
     @Column(nullable = false)
@@ -32,11 +81,14 @@ public class Order {
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
+    private LocalDateTime updatedAt;
+
     @Column(precision = 10, scale = 2)
     private BigDecimal totalAmount;
 
     @Enumerated(EnumType.STRING)
     @Builder.Default
+    @ToString.Include
     private OrderStatus status = OrderStatus.PENDING;
 
     @Enumerated(EnumType.STRING)
@@ -47,6 +99,20 @@ public class Order {
     private String billingAddress;
     private String trackingNumber;
 
+    /**
+     * When the order was deleted; {@code null} for live orders. A deleted order keeps its order number until it is
+     * purged.
+     */
+    private LocalDateTime deletedAt;
+
+    /**
+     * Position of the order's latest change in the change feed. Assigned by the database on every insert and update
+     * ({@code ON UPDATE}), never written by Hibernate, so the value of a loaded entity may be behind the row.
+     */
+    @Column(insertable = false, updatable = false, columnDefinition = "BIGINT DEFAULT NEXT VALUE FOR "
+            + CHANGE_SEQUENCE + " ON UPDATE NEXT VALUE FOR " + CHANGE_SEQUENCE)
+    private Long changeSeq;
+
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
     private List<Item> items = new ArrayList<>();
@@ -56,11 +122,26 @@ public class Order {
         if (createdAt == null) {
             createdAt = LocalDateTime.now();
         }
+        updatedAt = createdAt;
         calculateTotalAmount();
     }
 
     @PreUpdate
     protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+        // Items that were never loaded did not change, and loading them just for the total would defeat narrow updates
+        if (Hibernate.isInitialized(items)) {
+            calculateTotalAmount();
+        }
+    }
+
+    /**
+     * Marks the order as modified after a change to its items and recomputes the total, so that the order row is
+     * updated as well: the update checks and increments {@link #version} and keeps the second-level cache entry
+     * current (a version-only increment through a lock mode would bypass the cache).
+     */
+    public void touch() {
+        updatedAt = LocalDateTime.now();
         calculateTotalAmount();
     }
 
@@ -81,4 +162,29 @@ public class Order {
         items.remove(item);
         item.setOrder(null);
     }
-}
\ No newline at end of file
+
+    /**
+     * Orders are equal when they have the same id; a transient order (no id yet) is only equal to itself. Neither
+     * this nor {@link #hashCode()} or {@code toString()} touches {@link #items}, so putting orders in sets, logging
+     * them or flushing the persistence context never loads or walks the collection.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Order other)) {
+            return false;
+        }
+        return id != null && id.equals(other.getId());
+    }
+
+    /**
+     * Constant per type, so the hash code does not change when the id is assigned on persist and never touches
+     * lazy state.
+     */
+    @Override
+    public int hashCode() {
+        return Order.class.hashCode();
+    }
+}
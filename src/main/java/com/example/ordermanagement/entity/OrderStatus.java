@@ -1,5 +1,41 @@
 package com.example.ordermanagement.entity;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Order lifecycle. An order moves forward from {@code PENDING} through {@code CONFIRMED} and {@code SHIPPED} to
+ * {@code DELIVERED}, and can be cancelled until it ships. {@code DELIVERED} and {@code CANCELLED} are final.
+ */
 public enum OrderStatus {
-    PENDING, CONFIRMED, SHIPPED, DELIVERED, CANCELLED
-}
\ No newline at end of file
+    PENDING, CONFIRMED, SHIPPED, DELIVERED, CANCELLED;
+
+    private static final Map<OrderStatus, Set<OrderStatus>> SOURCES = new EnumMap<>(OrderStatus.class);
+
+    static {
+        SOURCES.put(PENDING, EnumSet.noneOf(OrderStatus.class));
+        SOURCES.put(CONFIRMED, EnumSet.of(PENDING));
+        SOURCES.put(SHIPPED, EnumSet.of(CONFIRMED));
+        SOURCES.put(DELIVERED, EnumSet.of(SHIPPED));
+        SOURCES.put(CANCELLED, EnumSet.of(PENDING, CONFIRMED));
+        SOURCES.replaceAll((target, sources) -> Collections.unmodifiableSet(sources));
+    }
+
+    /**
+     * Whether an order in this status may be moved to {@code target}. Staying in the same status is not a
+     * transition and is not allowed here; callers treat it as a no-op.
+     */
+    public boolean canTransitionTo(OrderStatus target) {
+        return SOURCES.get(target).contains(this);
+    }
+
+    /**
+     * The statuses from which an order may be moved to this one.
+     */
+    public Set<OrderStatus> sources() {
+        return SOURCES.get(this);
+    }
+}
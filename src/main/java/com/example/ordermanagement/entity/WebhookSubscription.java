@@ -0,0 +1,67 @@
+package com.example.ordermanagement.entity;
+
+import com.example.ordermanagement.events.OrderEvent;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A partner endpoint that receives order events by HTTP callback.
+ */
+@Entity
+@Table(name = "webhook_subscriptions")
+@Getter
+@Setter
+@ToString(onlyExplicitlyIncluded = true)
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class WebhookSubscription {
+
+    @Id
+    @ToString.Include
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 2048)
+    @ToString.Include
+    private String url;
+
+    /**
+     * The event types sent to the endpoint; empty for all.
+     */
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "webhook_subscription_event_types", joinColumns = @JoinColumn(name = "subscription_id"))
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", length = 32)
+    @Builder.Default
+    private Set<OrderEvent.Type> eventTypes = new HashSet<>();
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    // Identity-based equality, see Order#equals
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof WebhookSubscription other)) {
+            return false;
+        }
+        return id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return WebhookSubscription.class.hashCode();
+    }
+}
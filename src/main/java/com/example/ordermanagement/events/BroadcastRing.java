@@ -0,0 +1,118 @@
+package com.example.ordermanagement.events;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A fixed-size ring of the most recent values, written by any number of publishers and read by any number of
+ * consumers, each at its own cursor, without locks.
+ * <p>
+ * A publisher claims the next sequence number with one atomic increment and stores an immutable entry in its slot,
+ * so readers never see a half-written value. Values are never removed: a consumer that falls more than
+ * {@link #capacity()} values behind finds its next one overwritten ({@link OverrunException}) and must skip ahead,
+ * which bounds the memory held for slow consumers to the ring itself.
+ * </p>
+ * <p>
+ * Consumers that have caught up wait on {@link #signal()}, a future completed by the next publish. Publishers
+ * never wait for consumers.
+ * </p>
+ */
+public class BroadcastRing<T> {
+
+    private final AtomicReferenceArray<Entry<T>> slots;
+    private final int mask;
+    private final AtomicLong next = new AtomicLong();
+    private final AtomicReference<CompletableFuture<Void>> signal = new AtomicReference<>(new CompletableFuture<>());
+
+    /**
+     * @param capacity number of values kept; rounded up to a power of two
+     */
+    public BroadcastRing(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity must be between 1 and 2^30");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Sequence number the next published value will get; a consumer starting here sees only new values.
+     */
+    public long next() {
+        return next.get();
+    }
+
+    /**
+     * Oldest sequence number that may still be read.
+     */
+    public long oldest() {
+        return Math.max(0, next.get() - capacity());
+    }
+
+    /**
+     * Stores a value, overwriting the oldest one once the ring is full, and wakes the waiting consumers.
+     *
+     * @return the value's sequence number
+     */
+    public long publish(T value) {
+        long sequence = next.getAndIncrement();
+        slots.set((int) (sequence & mask), new Entry<>(sequence, value));
+        signal.getAndSet(new CompletableFuture<>()).complete(null);
+        return sequence;
+    }
+
+    /**
+     * The value with the given sequence number, or {@code null} if it has not been published yet. A publisher that
+     * claimed the number may still be storing it, so {@code null} can also come before {@link #next()}.
+     *
+     * @throws OverrunException if the value has already been overwritten
+     */
+    public T get(long sequence) {
+        Entry<T> entry = slots.get((int) (sequence & mask));
+        if (entry == null || entry.sequence() < sequence) {
+            return null;
+        }
+        if (entry.sequence() > sequence) {
+            throw new OverrunException(sequence);
+        }
+        return entry.value();
+    }
+
+    /**
+     * Completed by the next publish. Take it before looking for values, so that a value published in between
+     * completes the future that is then waited on.
+     */
+    public CompletableFuture<Void> signal() {
+        return signal.get();
+    }
+
+    private record Entry<T>(long sequence, T value) {
+    }
+
+    /**
+     * A consumer asked for a value that has been overwritten: it fell too far behind.
+     */
+    public static class OverrunException extends RuntimeException {
+
+        private final long sequence;
+
+        OverrunException(long sequence) {
+            super("Value " + sequence + " has been overwritten", null, false, false);
+            this.sequence = sequence;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.ordermanagement.events;
+
+import com.example.ordermanagement.entity.Order;
+import com.example.ordermanagement.entity.OrderStatus;
+import com.example.ordermanagement.entity.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A change to an order, published by the services through the application event publisher. Listeners that act on
+ * it outside the database see it only once the change has committed.
+ *
+ * @param version the order's version after the change
+ */
+public record OrderEvent(Type type, Long orderId, String orderNumber, OrderStatus status,
+        PaymentStatus paymentStatus, BigDecimal totalAmount, Long version, LocalDateTime occurredAt) {
+
+    public enum Type {
+        CREATED,
+        /** Replaced as a whole, items included. */
+        UPDATED,
+        STATUS_CHANGED,
+        PAYMENT_CHANGED,
+        TRACKING_CHANGED,
+        /** Items were added, changed or removed. */
+        ITEMS_CHANGED,
+        DELETED
+    }
+
+    /**
+     * The event for the current state of a flushed order.
+     */
+    public static OrderEvent of(Type type, Order order) {
+        return new OrderEvent(type, order.getId(), order.getOrderNumber(), order.getStatus(),
+                order.getPaymentStatus(), order.getTotalAmount(), order.getVersion(), LocalDateTime.now());
+    }
+
+    /**
+     * The event for an order changed with plain JDBC, from the column values of its row after the change.
+     */
+    public static OrderEvent of(Type type, Long orderId, String orderNumber, String status, String paymentStatus,
+            BigDecimal totalAmount, Long version) {
+        return new OrderEvent(type, orderId, orderNumber, status != null ? OrderStatus.valueOf(status) : null,
+                paymentStatus != null ? PaymentStatus.valueOf(paymentStatus) : null, totalAmount, version,
+                LocalDateTime.now());
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.ordermanagement.events;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Creates the {@link OrderEventStream}; it is shut down with the context, which ends the open streams.
+ */
+@Configuration
+public class OrderEventConfig {
+
+    @Bean
+    public OrderEventStream orderEventStream(OrderEventProperties properties, MeterRegistry meterRegistry) {
+        return new OrderEventStream(properties, meterRegistry);
+    }
+}
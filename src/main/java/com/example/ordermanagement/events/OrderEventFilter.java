@@ -0,0 +1,25 @@
+package com.example.ordermanagement.events;
+
+import com.example.ordermanagement.entity.OrderStatus;
+
+import java.util.Set;
+
+/**
+ * Selects the events a subscriber receives. An empty set places no restriction.
+ */
+public record OrderEventFilter(Set<Long> orderIds, Set<OrderEvent.Type> types, Set<OrderStatus> statuses) {
+
+    public static final OrderEventFilter ALL = new OrderEventFilter(Set.of(), Set.of(), Set.of());
+
+    public OrderEventFilter {
+        orderIds = orderIds != null ? Set.copyOf(orderIds) : Set.of();
+        types = types != null ? Set.copyOf(types) : Set.of();
+        statuses = statuses != null ? Set.copyOf(statuses) : Set.of();
+    }
+
+    public boolean matches(OrderEvent event) {
+        return (orderIds.isEmpty() || orderIds.contains(event.orderId()))
+                && (types.isEmpty() || types.contains(event.type()))
+                && (statuses.isEmpty() || event.status() != null && statuses.contains(event.status()));
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.ordermanagement.events;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the server-sent event stream of order events.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.order-events")
+public class OrderEventProperties {
+
+    /**
+     * Number of recent events kept for all subscribers together; rounded up to a power of two. A subscriber that
+     * falls further behind is handled according to {@link #overflow}.
+     */
+    private int bufferSize = 8192;
+
+    /**
+     * Most open streams per node; further subscriptions are refused with {@code 503}.
+     */
+    private int maxSubscribers = 10000;
+
+    /**
+     * Interval of the comments sent on an idle stream, which keep proxies from closing it and detect gone clients.
+     */
+    private Duration heartbeat = Duration.ofSeconds(15);
+
+    /**
+     * Lifetime of a stream; clients reconnect with {@code Last-Event-ID} and continue where they stopped.
+     */
+    private Duration timeout = Duration.ofMinutes(30);
+
+    /**
+     * What happens to a subscriber that fell behind by more than the buffer.
+     */
+    private Overflow overflow = Overflow.RESYNC;
+
+    public enum Overflow {
+        /** Send a {@code resync} event and continue with the newest events; the client reloads what it shows. */
+        RESYNC,
+        /** Close the stream; the client reconnects and resyncs. */
+        DISCONNECT
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.ordermanagement.events;
+
+import com.example.ordermanagement.exception.TooManySubscribersException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes committed {@link OrderEvent}s to server-sent event subscribers.
+ * <p>
+ * Events go into one {@link BroadcastRing} shared by all subscribers; publishing never waits for them. Each subscriber
+ * has its own cursor into the ring, its own {@link OrderEventFilter} and a virtual thread that sends it the matching
+ * events and parks while it has caught up, so a slow client only slows down its own thread. A subscriber that falls
+ * behind by more than the ring gets a {@code resync} event and continues with the newest events, or is disconnected
+ * (see {@link OrderEventProperties.Overflow}); no per-subscriber backlog is ever built up. The event id is the ring
+ * sequence, prefixed with an epoch drawn when the stream is created, as in {@code k3x9q2-41}. A client that reconnects
+ * with {@code Last-Event-ID} continues where it stopped, as long as the ring still holds the next event. Sequences
+ * start again at 0 after a restart and differ between nodes, so an id of another epoch gets a {@code resync}.
+ * </p>
+ */
+public class OrderEventStream {
+
+    static final String RESYNC_EVENT = "resync";
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderEventStream.class);
+
+    private final String epoch;
+    private final BroadcastRing<OrderEvent> ring;
+    private final OrderEventProperties properties;
+    private final ThreadFactory threads = Thread.ofVirtual().name("order-events-", 0).factory();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final Counter published;
+    private final Counter overruns;
+
+    public OrderEventStream(OrderEventProperties properties, MeterRegistry meterRegistry) {
+        this.epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, Character.MAX_RADIX);
+        this.ring = new BroadcastRing<>(properties.getBufferSize());
+        this.properties = properties;
+        Gauge.builder("app.order-events.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open order event streams")
+                .register(meterRegistry);
+        this.published = Counter.builder("app.order-events.published")
+                .description("Order events put into the stream buffer")
+                .register(meterRegistry);
+        this.overruns = Counter.builder("app.order-events.overruns")
+                .description("Times a subscriber fell behind by more than the buffer")
+                .tag("overflow", properties.getOverflow().name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry);
+    }
+
+    /**
+     * Receives the events of committed transactions, and those published outside of one at once.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderEvent(OrderEvent event) {
+        ring.publish(event);
+        published.increment();
+    }
+
+    /**
+     * Opens a stream of the events matching the filter.
+     *
+     * @param lastEventId id of the last event the client received before reconnecting, or {@code null}
+     */
+    public SseEmitter subscribe(OrderEventFilter filter, String lastEventId) {
+        if (subscriberCount.incrementAndGet() > properties.getMaxSubscribers()) {
+            subscriberCount.decrementAndGet();
+            throw new TooManySubscribersException("This node already serves " + properties.getMaxSubscribers()
+                    + " event streams");
+        }
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(emitter, filter);
+        subscriber.start(lastEventId);
+        return emitter;
+    }
+
+    /**
+     * Ends all streams; their clients reconnect to another node or after the restart.
+     */
+    public void shutdown() {
+        subscribers.forEach(Subscriber::disconnect);
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final OrderEventFilter filter;
+        private final AtomicBoolean open = new AtomicBoolean(true);
+        private long cursor;
+        private volatile Thread thread;
+
+        Subscriber(SseEmitter emitter, OrderEventFilter filter) {
+            this.emitter = emitter;
+            this.filter = filter;
+        }
+
+        void start(String lastEventId) {
+            boolean resync = false;
+            cursor = ring.next();
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                long resumeAt = parse(lastEventId) + 1;
+                // An id of another epoch, or one the ring no longer holds, cannot be continued from
+                if (resumeAt >= 0 && resumeAt <= cursor && resumeAt >= ring.oldest()) {
+                    cursor = resumeAt;
+                } else {
+                    resync = true;
+                }
+            }
+            boolean sendResync = resync;
+            subscribers.add(this);
+            emitter.onCompletion(this::close);
+            emitter.onTimeout(this::close);
+            emitter.onError(ex -> close());
+            thread = threads.newThread(() -> run(sendResync));
+            thread.start();
+        }
+
+        private void run(boolean resync) {
+            try {
+                if (resync) {
+                    sendResync();
+                }
+                while (open.get()) {
+                    // Taken before draining, so an event published meanwhile wakes the wait below
+                    CompletableFuture<Void> signal = ring.signal();
+                    drain();
+                    try {
+                        signal.get(properties.getHeartbeat().toMillis(), TimeUnit.MILLISECONDS);
+                    } catch (TimeoutException ex) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    }
+                }
+            } catch (IOException | IllegalStateException ex) {
+                // The client went away or the emitter was completed; the container reports it to the callbacks
+                logger.debug("Order event stream closed: {}", ex.getMessage());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException ex) {
+                throw new IllegalStateException(ex);
+            } finally {
+                close();
+            }
+        }
+
+        private void drain() throws IOException {
+            while (open.get()) {
+                OrderEvent event;
+                try {
+                    event = ring.get(cursor);
+                } catch (BroadcastRing.OverrunException ex) {
+                    overruns.increment();
+                    if (properties.getOverflow() == OrderEventProperties.Overflow.DISCONNECT) {
+                        disconnect();
+                        return;
+                    }
+                    cursor = ring.next();
+                    sendResync();
+                    continue;
+                }
+                if (event == null) {
+                    return;
+                }
+                if (filter.matches(event)) {
+                    emitter.send(SseEmitter.event().id(eventId(cursor)).name(event.type().name()).data(event));
+                }
+                cursor++;
+            }
+        }
+
+        private void sendResync() throws IOException {
+            // The id lets a client that reconnects right away continue from here instead of resyncing again
+            emitter.send(SseEmitter.event().id(eventId(cursor - 1)).name(RESYNC_EVENT)
+                    .data(Map.of("reason", "Events were missed, reload the orders")));
+        }
+
+        void disconnect() {
+            emitter.complete();
+            close();
+        }
+
+        void close() {
+            if (open.compareAndSet(true, false)) {
+                subscribers.remove(this);
+                subscriberCount.decrementAndGet();
+                if (thread != null && thread != Thread.currentThread()) {
+                    thread.interrupt();
+                }
+            }
+        }
+    }
+
+    private String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    /**
+     * @return the sequence of an id of this epoch, or {@link Long#MIN_VALUE}
+     */
+    private long parse(String lastEventId) {
+        String prefix = epoch + "-";
+        String id = lastEventId.trim();
+        if (!id.startsWith(prefix)) {
+            return Long.MIN_VALUE;
+        }
+        try {
+            return Long.parseLong(id.substring(prefix.length()));
+        } catch (NumberFormatException ex) {
+            return Long.MIN_VALUE;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.ordermanagement.exception;
+
+/**
+ * A change feed cursor is older than changes that have since been purged, so following it would miss deletions. The
+ * client has to sync again from the start of the feed.
+ */
+public class ChangeFeedExpiredException extends RuntimeException {
+    public ChangeFeedExpiredException(String message) {
+        super(message);
+    }
+}
@@ -4,4 +4,8 @@ public class DuplicateOrderNumberException extends RuntimeException {
     public DuplicateOrderNumberException(String message) {
         super(message);
     }
+
+    public DuplicateOrderNumberException(String message, Throwable cause) {
+        super(message, cause);
+    }
 }
\ No newline at end of file
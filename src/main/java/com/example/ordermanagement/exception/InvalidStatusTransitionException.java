@@ -0,0 +1,7 @@
+package com.example.ordermanagement.exception;
+
+public class InvalidStatusTransitionException extends RuntimeException {
+    public InvalidStatusTransitionException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.ordermanagement.exception;
+
+/**
+ * The client asked to change an order at a version that is no longer current. Unlike an optimistic locking failure
+ * this is not retried: the client has to reload the order and decide again.
+ */
+public class OrderVersionMismatchException extends RuntimeException {
+    public OrderVersionMismatchException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.ordermanagement.exception;
+
+/**
+ * A node already serves as many event streams as it is configured for. The client should retry later, possibly
+ * reaching another node.
+ */
+public class TooManySubscribersException extends RuntimeException {
+    public TooManySubscribersException(String message) {
+        super(message);
+    }
+}
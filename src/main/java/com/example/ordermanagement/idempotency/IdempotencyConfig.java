@@ -0,0 +1,36 @@
+package com.example.ordermanagement.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import javax.sql.DataSource;
+
+/**
+ * Wires {@code Idempotency-Key} handling: the key store and {@link IdempotencyFilter}, registered right after the
+ * security filters so that the key is scoped to the authenticated user.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(prefix = "app.idempotency", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyConfig {
+
+    @Bean
+    public IdempotencyStore idempotencyStore(DataSource dataSource, IdempotencyProperties properties) {
+        return new IdempotencyStore(dataSource, properties);
+    }
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyStore store,
+            IdempotencyProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(
+                new IdempotencyFilter(store, properties, objectMapper, meterRegistry));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+}
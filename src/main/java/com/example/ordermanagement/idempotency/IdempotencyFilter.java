@@ -0,0 +1,236 @@
+package com.example.ordermanagement.idempotency;
+
+import com.example.ordermanagement.exception.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Makes the configured POST endpoints idempotent for requests that carry an {@code Idempotency-Key} header.
+ * <p>
+ * The first request with a key runs normally and its response is stored. A repeat with the same key and body gets the
+ * stored response, marked with {@code Idempotent-Replayed: true}, without reaching the controller. A repeat that
+ * arrives while the first request is still running waits for it. Keys are scoped to the authenticated user and the
+ * request path. Server errors are not stored, so a retry after a {@code 5xx} runs the request again.
+ * </p>
+ * <p>
+ * Registered after the Spring Security filters, so that rejected requests never take a key.
+ * </p>
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    static final String HEADER = "Idempotency-Key";
+    static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final List<PathPattern> paths;
+    private final Counter processed;
+    private final Counter replayed;
+    private final Counter conflict;
+    private final Counter mismatch;
+
+    public IdempotencyFilter(IdempotencyStore store, IdempotencyProperties properties, ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.paths = properties.getPaths().stream().map(PathPatternParser.defaultInstance::parse).toList();
+        this.processed = outcomeCounter(meterRegistry, "processed");
+        this.replayed = outcomeCounter(meterRegistry, "replayed");
+        this.conflict = outcomeCounter(meterRegistry, "conflict");
+        this.mismatch = outcomeCounter(meterRegistry, "mismatch");
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("app.idempotency.requests")
+                .description("Requests with an Idempotency-Key header by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!HttpMethod.POST.matches(request.getMethod()) || request.getHeader(HEADER) == null) {
+            return true;
+        }
+        PathContainer path = PathContainer.parsePath(request.getRequestURI());
+        return paths.stream().noneMatch(pattern -> pattern.matches(path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String key = request.getHeader(HEADER);
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            writeError(request, response, HttpStatus.BAD_REQUEST,
+                    HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+        byte[] body = request.getInputStream().readAllBytes();
+        String scopedKey = digest((user() + '\n' + request.getRequestURI() + '\n' + key)
+                .getBytes(StandardCharsets.UTF_8));
+
+        IdempotencyStore.Claim claim;
+        try {
+            claim = store.acquire(scopedKey, digest(body));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ServletException(ex);
+        }
+        switch (claim.outcome()) {
+            case REPLAY -> {
+                replayed.increment();
+                replay(claim.response(), response);
+            }
+            case MISMATCH -> {
+                mismatch.increment();
+                writeError(request, response, HttpStatus.UNPROCESSABLE_ENTITY,
+                        HEADER + " was already used for a different request");
+            }
+            case BUSY -> {
+                conflict.increment();
+                writeError(request, response, HttpStatus.CONFLICT,
+                        "A request with this " + HEADER + " is still being processed");
+            }
+            case ACQUIRED -> {
+                processed.increment();
+                process(new BufferedBodyRequest(request, body), response, filterChain, claim);
+            }
+        }
+    }
+
+    private void process(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+            IdempotencyStore.Claim claim) throws ServletException, IOException {
+        ContentCachingResponseWrapper bufferedResponse = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, bufferedResponse);
+            if (bufferedResponse.getStatus() < 500) {
+                store.complete(claim, new StoredResponse(bufferedResponse.getStatus(),
+                        bufferedResponse.getContentType(), bufferedResponse.getHeader(HttpHeaders.LOCATION),
+                        bufferedResponse.getContentAsByteArray()));
+                completed = true;
+            }
+        } finally {
+            if (!completed) {
+                store.release(claim);
+            }
+            bufferedResponse.copyBodyToResponse();
+        }
+    }
+
+    private void replay(StoredResponse stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        if (stored.location() != null) {
+            response.setHeader(HttpHeaders.LOCATION, stored.location());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (stored.body() != null) {
+            response.setContentLength(stored.body().length);
+            response.getOutputStream().write(stored.body());
+        }
+    }
+
+    private void writeError(HttpServletRequest request, HttpServletResponse response, HttpStatus status,
+            String message) throws IOException {
+        ErrorResponse error = new ErrorResponse(status.value(), status.getReasonPhrase(), message,
+                request.getRequestURI());
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+
+    private static String user() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : "";
+    }
+
+    private static String digest(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Serves the body that was read to fingerprint the request to the rest of the chain.
+     */
+    private static final class BufferedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        BufferedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.ordermanagement.idempotency;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for {@code Idempotency-Key} handling on create requests.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * Whether the {@code Idempotency-Key} header is honoured. When off, the header is ignored.
+     */
+    private boolean enabled = true;
+
+    /**
+     * POST paths that accept the header, as path patterns.
+     */
+    private List<String> paths = new ArrayList<>(List.of("/api/orders", "/api/items/order/{orderId}",
+            "/api/items/order/{orderId}/batch"));
+
+    /**
+     * How long a completed response is replayed for the same key.
+     */
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * How long a request holds its key while it runs. A key held longer, e.g. by a replica that died, can be taken
+     * over.
+     */
+    private Duration lease = Duration.ofMinutes(1);
+
+    /**
+     * How long a duplicate waits for the first request with its key before it gets {@code 409 Conflict}.
+     */
+    private Duration waitTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Keys kept in memory; older ones are served from the database.
+     */
+    private int maxEntries = 100_000;
+
+    /**
+     * Independently locked segments of the in-memory store.
+     */
+    private int stripes = 64;
+
+    /**
+     * How often expired keys are removed from memory and from the database.
+     */
+    private Duration purgeInterval = Duration.ofMinutes(1);
+}
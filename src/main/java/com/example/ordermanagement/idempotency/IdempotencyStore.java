@@ -0,0 +1,276 @@
+package com.example.ordermanagement.idempotency;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Records which idempotency keys are in flight and which responses they produced.
+ * <p>
+ * The in-memory store is split into stripes, each a small LRU map behind its own lock, so requests with different
+ * keys rarely contend. A duplicate of an in-flight request waits on the first attempt's future; a replay of a
+ * completed one is a map lookup. Every key is also written to the {@code idempotency_keys} table. That table is the
+ * fallback for keys evicted from memory and for duplicates that reach another replica: the insert of a key that
+ * already exists tells the request to replay the stored row, or to poll it while the other attempt is still running.
+ * </p>
+ */
+public class IdempotencyStore {
+
+    enum Outcome {
+        /** The caller holds the key and must {@link #complete} or {@link #release} it. */
+        ACQUIRED,
+        /** A previous attempt completed; its response is to be replayed. */
+        REPLAY,
+        /** The key was used for a request with a different body. */
+        MISMATCH,
+        /** Another attempt with the key is still running after the wait timeout. */
+        BUSY
+    }
+
+    /**
+     * Result of {@link #acquire}. For {@link Outcome#REPLAY} it carries the stored response.
+     */
+    record Claim(Outcome outcome, StoredResponse response, String key, Entry entry) {
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyStore.class);
+    private static final long POLL_INTERVAL_MILLIS = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IdempotencyProperties properties;
+    private final Clock clock;
+    private final Stripe[] stripes;
+
+    public IdempotencyStore(DataSource dataSource, IdempotencyProperties properties) {
+        this(dataSource, properties, Clock.systemUTC());
+    }
+
+    IdempotencyStore(DataSource dataSource, IdempotencyProperties properties, Clock clock) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.properties = properties;
+        this.clock = clock;
+        int stripeCount = Math.max(1, properties.getStripes());
+        int entriesPerStripe = Math.max(1, properties.getMaxEntries() / stripeCount);
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(entriesPerStripe);
+        }
+    }
+
+    /**
+     * Takes the key for a new attempt, or waits for the attempt that holds it.
+     *
+     * @param key the scoped key (user, path and header value)
+     * @param fingerprint digest of the request body; the same key with another body is a {@link Outcome#MISMATCH}
+     */
+    Claim acquire(String key, String fingerprint) throws InterruptedException {
+        long deadline = clock.millis() + properties.getWaitTimeout().toMillis();
+        Stripe stripe = stripes[Math.floorMod(key.hashCode(), stripes.length)];
+        while (true) {
+            long now = clock.millis();
+            Entry entry;
+            boolean created = false;
+            stripe.lock.lock();
+            try {
+                entry = stripe.entries.get(key);
+                if (entry != null && entry.expiresAtMillis <= now) {
+                    stripe.entries.remove(key);
+                    entry.done.complete(null);
+                    entry = null;
+                }
+                if (entry == null) {
+                    entry = new Entry(fingerprint, now + properties.getLease().toMillis());
+                    stripe.entries.put(key, entry);
+                    created = true;
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+
+            if (created) {
+                return claimPersisted(stripe, key, entry, deadline);
+            }
+            if (!entry.fingerprint.equals(fingerprint)) {
+                return new Claim(Outcome.MISMATCH, null, key, null);
+            }
+            try {
+                StoredResponse response = entry.done.get(Math.max(0, deadline - clock.millis()),
+                        TimeUnit.MILLISECONDS);
+                if (response != null) {
+                    return new Claim(Outcome.REPLAY, response, key, null);
+                }
+                // The first attempt failed and released the key: try to take it
+            } catch (TimeoutException ex) {
+                return new Claim(Outcome.BUSY, null, key, null);
+            } catch (ExecutionException ex) {
+                throw new IllegalStateException(ex.getCause());
+            }
+        }
+    }
+
+    /**
+     * Stores the response of an acquired key, wakes up the duplicates waiting for it and keeps it for replays.
+     */
+    void complete(Claim claim, StoredResponse response) {
+        long expiresAt = clock.millis() + properties.getTtl().toMillis();
+        try {
+            jdbcTemplate.update("UPDATE idempotency_keys SET status = ?, content_type = ?, location = ?, body = ?, "
+                    + "expires_at = ? WHERE id = ?", response.status(), response.contentType(), response.location(),
+                    response.body(), new Timestamp(expiresAt), claim.key());
+        } catch (DataAccessException ex) {
+            // Replays from memory still work; other replicas will see the key as in flight until its lease ends
+            logger.warn("Could not persist the response for an idempotency key: {}", ex.getMessage());
+        }
+        claim.entry().expiresAtMillis = expiresAt;
+        claim.entry().done.complete(response);
+    }
+
+    /**
+     * Gives up an acquired key after a failed attempt, so that a retry runs the request again.
+     */
+    void release(Claim claim) {
+        try {
+            jdbcTemplate.update("DELETE FROM idempotency_keys WHERE id = ? AND status IS NULL", claim.key());
+        } catch (DataAccessException ex) {
+            logger.warn("Could not release an idempotency key: {}", ex.getMessage());
+        }
+        forget(stripes[Math.floorMod(claim.key().hashCode(), stripes.length)], claim.key(), claim.entry());
+    }
+
+    @Scheduled(initialDelayString = "${app.idempotency.purge-interval:1m}",
+            fixedDelayString = "${app.idempotency.purge-interval:1m}")
+    public void purgeExpired() {
+        long now = clock.millis();
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                Iterator<Entry> entries = stripe.entries.values().iterator();
+                while (entries.hasNext()) {
+                    Entry entry = entries.next();
+                    if (entry.expiresAtMillis <= now) {
+                        entries.remove();
+                        entry.done.complete(null);
+                    }
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        int purged = jdbcTemplate.update("DELETE FROM idempotency_keys WHERE expires_at <= ?", new Timestamp(now));
+        if (purged > 0) {
+            logger.debug("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private Claim claimPersisted(Stripe stripe, String key, Entry entry, long deadline) throws InterruptedException {
+        while (true) {
+            try {
+                jdbcTemplate.update("INSERT INTO idempotency_keys (id, fingerprint, expires_at) VALUES (?, ?, ?)",
+                        key, entry.fingerprint, new Timestamp(entry.expiresAtMillis));
+                return new Claim(Outcome.ACQUIRED, null, key, entry);
+            } catch (DuplicateKeyException ex) {
+                // Evicted from memory, or held by another replica
+            } catch (RuntimeException ex) {
+                forget(stripe, key, entry);
+                throw ex;
+            }
+
+            PersistedKey persisted = findPersisted(key);
+            long now = clock.millis();
+            if (persisted == null) {
+                continue;
+            }
+            if (persisted.expiresAtMillis <= now) {
+                jdbcTemplate.update("DELETE FROM idempotency_keys WHERE id = ? AND expires_at <= ?", key,
+                        new Timestamp(now));
+                continue;
+            }
+            if (!persisted.fingerprint.equals(entry.fingerprint)) {
+                forget(stripe, key, entry);
+                return new Claim(Outcome.MISMATCH, null, key, null);
+            }
+            if (persisted.response != null) {
+                entry.expiresAtMillis = persisted.expiresAtMillis;
+                entry.done.complete(persisted.response);
+                return new Claim(Outcome.REPLAY, persisted.response, key, null);
+            }
+            if (now >= deadline) {
+                forget(stripe, key, entry);
+                return new Claim(Outcome.BUSY, null, key, null);
+            }
+            Thread.sleep(Math.min(POLL_INTERVAL_MILLIS, deadline - now));
+        }
+    }
+
+    private PersistedKey findPersisted(String key) {
+        List<PersistedKey> rows = jdbcTemplate.query("SELECT fingerprint, status, content_type, location, body, "
+                + "expires_at FROM idempotency_keys WHERE id = ?", (rs, rowNum) -> {
+                    int status = rs.getInt("status");
+                    StoredResponse response = rs.wasNull() ? null : new StoredResponse(status,
+                            rs.getString("content_type"), rs.getString("location"), rs.getBytes("body"));
+                    return new PersistedKey(rs.getString("fingerprint"), response,
+                            rs.getTimestamp("expires_at").getTime());
+                }, key);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private void forget(Stripe stripe, String key, Entry entry) {
+        stripe.lock.lock();
+        try {
+            stripe.entries.remove(key, entry);
+        } finally {
+            stripe.lock.unlock();
+        }
+        entry.done.complete(null);
+    }
+
+    /**
+     * An in-memory key. {@code done} completes with the response, or with {@code null} when the key is released or
+     * expires.
+     */
+    static final class Entry {
+
+        private final String fingerprint;
+        private final CompletableFuture<StoredResponse> done = new CompletableFuture<>();
+        private volatile long expiresAtMillis;
+
+        Entry(String fingerprint, long expiresAtMillis) {
+            this.fingerprint = fingerprint;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    private record PersistedKey(String fingerprint, StoredResponse response, long expiresAtMillis) {
+    }
+
+    private static final class Stripe {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<String, Entry> entries;
+
+        Stripe(int capacity) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+    }
+}
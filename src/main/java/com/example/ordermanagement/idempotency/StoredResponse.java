@@ -0,0 +1,7 @@
+package com.example.ordermanagement.idempotency;
+
+/**
+ * The parts of a response that are replayed for a repeated {@code Idempotency-Key}.
+ */
+record StoredResponse(int status, String contentType, String location, byte[] body) {
+}
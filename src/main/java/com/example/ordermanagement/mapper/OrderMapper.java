@@ -4,6 +4,7 @@ import com.example.ordermanagement.dto.ItemRequest;
 import com.example.ordermanagement.dto.ItemResponse;
 import com.example.ordermanagement.dto.OrderRequest;
 import com.example.ordermanagement.dto.OrderResponse;
+import com.example.ordermanagement.dto.OrderStateResponse;
 import com.example.ordermanagement.entity.Item;
 import com.example.ordermanagement.entity.Order;
 import org.mapstruct.*;
@@ -14,6 +15,8 @@ public interface OrderMapper {
     @Mapping(target = "items", source = "items")
     OrderResponse toResponse(Order order);
 
+    OrderStateResponse toStateResponse(Order order);
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "totalAmount", ignore = true)
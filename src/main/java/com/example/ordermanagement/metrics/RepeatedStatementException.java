@@ -0,0 +1,7 @@
+package com.example.ordermanagement.metrics;
+
+public class RepeatedStatementException extends RuntimeException {
+    public RepeatedStatementException(String message) {
+        super(message);
+    }
+}
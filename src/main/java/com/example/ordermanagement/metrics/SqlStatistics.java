@@ -0,0 +1,109 @@
+package com.example.ordermanagement.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * SQL statistics for the HTTP request running on the current thread.
+ * <p>
+ * {@link SqlStatisticsFilter} binds an instance for the duration of a request, and the instrumented JDBC objects
+ * created by {@link StatisticsDataSource} report into it. Outside of a request {@link #current()} returns
+ * {@code null} and nothing is recorded. An instance is only ever touched by the request thread, so it is not
+ * synchronized.
+ * </p>
+ */
+public final class SqlStatistics {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlStatistics.class);
+
+    private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+
+    private final int repeatedStatementThreshold;
+    private final boolean failOnRepeatedStatements;
+    private final Map<String, Integer> statementShapes = new HashMap<>();
+
+    private int statementCount;
+    private int repeatedStatementCount;
+    private long rowsFetched;
+    private long executionNanos;
+    private int connectionCount;
+    private long connectionAcquireNanos;
+
+    SqlStatistics(int repeatedStatementThreshold, boolean failOnRepeatedStatements) {
+        this.repeatedStatementThreshold = repeatedStatementThreshold;
+        this.failOnRepeatedStatements = failOnRepeatedStatements;
+    }
+
+    static SqlStatistics begin(int repeatedStatementThreshold, boolean failOnRepeatedStatements) {
+        SqlStatistics statistics = new SqlStatistics(repeatedStatementThreshold, failOnRepeatedStatements);
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    public static SqlStatistics current() {
+        return CURRENT.get();
+    }
+
+    void statementExecuted(String sql, long nanos) {
+        statementCount++;
+        executionNanos += nanos;
+        if (sql == null) {
+            return;
+        }
+        int executions = statementShapes.merge(sql, 1, Integer::sum);
+        // Report exactly once per shape, when the threshold is first crossed
+        if (executions == repeatedStatementThreshold + 1) {
+            repeatedStatementCount++;
+            String message = "Statement executed more than " + repeatedStatementThreshold
+                    + " times in one request (possible N+1): " + sql;
+            if (failOnRepeatedStatements) {
+                throw new RepeatedStatementException(message);
+            }
+            logger.warn(message);
+        }
+    }
+
+    void rowFetched() {
+        rowsFetched++;
+    }
+
+    void connectionAcquired(long nanos) {
+        connectionCount++;
+        connectionAcquireNanos += nanos;
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    public int getRepeatedStatementCount() {
+        return repeatedStatementCount;
+    }
+
+    public long getRowsFetched() {
+        return rowsFetched;
+    }
+
+    public long getExecutionNanos() {
+        return executionNanos;
+    }
+
+    public int getConnectionCount() {
+        return connectionCount;
+    }
+
+    public long getConnectionAcquireNanos() {
+        return connectionAcquireNanos;
+    }
+
+    public int getExecutions(String sql) {
+        return statementShapes.getOrDefault(sql, 0);
+    }
+}
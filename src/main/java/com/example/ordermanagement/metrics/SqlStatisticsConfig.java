@@ -0,0 +1,43 @@
+package com.example.ordermanagement.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Wires per-request SQL statistics: wraps the application {@link DataSource} in a {@link StatisticsDataSource} and
+ * registers {@link SqlStatisticsFilter} ahead of the security filters so that authentication queries are counted
+ * too.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.sql-stats", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SqlStatisticsConfig {
+
+    @Bean
+    public static BeanPostProcessor statisticsDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof StatisticsDataSource)) {
+                    return new StatisticsDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlStatisticsFilter> sqlStatisticsFilter(MeterRegistry meterRegistry,
+            SqlStatisticsProperties properties) {
+        FilterRegistrationBean<SqlStatisticsFilter> registration = new FilterRegistrationBean<>(
+                new SqlStatisticsFilter(meterRegistry, properties));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
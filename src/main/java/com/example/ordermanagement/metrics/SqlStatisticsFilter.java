@@ -0,0 +1,114 @@
+package com.example.ordermanagement.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binds a {@link SqlStatistics} to each HTTP request and publishes it when the request completes.
+ * <p>
+ * Meters are tagged with the matched handler pattern (e.g. {@code /api/orders/{id}}) so the number of series stays
+ * bounded. When {@link SqlStatisticsProperties#isDebugHeaders()} is set the response is buffered so the statistics
+ * can also be returned as {@code X-SQL-*} headers.
+ * </p>
+ */
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+    private final SqlStatisticsProperties properties;
+    private final ConcurrentMap<String, RequestMeters> meters = new ConcurrentHashMap<>();
+
+    public SqlStatisticsFilter(MeterRegistry meterRegistry, SqlStatisticsProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatistics statistics = SqlStatistics.begin(properties.getRepeatedStatementThreshold(),
+                properties.isFailOnRepeatedStatements());
+        ContentCachingResponseWrapper bufferedResponse = properties.isDebugHeaders()
+                ? new ContentCachingResponseWrapper(response)
+                : null;
+        try {
+            filterChain.doFilter(request, bufferedResponse != null ? bufferedResponse : response);
+        } finally {
+            SqlStatistics.end();
+            record(request, statistics);
+            if (bufferedResponse != null) {
+                addHeaders(bufferedResponse, statistics);
+                bufferedResponse.copyBodyToResponse();
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStatistics statistics) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        RequestMeters requestMeters = meters.get(uri);
+        if (requestMeters == null) {
+            requestMeters = meters.computeIfAbsent(uri, this::register);
+        }
+        requestMeters.statements.record(statistics.getStatementCount());
+        requestMeters.rows.record(statistics.getRowsFetched());
+        requestMeters.execution.record(statistics.getExecutionNanos(), TimeUnit.NANOSECONDS);
+        if (statistics.getConnectionCount() > 0) {
+            requestMeters.connectionAcquire.record(statistics.getConnectionAcquireNanos(), TimeUnit.NANOSECONDS);
+        }
+        if (statistics.getRepeatedStatementCount() > 0) {
+            requestMeters.repeated.increment(statistics.getRepeatedStatementCount());
+        }
+    }
+
+    private RequestMeters register(String uri) {
+        return new RequestMeters(
+                DistributionSummary.builder("app.sql.statements")
+                        .description("JDBC statements executed per request")
+                        .tag("uri", uri)
+                        .register(meterRegistry),
+                DistributionSummary.builder("app.sql.rows")
+                        .description("Rows fetched per request")
+                        .tag("uri", uri)
+                        .register(meterRegistry),
+                Timer.builder("app.sql.execution")
+                        .description("Time spent executing statements per request")
+                        .tag("uri", uri)
+                        .register(meterRegistry),
+                Timer.builder("app.sql.connection.acquire")
+                        .description("Time spent waiting for pooled connections per request")
+                        .tag("uri", uri)
+                        .register(meterRegistry),
+                Counter.builder("app.sql.repeated.statements")
+                        .description("Statement shapes that crossed the repeated statement threshold")
+                        .tag("uri", uri)
+                        .register(meterRegistry));
+    }
+
+    private void addHeaders(HttpServletResponse response, SqlStatistics statistics) {
+        response.setHeader("X-SQL-Statements", String.valueOf(statistics.getStatementCount()));
+        response.setHeader("X-SQL-Rows", String.valueOf(statistics.getRowsFetched()));
+        response.setHeader("X-SQL-Time-Ms",
+                String.valueOf(TimeUnit.NANOSECONDS.toMillis(statistics.getExecutionNanos())));
+        response.setHeader("X-SQL-Connection-Wait-Ms",
+                String.valueOf(TimeUnit.NANOSECONDS.toMillis(statistics.getConnectionAcquireNanos())));
+        response.setHeader("X-SQL-Repeated-Statements", String.valueOf(statistics.getRepeatedStatementCount()));
+    }
+
+    private record RequestMeters(DistributionSummary statements, DistributionSummary rows, Timer execution,
+            Timer connectionAcquire, Counter repeated) {
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.ordermanagement.metrics;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for per-request SQL statement statistics.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.sql-stats")
+public class SqlStatisticsProperties {
+
+    /**
+     * Whether the DataSource is instrumented and per-request statistics are collected.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Adds {@code X-SQL-*} response headers with the statistics of each request. Buffers the response body, so this
+     * is meant for debugging only.
+     */
+    private boolean debugHeaders = false;
+
+    /**
+     * How many times a single request may run the same statement shape before it is reported as a likely N+1.
+     */
+    private int repeatedStatementThreshold = 10;
+
+    /**
+     * Throw {@link RepeatedStatementException} instead of logging a warning. Intended for tests.
+     */
+    private boolean failOnRepeatedStatements = false;
+}
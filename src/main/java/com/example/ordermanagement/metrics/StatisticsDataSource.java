@@ -0,0 +1,152 @@
+package com.example.ordermanagement.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * DataSource wrapper that reports JDBC activity into the current {@link SqlStatistics}.
+ * <p>
+ * Connections handed out while no request statistics are bound are returned unwrapped, so background work pays
+ * nothing. Inside a request the connection, its statements and their result sets are wrapped in JDK proxies that
+ * time connection acquisition and statement execution and count fetched rows.
+ * </p>
+ */
+public class StatisticsDataSource extends DelegatingDataSource {
+
+    public StatisticsDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = super.getConnection();
+        return instrument(connection, start);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = super.getConnection(username, password);
+        return instrument(connection, start);
+    }
+
+    private Connection instrument(Connection connection, long start) {
+        SqlStatistics statistics = SqlStatistics.current();
+        if (statistics == null) {
+            return connection;
+        }
+        statistics.connectionAcquired(System.nanoTime() - start);
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Connection.class},
+                new ConnectionHandler(connection));
+    }
+
+    private static Object invoke(Object proxy, Object target, Method method, Object[] args) throws Throwable {
+        // Proxies are only equal to themselves, otherwise Hibernate's statement registry can lose track of them
+        if ("equals".equals(method.getName()) && args != null && args.length == 1) {
+            return proxy == args[0];
+        }
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private static final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = StatisticsDataSource.invoke(proxy, target, method, args);
+            return switch (method.getName()) {
+                case "prepareStatement" -> wrapStatement(result, PreparedStatement.class, (String) args[0]);
+                case "prepareCall" -> wrapStatement(result, CallableStatement.class, (String) args[0]);
+                case "createStatement" -> wrapStatement(result, Statement.class, null);
+                default -> result;
+            };
+        }
+
+        private static Object wrapStatement(Object statement, Class<?> type, String sql) {
+            return Proxy.newProxyInstance(StatisticsDataSource.class.getClassLoader(), new Class<?>[] {type},
+                    new StatementHandler(statement, sql));
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+
+        private final Object target;
+        private final String preparedSql;
+
+        StatementHandler(Object target, String preparedSql) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+                long start = System.nanoTime();
+                Object result;
+                try {
+                    result = StatisticsDataSource.invoke(proxy, target, method, args);
+                } finally {
+                    SqlStatistics statistics = SqlStatistics.current();
+                    if (statistics != null) {
+                        statistics.statementExecuted(sql, System.nanoTime() - start);
+                    }
+                }
+                return result instanceof ResultSet resultSet ? wrapResultSet(resultSet) : result;
+            }
+            Object result = StatisticsDataSource.invoke(proxy, target, method, args);
+            if ("getResultSet".equals(name) && result instanceof ResultSet resultSet) {
+                return wrapResultSet(resultSet);
+            }
+            return result;
+        }
+
+        private static Object wrapResultSet(ResultSet resultSet) {
+            return Proxy.newProxyInstance(StatisticsDataSource.class.getClassLoader(),
+                    new Class<?>[] {ResultSet.class}, new ResultSetHandler(resultSet));
+        }
+    }
+
+    private static final class ResultSetHandler implements InvocationHandler {
+
+        private final ResultSet target;
+
+        ResultSetHandler(ResultSet target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = StatisticsDataSource.invoke(proxy, target, method, args);
+            if (Boolean.TRUE.equals(result) && "next".equals(method.getName())) {
+                SqlStatistics statistics = SqlStatistics.current();
+                if (statistics != null) {
+                    statistics.rowFetched();
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.ordermanagement.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Posts each batch as a JSON array to an HTTP endpoint; any {@code 2xx} response counts as accepted.
+ */
+public class HttpOutboxPublisher implements OutboxPublisher {
+
+    private final URI url;
+    private final Duration timeout;
+    private final ObjectMapper objectMapper;
+    private final HttpClient client;
+
+    public HttpOutboxPublisher(URI url, Duration timeout, ObjectMapper objectMapper) {
+        this.url = url;
+        this.timeout = timeout;
+        this.objectMapper = objectMapper;
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    @Override
+    public void publish(List<OutboxMessage> messages) {
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(url)
+                    .timeout(timeout)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(messages)))
+                    .build();
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize outbox messages", ex);
+        }
+        HttpResponse<Void> response;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not post outbox messages to " + url, ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while posting outbox messages", ex);
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(url + " answered " + response.statusCode());
+        }
+    }
+
+    /**
+     * Ends the client's connections.
+     */
+    public void close() {
+        client.close();
+    }
+}
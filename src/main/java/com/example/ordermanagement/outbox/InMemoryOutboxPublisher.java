@@ -0,0 +1,36 @@
+package com.example.ordermanagement.outbox;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Stand-in for a message broker that keeps the most recent messages in memory.
+ */
+public class InMemoryOutboxPublisher implements OutboxPublisher {
+
+    private final int capacity;
+    private final Deque<OutboxMessage> messages = new ArrayDeque<>();
+
+    public InMemoryOutboxPublisher(int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxMessage> batch) {
+        for (OutboxMessage message : batch) {
+            if (messages.size() == capacity) {
+                messages.removeFirst();
+            }
+            messages.addLast(message);
+        }
+    }
+
+    /**
+     * The kept messages, oldest first.
+     */
+    public synchronized List<OutboxMessage> messages() {
+        return new ArrayList<>(messages);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.ordermanagement.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+/**
+ * Wires the order event outbox: the {@link OutboxWriter}, the publisher selected by {@code app.outbox.publisher}
+ * and the scheduled {@link OutboxRelay}.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(prefix = "app.outbox", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxConfig {
+
+    @Bean
+    public OutboxWriter outboxWriter(DataSource dataSource, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        return new OutboxWriter(dataSource, objectMapper, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.outbox", name = "publisher", havingValue = "in-memory",
+            matchIfMissing = true)
+    public InMemoryOutboxPublisher inMemoryOutboxPublisher() {
+        return new InMemoryOutboxPublisher(10_000);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.outbox", name = "publisher", havingValue = "http")
+    public HttpOutboxPublisher httpOutboxPublisher(OutboxProperties properties, ObjectMapper objectMapper) {
+        return new HttpOutboxPublisher(properties.getHttp().getUrl(), properties.getHttp().getTimeout(),
+                objectMapper);
+    }
+
+    @Bean
+    public OutboxRelay outboxRelay(DataSource dataSource, PlatformTransactionManager transactionManager,
+            OutboxPublisher publisher, OutboxProperties properties, MeterRegistry meterRegistry) {
+        return new OutboxRelay(dataSource, transactionManager, publisher, properties, meterRegistry);
+    }
+}
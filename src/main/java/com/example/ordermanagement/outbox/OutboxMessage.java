@@ -0,0 +1,16 @@
+package com.example.ordermanagement.outbox;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of the outbox as it is handed to an {@link OutboxPublisher}.
+ *
+ * @param id      increases with every message; receivers can use it to discard redeliveries
+ * @param event   the {@link com.example.ordermanagement.events.OrderEvent} as JSON
+ * @param attempt number of the delivery attempt, starting at 1
+ */
+public record OutboxMessage(long id, Long orderId, String type, @JsonRawValue String event, LocalDateTime createdAt,
+        int attempt) {
+}
@@ -0,0 +1,80 @@
+package com.example.ordermanagement.outbox;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * Settings for the transactional outbox of order events and its relay.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.outbox")
+public class OutboxProperties {
+
+    /**
+     * Whether order events are written to the outbox and relayed at all.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Where the relay delivers the events.
+     */
+    private Publisher publisher = Publisher.IN_MEMORY;
+
+    /**
+     * Pause between polls of an idle outbox.
+     */
+    private Duration pollInterval = Duration.ofMillis(100);
+
+    /**
+     * Messages claimed at once. The next batch is only claimed once this one is delivered, so this bounds the
+     * messages in flight.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Full batches relayed in one poll before other scheduled work gets its turn.
+     */
+    private int maxBatchesPerPoll = 20;
+
+    /**
+     * Parallel deliveries per batch. Messages of one order always share a lane, which keeps them in order.
+     */
+    private int lanes = 8;
+
+    /**
+     * How long claimed messages are reserved for the relay that claimed them. Messages whose delivery failed are
+     * claimed again once it has passed, which makes it the retry delay as well.
+     */
+    private Duration lease = Duration.ofSeconds(30);
+
+    /**
+     * How long delivered messages are kept before they are removed.
+     */
+    private Duration retention = Duration.ofHours(1);
+
+    private final Http http = new Http();
+
+    public enum Publisher {
+        /** Keeps the recent messages in memory, for development and tests. */
+        IN_MEMORY,
+        /** Posts each batch as a JSON array to {@code app.outbox.http.url}. */
+        HTTP
+    }
+
+    @Getter
+    @Setter
+    public static class Http {
+
+        private URI url = URI.create("http://localhost:8081/order-events");
+
+        /**
+         * Time allowed for connecting and for the whole request; a slow receiver counts as a failed delivery.
+         */
+        private Duration timeout = Duration.ofSeconds(5);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.ordermanagement.outbox;
+
+import java.util.List;
+
+/**
+ * Delivers outbox messages downstream.
+ * <p>
+ * Delivery is at least once: a batch that fails, or whose success is not recorded in time, is delivered again with
+ * the same message ids. The messages of a batch are in outbox order, and the messages of one order are never split
+ * over concurrent calls.
+ * </p>
+ */
+public interface OutboxPublisher {
+
+    /**
+     * Delivers the messages, all or none; returns only once they have been accepted.
+     *
+     * @throws RuntimeException if the messages were not accepted
+     */
+    void publish(List<OutboxMessage> messages);
+}
@@ -0,0 +1,292 @@
+package com.example.ordermanagement.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Relays the outbox to an {@link OutboxPublisher}.
+ * <p>
+ * Each poll claims the oldest pending messages in one short transaction. The candidates are read with
+ * {@code FOR UPDATE SKIP LOCKED}, so concurrent relays never wait for each other, and are reserved by setting a lease
+ * instead of holding the locks while they are delivered. A message is only claimed if every earlier pending message
+ * of its order is claimed with it, so that the messages of an order go out in the order they were written, even
+ * after a failed delivery or with several relays.
+ * </p>
+ * <p>
+ * A claimed batch is split into lanes by order id, and the lanes are delivered in parallel on virtual threads. The
+ * delivered messages are then marked as published by one {@code UPDATE}; a lane that failed keeps its lease and is
+ * claimed again once the lease runs out. The next batch is only claimed once the current one is done, which bounds
+ * the messages in flight to one batch and lets a slow publisher slow down the relay rather than pile up work.
+ * Meanwhile the relay holds its scheduler thread, so the scheduling pool ({@code spring.task.scheduling.pool.size})
+ * needs threads to spare for the other jobs.
+ * </p>
+ */
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private static final RowMapper<OutboxMessage> MESSAGE = (rs, rowNum) -> new OutboxMessage(rs.getLong("id"),
+            rs.getLong("order_id"), rs.getString("event_type"), rs.getString("payload"),
+            rs.getTimestamp("created_at").toLocalDateTime(), rs.getInt("attempts") + 1);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxPublisher publisher;
+    private final OutboxProperties properties;
+    private final Clock clock;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("outbox-", 0).factory());
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong oldestPendingMillis = new AtomicLong();
+    private final Counter published;
+    private final Counter failed;
+    private final Timer lag;
+    private final Timer deliverySuccess;
+    private final Timer deliveryFailure;
+
+    public OutboxRelay(DataSource dataSource, PlatformTransactionManager transactionManager,
+            OutboxPublisher publisher, OutboxProperties properties, MeterRegistry meterRegistry) {
+        this(dataSource, transactionManager, publisher, properties, meterRegistry, Clock.systemDefaultZone());
+    }
+
+    OutboxRelay(DataSource dataSource, PlatformTransactionManager transactionManager, OutboxPublisher publisher,
+            OutboxProperties properties, MeterRegistry meterRegistry, Clock clock) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.publisher = publisher;
+        this.properties = properties;
+        this.clock = clock;
+        Gauge.builder("app.outbox.pending", pending, AtomicLong::get)
+                .description("Outbox messages not yet published, as of the last poll")
+                .register(meterRegistry);
+        Gauge.builder("app.outbox.oldest-pending", oldestPendingMillis, AtomicLong::get)
+                .description("Age of the oldest unpublished outbox message, as of the last poll")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        this.published = Counter.builder("app.outbox.published")
+                .description("Outbox messages delivered to the publisher")
+                .register(meterRegistry);
+        this.failed = Counter.builder("app.outbox.failed")
+                .description("Outbox messages whose delivery failed and will be retried")
+                .register(meterRegistry);
+        this.lag = Timer.builder("app.outbox.lag")
+                .description("Time from writing an outbox message to its delivery")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.deliverySuccess = Timer.builder("app.outbox.delivery")
+                .description("Time to deliver one lane of a batch")
+                .tag("outcome", "success")
+                .register(meterRegistry);
+        this.deliveryFailure = Timer.builder("app.outbox.delivery")
+                .description("Time to deliver one lane of a batch")
+                .tag("outcome", "failure")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Relays batches until the outbox is drained, a delivery fails or
+     * {@link OutboxProperties#getMaxBatchesPerPoll()} batches have gone out.
+     *
+     * @return the number of messages published
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval:100ms}")
+    public int relay() {
+        int batchSize = Math.max(1, properties.getBatchSize());
+        int total = 0;
+        try {
+            for (int batches = 0; batches < properties.getMaxBatchesPerPoll(); batches++) {
+                List<OutboxMessage> batch = claim(batchSize);
+                int delivered = deliver(batch);
+                total += delivered;
+                if (batch.size() < batchSize || delivered < batch.size()) {
+                    break;
+                }
+            }
+        } finally {
+            updateBacklog();
+        }
+        return total;
+    }
+
+    /**
+     * Removes the messages published before the retention period.
+     *
+     * @return the number of messages removed
+     */
+    @Scheduled(initialDelayString = "${app.outbox.retention:1h}", fixedDelayString = "${app.outbox.retention:1h}")
+    public int removePublished() {
+        int removed = jdbcTemplate.update("DELETE FROM order_outbox WHERE published_at < :cutoff",
+                new MapSqlParameterSource("cutoff", Timestamp.valueOf(now().minus(properties.getRetention()))));
+        if (removed > 0) {
+            logger.info("Removed {} published outbox messages", removed);
+        }
+        return removed;
+    }
+
+    /**
+     * Stops the deliveries in progress; their messages are delivered again after the restart.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private List<OutboxMessage> claim(int batchSize) {
+        LocalDateTime now = now();
+        return transactionTemplate.execute(status -> {
+            MapSqlParameterSource parameters = new MapSqlParameterSource("now", Timestamp.valueOf(now))
+                    .addValue("limit", batchSize);
+            List<OutboxMessage> candidates = jdbcTemplate.query("SELECT id, order_id, event_type, payload, "
+                    + "created_at, attempts FROM order_outbox WHERE published_at IS NULL "
+                    + "AND (claimed_until IS NULL OR claimed_until < :now) "
+                    + "ORDER BY id FETCH FIRST :limit ROWS ONLY FOR UPDATE SKIP LOCKED", parameters, MESSAGE);
+            if (candidates.isEmpty()) {
+                return List.of();
+            }
+            List<OutboxMessage> claimed = inOrderOnly(candidates);
+            if (!claimed.isEmpty()) {
+                jdbcTemplate.update("UPDATE order_outbox SET claimed_until = :until, attempts = attempts + 1 "
+                        + "WHERE id IN (:ids)", new MapSqlParameterSource("until",
+                        Timestamp.valueOf(now.plus(properties.getLease())))
+                        .addValue("ids", claimed.stream().map(OutboxMessage::id).toList()));
+            }
+            return claimed;
+        });
+    }
+
+    /**
+     * Drops the candidates that would overtake a pending message of their order: one leased by an earlier delivery
+     * that has not finished or has failed, or one locked by a concurrent relay.
+     */
+    private List<OutboxMessage> inOrderOnly(List<OutboxMessage> candidates) {
+        Set<Long> candidateIds = new HashSet<>();
+        Set<Long> orderIds = new HashSet<>();
+        for (OutboxMessage candidate : candidates) {
+            candidateIds.add(candidate.id());
+            orderIds.add(candidate.orderId());
+        }
+        Map<Long, List<Long>> pendingByOrder = new HashMap<>();
+        jdbcTemplate.query("SELECT order_id, id FROM order_outbox WHERE order_id IN (:orderIds) "
+                + "AND published_at IS NULL AND id <= :last ORDER BY order_id, id",
+                new MapSqlParameterSource("orderIds", orderIds)
+                        .addValue("last", candidates.get(candidates.size() - 1).id()),
+                rs -> {
+                    pendingByOrder.computeIfAbsent(rs.getLong("order_id"), id -> new ArrayList<>())
+                            .add(rs.getLong("id"));
+                });
+        Set<Long> inOrder = new HashSet<>();
+        for (List<Long> ids : pendingByOrder.values()) {
+            for (Long id : ids) {
+                if (!candidateIds.contains(id)) {
+                    break;
+                }
+                inOrder.add(id);
+            }
+        }
+        return candidates.stream().filter(candidate -> inOrder.contains(candidate.id())).toList();
+    }
+
+    private int deliver(List<OutboxMessage> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        int lanes = Math.max(1, properties.getLanes());
+        Map<Integer, List<OutboxMessage>> byLane = new LinkedHashMap<>();
+        for (OutboxMessage message : batch) {
+            byLane.computeIfAbsent(Math.floorMod(Long.hashCode(message.orderId()), lanes), lane -> new ArrayList<>())
+                    .add(message);
+        }
+        List<Future<Boolean>> results = new ArrayList<>(byLane.size());
+        for (List<OutboxMessage> lane : byLane.values()) {
+            results.add(executor.submit(() -> deliverLane(lane)));
+        }
+        List<OutboxMessage> delivered = new ArrayList<>(batch.size());
+        int lane = 0;
+        for (List<OutboxMessage> messages : byLane.values()) {
+            if (await(results.get(lane++))) {
+                delivered.addAll(messages);
+            }
+        }
+        markPublished(delivered);
+        return delivered.size();
+    }
+
+    private boolean deliverLane(List<OutboxMessage> messages) {
+        long start = System.nanoTime();
+        try {
+            publisher.publish(messages);
+            deliverySuccess.record(Duration.ofNanos(System.nanoTime() - start));
+            return true;
+        } catch (RuntimeException ex) {
+            deliveryFailure.record(Duration.ofNanos(System.nanoTime() - start));
+            failed.increment(messages.size());
+            logger.warn("Could not deliver {} outbox messages from {}, retrying after {}", messages.size(),
+                    messages.get(0).id(), properties.getLease(), ex);
+            return false;
+        }
+    }
+
+    private static boolean await(Future<Boolean> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException ex) {
+            return false;
+        }
+    }
+
+    private void markPublished(List<OutboxMessage> delivered) {
+        if (delivered.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = now();
+        jdbcTemplate.update("UPDATE order_outbox SET published_at = :now, claimed_until = NULL WHERE id IN (:ids)",
+                new MapSqlParameterSource("now", Timestamp.valueOf(now))
+                        .addValue("ids", delivered.stream().map(OutboxMessage::id).toList()));
+        published.increment(delivered.size());
+        delivered.forEach(message -> lag.record(Duration.between(message.createdAt(), now)));
+    }
+
+    private void updateBacklog() {
+        jdbcTemplate.query("SELECT COUNT(*) AS pending, MIN(created_at) AS oldest FROM order_outbox "
+                + "WHERE published_at IS NULL", Map.of(), rs -> {
+                    pending.set(rs.getLong("pending"));
+                    Timestamp oldest = rs.getTimestamp("oldest");
+                    oldestPendingMillis.set(oldest == null ? 0
+                            : Math.max(0, Duration.between(oldest.toLocalDateTime(), now()).toMillis()));
+                });
+    }
+
+    private LocalDateTime now() {
+        return LocalDateTime.now(clock);
+    }
+}
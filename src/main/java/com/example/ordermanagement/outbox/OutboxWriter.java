@@ -0,0 +1,105 @@
+package com.example.ordermanagement.outbox;
+
+import com.example.ordermanagement.events.OrderEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes every {@link OrderEvent} to the {@code order_outbox} table in the transaction of the change it describes,
+ * so that the event is stored if and only if the change commits.
+ * <p>
+ * The events of a transaction are collected and written with one batch insert right before it commits. An event
+ * published outside of a transaction is written at once.
+ * </p>
+ */
+public class OutboxWriter {
+
+    private static final String INSERT = "INSERT INTO order_outbox (order_id, event_type, payload, created_at) "
+            + "VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Counter written;
+
+    public OutboxWriter(DataSource dataSource, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.objectMapper = objectMapper;
+        this.written = Counter.builder("app.outbox.written")
+                .description("Order events written to the outbox")
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onOrderEvent(OrderEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            write(List.of(event));
+            return;
+        }
+        PendingWrites pending = (PendingWrites) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingWrites();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.events.add(event);
+    }
+
+    private void write(List<OrderEvent> events) {
+        List<Object[]> rows = new ArrayList<>(events.size());
+        for (OrderEvent event : events) {
+            rows.add(new Object[] {event.orderId(), event.type().name(), toJson(event),
+                    Timestamp.valueOf(event.occurredAt())});
+        }
+        jdbcTemplate.batchUpdate(INSERT, rows);
+        written.increment(rows.size());
+    }
+
+    private String toJson(OrderEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize " + event, ex);
+        }
+    }
+
+    /**
+     * The events of one transaction. It is unbound while the transaction is suspended, so that a nested
+     * transaction collects its own.
+     */
+    private final class PendingWrites implements TransactionSynchronization {
+
+        private final List<OrderEvent> events = new ArrayList<>();
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(OutboxWriter.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(OutboxWriter.this, this);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            write(events);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(OutboxWriter.this);
+        }
+    }
+}
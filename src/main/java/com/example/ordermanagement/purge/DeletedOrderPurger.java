@@ -0,0 +1,134 @@
+package com.example.ordermanagement.purge;
+
+import com.example.ordermanagement.cache.SecondLevelCacheConfig;
+import com.example.ordermanagement.entity.Item;
+import com.example.ordermanagement.entity.Order;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Removes soft-deleted orders and their items once they are older than the retention period.
+ * <p>
+ * Work is done in chunks of {@link PurgeProperties#getChunkSize()} orders, each in its own short transaction: the
+ * oldest deleted orders are picked through the {@code deleted_at} index, then one {@code DELETE} removes all their
+ * items and another the orders. Nothing is loaded into Hibernate; the removed rows are evicted from the second-level
+ * cache after each chunk, together with the cached order-number lookups, which would otherwise still report the
+ * purged numbers as taken.
+ * </p>
+ * <p>
+ * The deleted orders are the tombstones of the change feed. Each chunk raises the recorded horizon to the highest
+ * change number it removed, in the same transaction, so the feed can reject cursors that would skip a deletion.
+ * </p>
+ */
+public class DeletedOrderPurger {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeletedOrderPurger.class);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final PurgeProperties properties;
+    private final Clock clock;
+    private final Counter purgedOrders;
+    private final Counter purgedItems;
+
+    public DeletedOrderPurger(DataSource dataSource, PlatformTransactionManager transactionManager,
+            EntityManagerFactory entityManagerFactory, PurgeProperties properties, MeterRegistry meterRegistry) {
+        this(dataSource, transactionManager, entityManagerFactory, properties, meterRegistry,
+                Clock.systemDefaultZone());
+    }
+
+    DeletedOrderPurger(DataSource dataSource, PlatformTransactionManager transactionManager,
+            EntityManagerFactory entityManagerFactory, PurgeProperties properties, MeterRegistry meterRegistry,
+            Clock clock) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.properties = properties;
+        this.clock = clock;
+        this.purgedOrders = Counter.builder("app.purge.orders")
+                .description("Soft-deleted orders removed from the database")
+                .register(meterRegistry);
+        this.purgedItems = Counter.builder("app.purge.items")
+                .description("Items removed together with their soft-deleted orders")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Purges every order deleted before the retention period.
+     *
+     * @return the number of orders removed
+     */
+    @Scheduled(initialDelayString = "${app.purge.interval:1m}", fixedDelayString = "${app.purge.interval:1m}")
+    public int purge() {
+        int chunkSize = Math.max(1, properties.getChunkSize());
+        MapSqlParameterSource parameters = new MapSqlParameterSource("limit", chunkSize)
+                .addValue("cutoff", Timestamp.valueOf(LocalDateTime.now(clock).minus(properties.getRetention())));
+        int total = 0;
+        Chunk chunk;
+        do {
+            chunk = transactionTemplate.execute(status -> purgeChunk(parameters));
+            // After the commit, or a concurrent read could cache the rows again
+            evict(chunk);
+            purgedOrders.increment(chunk.orderIds().size());
+            purgedItems.increment(chunk.itemIds().size());
+            total += chunk.orderIds().size();
+        } while (chunk.orderIds().size() == chunkSize);
+        if (total > 0) {
+            logger.info("Purged {} deleted orders", total);
+        }
+        return total;
+    }
+
+    private Chunk purgeChunk(MapSqlParameterSource parameters) {
+        List<Long> orderIds = new ArrayList<>();
+        long[] highestChange = {0};
+        jdbcTemplate.query("SELECT id, change_seq FROM orders WHERE deleted_at < :cutoff "
+                + "ORDER BY deleted_at FETCH FIRST :limit ROWS ONLY", parameters, rs -> {
+                    orderIds.add(rs.getLong("id"));
+                    highestChange[0] = Math.max(highestChange[0], rs.getLong("change_seq"));
+                });
+        if (orderIds.isEmpty()) {
+            return new Chunk(List.of(), List.of());
+        }
+        MapSqlParameterSource ids = new MapSqlParameterSource("ids", orderIds);
+        List<Long> itemIds = jdbcTemplate.queryForList("SELECT id FROM OLD TABLE (DELETE FROM items "
+                + "WHERE order_id IN (:ids))", ids, Long.class);
+        jdbcTemplate.update("DELETE FROM orders WHERE id IN (:ids)", ids);
+        jdbcTemplate.update("UPDATE order_change_horizon SET purged_through = GREATEST(purged_through, :seq)",
+                new MapSqlParameterSource("seq", highestChange[0]));
+        return new Chunk(orderIds, itemIds);
+    }
+
+    private void evict(Chunk chunk) {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        for (Long id : chunk.orderIds()) {
+            cache.evictEntityData(Order.class, id);
+            cache.evictCollectionData(Order.class.getName() + ".items", id);
+        }
+        chunk.itemIds().forEach(id -> cache.evictEntityData(Item.class, id));
+        if (!chunk.orderIds().isEmpty()) {
+            cache.evictQueryRegion(SecondLevelCacheConfig.ORDER_QUERIES_REGION);
+        }
+    }
+
+    private record Chunk(List<Long> orderIds, List<Long> itemIds) {
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.ordermanagement.purge;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+/**
+ * Schedules {@link DeletedOrderPurger}.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(prefix = "app.purge", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class PurgeConfig {
+
+    @Bean
+    public DeletedOrderPurger deletedOrderPurger(DataSource dataSource, PlatformTransactionManager transactionManager,
+            EntityManagerFactory entityManagerFactory, PurgeProperties properties, MeterRegistry meterRegistry) {
+        return new DeletedOrderPurger(dataSource, transactionManager, entityManagerFactory, properties,
+                meterRegistry);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.ordermanagement.purge;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the background removal of soft-deleted orders.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.purge")
+public class PurgeProperties {
+
+    /**
+     * Whether deleted orders are purged at all. When off, they stay in the database, hidden from reads.
+     */
+    private boolean enabled = true;
+
+    /**
+     * How long a deleted order is kept before it is purged.
+     */
+    private Duration retention = Duration.ofHours(1);
+
+    /**
+     * Pause between purge runs.
+     */
+    private Duration interval = Duration.ofMinutes(1);
+
+    /**
+     * Orders removed per transaction. Each chunk holds its row locks only for the duration of its two statements.
+     */
+    private int chunkSize = 1000;
+}
@@ -1,14 +1,41 @@
 package com.example.ordermanagement.repository;
 
+import com.example.ordermanagement.cache.SecondLevelCacheConfig;
 import com.example.ordermanagement.entity.Order;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.ORDER_QUERIES_REGION)})
     Optional<Order> findByOrderNumber(String orderNumber);
 
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.ORDER_QUERIES_REGION)})
     boolean existsByOrderNumber(String orderNumber);
-}
\ No newline at end of file
+
+    /**
+     * Loads the orders with their items in one query.
+     */
+    @EntityGraph(attributePaths = "items")
+    List<Order> findWithItemsByIdIn(Collection<Long> ids);
+
+    /**
+     * Like {@link #findById}, but never returns a soft-deleted order, not even one served from the second-level
+     * cache, where the entity's restriction does not apply.
+     */
+    default Optional<Order> findActiveById(Long id) {
+        return findById(id).filter(order -> order.getDeletedAt() == null);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.ordermanagement.repository;
+
+import com.example.ordermanagement.entity.WebhookSubscription;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface WebhookSubscriptionRepository extends JpaRepository<WebhookSubscription, Long> {
+}
@@ -0,0 +1,125 @@
+package com.example.ordermanagement.service;
+
+import com.example.ordermanagement.dto.SalesReportResponse;
+import com.example.ordermanagement.dto.SalesReportResponse.Bucket;
+import com.example.ordermanagement.dto.SkuSalesResponse;
+import com.example.ordermanagement.entity.OrderStatus;
+import com.example.ordermanagement.entity.PaymentStatus;
+import com.example.ordermanagement.exception.InvalidRequestException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Sales reports, answered from the rollup tables kept by {@code SalesRollupWriter} instead of aggregating the orders
+ * and items. A report covers whole days of order creation and lags the orders by up to
+ * {@code app.analytics.flush-interval}.
+ */
+@Service
+public class AnalyticsService {
+
+    /**
+     * Days covered when no range is given.
+     */
+    private static final int DEFAULT_DAYS = 30;
+
+    private static final int MAX_SKUS = 1000;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public AnalyticsService(DataSource dataSource) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    /**
+     * Orders and revenue per day, status and payment status of the orders created in the range, both ends
+     * included. Empty status sets mean all statuses.
+     */
+    public SalesReportResponse getSalesReport(LocalDate from, LocalDate to, Set<OrderStatus> statuses,
+            Set<PaymentStatus> paymentStatuses) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_DAYS - 1);
+        MapSqlParameterSource parameters = range(start, end);
+        StringBuilder sql = new StringBuilder("SELECT sales_day, status, payment_status, order_count, revenue "
+                + "FROM sales_rollup WHERE sales_day BETWEEN :from AND :to");
+        if (statuses != null && !statuses.isEmpty()) {
+            sql.append(" AND status IN (:statuses)");
+            parameters.addValue("statuses", statuses.stream().map(OrderStatus::name).toList());
+        }
+        if (paymentStatuses != null && !paymentStatuses.isEmpty()) {
+            sql.append(" AND payment_status IN (:paymentStatuses)");
+            parameters.addValue("paymentStatuses", paymentStatuses.stream().map(PaymentStatus::name).toList());
+        }
+
+        Map<LocalDate, Bucket> byDay = new TreeMap<>();
+        Map<OrderStatus, Bucket> byStatus = new TreeMap<>();
+        Map<PaymentStatus, Bucket> byPaymentStatus = new TreeMap<>();
+        SalesReportResponse report = SalesReportResponse.builder()
+                .from(start)
+                .to(end)
+                .build();
+        jdbcTemplate.query(sql.toString(), parameters, rs -> {
+            long orderCount = rs.getLong("order_count");
+            BigDecimal revenue = rs.getBigDecimal("revenue");
+            add(byDay, rs.getDate("sales_day").toLocalDate(), orderCount, revenue);
+            add(byStatus, OrderStatus.valueOf(rs.getString("status")), orderCount, revenue);
+            add(byPaymentStatus, PaymentStatus.valueOf(rs.getString("payment_status")), orderCount, revenue);
+            report.setOrderCount(report.getOrderCount() + orderCount);
+            report.setRevenue(report.getRevenue().add(revenue));
+        });
+        report.setByDay(List.copyOf(byDay.values()));
+        report.setByStatus(List.copyOf(byStatus.values()));
+        report.setByPaymentStatus(List.copyOf(byPaymentStatus.values()));
+        return report;
+    }
+
+    /**
+     * The SKUs with the highest revenue in the orders created in the range, both ends included. An empty status set
+     * means all statuses.
+     */
+    public SkuSalesResponse getSkuSales(LocalDate from, LocalDate to, Set<OrderStatus> statuses, int limit) {
+        if (limit < 1 || limit > MAX_SKUS) {
+            throw new InvalidRequestException("limit must be between 1 and " + MAX_SKUS);
+        }
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_DAYS - 1);
+        MapSqlParameterSource parameters = range(start, end).addValue("limit", limit);
+        StringBuilder sql = new StringBuilder("SELECT sku, SUM(quantity) AS quantity, SUM(revenue) AS revenue "
+                + "FROM sku_sales_rollup WHERE sales_day BETWEEN :from AND :to");
+        if (statuses != null && !statuses.isEmpty()) {
+            sql.append(" AND status IN (:statuses)");
+            parameters.addValue("statuses", statuses.stream().map(OrderStatus::name).toList());
+        }
+        sql.append(" GROUP BY sku ORDER BY SUM(revenue) DESC, sku FETCH FIRST :limit ROWS ONLY");
+        List<SkuSalesResponse.SkuSales> skus = jdbcTemplate.query(sql.toString(), parameters,
+                (rs, rowNum) -> new SkuSalesResponse.SkuSales(rs.getString("sku"), rs.getLong("quantity"),
+                        rs.getBigDecimal("revenue")));
+        return SkuSalesResponse.builder()
+                .from(start)
+                .to(end)
+                .skus(skus)
+                .build();
+    }
+
+    private static MapSqlParameterSource range(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new InvalidRequestException("from must not be after to");
+        }
+        return new MapSqlParameterSource("from", Date.valueOf(from)).addValue("to", Date.valueOf(to));
+    }
+
+    private static <K> void add(Map<K, Bucket> buckets, K key, long orderCount, BigDecimal revenue) {
+        Bucket bucket = buckets.get(key);
+        buckets.put(key, bucket == null ? new Bucket(key.toString(), orderCount, revenue)
+                : new Bucket(bucket.key(), bucket.orderCount() + orderCount, bucket.revenue().add(revenue)));
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.ordermanagement.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Hands out unique, increasing-per-block sequence values without taking a lock and without a round trip per value.
+ * <p>
+ * Values come from blocks that {@code blockSource} reserves (a database sequence incremented by the block size, so
+ * every caller and every replica gets disjoint blocks). The current block is cut into small chunks, and each of a
+ * fixed number of stripes serves its threads from its own chunk. An allocation is therefore one uncontended
+ * {@code getAndIncrement} on the stripe's counter, and the shared block counter is touched only once per chunk.
+ * When half of a block is handed out, the next one is reserved in the background, so threads rarely wait on the
+ * database.
+ * </p>
+ * <p>
+ * Values are unique but not gap-free: a chunk that loses a refill race, or is still partly unused at shutdown, is
+ * skipped. Within a stripe values increase; across stripes they are ordered only to within a few chunks.
+ * </p>
+ */
+class BlockSequenceAllocator {
+
+    private final LongSupplier blockSource;
+    private final long blockSize;
+    private final long chunkSize;
+    private final AtomicReference<Range>[] stripes;
+    private final int stripeMask;
+    private final AtomicReference<Block> block = new AtomicReference<>(new Block(0, 0));
+
+    /**
+     * @param blockSource reserves a block and returns its first value; the block is {@code blockSize} values long
+     */
+    @SuppressWarnings("unchecked")
+    BlockSequenceAllocator(LongSupplier blockSource, long blockSize, int chunkSize, int stripes) {
+        if (chunkSize < 1 || blockSize < chunkSize) {
+            throw new IllegalArgumentException("blockSize must be at least chunkSize, and chunkSize positive");
+        }
+        this.blockSource = blockSource;
+        this.blockSize = blockSize;
+        this.chunkSize = chunkSize;
+        int stripeCount = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripes = new AtomicReference[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new AtomicReference<>(new Range(0, 0));
+        }
+        this.stripeMask = stripeCount - 1;
+    }
+
+    long next() {
+        AtomicReference<Range> stripe = stripes[stripeIndex()];
+        while (true) {
+            Range range = stripe.get();
+            long value = range.next.getAndIncrement();
+            if (value < range.end) {
+                return value;
+            }
+            long start = takeChunk();
+            // Only one thread replaces an exhausted range; a loser's chunk is skipped
+            stripe.compareAndSet(range, new Range(start, start + chunkSize));
+        }
+    }
+
+    private long takeChunk() {
+        while (true) {
+            Block current = block.get();
+            long start = current.next.getAndAdd(chunkSize);
+            long end = Math.min(start + chunkSize, current.end);
+            if (start < current.end) {
+                if (start <= current.prefetchAt && current.prefetchAt < start + chunkSize) {
+                    current.successor(this::reserve, true);
+                }
+                // The tail of a block that is not a multiple of the chunk size is skipped
+                if (end - start == chunkSize) {
+                    return start;
+                }
+            }
+            Block successor;
+            try {
+                successor = current.successor(this::reserve, false).join();
+            } catch (CompletionException ex) {
+                current.resetSuccessor();
+                throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+            }
+            block.compareAndSet(current, successor);
+        }
+    }
+
+    private Block reserve() {
+        long start = blockSource.getAsLong();
+        return new Block(start, start + blockSize);
+    }
+
+    private int stripeIndex() {
+        long id = Thread.currentThread().threadId();
+        id ^= id >>> 33;
+        id *= 0xff51afd7ed558ccdL;
+        id ^= id >>> 33;
+        return (int) id & stripeMask;
+    }
+
+    private static final class Range {
+
+        private final AtomicLong next;
+        private final long end;
+
+        Range(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+
+    private static final class Block {
+
+        private final AtomicLong next;
+        private final long end;
+        private final long prefetchAt;
+        private final AtomicReference<CompletableFuture<Block>> successor = new AtomicReference<>();
+
+        Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+            this.prefetchAt = start + (end - start) / 2;
+        }
+
+        /**
+         * Starts reserving the following block, at most once per block; every caller gets the same future.
+         */
+        CompletableFuture<Block> successor(Supplier<Block> reserve, boolean background) {
+            CompletableFuture<Block> future = successor.get();
+            if (future != null) {
+                return future;
+            }
+            CompletableFuture<Block> created = new CompletableFuture<>();
+            if (!successor.compareAndSet(null, created)) {
+                return successor.get();
+            }
+            Runnable task = () -> {
+                try {
+                    created.complete(reserve.get());
+                } catch (RuntimeException ex) {
+                    created.completeExceptionally(ex);
+                }
+            };
+            if (background) {
+                Thread.ofVirtual().name("order-number-prefetch").start(task);
+            } else {
+                task.run();
+            }
+            return created;
+        }
+
+        /**
+         * Forgets a failed reservation, so the next caller tries again.
+         */
+        void resetSuccessor() {
+            CompletableFuture<Block> future = successor.get();
+            if (future != null && future.isCompletedExceptionally()) {
+                successor.compareAndSet(future, null);
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.ordermanagement.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for criteria-based bulk deletes.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.bulk-delete")
+public class BulkDeleteProperties {
+
+    /**
+     * Orders marked as deleted per statement.
+     */
+    private int chunkSize = 1000;
+}
@@ -0,0 +1,156 @@
+package com.example.ordermanagement.service;
+
+import com.example.ordermanagement.cache.SecondLevelCacheConfig;
+import com.example.ordermanagement.dto.BulkDeleteRequest;
+import com.example.ordermanagement.dto.BulkDeleteResponse;
+import com.example.ordermanagement.entity.Order;
+import com.example.ordermanagement.events.OrderEvent;
+import com.example.ordermanagement.exception.InvalidRequestException;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Soft-deletes all orders matching a set of criteria, e.g. the test orders of a load run or old cancelled orders.
+ * <p>
+ * Each chunk of {@link BulkDeleteProperties#getChunkSize()} orders is marked by one {@code UPDATE} that picks the
+ * next matching ids itself, so no id list travels between the database and the application. The rows and their
+ * items are removed later by the purge job. The statements bypass Hibernate, so the marked orders and the cached
+ * order-number lookups are evicted from the second-level cache after each chunk, and the orders from the
+ * service-level caches once at the end. Each chunk commits
+ * on its own, together with what the listeners of its events write, such as the outbox rows.
+ * </p>
+ */
+@Service
+public class BulkDeleteService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkDeleteService.class);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final CacheManager cacheManager;
+    private final BulkDeleteProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public BulkDeleteService(DataSource dataSource, PlatformTransactionManager transactionManager,
+            EntityManagerFactory entityManagerFactory, CacheManager cacheManager, BulkDeleteProperties properties,
+            ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.cacheManager = cacheManager;
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public BulkDeleteResponse delete(BulkDeleteRequest request) {
+        LocalDateTime now = LocalDateTime.now();
+        int chunkSize = Math.max(1, properties.getChunkSize());
+        MapSqlParameterSource parameters = new MapSqlParameterSource("now", Timestamp.valueOf(now))
+                .addValue("limit", chunkSize);
+        String criteria = criteria(request, parameters);
+
+        String sql = "SELECT id, order_number, status, payment_status, total_amount, version FROM FINAL TABLE ("
+                + "UPDATE orders SET deleted_at = :now, updated_at = :now, "
+                + "version = version + 1 WHERE id IN (SELECT id FROM orders WHERE id > :after AND deleted_at IS NULL"
+                + criteria + " ORDER BY id FETCH FIRST :limit ROWS ONLY))";
+        List<Long> deleted = new ArrayList<>();
+        try {
+            long after = Long.MIN_VALUE;
+            List<Long> chunk;
+            do {
+                MapSqlParameterSource chunkParameters = parameters.addValue("after", after);
+                chunk = transactionTemplate.execute(status -> {
+                    List<OrderEvent> events = jdbcTemplate.query(sql, chunkParameters,
+                            (rs, rowNum) -> OrderEvent.of(OrderEvent.Type.DELETED, rs.getLong("id"),
+                                    rs.getString("order_number"), rs.getString("status"),
+                                    rs.getString("payment_status"), rs.getBigDecimal("total_amount"),
+                                    rs.getLong("version")));
+                    events.forEach(eventPublisher::publishEvent);
+                    return events.stream().map(OrderEvent::orderId).toList();
+                });
+                evict(chunk);
+                deleted.addAll(chunk);
+                if (!chunk.isEmpty()) {
+                    after = Collections.max(chunk);
+                }
+            } while (chunk.size() == chunkSize);
+        } finally {
+            evictServiceCaches(deleted);
+        }
+        logger.info("Bulk delete marked {} orders as deleted", deleted.size());
+        return BulkDeleteResponse.builder()
+                .deleted(deleted.size())
+                .deletedAt(now)
+                .build();
+    }
+
+    private static String criteria(BulkDeleteRequest request, MapSqlParameterSource parameters) {
+        StringBuilder criteria = new StringBuilder();
+        if (request.getStatus() != null) {
+            criteria.append(" AND status = :status");
+            parameters.addValue("status", request.getStatus().name());
+        }
+        if (request.getCreatedFrom() != null) {
+            criteria.append(" AND created_at >= :createdFrom");
+            parameters.addValue("createdFrom", Timestamp.valueOf(request.getCreatedFrom()));
+        }
+        if (request.getCreatedTo() != null) {
+            criteria.append(" AND created_at < :createdTo");
+            parameters.addValue("createdTo", Timestamp.valueOf(request.getCreatedTo()));
+        }
+        if (request.getOrderNumberPrefix() != null) {
+            criteria.append(" AND order_number LIKE :orderNumberPattern ESCAPE '\\'");
+            parameters.addValue("orderNumberPattern", request.getOrderNumberPrefix()
+                    .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%");
+        }
+        if (criteria.isEmpty()) {
+            throw new InvalidRequestException("At least one criterion is required");
+        }
+        if (request.getCreatedFrom() != null && request.getCreatedTo() != null
+                && !request.getCreatedFrom().isBefore(request.getCreatedTo())) {
+            throw new InvalidRequestException("createdFrom must be before createdTo");
+        }
+        return criteria.toString();
+    }
+
+    private void evict(List<Long> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        org.hibernate.Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        chunk.forEach(id -> cache.evictEntityData(Order.class, id));
+        cache.evictQueryRegion(SecondLevelCacheConfig.ORDER_QUERIES_REGION);
+    }
+
+    private void evictServiceCaches(List<Long> deleted) {
+        if (deleted.isEmpty()) {
+            return;
+        }
+        Cache order = cacheManager.getCache("order");
+        if (order != null) {
+            deleted.forEach(order::evict);
+        }
+        Cache orders = cacheManager.getCache("orders");
+        if (orders != null) {
+            orders.clear();
+        }
+    }
+}
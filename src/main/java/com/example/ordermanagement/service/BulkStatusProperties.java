@@ -0,0 +1,25 @@
+package com.example.ordermanagement.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for bulk status updates.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.bulk-status")
+public class BulkStatusProperties {
+
+    /**
+     * Orders updated per statement and per transaction. Larger chunks mean fewer round trips but longer row locks.
+     */
+    private int chunkSize = 500;
+
+    /**
+     * Most orders a filter may select, like the limit on the number of ids. A request whose filter matches more is
+     * rejected before anything is changed.
+     */
+    private int maxFilterMatches = 10_000;
+}
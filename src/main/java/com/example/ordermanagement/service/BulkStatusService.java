@@ -0,0 +1,275 @@
+package com.example.ordermanagement.service;
+
+import com.example.ordermanagement.dto.BulkStatusUpdateRequest;
+import com.example.ordermanagement.dto.BulkStatusUpdateResponse;
+import com.example.ordermanagement.dto.BulkStatusUpdateResponse.Outcome;
+import com.example.ordermanagement.dto.BulkStatusUpdateResponse.Result;
+import com.example.ordermanagement.entity.Order;
+import com.example.ordermanagement.entity.OrderStatus;
+import com.example.ordermanagement.entity.PaymentStatus;
+import com.example.ordermanagement.events.OrderEvent;
+import com.example.ordermanagement.exception.InvalidRequestException;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Moves many orders to one status with a few set-based statements instead of one load and update per order.
+ * <p>
+ * The orders are processed in chunks of {@link BulkStatusProperties#getChunkSize()}, each in its own transaction: one
+ * {@code UPDATE} moves every order of the chunk whose current status is one of the target's
+ * {@linkplain OrderStatus#sources() sources}, and reports the previous statuses of the rows it changed; one
+ * {@code SELECT} classifies the rest. The transition rules are thus enforced by the {@code WHERE} clause, and an
+ * order changed concurrently is simply not matched. Each updated row gets a new version, so a concurrent entity
+ * update of the same order fails its optimistic lock check instead of overwriting the new status.
+ * </p>
+ * <p>
+ * The statements bypass Hibernate, so the updated orders are evicted from the second-level cache after each chunk,
+ * and from the service-level caches once at the end.
+ * </p>
+ */
+@Service
+public class BulkStatusService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkStatusService.class);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final CacheManager cacheManager;
+    private final BulkStatusProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public BulkStatusService(DataSource dataSource, PlatformTransactionManager transactionManager,
+            EntityManagerFactory entityManagerFactory, CacheManager cacheManager, BulkStatusProperties properties,
+            ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.cacheManager = cacheManager;
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public BulkStatusUpdateResponse updateStatus(BulkStatusUpdateRequest request) {
+        boolean byIds = request.getIds() != null;
+        if (byIds == (request.getFilter() != null)) {
+            throw new InvalidRequestException("Exactly one of ids and filter is required");
+        }
+        OrderStatus target = request.getStatus();
+        int chunkSize = Math.max(1, properties.getChunkSize());
+        List<Result> results = new ArrayList<>();
+        List<Long> updated = new ArrayList<>();
+        try {
+            if (byIds) {
+                if (request.getIds().stream().anyMatch(Objects::isNull)) {
+                    throw new InvalidRequestException("Ids must not be null");
+                }
+                // Duplicates are reported once, in the order of their first occurrence
+                List<Long> ids = new ArrayList<>(new LinkedHashSet<>(request.getIds()));
+                for (int from = 0; from < ids.size(); from += chunkSize) {
+                    List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+                    processChunk(chunk, target, target.sources(), null, results, updated);
+                }
+            } else {
+                BulkStatusUpdateRequest.Filter filter = request.getFilter();
+                MapSqlParameterSource parameters = new MapSqlParameterSource();
+                String criteria = criteria(filter, parameters);
+                int maxMatches = properties.getMaxFilterMatches();
+                long matching = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders WHERE deleted_at IS NULL"
+                        + criteria, parameters, Long.class);
+                if (matching > maxMatches) {
+                    throw new InvalidRequestException("The filter matches " + matching + " orders, at most "
+                            + maxMatches + " can be updated per request");
+                }
+                long after = Long.MIN_VALUE;
+                List<Long> chunk;
+                // Orders created after the count are not taken beyond the limit either
+                while (results.size() < maxMatches && !(chunk = nextMatching(criteria, parameters, after,
+                        Math.min(chunkSize, maxMatches - results.size()))).isEmpty()) {
+                    processChunk(chunk, target, target.sources(), null, results, updated);
+                    after = chunk.get(chunk.size() - 1);
+                }
+            }
+        } finally {
+            // Chunks committed before a failure stay committed, so their orders must not be served stale
+            evictServiceCaches(updated);
+        }
+        return summarize(target, results);
+    }
+
+    /**
+     * Moves the orders to {@code target} like an update by ids, but only those that are still in
+     * {@code currentStatus} and have {@code paymentStatus}. Meant for transitions decided on an earlier read of the
+     * orders, such as cancelling pending, unpaid orders: an order confirmed or paid in the meantime is not matched
+     * and is reported as rejected, even where the transition rules alone would allow it.
+     */
+    public BulkStatusUpdateResponse updateStatus(Collection<Long> ids, OrderStatus currentStatus,
+            PaymentStatus paymentStatus, OrderStatus target) {
+        Set<OrderStatus> sources = target.sources().contains(currentStatus) ? Set.of(currentStatus) : Set.of();
+        int chunkSize = Math.max(1, properties.getChunkSize());
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<Result> results = new ArrayList<>();
+        List<Long> updated = new ArrayList<>();
+        try {
+            for (int from = 0; from < distinct.size(); from += chunkSize) {
+                List<Long> chunk = distinct.subList(from, Math.min(from + chunkSize, distinct.size()));
+                processChunk(chunk, target, sources, paymentStatus, results, updated);
+            }
+        } finally {
+            evictServiceCaches(updated);
+        }
+        return summarize(target, results);
+    }
+
+    private BulkStatusUpdateResponse summarize(OrderStatus target, List<Result> results) {
+        BulkStatusUpdateResponse response = BulkStatusUpdateResponse.builder()
+                .status(target)
+                .results(results)
+                .build();
+        for (Result result : results) {
+            switch (result.outcome()) {
+                case UPDATED -> response.setUpdated(response.getUpdated() + 1);
+                case UNCHANGED -> response.setUnchanged(response.getUnchanged() + 1);
+                case REJECTED -> response.setRejected(response.getRejected() + 1);
+                case NOT_FOUND -> response.setNotFound(response.getNotFound() + 1);
+            }
+        }
+        logger.info("Bulk status update to {}: {} updated, {} unchanged, {} rejected, {} not found", target,
+                response.getUpdated(), response.getUnchanged(), response.getRejected(), response.getNotFound());
+        return response;
+    }
+
+    /**
+     * Next chunk of ids matching the filter, in id order after {@code after}. Seeking by id instead of paging by
+     * offset keeps every chunk an index range scan, however far the update has progressed.
+     */
+    private List<Long> nextMatching(String criteria, MapSqlParameterSource parameters, long after, int limit) {
+        return jdbcTemplate.queryForList("SELECT id FROM orders WHERE id > :after AND deleted_at IS NULL" + criteria
+                + " ORDER BY id FETCH FIRST :limit ROWS ONLY", parameters.addValue("after", after)
+                .addValue("limit", limit), Long.class);
+    }
+
+    /**
+     * The {@code WHERE} conditions of the filter. A filter without any would select every order.
+     */
+    private static String criteria(BulkStatusUpdateRequest.Filter filter, MapSqlParameterSource parameters) {
+        StringBuilder criteria = new StringBuilder();
+        if (filter.getCurrentStatus() != null) {
+            criteria.append(" AND status = :currentStatus");
+            parameters.addValue("currentStatus", filter.getCurrentStatus().name());
+        }
+        if (filter.getCreatedFrom() != null) {
+            criteria.append(" AND created_at >= :createdFrom");
+            parameters.addValue("createdFrom", Timestamp.valueOf(filter.getCreatedFrom()));
+        }
+        if (filter.getCreatedTo() != null) {
+            criteria.append(" AND created_at < :createdTo");
+            parameters.addValue("createdTo", Timestamp.valueOf(filter.getCreatedTo()));
+        }
+        if (criteria.isEmpty()) {
+            throw new InvalidRequestException("At least one filter criterion is required");
+        }
+        if (filter.getCreatedFrom() != null && filter.getCreatedTo() != null
+                && !filter.getCreatedFrom().isBefore(filter.getCreatedTo())) {
+            throw new InvalidRequestException("createdFrom must be before createdTo");
+        }
+        return criteria.toString();
+    }
+
+    private void processChunk(List<Long> ids, OrderStatus target, Set<OrderStatus> sources,
+            PaymentStatus paymentStatus, List<Result> results, List<Long> updated) {
+        Map<Long, Result> chunkResults = transactionTemplate.execute(status -> updateChunk(ids, target, sources,
+                paymentStatus));
+        List<Long> chunkUpdated = new ArrayList<>();
+        for (Long id : ids) {
+            Result result = chunkResults.get(id);
+            results.add(result);
+            if (result.outcome() == Outcome.UPDATED) {
+                chunkUpdated.add(id);
+            }
+        }
+        // Evicted after the commit: a reader in between would otherwise put the old row back into the cache
+        chunkUpdated.forEach(id -> entityManagerFactory.getCache().evict(Order.class, id));
+        updated.addAll(chunkUpdated);
+    }
+
+    /**
+     * @param sources the statuses an order may be moved from: those of the transition rules, or a subset of them
+     */
+    private Map<Long, Result> updateChunk(List<Long> ids, OrderStatus target, Set<OrderStatus> sources,
+            PaymentStatus paymentStatus) {
+        Map<Long, Result> results = new HashMap<>();
+        if (!sources.isEmpty()) {
+            MapSqlParameterSource parameters = new MapSqlParameterSource("ids", ids)
+                    .addValue("target", target.name())
+                    .addValue("sources", sources.stream().map(OrderStatus::name).toList())
+                    .addValue("now", Timestamp.valueOf(LocalDateTime.now()));
+            String paymentCondition = "";
+            if (paymentStatus != null) {
+                paymentCondition = " AND payment_status = :paymentStatus";
+                parameters.addValue("paymentStatus", paymentStatus.name());
+            }
+            jdbcTemplate.query("SELECT id, status, order_number, payment_status, total_amount, version "
+                    + "FROM OLD TABLE (UPDATE orders SET status = :target, version = version + 1, updated_at = :now "
+                    + "WHERE id IN (:ids) AND status IN (:sources)" + paymentCondition + " AND deleted_at IS NULL)",
+                    parameters, rs -> {
+                        long id = rs.getLong("id");
+                        results.put(id, new Result(id, Outcome.UPDATED, OrderStatus.valueOf(rs.getString("status"))));
+                        // Delivered to listeners once the chunk has committed
+                        eventPublisher.publishEvent(OrderEvent.of(OrderEvent.Type.STATUS_CHANGED, id,
+                                rs.getString("order_number"), target.name(), rs.getString("payment_status"),
+                                rs.getBigDecimal("total_amount"), rs.getLong("version") + 1));
+                    });
+        }
+
+        List<Long> rest = ids.stream().filter(id -> !results.containsKey(id)).toList();
+        if (!rest.isEmpty()) {
+            jdbcTemplate.query("SELECT id, status FROM orders WHERE id IN (:ids) AND deleted_at IS NULL",
+                    new MapSqlParameterSource("ids", rest), rs -> {
+                        long id = rs.getLong("id");
+                        OrderStatus current = OrderStatus.valueOf(rs.getString("status"));
+                        results.put(id, new Result(id, current == target ? Outcome.UNCHANGED : Outcome.REJECTED,
+                                current));
+                    });
+            for (Long id : rest) {
+                results.putIfAbsent(id, new Result(id, Outcome.NOT_FOUND, null));
+            }
+        }
+        return results;
+    }
+
+    private void evictServiceCaches(List<Long> updated) {
+        if (updated.isEmpty()) {
+            return;
+        }
+        Cache order = cacheManager.getCache("order");
+        if (order != null) {
+            updated.forEach(order::evict);
+        }
+        Cache orders = cacheManager.getCache("orders");
+        if (orders != null) {
+            orders.clear();
+        }
+    }
+}
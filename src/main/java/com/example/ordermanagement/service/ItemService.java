@@ -1,16 +1,47 @@
 package com.example.ordermanagement.service;
 
+import com.example.ordermanagement.aop.RetryOnConflict;
+import com.example.ordermanagement.dto.ItemBatchRequest;
+import com.example.ordermanagement.dto.ItemBatchResponse;
 import com.example.ordermanagement.dto.ItemRequest;
 import com.example.ordermanagement.dto.ItemResponse;
 import com.example.ordermanagement.entity.Item;
 import com.example.ordermanagement.entity.Order;
+import com.example.ordermanagement.events.OrderEvent;
+import com.example.ordermanagement.exception.InvalidRequestException;
+import com.example.ordermanagement.exception.OrderVersionMismatchException;
 import com.example.ordermanagement.exception.ResourceNotFoundException;
 import com.example.ordermanagement.mapper.OrderMapper;
 import com.example.ordermanagement.repository.ItemRepository;
 import com.example.ordermanagement.repository.OrderRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @Transactional
@@ -19,16 +50,25 @@ public class ItemService {
     private final ItemRepository itemRepository;
     private final OrderRepository orderRepository;
     private final OrderMapper orderMapper;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public ItemService(ItemRepository itemRepository, OrderRepository orderRepository, OrderMapper orderMapper) {
+    public ItemService(ItemRepository itemRepository, OrderRepository orderRepository, OrderMapper orderMapper,
+            DataSource dataSource, EntityManagerFactory entityManagerFactory,
+            ApplicationEventPublisher eventPublisher) {
         this.itemRepository = itemRepository;
         this.orderRepository = orderRepository;
         this.orderMapper = orderMapper;
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.entityManagerFactory = entityManagerFactory;
+        this.eventPublisher = eventPublisher;
     }
 
+    @RetryOnConflict
     @CacheEvict(value = {"order", "orders"}, allEntries = true)
     public ItemResponse create(Long orderId, ItemRequest request) {
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findActiveById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + orderId));
 
         Item item = Item.builder()
@@ -42,13 +82,15 @@ public class ItemService {
                 .build();
 
         Item savedItem = itemRepository.save(item);
+        order.touch();
+        publishItemsChanged(order);
         return orderMapper.itemToResponse(savedItem);
     }
 
+    @RetryOnConflict
     @CacheEvict(value = {"order", "orders"}, allEntries = true)
     public ItemResponse update(Long id, ItemRequest request) {
-        Item item = itemRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Item not found with id: " + id));
+        Item item = findActiveItem(id);
 
         item.setSku(request.getSku());
         item.setName(request.getName());
@@ -58,14 +100,204 @@ public class ItemService {
         item.setWeight(request.getWeight());
 
         Item updatedItem = itemRepository.save(item);
+        item.getOrder().touch();
+        publishItemsChanged(item.getOrder());
         return orderMapper.itemToResponse(updatedItem);
     }
 
+    @RetryOnConflict
     @CacheEvict(value = {"order", "orders"}, allEntries = true)
     public void delete(Long id) {
-        if (!itemRepository.existsById(id)) {
+        Item item = findActiveItem(id);
+        Order order = item.getOrder();
+        // Through the collection, so that the recomputed total no longer counts the item
+        order.removeItem(item);
+        itemRepository.delete(item);
+        order.touch();
+        publishItemsChanged(order);
+    }
+
+    /**
+     * Creates, updates and deletes items of one order in one transaction. Each kind of change is one JDBC batch (or
+     * one statement for the deletes) instead of a load and a save per item, and the order's total and version are
+     * updated once, by a single statement that sums the items in the database.
+     * <p>
+     * The statements bypass Hibernate, so the order, its item collection and the changed items are evicted from the
+     * second-level cache once the transaction has completed.
+     * </p>
+     */
+    @RetryOnConflict
+    @Caching(evict = {
+            @CacheEvict(value = "order", key = "#orderId"),
+            @CacheEvict(value = "orders", allEntries = true)})
+    public ItemBatchResponse batch(Long orderId, ItemBatchRequest request) {
+        List<ItemRequest> creates = request.getCreate() != null ? request.getCreate() : List.of();
+        List<ItemBatchRequest.ItemUpdate> updates = request.getUpdate() != null ? request.getUpdate() : List.of();
+        List<Long> deletes = request.getDelete() != null ? request.getDelete() : List.of();
+        Set<Long> touched = new HashSet<>();
+        updates.forEach(update -> addOnce(touched, update.getId()));
+        deletes.forEach(id -> addOnce(touched, id));
+
+        MapSqlParameterSource order = new MapSqlParameterSource("orderId", orderId);
+        List<Long> versions = jdbcTemplate.queryForList(
+                "SELECT version FROM orders WHERE id = :orderId AND deleted_at IS NULL", order, Long.class);
+        if (versions.isEmpty()) {
+            throw new ResourceNotFoundException("Order not found with id: " + orderId);
+        }
+        long version = versions.get(0);
+        if (request.getVersion() != null && request.getVersion() != version) {
+            throw new OrderVersionMismatchException(
+                    "Order " + orderId + " is at version " + version + ", not " + request.getVersion());
+        }
+        if (!touched.isEmpty()) {
+            Set<Long> missing = new HashSet<>(touched);
+            jdbcTemplate.queryForList("SELECT id FROM items WHERE order_id = :orderId AND id IN (:ids)",
+                    new MapSqlParameterSource("orderId", orderId).addValue("ids", touched), Long.class)
+                    .forEach(missing::remove);
+            if (!missing.isEmpty()) {
+                throw new ResourceNotFoundException("Items not found in order " + orderId + ": " + missing);
+            }
+        }
+        evictAfterCompletion(orderId, touched);
+
+        if (!deletes.isEmpty()) {
+            jdbcTemplate.update("DELETE FROM items WHERE id IN (:ids)", new MapSqlParameterSource("ids", deletes));
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.getJdbcOperations().batchUpdate("UPDATE items SET sku = ?, name = ?, quantity = ?, "
+                    + "unit_price = ?, image_url = ?, weight = ? WHERE id = ?", new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement statement, int i) throws SQLException {
+                            ItemBatchRequest.ItemUpdate update = updates.get(i);
+                            int next = setItemColumns(statement, update.getItem());
+                            statement.setLong(next, update.getId());
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return updates.size();
+                        }
+                    });
+        }
+        GeneratedKeyHolder keys = new GeneratedKeyHolder();
+        if (!creates.isEmpty()) {
+            jdbcTemplate.getJdbcOperations().batchUpdate(connection -> connection.prepareStatement(
+                    "INSERT INTO items (sku, name, quantity, unit_price, image_url, weight, order_id) "
+                            + "VALUES (?, ?, ?, ?, ?, ?, ?)", Statement.RETURN_GENERATED_KEYS),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement statement, int i) throws SQLException {
+                            int next = setItemColumns(statement, creates.get(i));
+                            statement.setLong(next, orderId);
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return creates.size();
+                        }
+                    }, keys);
+        }
+
+        // The version check makes a concurrent single-item change and this batch conflict, like two entity updates
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList("SELECT order_number, status, payment_status, "
+                + "total_amount, version FROM FINAL TABLE ("
+                + "UPDATE orders SET total_amount = (SELECT COALESCE(SUM(quantity * unit_price), 0) FROM items "
+                + "WHERE order_id = :orderId), version = version + 1, updated_at = :now "
+                + "WHERE id = :orderId AND version = :version)", new MapSqlParameterSource("orderId", orderId)
+                .addValue("version", version)
+                .addValue("now", Timestamp.valueOf(LocalDateTime.now())));
+        if (rows.isEmpty()) {
+            throw new ObjectOptimisticLockingFailureException(Order.class, orderId);
+        }
+        Map<String, Object> updated = rows.get(0);
+        long newVersion = ((Number) updated.get("VERSION")).longValue();
+        BigDecimal totalAmount = (BigDecimal) updated.get("TOTAL_AMOUNT");
+        eventPublisher.publishEvent(OrderEvent.of(OrderEvent.Type.ITEMS_CHANGED, orderId,
+                (String) updated.get("ORDER_NUMBER"), (String) updated.get("STATUS"),
+                (String) updated.get("PAYMENT_STATUS"), totalAmount, newVersion));
+
+        List<ItemResponse> created = new ArrayList<>(creates.size());
+        List<Map<String, Object>> keyList = keys.getKeyList();
+        for (int i = 0; i < creates.size(); i++) {
+            long id = ((Number) keyList.get(i).values().iterator().next()).longValue();
+            created.add(toResponse(id, creates.get(i)));
+        }
+        return ItemBatchResponse.builder()
+                .orderId(orderId)
+                .version(newVersion)
+                .totalAmount(totalAmount)
+                .created(created)
+                .updated(updates.stream().map(update -> toResponse(update.getId(), update.getItem())).toList())
+                .deleted(deletes)
+                .build();
+    }
+
+    /**
+     * Flushes the touched order first, so that the event carries its new version and total.
+     */
+    private void publishItemsChanged(Order order) {
+        orderRepository.flush();
+        eventPublisher.publishEvent(OrderEvent.of(OrderEvent.Type.ITEMS_CHANGED, order));
+    }
+
+    /**
+     * An item whose order was soft-deleted is gone as well. Its order is looked up by id rather than initialised
+     * through the association, which would fail for a deleted order.
+     */
+    private Item findActiveItem(Long id) {
+        Item item = itemRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Item not found with id: " + id));
+        if (orderRepository.findActiveById(item.getOrder().getId()).isEmpty()) {
             throw new ResourceNotFoundException("Item not found with id: " + id);
         }
-        itemRepository.deleteById(id);
+        return item;
+    }
+
+    private static void addOnce(Set<Long> ids, Long id) {
+        if (!ids.add(id)) {
+            throw new InvalidRequestException("Item " + id + " appears more than once in the batch");
+        }
+    }
+
+    private static int setItemColumns(PreparedStatement statement, ItemRequest item) throws SQLException {
+        statement.setString(1, item.getSku());
+        statement.setString(2, item.getName());
+        statement.setInt(3, item.getQuantity());
+        statement.setBigDecimal(4, item.getUnitPrice());
+        statement.setString(5, item.getImageUrl());
+        if (item.getWeight() != null) {
+            statement.setBigDecimal(6, item.getWeight());
+        } else {
+            statement.setNull(6, Types.NUMERIC);
+        }
+        return 7;
+    }
+
+    private ItemResponse toResponse(Long id, ItemRequest request) {
+        Item item = Item.builder()
+                .id(id)
+                .sku(request.getSku())
+                .name(request.getName())
+                .quantity(request.getQuantity())
+                .unitPrice(request.getUnitPrice())
+                .imageUrl(request.getImageUrl())
+                .weight(request.getWeight())
+                .build();
+        return orderMapper.itemToResponse(item);
+    }
+
+    /**
+     * Evicting earlier would let a concurrent reader put the old rows back into the cache before the commit.
+     */
+    private void evictAfterCompletion(Long orderId, Set<Long> itemIds) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                org.hibernate.Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+                cache.evictEntityData(Order.class, orderId);
+                cache.evictCollectionData(Order.class.getName() + ".items", orderId);
+                itemIds.forEach(id -> cache.evictEntityData(Item.class, id));
+            }
+        });
     }
-}
\ No newline at end of file
+}
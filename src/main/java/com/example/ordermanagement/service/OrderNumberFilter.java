@@ -0,0 +1,119 @@
+package com.example.ordermanagement.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Remembers which order numbers exist, so that the uniqueness check on create and update can skip its query for
+ * numbers that are certainly new. A "might exist" answer still goes to the database, and the unique constraint on
+ * {@code orders.order_number} remains the source of truth.
+ * <p>
+ * The filter is loaded once the application is ready, after the snapshot restore and the seeder have run. Until
+ * then, or when it is disabled, every number is reported as possibly existing. Deleted order numbers stay in the
+ * filter and only cost a query.
+ * </p>
+ */
+@Component
+public class OrderNumberFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderNumberFilter.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OrderNumberFilterProperties properties;
+    private final Counter absent;
+    private final Counter present;
+    private final Counter falsePositive;
+
+    private volatile ScalableBloomFilter filter;
+    private volatile boolean ready;
+
+    public OrderNumberFilter(DataSource dataSource, OrderNumberFilterProperties properties,
+            MeterRegistry meterRegistry) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(10_000);
+        this.properties = properties;
+        this.absent = checkCounter(meterRegistry, "absent");
+        this.present = checkCounter(meterRegistry, "present");
+        this.falsePositive = checkCounter(meterRegistry, "false-positive");
+        Gauge.builder("app.order-number-filter.false-positive-rate", this, OrderNumberFilter::falsePositiveRate)
+                .description("Share of new order numbers the filter reported as possibly present")
+                .register(meterRegistry);
+        Gauge.builder("app.order-number-filter.size", this, f -> f.filter == null ? 0 : f.filter.size())
+                .description("Order numbers in the filter")
+                .register(meterRegistry);
+    }
+
+    private static Counter checkCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("app.order-number-filter.checks")
+                .description("Order-number uniqueness checks by filter outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders", Long.class);
+        // Published before loading, so numbers added by concurrent inserts are not missed
+        ScalableBloomFilter loading = new ScalableBloomFilter(Math.max(properties.getInitialCapacity(), 2 * existing),
+                properties.getFalsePositiveProbability());
+        filter = loading;
+        jdbcTemplate.query("SELECT order_number FROM orders", (RowCallbackHandler) rs -> loading.put(rs.getString(1)));
+        ready = true;
+        logger.info("Loaded {} order numbers into the order-number filter in {} ms", loading.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Returns {@code false} only if no order with this number exists. Callers that get {@code true} check the
+     * database and report the answer through {@link #recordLookup}.
+     */
+    public boolean mightContain(String orderNumber) {
+        if (!ready) {
+            return true;
+        }
+        if (!filter.mightContain(orderNumber)) {
+            absent.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Records whether a number the filter reported as possibly present actually exists.
+     */
+    public void recordLookup(boolean exists) {
+        if (ready) {
+            (exists ? present : falsePositive).increment();
+        }
+    }
+
+    /**
+     * Adds the number of an order that was just inserted or renumbered. If the transaction rolls back, the number
+     * stays in the filter and only costs a query later.
+     */
+    public void add(String orderNumber) {
+        ScalableBloomFilter current = filter;
+        if (current != null) {
+            current.put(orderNumber);
+        }
+    }
+
+    double falsePositiveRate() {
+        double negatives = absent.count() + falsePositive.count();
+        return negatives == 0 ? 0 : falsePositive.count() / negatives;
+    }
+}
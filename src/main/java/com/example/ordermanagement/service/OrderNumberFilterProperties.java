@@ -0,0 +1,30 @@
+package com.example.ordermanagement.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the in-memory Bloom filter that lets order creation skip the order-number uniqueness query.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.order-number-filter")
+public class OrderNumberFilterProperties {
+
+    /**
+     * Whether the filter is used. When off, every create and update runs the uniqueness query.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Order numbers the first stage of the filter is sized for. At startup it is raised to twice the number of
+     * existing orders; beyond that the filter adds larger stages.
+     */
+    private long initialCapacity = 100_000;
+
+    /**
+     * Target probability that a new order number is reported as possibly present, which costs one query.
+     */
+    private double falsePositiveProbability = 0.01;
+}
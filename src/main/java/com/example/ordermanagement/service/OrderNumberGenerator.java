@@ -0,0 +1,135 @@
+package com.example.ordermanagement.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.regex.Pattern;
+
+/**
+ * Generates order numbers such as {@code ORD-20250630-000000004711}: the UTC date of allocation followed by a
+ * 12-digit value from the {@code order_number_seq} database sequence. The sequence makes the numbers unique across
+ * replicas that share the database, so generated numbers skip the uniqueness check. Numbers sort by day, and within
+ * a day roughly by allocation time (see {@link BlockSequenceAllocator}).
+ * <p>
+ * A restored snapshot brings back generated numbers but not the sequence, so once the application is ready the
+ * sequence is moved past the highest generated number in the {@code orders} table.
+ * </p>
+ */
+@Component
+public class OrderNumberGenerator {
+
+    static final String SEQUENCE = "order_number_seq";
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderNumberGenerator.class);
+    private static final DateTimeFormatter DAY = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    private static final int SEQUENCE_DIGITS = 12;
+
+    private final OrderNumberProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+    private final Timer reservations;
+    private final long blockSize;
+
+    private volatile BlockSequenceAllocator allocator;
+    private volatile DayPrefix dayPrefix = new DayPrefix(Long.MIN_VALUE, "");
+
+    @Autowired
+    public OrderNumberGenerator(OrderNumberProperties properties, DataSource dataSource,
+            MeterRegistry meterRegistry) {
+        this(properties, dataSource, meterRegistry, Clock.systemUTC());
+    }
+
+    OrderNumberGenerator(OrderNumberProperties properties, DataSource dataSource, MeterRegistry meterRegistry,
+            Clock clock) {
+        this.properties = properties;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.clock = clock;
+        this.reservations = Timer.builder("app.order-numbers.block-reservations")
+                .description("Round trips that reserve a block of order numbers from the database sequence")
+                .register(meterRegistry);
+        if (properties.isServerGenerated()) {
+            jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + SEQUENCE + " START WITH 1 INCREMENT BY "
+                    + properties.getBlockSize());
+            // The increment of an existing sequence wins, or replicas would reserve overlapping blocks
+            this.blockSize = jdbcTemplate.queryForObject("SELECT INCREMENT FROM INFORMATION_SCHEMA.SEQUENCES "
+                    + "WHERE LOWER(SEQUENCE_NAME) = ?", Long.class, SEQUENCE);
+            if (blockSize != properties.getBlockSize()) {
+                logger.warn("Sequence {} reserves blocks of {} numbers, not the configured {}", SEQUENCE, blockSize,
+                        properties.getBlockSize());
+            }
+            this.allocator = newAllocator();
+        } else {
+            this.blockSize = 0;
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isServerGenerated();
+    }
+
+    public String next() {
+        if (!isEnabled()) {
+            throw new IllegalStateException("Server-generated order numbers are disabled");
+        }
+        long value = allocator.next();
+        StringBuilder number = new StringBuilder(properties.getPrefix().length() + 10 + SEQUENCE_DIGITS)
+                .append(today()).append('-');
+        String digits = Long.toString(value);
+        for (int i = digits.length(); i < SEQUENCE_DIGITS; i++) {
+            number.append('0');
+        }
+        return number.append(digits).toString();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void skipExistingNumbers() {
+        if (!isEnabled()) {
+            return;
+        }
+        int sequenceStart = properties.getPrefix().length() + 11;
+        String pattern = "^" + Pattern.quote(properties.getPrefix()) + "-[0-9]{8}-[0-9]{" + SEQUENCE_DIGITS + "}$";
+        Long highest = jdbcTemplate.queryForObject("SELECT MAX(CAST(SUBSTRING(order_number, ?) AS BIGINT)) "
+                + "FROM orders WHERE REGEXP_LIKE(order_number, ?)", Long.class, sequenceStart, pattern);
+        if (highest != null && reserveBlock() <= highest) {
+            jdbcTemplate.execute("ALTER SEQUENCE " + SEQUENCE + " RESTART WITH " + (highest + 1));
+            allocator = newAllocator();
+            logger.info("Moved sequence {} past the highest existing order number {}", SEQUENCE, highest);
+        }
+    }
+
+    private BlockSequenceAllocator newAllocator() {
+        return new BlockSequenceAllocator(this::reserveBlock, blockSize, properties.getChunkSize(),
+                2 * Runtime.getRuntime().availableProcessors());
+    }
+
+    private long reserveBlock() {
+        return reservations.record(() -> jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR " + SEQUENCE,
+                Long.class));
+    }
+
+    private String today() {
+        long epochDay = Math.floorDiv(clock.millis(), MILLIS_PER_DAY);
+        DayPrefix current = dayPrefix;
+        if (current.epochDay != epochDay) {
+            current = new DayPrefix(epochDay, properties.getPrefix() + "-" + LocalDate.ofEpochDay(epochDay)
+                    .format(DAY));
+            dayPrefix = current;
+        }
+        return current.text;
+    }
+
+    private record DayPrefix(long epochDay, String text) {
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.ordermanagement.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for server-generated order numbers.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.order-numbers")
+public class OrderNumberProperties {
+
+    /**
+     * Whether an order created without an order number gets one from the server. When off, the number is required.
+     */
+    private boolean serverGenerated = false;
+
+    /**
+     * Prefix of generated numbers, which look like {@code ORD-20250630-000000004711}.
+     */
+    private String prefix = "ORD";
+
+    /**
+     * Numbers reserved from the database sequence per round trip. The sequence is created with this increment; a
+     * replica that finds the sequence already created with another increment uses that one.
+     */
+    private int blockSize = 1_000;
+
+    /**
+     * Numbers a stripe of the allocator takes from the current block at a time.
+     */
+    private int chunkSize = 16;
+}
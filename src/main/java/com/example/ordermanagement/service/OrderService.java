@@ -1,22 +1,39 @@
 package com.example.ordermanagement.service;
 
+import com.example.ordermanagement.aop.RetryOnConflict;
 import com.example.ordermanagement.dto.OrderRequest;
 import com.example.ordermanagement.dto.OrderResponse;
+import com.example.ordermanagement.dto.OrderStateResponse;
 import com.example.ordermanagement.dto.PagedResponse;
 import com.example.ordermanagement.entity.Item;
 import com.example.ordermanagement.entity.Order;
+import com.example.ordermanagement.entity.OrderStatus;
+import com.example.ordermanagement.entity.PaymentStatus;
+import com.example.ordermanagement.events.OrderEvent;
 import com.example.ordermanagement.exception.DuplicateOrderNumberException;
+import com.example.ordermanagement.exception.InvalidRequestException;
+import com.example.ordermanagement.exception.InvalidStatusTransitionException;
+import com.example.ordermanagement.exception.OrderVersionMismatchException;
 import com.example.ordermanagement.exception.ResourceNotFoundException;
 import com.example.ordermanagement.mapper.OrderMapper;
 import com.example.ordermanagement.repository.OrderRepository;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,10 +42,18 @@ public class OrderService {
 
     private final OrderRepository orderRepository;
     private final OrderMapper orderMapper;
+    private final OrderNumberFilter orderNumberFilter;
+    private final OrderNumberGenerator orderNumberGenerator;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public OrderService(OrderRepository orderRepository, OrderMapper orderMapper) {
+    public OrderService(OrderRepository orderRepository, OrderMapper orderMapper,
+            OrderNumberFilter orderNumberFilter, OrderNumberGenerator orderNumberGenerator,
+            ApplicationEventPublisher eventPublisher) {
         this.orderRepository = orderRepository;
         this.orderMapper = orderMapper;
+        this.orderNumberFilter = orderNumberFilter;
+        this.orderNumberGenerator = orderNumberGenerator;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional(readOnly = true)
@@ -53,21 +78,28 @@ public class OrderService {
     @Transactional(readOnly = true)
     @Cacheable(value = "order", key = "#id")
     public OrderResponse findById(Long id) {
-        Order order = orderRepository.findById(id)
+        Order order = orderRepository.findActiveById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
         return orderMapper.toResponse(order);
     }
 
     @CacheEvict(value = "orders", allEntries = true)
     public OrderResponse create(OrderRequest request) {
-        if (orderRepository.existsByOrderNumber(request.getOrderNumber())) {
+        String orderNumber = request.getOrderNumber();
+        if (!StringUtils.hasText(orderNumber)) {
+            if (!orderNumberGenerator.isEnabled()) {
+                throw new InvalidRequestException("Order number is required");
+            }
+            // Generated numbers are unique by construction and need no check
+            orderNumber = orderNumberGenerator.next();
+        } else if (orderNumberExists(orderNumber)) {
             throw new DuplicateOrderNumberException(
-                    "Order number already exists: " + request.getOrderNumber());
+                    "Order number already exists: " + orderNumber);
         }
 
         // Using Builder pattern to construct the Order entity
         Order order = Order.builder()
-                .orderNumber(request.getOrderNumber())
+                .orderNumber(orderNumber)
                 .customerName(request.getCustomerName())
                 .shippingAddress(request.getShippingAddress())
                 .billingAddress(request.getBillingAddress())
@@ -89,20 +121,31 @@ public class OrderService {
             });
         }
 
-        Order savedOrder = orderRepository.save(order);
+        Order savedOrder;
+        try {
+            savedOrder = orderRepository.save(order);
+        } catch (DataIntegrityViolationException ex) {
+            throw translateViolation(ex, orderNumber);
+        }
+        orderNumberFilter.add(savedOrder.getOrderNumber());
+        eventPublisher.publishEvent(OrderEvent.of(OrderEvent.Type.CREATED, savedOrder));
         return orderMapper.toResponse(savedOrder);
     }
 
+    @RetryOnConflict
     @CacheEvict(value = {"order", "orders"}, key = "#id", allEntries = true)
     public OrderResponse update(Long id, OrderRequest request) {
-        Order order = orderRepository.findById(id)
+        Order order = orderRepository.findActiveById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
 
-        // Check if order number is being changed to one that already exists
-        if (!order.getOrderNumber().equals(request.getOrderNumber()) &&
-                orderRepository.existsByOrderNumber(request.getOrderNumber())) {
+        // Check if order number is being changed to one that already exists; without one the order keeps its number
+        String orderNumber = StringUtils.hasText(request.getOrderNumber())
+                ? request.getOrderNumber()
+                : order.getOrderNumber();
+        boolean renumbered = !order.getOrderNumber().equals(orderNumber);
+        if (renumbered && orderNumberExists(orderNumber)) {
             throw new DuplicateOrderNumberException(
-                    "Order number already exists: " + request.getOrderNumber());
+                    "Order number already exists: " + orderNumber);
         }
 
         // Manually handle items update to ensure proper JPA relationship management
@@ -127,16 +170,129 @@ public class OrderService {
 
         // Update other fields using mapper (or could use setters manually)
         orderMapper.updateEntity(order, request);
+        order.setOrderNumber(orderNumber);
+        // A request that only replaces the items must still update, and so version, the order row
+        order.touch();
 
-        Order updatedOrder = orderRepository.save(order);
+        Order updatedOrder;
+        try {
+            updatedOrder = orderRepository.save(order);
+            // Flush here, so that a constraint violation surfaces before the transaction commits
+            orderRepository.flush();
+        } catch (DataIntegrityViolationException ex) {
+            throw translateViolation(ex, orderNumber);
+        }
+        if (renumbered) {
+            orderNumberFilter.add(orderNumber);
+        }
+        eventPublisher.publishEvent(OrderEvent.of(OrderEvent.Type.UPDATED, updatedOrder));
         return orderMapper.toResponse(updatedOrder);
     }
 
+    /**
+     * Soft-deletes an order: one narrow {@code UPDATE} that sets its deletion time. The order disappears from reads
+     * at once; the row and its items are removed later by the purge job.
+     */
+    @RetryOnConflict
     @CacheEvict(value = {"order", "orders"}, key = "#id", allEntries = true)
     public void delete(Long id) {
-        if (!orderRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Order not found with id: " + id);
+        Order order = orderRepository.findActiveById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
+        order.setDeletedAt(LocalDateTime.now());
+        // Flush now, so that the event carries the new version
+        orderRepository.flush();
+        eventPublisher.publishEvent(OrderEvent.of(OrderEvent.Type.DELETED, order));
+    }
+
+    /**
+     * Moves an order to another status, if its current status allows it. Setting the current status again changes
+     * nothing.
+     *
+     * @param expectedVersion when not {@code null}, the change is only made if the order is still at this version
+     */
+    @RetryOnConflict
+    @Caching(evict = {
+            @CacheEvict(value = "order", key = "#id"),
+            @CacheEvict(value = "orders", allEntries = true)})
+    public OrderStateResponse updateStatus(Long id, OrderStatus status, Long expectedVersion) {
+        return patch(id, expectedVersion, OrderEvent.Type.STATUS_CHANGED, order -> {
+            if (order.getStatus() != status && !order.getStatus().canTransitionTo(status)) {
+                throw new InvalidStatusTransitionException(
+                        "Order " + id + " cannot move from " + order.getStatus() + " to " + status);
+            }
+            order.setStatus(status);
+        });
+    }
+
+    /**
+     * @param expectedVersion when not {@code null}, the change is only made if the order is still at this version
+     */
+    @RetryOnConflict
+    @Caching(evict = {
+            @CacheEvict(value = "order", key = "#id"),
+            @CacheEvict(value = "orders", allEntries = true)})
+    public OrderStateResponse updatePaymentStatus(Long id, PaymentStatus paymentStatus, Long expectedVersion) {
+        return patch(id, expectedVersion, OrderEvent.Type.PAYMENT_CHANGED,
+                order -> order.setPaymentStatus(paymentStatus));
+    }
+
+    /**
+     * @param expectedVersion when not {@code null}, the change is only made if the order is still at this version
+     */
+    @RetryOnConflict
+    @Caching(evict = {
+            @CacheEvict(value = "order", key = "#id"),
+            @CacheEvict(value = "orders", allEntries = true)})
+    public OrderStateResponse updateTrackingNumber(Long id, String trackingNumber, Long expectedVersion) {
+        return patch(id, expectedVersion, OrderEvent.Type.TRACKING_CHANGED,
+                order -> order.setTrackingNumber(trackingNumber));
+    }
+
+    /**
+     * Applies a change to the order's own columns. The order usually comes from the second-level cache and its
+     * items are never loaded, so the change costs one {@code UPDATE} of the changed columns, guarded by the version,
+     * or nothing at all when no value changed. Only an actual change is published as an event.
+     */
+    private OrderStateResponse patch(Long id, Long expectedVersion, OrderEvent.Type eventType,
+            Consumer<Order> change) {
+        Order order = orderRepository.findActiveById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
+        if (expectedVersion != null && !Objects.equals(expectedVersion, order.getVersion())) {
+            throw new OrderVersionMismatchException(
+                    "Order " + id + " is at version " + order.getVersion() + ", not " + expectedVersion);
+        }
+        Long version = order.getVersion();
+        change.accept(order);
+        // Flush now, so that the response carries the new version
+        orderRepository.flush();
+        if (!Objects.equals(version, order.getVersion())) {
+            eventPublisher.publishEvent(OrderEvent.of(eventType, order));
+        }
+        return orderMapper.toStateResponse(order);
+    }
+
+    /**
+     * Checks the order-number filter first and only queries when the number might exist.
+     */
+    private boolean orderNumberExists(String orderNumber) {
+        if (!orderNumberFilter.mightContain(orderNumber)) {
+            return false;
+        }
+        boolean exists = orderRepository.existsByOrderNumber(orderNumber);
+        orderNumberFilter.recordLookup(exists);
+        return exists;
+    }
+
+    /**
+     * The pre-check can race with a concurrent insert, or be skipped by the filter, so the unique constraint has the
+     * final word. Its violation is reported like a failed pre-check; any other violation is passed on.
+     */
+    private static RuntimeException translateViolation(DataIntegrityViolationException ex, String orderNumber) {
+        if (ex.getCause() instanceof ConstraintViolationException violation
+                && violation.getConstraintName() != null
+                && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(Order.ORDER_NUMBER_CONSTRAINT)) {
+            return new DuplicateOrderNumberException("Order number already exists: " + orderNumber, ex);
         }
-        orderRepository.deleteById(id);
+        return ex;
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,7 @@
 package com.example.ordermanagement.service;
 
 import com.example.ordermanagement.entity.RefreshToken;
+import com.example.ordermanagement.entity.User;
 import com.example.ordermanagement.repository.RefreshTokenRepository;
 import com.example.ordermanagement.repository.UserRepository;
 import org.springframework.stereotype.Service;
@@ -22,11 +23,12 @@ public class RefreshTokenService {
     }
 
     public RefreshToken createRefreshToken(String username) {
-        RefreshToken refreshToken = RefreshToken.builder()
-                .user(userRepository.findByUsername(username).get())
-                .token(UUID.randomUUID().toString())
-                .expiryDate(Instant.now().plusMillis(6000000)) // 100 minutes
-                .build();
+        User user = userRepository.findByUsername(username).get();
+        // A user has at most one refresh token (unique user_id), so a new login rotates the existing one
+        RefreshToken refreshToken = refreshTokenRepository.findByUser(user)
+                .orElseGet(() -> RefreshToken.builder().user(user).build());
+        refreshToken.setToken(UUID.randomUUID().toString());
+        refreshToken.setExpiryDate(Instant.now().plusMillis(6000000)); // 100 minutes
         return refreshTokenRepository.save(refreshToken);
     }
 
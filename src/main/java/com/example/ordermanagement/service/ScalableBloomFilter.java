@@ -0,0 +1,176 @@
+package com.example.ordermanagement.service;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A thread-safe Bloom filter of strings that keeps its false-positive probability bounded while it grows: once the
+ * current stage holds its capacity, a new stage with twice the capacity and half the false-positive probability is
+ * added (Almeida et al., "Scalable Bloom Filters"). The compound probability stays below twice the configured one.
+ * <p>
+ * Values can only be added, never removed. {@link #mightContain} never returns {@code false} for an added value.
+ * </p>
+ */
+class ScalableBloomFilter {
+
+    private static final int GROWTH_FACTOR = 2;
+    private static final double TIGHTENING_RATIO = 0.5;
+
+    private volatile Stage[] stages;
+
+    ScalableBloomFilter(long initialCapacity, double falsePositiveProbability) {
+        if (initialCapacity < 1) {
+            throw new IllegalArgumentException("initialCapacity must be positive");
+        }
+        if (falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+            throw new IllegalArgumentException("falsePositiveProbability must be between 0 and 1");
+        }
+        this.stages = new Stage[] { new Stage(initialCapacity, falsePositiveProbability) };
+    }
+
+    boolean mightContain(String value) {
+        long hash = hash(value);
+        long step = step(hash);
+        for (Stage stage : stages) {
+            if (stage.mightContain(hash, step)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void put(String value) {
+        long hash = hash(value);
+        long step = step(hash);
+        Stage[] current = stages;
+        for (Stage stage : current) {
+            if (stage.mightContain(hash, step)) {
+                return;
+            }
+        }
+        Stage last = current[current.length - 1];
+        last.put(hash, step);
+        if (last.count.incrementAndGet() >= last.capacity) {
+            grow(last);
+        }
+    }
+
+    /**
+     * Approximate number of distinct values added.
+     */
+    long size() {
+        long size = 0;
+        for (Stage stage : stages) {
+            size += stage.count.get();
+        }
+        return size;
+    }
+
+    /**
+     * The probability that {@link #mightContain} returns {@code true} for a value that was never added, estimated
+     * from how many bits of each stage are set.
+     */
+    double expectedFalsePositiveProbability() {
+        double allNegative = 1.0;
+        for (Stage stage : stages) {
+            allNegative *= 1.0 - stage.falsePositiveProbability();
+        }
+        return 1.0 - allNegative;
+    }
+
+    int stageCount() {
+        return stages.length;
+    }
+
+    private synchronized void grow(Stage full) {
+        Stage[] current = stages;
+        if (current[current.length - 1] != full) {
+            return; // another thread already grew the filter
+        }
+        Stage[] grown = Arrays.copyOf(current, current.length + 1);
+        grown[current.length] = new Stage(full.capacity * GROWTH_FACTOR,
+                full.targetProbability * TIGHTENING_RATIO);
+        stages = grown;
+    }
+
+    /**
+     * FNV-1a over the UTF-16 code units, finished with the MurmurHash3 64-bit mixer.
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static long step(long hash) {
+        return mix(hash ^ 0x9e3779b97f4a7c15L) | 1;
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    /**
+     * A fixed-size Bloom filter. The bit positions are derived from two hashes (Kirsch and Mitzenmacher), so each
+     * value is hashed once no matter how many stages there are.
+     */
+    private static final class Stage {
+
+        private final long capacity;
+        private final double targetProbability;
+        private final long bitCount;
+        private final int hashCount;
+        private final AtomicLongArray words;
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong setBits = new AtomicLong();
+
+        Stage(long capacity, double targetProbability) {
+            this.capacity = capacity;
+            this.targetProbability = targetProbability;
+            double ln2 = Math.log(2);
+            long bits = (long) Math.ceil(-capacity * Math.log(targetProbability) / (ln2 * ln2));
+            this.bitCount = Math.max(64, (bits + 63) / 64 * 64);
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * ln2));
+            this.words = new AtomicLongArray(Math.toIntExact(bitCount / 64));
+        }
+
+        boolean mightContain(long hash, long step) {
+            long combined = hash;
+            for (int i = 0; i < hashCount; i++) {
+                long index = Long.remainderUnsigned(combined, bitCount);
+                if ((words.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+                combined += step;
+            }
+            return true;
+        }
+
+        void put(long hash, long step) {
+            long combined = hash;
+            for (int i = 0; i < hashCount; i++) {
+                long index = Long.remainderUnsigned(combined, bitCount);
+                int word = (int) (index >>> 6);
+                long mask = 1L << index;
+                long previous = words.getAndAccumulate(word, mask, (bits, bit) -> bits | bit);
+                if ((previous & mask) == 0) {
+                    setBits.incrementAndGet();
+                }
+                combined += step;
+            }
+        }
+
+        double falsePositiveProbability() {
+            return Math.pow((double) setBits.get() / bitCount, hashCount);
+        }
+    }
+}
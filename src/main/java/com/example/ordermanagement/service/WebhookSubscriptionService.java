@@ -0,0 +1,69 @@
+package com.example.ordermanagement.service;
+
+import com.example.ordermanagement.dto.WebhookSubscriptionRequest;
+import com.example.ordermanagement.dto.WebhookSubscriptionResponse;
+import com.example.ordermanagement.entity.WebhookSubscription;
+import com.example.ordermanagement.exception.InvalidRequestException;
+import com.example.ordermanagement.exception.ResourceNotFoundException;
+import com.example.ordermanagement.repository.WebhookSubscriptionRepository;
+import com.example.ordermanagement.webhooks.WebhookDispatcher;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Manages the webhook subscriptions. Each change is committed before the {@link WebhookDispatcher} is told about
+ * it, so deliveries never start for a subscription that was rolled back.
+ */
+@Service
+public class WebhookSubscriptionService {
+
+    private final WebhookSubscriptionRepository repository;
+    private final WebhookDispatcher dispatcher;
+
+    public WebhookSubscriptionService(WebhookSubscriptionRepository repository, WebhookDispatcher dispatcher) {
+        this.repository = repository;
+        this.dispatcher = dispatcher;
+    }
+
+    public List<WebhookSubscriptionResponse> findAll() {
+        return repository.findAll().stream().map(this::toResponse).toList();
+    }
+
+    public WebhookSubscriptionResponse create(WebhookSubscriptionRequest request) {
+        // Checked before saving: a stored subscription that cannot be delivered to would never be used
+        try {
+            WebhookDispatcher.endpointUri(request.getUrl());
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidRequestException(ex.getMessage());
+        }
+        WebhookSubscription subscription = repository.save(WebhookSubscription.builder()
+                .url(request.getUrl())
+                .eventTypes(request.getEventTypes() != null ? new HashSet<>(request.getEventTypes()) : new HashSet<>())
+                .createdAt(LocalDateTime.now())
+                .build());
+        dispatcher.register(subscription);
+        return toResponse(subscription);
+    }
+
+    public void delete(Long id) {
+        if (!repository.existsById(id)) {
+            throw new ResourceNotFoundException("Webhook subscription not found with id: " + id);
+        }
+        repository.deleteById(id);
+        dispatcher.unregister(id);
+    }
+
+    private WebhookSubscriptionResponse toResponse(WebhookSubscription subscription) {
+        return WebhookSubscriptionResponse.builder()
+                .id(subscription.getId())
+                .url(subscription.getUrl())
+                .eventTypes(subscription.getEventTypes())
+                .createdAt(subscription.getCreatedAt())
+                .queued(dispatcher.queued(subscription.getId()))
+                .circuitOpen(dispatcher.circuitOpen(subscription.getId()))
+                .build();
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.ordermanagement.snapshot;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import javax.sql.DataSource;
+
+/**
+ * Wires snapshot and restore of the in-memory database. Off unless {@code app.snapshot.enabled=true}.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(prefix = "app.snapshot", name = "enabled", havingValue = "true")
+public class SnapshotConfig {
+
+    @Bean
+    public SnapshotService snapshotService(DataSource dataSource, SnapshotProperties properties,
+            MeterRegistry meterRegistry) {
+        return new SnapshotService(dataSource, properties, meterRegistry);
+    }
+
+    @Bean
+    public SnapshotLifecycle snapshotLifecycle(SnapshotService snapshotService, SnapshotProperties properties) {
+        return new SnapshotLifecycle(snapshotService, properties);
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.ordermanagement.snapshot;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Binary layout of a snapshot file.
+ *
+ * <pre>
+ * header (uncompressed, {@value #HEADER_LENGTH} bytes):
+ *   int magic, short version, long createdAtMillis, long bodyLength, long bodyCrc32c
+ * body (deflate compressed):
+ *   per table: byte 1, UTF name, short columnCount, (UTF column, byte type) * columnCount,
+ *              per row: byte 1, null bitmap, non-null values
+ *              byte 0 (end of rows)
+ *   byte 0 (end of tables)
+ * </pre>
+ *
+ * Length and checksum cover the uncompressed body. Values are encoded by the column type recorded in the table
+ * header, so a snapshot stays readable after columns are added to the schema.
+ */
+final class SnapshotFormat {
+
+    static final int MAGIC = 0x4F4D5353; // "OMSS"
+    static final short VERSION = 1;
+    static final int HEADER_LENGTH = 4 + 2 + 8 + 8 + 8;
+
+    static final byte TYPE_LONG = 1;
+    static final byte TYPE_INT = 2;
+    static final byte TYPE_BOOLEAN = 3;
+    static final byte TYPE_DECIMAL = 4;
+    static final byte TYPE_DOUBLE = 5;
+    static final byte TYPE_TIMESTAMP = 6;
+    static final byte TYPE_TIMESTAMP_TZ = 7;
+    static final byte TYPE_DATE = 8;
+    static final byte TYPE_BYTES = 9;
+    static final byte TYPE_STRING = 10;
+
+    private SnapshotFormat() {
+    }
+
+    static byte typeOf(int jdbcType) {
+        return switch (jdbcType) {
+            case Types.BIGINT -> TYPE_LONG;
+            case Types.INTEGER, Types.SMALLINT, Types.TINYINT -> TYPE_INT;
+            case Types.BOOLEAN, Types.BIT -> TYPE_BOOLEAN;
+            case Types.DECIMAL, Types.NUMERIC -> TYPE_DECIMAL;
+            case Types.DOUBLE, Types.FLOAT, Types.REAL -> TYPE_DOUBLE;
+            case Types.TIMESTAMP -> TYPE_TIMESTAMP;
+            case Types.TIMESTAMP_WITH_TIMEZONE -> TYPE_TIMESTAMP_TZ;
+            case Types.DATE -> TYPE_DATE;
+            case Types.BINARY, Types.VARBINARY, Types.LONGVARBINARY, Types.BLOB -> TYPE_BYTES;
+            // Strings, enums and anything else round-trip through their string form
+            default -> TYPE_STRING;
+        };
+    }
+
+    /**
+     * Reads a column of the current row, or {@code null} for SQL NULL.
+     */
+    static Object read(ResultSet resultSet, int column, byte type) throws SQLException {
+        Object value = switch (type) {
+            case TYPE_LONG -> resultSet.getLong(column);
+            case TYPE_INT -> resultSet.getInt(column);
+            case TYPE_BOOLEAN -> resultSet.getBoolean(column);
+            case TYPE_DECIMAL -> resultSet.getBigDecimal(column);
+            case TYPE_DOUBLE -> resultSet.getDouble(column);
+            case TYPE_TIMESTAMP -> resultSet.getObject(column, LocalDateTime.class);
+            case TYPE_TIMESTAMP_TZ -> resultSet.getObject(column, OffsetDateTime.class);
+            case TYPE_DATE -> resultSet.getObject(column, LocalDate.class);
+            case TYPE_BYTES -> resultSet.getBytes(column);
+            default -> resultSet.getString(column);
+        };
+        return resultSet.wasNull() ? null : value;
+    }
+
+    static void bind(PreparedStatement statement, int parameter, byte type, Object value) throws SQLException {
+        if (value == null) {
+            statement.setNull(parameter, Types.NULL);
+        } else if (type == TYPE_STRING) {
+            statement.setString(parameter, (String) value);
+        } else {
+            statement.setObject(parameter, value);
+        }
+    }
+
+    static void write(DataOutputStream out, byte type, Object value) throws IOException {
+        switch (type) {
+            case TYPE_LONG -> out.writeLong((Long) value);
+            case TYPE_INT -> out.writeInt((Integer) value);
+            case TYPE_BOOLEAN -> out.writeBoolean((Boolean) value);
+            case TYPE_DECIMAL -> {
+                BigDecimal decimal = (BigDecimal) value;
+                out.writeShort(decimal.scale());
+                writeBytes(out, decimal.unscaledValue().toByteArray());
+            }
+            case TYPE_DOUBLE -> out.writeDouble((Double) value);
+            case TYPE_TIMESTAMP -> {
+                LocalDateTime timestamp = (LocalDateTime) value;
+                out.writeLong(timestamp.toEpochSecond(ZoneOffset.UTC));
+                out.writeInt(timestamp.getNano());
+            }
+            case TYPE_TIMESTAMP_TZ -> {
+                OffsetDateTime timestamp = (OffsetDateTime) value;
+                out.writeLong(timestamp.toEpochSecond());
+                out.writeInt(timestamp.getNano());
+                out.writeInt(timestamp.getOffset().getTotalSeconds());
+            }
+            case TYPE_DATE -> out.writeLong(((LocalDate) value).toEpochDay());
+            case TYPE_BYTES -> writeBytes(out, (byte[]) value);
+            default -> writeBytes(out, ((String) value).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    static Object read(DataInputStream in, byte type) throws IOException {
+        return switch (type) {
+            case TYPE_LONG -> in.readLong();
+            case TYPE_INT -> in.readInt();
+            case TYPE_BOOLEAN -> in.readBoolean();
+            case TYPE_DECIMAL -> {
+                int scale = in.readShort();
+                yield new BigDecimal(new BigInteger(readBytes(in)), scale);
+            }
+            case TYPE_DOUBLE -> in.readDouble();
+            case TYPE_TIMESTAMP -> LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+            case TYPE_TIMESTAMP_TZ -> {
+                long epochSecond = in.readLong();
+                int nano = in.readInt();
+                ZoneOffset offset = ZoneOffset.ofTotalSeconds(in.readInt());
+                yield OffsetDateTime.of(LocalDateTime.ofEpochSecond(epochSecond, nano, offset), offset);
+            }
+            case TYPE_DATE -> LocalDate.ofEpochDay(in.readLong());
+            case TYPE_BYTES -> readBytes(in);
+            case TYPE_STRING -> new String(readBytes(in), StandardCharsets.UTF_8);
+            default -> throw new IOException("Unknown column type " + type);
+        };
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[readVarInt(in)];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    // Lengths are mostly short, so they are written 7 bits at a time instead of as a fixed int
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed length");
+    }
+}
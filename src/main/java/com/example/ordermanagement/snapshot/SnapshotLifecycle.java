@@ -0,0 +1,102 @@
+package com.example.ordermanagement.snapshot;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.Ordered;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Drives {@link SnapshotService} over the application lifecycle.
+ * <p>
+ * It restores the snapshot as the first application runner. Runners complete before Spring Boot publishes
+ * {@code ReadinessState.ACCEPTING_TRAFFIC}, so the readiness probe only passes once the data is back. The runner
+ * also goes before {@code DataInitializer}, which then finds the restored users. A snapshot is written every
+ * {@code app.snapshot.interval}. On shutdown this lifecycle stops after the web server, so the final snapshot
+ * includes every completed request.
+ * </p>
+ */
+public class SnapshotLifecycle implements ApplicationRunner, SmartLifecycle, Ordered {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotLifecycle.class);
+
+    private final SnapshotService snapshotService;
+    private final SnapshotProperties properties;
+    private volatile boolean running;
+
+    public SnapshotLifecycle(SnapshotService snapshotService, SnapshotProperties properties) {
+        this.snapshotService = snapshotService;
+        this.properties = properties;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.isRestoreOnStartup()) {
+            return;
+        }
+        try {
+            snapshotService.restore();
+        } catch (IOException e) {
+            // Keep the unreadable file for inspection; the next periodic snapshot would otherwise overwrite it
+            Path file = properties.getFile().toAbsolutePath();
+            Path corrupt = file.resolveSibling(file.getFileName() + ".corrupt-" + System.currentTimeMillis());
+            logger.error("Could not restore snapshot {}, moving it to {} and starting empty", file, corrupt, e);
+            try {
+                Files.move(file, corrupt, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException moveFailure) {
+                throw new IllegalStateException("Could not move unreadable snapshot " + file, moveFailure);
+            }
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.snapshot.interval:5m}", fixedDelayString = "${app.snapshot.interval:5m}")
+    public void writePeriodically() {
+        try {
+            snapshotService.writeIfIdle();
+        } catch (IOException e) {
+            logger.error("Periodic snapshot failed", e);
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (properties.isWriteOnShutdown()) {
+            try {
+                snapshotService.write();
+            } catch (IOException e) {
+                logger.error("Snapshot on shutdown failed", e);
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stops after the web server (which stops at {@code DEFAULT_PHASE - 2048}), so no request is still writing.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.ordermanagement.snapshot;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings for snapshots of the in-memory database.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.snapshot")
+public class SnapshotProperties {
+
+    /**
+     * Whether snapshots are written and restored at all.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Snapshot file. It is replaced atomically, so a crash mid-write leaves the previous snapshot intact.
+     */
+    private Path file = Path.of("data", "oms-snapshot.bin");
+
+    /**
+     * Time between periodic snapshots. Only read at startup.
+     */
+    private Duration interval = Duration.ofMinutes(5);
+
+    /**
+     * Whether a snapshot is written when the application shuts down.
+     */
+    private boolean writeOnShutdown = true;
+
+    /**
+     * Whether the snapshot is loaded at startup, before the application reports itself ready.
+     */
+    private boolean restoreOnStartup = true;
+
+    /**
+     * Rows per JDBC batch and transaction when restoring.
+     */
+    private int batchSize = 5_000;
+
+    /**
+     * Parallel writers when restoring.
+     */
+    private int restoreThreads = Math.min(4, Runtime.getRuntime().availableProcessors());
+}
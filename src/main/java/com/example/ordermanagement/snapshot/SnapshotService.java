@@ -0,0 +1,526 @@
+package com.example.ordermanagement.snapshot;
+
+import com.example.ordermanagement.entity.Order;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Writes the application tables to a compressed, checksummed snapshot file and bulk loads them back into an empty
+ * database.
+ * <p>
+ * A snapshot is read inside one repeatable-read transaction, so it is consistent across tables. It is written to a
+ * temporary file that then replaces the previous snapshot atomically. Restoring verifies the checksum first, then
+ * decodes rows on the calling thread. Batches are inserted by a small pool of writers while referential integrity
+ * is switched off. Both directions use H2-specific statements ({@code SET REFERENTIAL_INTEGRITY},
+ * {@code ALTER COLUMN ... RESTART WITH}), which matches the in-memory H2 deployments this is meant for.
+ * </p>
+ */
+public class SnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotService.class);
+
+    /**
+     * Tables in the snapshot, parents before children. Every table added to {@code schema.sql} or as an entity
+     * belongs here, unless it can be rebuilt from the others.
+     */
+    static final List<String> TABLES = List.of("users", "user_roles", "refresh_token", "orders", "items",
+            "order_change_horizon", "order_outbox", "webhook_subscriptions", "webhook_subscription_event_types");
+
+    /**
+     * Tables that {@code schema.sql} fills with a single row. They do not count when checking whether the database
+     * is empty, and their rows in the snapshot replace that row.
+     */
+    private static final Set<String> SEEDED_TABLES = Set.of("order_change_horizon");
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final DataSource dataSource;
+    private final SnapshotProperties properties;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Timer writeTimer;
+    private final Timer restoreTimer;
+    private volatile long lastSnapshotMillis = System.currentTimeMillis();
+
+    public SnapshotService(DataSource dataSource, SnapshotProperties properties, MeterRegistry meterRegistry) {
+        this.dataSource = dataSource;
+        this.properties = properties;
+        this.writeTimer = Timer.builder("app.snapshot.duration")
+                .description("Time to write or restore a database snapshot")
+                .tag("operation", "write")
+                .register(meterRegistry);
+        this.restoreTimer = Timer.builder("app.snapshot.duration")
+                .description("Time to write or restore a database snapshot")
+                .tag("operation", "restore")
+                .register(meterRegistry);
+        Gauge.builder("app.snapshot.age", this, service -> (System.currentTimeMillis() - service.lastSnapshotMillis)
+                / 1000.0)
+                .description("Seconds since the last snapshot was written or restored")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Outcome of writing or restoring a snapshot.
+     */
+    public record Result(long rows, long bytes, long elapsedMillis) {
+    }
+
+    /**
+     * Writes a snapshot, waiting for one that is already being written to finish first.
+     */
+    public Result write() throws IOException {
+        writeLock.lock();
+        try {
+            return writeLocked();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Writes a snapshot unless one is already being written.
+     *
+     * @return the result, or {@code null} if another snapshot was in progress
+     */
+    public Result writeIfIdle() throws IOException {
+        if (!writeLock.tryLock()) {
+            return null;
+        }
+        try {
+            return writeLocked();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private Result writeLocked() throws IOException {
+        long start = System.nanoTime();
+        Path file = properties.getFile().toAbsolutePath();
+        Files.createDirectories(file.getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+
+        long rows = 0;
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        CRC32C crc = new CRC32C();
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+                Connection connection = dataSource.getConnection()) {
+            channel.position(SnapshotFormat.HEADER_LENGTH);
+            DeflaterOutputStream compressed = new DeflaterOutputStream(Channels.newOutputStream(channel), deflater,
+                    BUFFER_SIZE);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new CheckedOutputStream(compressed, crc), BUFFER_SIZE));
+
+            boolean autoCommit = connection.getAutoCommit();
+            int isolation = connection.getTransactionIsolation();
+            connection.setAutoCommit(false);
+            connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            try {
+                for (String table : TABLES) {
+                    rows += writeTable(connection, table, out);
+                }
+                connection.commit();
+            } finally {
+                connection.setTransactionIsolation(isolation);
+                connection.setAutoCommit(autoCommit);
+            }
+            out.writeByte(0);
+            out.flush();
+            compressed.finish();
+
+            ByteBuffer header = ByteBuffer.allocate(SnapshotFormat.HEADER_LENGTH)
+                    .putInt(SnapshotFormat.MAGIC)
+                    .putShort(SnapshotFormat.VERSION)
+                    .putLong(System.currentTimeMillis())
+                    .putLong(deflater.getBytesRead())
+                    .putLong(crc.getValue())
+                    .flip();
+            channel.write(header, 0);
+            channel.force(true);
+        } catch (SQLException e) {
+            throw new IOException("Could not read tables for snapshot", e);
+        } finally {
+            deflater.end();
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        long elapsedNanos = System.nanoTime() - start;
+        writeTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        lastSnapshotMillis = System.currentTimeMillis();
+        Result result = new Result(rows, Files.size(file), TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        logger.info("Wrote snapshot of {} rows ({} bytes) to {} in {} ms", result.rows(), result.bytes(), file,
+                result.elapsedMillis());
+        return result;
+    }
+
+    private static long writeTable(Connection connection, String table, DataOutputStream out)
+            throws SQLException, IOException {
+        long rows = 0;
+        try (Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery("SELECT * FROM " + table)) {
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            int columns = metaData.getColumnCount();
+            byte[] types = new byte[columns];
+            out.writeByte(1);
+            out.writeUTF(table);
+            out.writeShort(columns);
+            for (int i = 0; i < columns; i++) {
+                types[i] = SnapshotFormat.typeOf(metaData.getColumnType(i + 1));
+                out.writeUTF(metaData.getColumnName(i + 1).toLowerCase(Locale.ROOT));
+                out.writeByte(types[i]);
+            }
+
+            Object[] values = new Object[columns];
+            byte[] nulls = new byte[(columns + 7) / 8];
+            while (resultSet.next()) {
+                Arrays.fill(nulls, (byte) 0);
+                for (int i = 0; i < columns; i++) {
+                    values[i] = SnapshotFormat.read(resultSet, i + 1, types[i]);
+                    if (values[i] == null) {
+                        nulls[i / 8] |= (byte) (1 << (i % 8));
+                    }
+                }
+                out.writeByte(1);
+                out.write(nulls);
+                for (int i = 0; i < columns; i++) {
+                    if (values[i] != null) {
+                        SnapshotFormat.write(out, types[i], values[i]);
+                    }
+                }
+                rows++;
+            }
+            out.writeByte(0);
+        }
+        return rows;
+    }
+
+    /**
+     * Loads the snapshot file into the database. Nothing is loaded if there is no snapshot, or if any of the
+     * snapshot tables already holds rows.
+     *
+     * @throws IOException
+     *             if the file cannot be read or fails verification; the database is left untouched in that case
+     */
+    public Result restore() throws IOException {
+        Path file = properties.getFile().toAbsolutePath();
+        if (!Files.exists(file)) {
+            logger.info("No snapshot at {}, starting with an empty database", file);
+            return new Result(0, 0, 0);
+        }
+        long start = System.nanoTime();
+        long rows;
+        try (Connection connection = dataSource.getConnection()) {
+            if (!isEmpty(connection)) {
+                logger.warn("Database already contains data, not restoring snapshot {}", file);
+                return new Result(0, 0, 0);
+            }
+            verify(file);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET REFERENTIAL_INTEGRITY FALSE");
+            }
+            try {
+                rows = load(connection, file);
+            } finally {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SET REFERENTIAL_INTEGRITY TRUE");
+                }
+            }
+        } catch (SQLException e) {
+            throw new IOException("Could not restore snapshot " + file, e);
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        restoreTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        lastSnapshotMillis = System.currentTimeMillis();
+        Result result = new Result(rows, Files.size(file), TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        logger.info("Restored {} rows from snapshot {} in {} ms", result.rows(), file, result.elapsedMillis());
+        return result;
+    }
+
+    /**
+     * Checks the header and the checksum of the whole body without touching the database.
+     */
+    void verify(Path file) throws IOException {
+        try (InputStream raw = new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE)) {
+            DataInputStream header = new DataInputStream(raw);
+            long[] expected = readHeader(header, file);
+            CRC32C crc = new CRC32C();
+            long length = 0;
+            Inflater inflater = new Inflater();
+            try (CheckedInputStream body = new CheckedInputStream(new InflaterInputStream(raw, inflater, BUFFER_SIZE),
+                    crc)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                for (int read = body.read(buffer); read >= 0; read = body.read(buffer)) {
+                    length += read;
+                }
+            } finally {
+                inflater.end();
+            }
+            if (length != expected[0] || crc.getValue() != expected[1]) {
+                throw new IOException("Snapshot " + file + " is corrupt: checksum or length mismatch");
+            }
+        }
+    }
+
+    /**
+     * Reads the fixed header.
+     *
+     * @return body length and checksum
+     */
+    private static long[] readHeader(DataInputStream in, Path file) throws IOException {
+        if (in.readInt() != SnapshotFormat.MAGIC) {
+            throw new IOException(file + " is not a snapshot file");
+        }
+        short version = in.readShort();
+        if (version != SnapshotFormat.VERSION) {
+            throw new IOException("Unsupported snapshot version " + version + " in " + file);
+        }
+        in.readLong(); // created at
+        return new long[] {in.readLong(), in.readLong()};
+    }
+
+    private static boolean isEmpty(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String table : TABLES) {
+                if (SEEDED_TABLES.contains(table)) {
+                    continue;
+                }
+                try (ResultSet resultSet = statement.executeQuery("SELECT 1 FROM " + table
+                        + " FETCH FIRST 1 ROWS ONLY")) {
+                    if (resultSet.next()) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private long load(Connection connection, Path file) throws IOException, SQLException {
+        long rows = 0;
+        int threads = Math.max(1, properties.getRestoreThreads());
+        Semaphore inFlight = new Semaphore(threads * 2);
+        List<Future<?>> results = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        Inflater inflater = new Inflater();
+        try (InputStream raw = new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE)) {
+            readHeader(new DataInputStream(raw), file);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(
+                    new InflaterInputStream(raw, inflater, BUFFER_SIZE), BUFFER_SIZE));
+            List<TableLoad> tables = new ArrayList<>();
+            while (in.readByte() == 1) {
+                TableLoad table = readTableHeader(connection, in);
+                tables.add(table);
+                if (table.insertSql != null && SEEDED_TABLES.contains(table.table)) {
+                    try (Statement statement = connection.createStatement()) {
+                        statement.execute("DELETE FROM " + table.table);
+                    }
+                }
+                List<Object[]> batch = new ArrayList<>(properties.getBatchSize());
+                while (in.readByte() == 1) {
+                    Object[] row = table.readRow(in);
+                    if (table.insertSql != null) {
+                        batch.add(row);
+                    }
+                    rows++;
+                    if (batch.size() == properties.getBatchSize()) {
+                        results.add(submit(executor, inFlight, table, batch));
+                        batch = new ArrayList<>(properties.getBatchSize());
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    results.add(submit(executor, inFlight, table, batch));
+                }
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+            for (TableLoad table : tables) {
+                table.restartIdentity(connection);
+            }
+            restartChangeSequence(connection);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Snapshot restore interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Snapshot restore failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+            inflater.end();
+        }
+        return rows;
+    }
+
+    /**
+     * Continues the change numbers of the orders after the highest restored one, so that the change feed never
+     * hands out a number twice.
+     */
+    private static void restartChangeSequence(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery("SELECT GREATEST(COALESCE(MAX(change_seq), 0), "
+                        + "(SELECT MAX(purged_through) FROM order_change_horizon)) + 1 FROM orders")) {
+            resultSet.next();
+            long next = resultSet.getLong(1);
+            statement.execute("ALTER SEQUENCE " + Order.CHANGE_SEQUENCE + " RESTART WITH " + next);
+        }
+    }
+
+    private Future<?> submit(ExecutorService executor, Semaphore inFlight, TableLoad table, List<Object[]> batch)
+            throws InterruptedException {
+        inFlight.acquire();
+        return executor.submit(() -> {
+            try (Connection connection = dataSource.getConnection()) {
+                table.insert(connection, batch);
+                return null;
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    private static TableLoad readTableHeader(Connection connection, DataInputStream in)
+            throws IOException, SQLException {
+        String table = in.readUTF();
+        int columns = in.readShort();
+        String[] names = new String[columns];
+        byte[] types = new byte[columns];
+        for (int i = 0; i < columns; i++) {
+            names[i] = in.readUTF();
+            types[i] = in.readByte();
+        }
+
+        // Columns dropped from the schema since the snapshot was taken are read but not inserted
+        Set<String> existing = new HashSet<>();
+        try (ResultSet resultSet = connection.getMetaData().getColumns(null, null,
+                table.toUpperCase(Locale.ROOT), null)) {
+            while (resultSet.next()) {
+                existing.add(resultSet.getString("COLUMN_NAME").toLowerCase(Locale.ROOT));
+            }
+        }
+        if (existing.isEmpty()) {
+            logger.warn("Table {} no longer exists, skipping its snapshot rows", table);
+        }
+        return new TableLoad(table, names, types, existing);
+    }
+
+    /**
+     * Column layout of one table in the snapshot and the matching insert statement.
+     */
+    private static final class TableLoad {
+
+        private final String table;
+        private final byte[] types;
+        private final boolean[] included;
+        private final boolean hasId;
+        private final String insertSql;
+
+        TableLoad(String table, String[] names, byte[] types, Set<String> existingColumns) {
+            this.table = table;
+            this.types = types;
+            this.included = new boolean[names.length];
+            List<String> insertColumns = new ArrayList<>();
+            for (int i = 0; i < names.length; i++) {
+                included[i] = existingColumns.contains(names[i]);
+                if (included[i]) {
+                    insertColumns.add(names[i]);
+                }
+            }
+            this.hasId = insertColumns.contains("id");
+            this.insertSql = insertColumns.isEmpty()
+                    ? null
+                    : "INSERT INTO " + table + " (" + String.join(", ", insertColumns) + ") VALUES ("
+                            + String.join(", ", Collections.nCopies(insertColumns.size(), "?")) + ")";
+        }
+
+        Object[] readRow(DataInputStream in) throws IOException {
+            byte[] nulls = new byte[(types.length + 7) / 8];
+            in.readFully(nulls);
+            Object[] row = new Object[types.length];
+            for (int i = 0; i < types.length; i++) {
+                if ((nulls[i / 8] & (1 << (i % 8))) == 0) {
+                    row[i] = SnapshotFormat.read(in, types[i]);
+                }
+            }
+            return row;
+        }
+
+        void insert(Connection connection, List<Object[]> rows) throws SQLException {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(insertSql)) {
+                for (Object[] row : rows) {
+                    int parameter = 1;
+                    for (int i = 0; i < row.length; i++) {
+                        if (included[i]) {
+                            SnapshotFormat.bind(statement, parameter++, types[i], row[i]);
+                        }
+                    }
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+
+        void restartIdentity(Connection connection) throws SQLException {
+            if (!hasId) {
+                return;
+            }
+            try (Statement statement = connection.createStatement();
+                    ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table)) {
+                resultSet.next();
+                long next = resultSet.getLong(1);
+                statement.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.ordermanagement.tracing;
+
+import brave.TracingCustomizer;
+import brave.handler.SpanHandler;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Switches the Brave tracer to tail-based sampling.
+ * <p>
+ * Spring Boot registers every {@link SpanHandler} bean on the tracer before applying customizers, so the customizer
+ * takes those handlers off the builder and puts a single {@link TailSamplingSpanHandler} in front of them. The
+ * handler is not a bean itself, as Spring Boot would register it on the tracer too, so its stale traces are evicted
+ * from here.
+ * </p>
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(prefix = "app.tracing.tail-sampling", name = "enabled", havingValue = "true",
+        matchIfMissing = true)
+public class TailSamplingConfig {
+
+    private final List<TailSamplingSpanHandler> handlers = new CopyOnWriteArrayList<>();
+
+    @Bean
+    public TracingCustomizer tailSamplingTracingCustomizer(TailSamplingProperties properties,
+            MeterRegistry meterRegistry) {
+        return builder -> {
+            List<SpanHandler> delegates = new ArrayList<>(builder.spanHandlers());
+            builder.clearSpanHandlers();
+            TailSamplingSpanHandler handler = new TailSamplingSpanHandler(delegates, properties, meterRegistry);
+            handlers.add(handler);
+            builder.addSpanHandler(handler);
+        };
+    }
+
+    @Scheduled(fixedDelayString = "${app.tracing.tail-sampling.trace-timeout:30s}")
+    public void evictStaleTraces() {
+        handlers.forEach(TailSamplingSpanHandler::evictStale);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.ordermanagement.tracing;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for tail-based trace sampling.
+ * <p>
+ * Tail sampling only works on traces that are recorded in the first place, so
+ * {@code management.tracing.sampling.probability} should stay at {@code 1.0} while it is enabled.
+ * </p>
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.tracing.tail-sampling")
+public class TailSamplingProperties {
+
+    /**
+     * Whether spans are buffered and exported based on the outcome of their trace.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Traces whose local root span takes at least this long are always kept.
+     */
+    private Duration latencyThreshold = Duration.ofMillis(500);
+
+    /**
+     * Fraction (0.0 - 1.0) of fast, successful traces that are kept anyway.
+     */
+    private double sampleRate = 0.01;
+
+    /**
+     * Maximum number of in-flight traces buffered at once. Spans of traces beyond this are dropped.
+     */
+    private int maxTraces = 10_000;
+
+    /**
+     * Capacity of each trace's span ring buffer. The oldest spans are overwritten once it is full.
+     */
+    private int maxSpansPerTrace = 64;
+
+    /**
+     * How long the spans of a trace are buffered while its local root has not finished, and how long child spans
+     * finishing after their root still follow the root's decision.
+     */
+    private Duration traceTimeout = Duration.ofSeconds(30);
+}
@@ -0,0 +1,255 @@
+package com.example.ordermanagement.tracing;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Brave {@link SpanHandler} that decides whether to export a trace once its local root span has finished.
+ * <p>
+ * Child spans are copied into a bounded per-trace ring buffer as they finish. When the local root finishes the
+ * whole trace is handed to the delegate handlers if it failed, was slower than the latency threshold, or wins the
+ * random sample; otherwise the buffer is discarded. Spans are never passed on before that decision.
+ * </p>
+ * <p>
+ * The decision is remembered for {@link TailSamplingProperties#getTraceTimeout()}, so that child spans finishing
+ * after their root, such as those of asynchronous work, follow it instead of starting a new buffer. Buffers whose
+ * root has not finished within that time are removed by {@link #evictStale()}; they are exported if they hold an
+ * error and dropped otherwise.
+ * </p>
+ */
+public class TailSamplingSpanHandler extends SpanHandler {
+
+    private final List<SpanHandler> delegates;
+    private final TailSamplingProperties properties;
+    private final DoubleSupplier random;
+    private final LongSupplier nanoTime;
+    private final ConcurrentMap<Long, TraceBuffer> traces = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Decision> decisions = new ConcurrentHashMap<>();
+
+    private final Counter keptError;
+    private final Counter keptSlow;
+    private final Counter keptSampled;
+    private final Counter dropped;
+    private final Counter overflow;
+    private final Counter expired;
+
+    public TailSamplingSpanHandler(List<SpanHandler> delegates, TailSamplingProperties properties,
+            MeterRegistry meterRegistry) {
+        this(delegates, properties, meterRegistry, () -> ThreadLocalRandom.current().nextDouble(), System::nanoTime);
+    }
+
+    TailSamplingSpanHandler(List<SpanHandler> delegates, TailSamplingProperties properties,
+            MeterRegistry meterRegistry, DoubleSupplier random, LongSupplier nanoTime) {
+        this.delegates = List.copyOf(delegates);
+        this.properties = properties;
+        this.random = random;
+        this.nanoTime = nanoTime;
+        this.keptError = decisionCounter(meterRegistry, "kept", "error");
+        this.keptSlow = decisionCounter(meterRegistry, "kept", "slow");
+        this.keptSampled = decisionCounter(meterRegistry, "kept", "sampled");
+        this.dropped = decisionCounter(meterRegistry, "dropped", "fast");
+        this.overflow = decisionCounter(meterRegistry, "dropped", "overflow");
+        this.expired = decisionCounter(meterRegistry, "dropped", "expired");
+    }
+
+    private static Counter decisionCounter(MeterRegistry meterRegistry, String decision, String reason) {
+        return Counter.builder("app.tracing.tail.traces")
+                .description("Traces by tail sampling decision")
+                .tag("decision", decision)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean begin(TraceContext context, MutableSpan span, TraceContext parent) {
+        for (SpanHandler delegate : delegates) {
+            if (!delegate.begin(context, span, parent)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+        if (cause == Cause.ABANDONED) {
+            if (context.isLocalRoot()) {
+                traces.remove(context.localRootId());
+            }
+            return false;
+        }
+        if (!context.isLocalRoot()) {
+            buffer(context, span, cause);
+            return false;
+        }
+
+        // Recorded before the buffer is taken, so that children finishing from now on follow the decision
+        Decision pending = new Decision(nanoTime.getAsLong());
+        if (decisions.size() < properties.getMaxTraces()) {
+            decisions.put(context.localRootId(), pending);
+        }
+        TraceBuffer buffer = traces.remove(context.localRootId());
+        Counter decision = decide(span, buffer);
+        decision.increment();
+        pending.keep = decision != dropped;
+        if (decision == dropped) {
+            return false;
+        }
+        if (buffer != null) {
+            buffer.drainTo(this::export);
+        }
+        export(context, span, cause);
+        return false;
+    }
+
+    int bufferedTraces() {
+        return traces.size();
+    }
+
+    /**
+     * Removes the buffers of traces whose local root has not finished within the trace timeout, exporting those
+     * with an error, and forgets decisions older than the timeout.
+     */
+    public void evictStale() {
+        long cutoff = nanoTime.getAsLong() - properties.getTraceTimeout().toNanos();
+        for (Map.Entry<Long, TraceBuffer> entry : traces.entrySet()) {
+            TraceBuffer buffer = entry.getValue();
+            if (buffer.createdAt - cutoff < 0 && traces.remove(entry.getKey(), buffer)) {
+                if (buffer.hasError()) {
+                    keptError.increment();
+                    buffer.drainTo(this::export);
+                } else {
+                    expired.increment();
+                }
+            }
+        }
+        decisions.values().removeIf(decision -> decision.decidedAt - cutoff < 0);
+    }
+
+    private void buffer(TraceContext context, MutableSpan span, Cause cause) {
+        Long key = context.localRootId();
+        Decision decision = decisions.get(key);
+        if (decision != null) {
+            // The root has finished already
+            if (decision.keep) {
+                export(context, span, cause);
+            }
+            return;
+        }
+        TraceBuffer buffer = traces.get(key);
+        if (buffer == null) {
+            if (traces.size() >= properties.getMaxTraces()) {
+                overflow.increment();
+                return;
+            }
+            buffer = traces.computeIfAbsent(key, k -> new TraceBuffer(properties.getMaxSpansPerTrace(),
+                    nanoTime.getAsLong()));
+        }
+        buffer.add(context, new MutableSpan(span), isError(span));
+    }
+
+    private Counter decide(MutableSpan root, TraceBuffer buffer) {
+        if (isError(root) || (buffer != null && buffer.hasError())) {
+            return keptError;
+        }
+        long durationMicros = root.finishTimestamp() - root.startTimestamp();
+        if (durationMicros >= properties.getLatencyThreshold().toNanos() / 1_000) {
+            return keptSlow;
+        }
+        if (random.getAsDouble() < properties.getSampleRate()) {
+            return keptSampled;
+        }
+        return dropped;
+    }
+
+    private void export(TraceContext context, MutableSpan span, Cause cause) {
+        for (SpanHandler delegate : delegates) {
+            if (!delegate.end(context, span, cause)) {
+                return;
+            }
+        }
+    }
+
+    private static boolean isError(MutableSpan span) {
+        if (span.error() != null || span.tag("error") != null) {
+            return true;
+        }
+        String status = span.tag("http.status_code");
+        if (status == null) {
+            status = span.tag("status");
+        }
+        return status != null && status.startsWith("5");
+    }
+
+    /**
+     * Whether the trace of a finished local root was kept. Until the decision is made it counts as dropped.
+     */
+    private static final class Decision {
+
+        private final long decidedAt;
+        private volatile boolean keep;
+
+        Decision(long decidedAt) {
+            this.decidedAt = decidedAt;
+        }
+    }
+
+    @FunctionalInterface
+    private interface SpanSink {
+        void accept(TraceContext context, MutableSpan span, Cause cause);
+    }
+
+    /**
+     * Fixed-size ring of finished spans for one trace. Spans of a trace may finish on different threads, so access
+     * is synchronized on the buffer; contention is limited to a single trace.
+     */
+    private static final class TraceBuffer {
+
+        private final TraceContext[] contexts;
+        private final MutableSpan[] spans;
+        private final long createdAt;
+        private int next;
+        private int size;
+        private boolean error;
+
+        TraceBuffer(int capacity, long createdAt) {
+            this.contexts = new TraceContext[capacity];
+            this.spans = new MutableSpan[capacity];
+            this.createdAt = createdAt;
+        }
+
+        synchronized void add(TraceContext context, MutableSpan span, boolean spanError) {
+            contexts[next] = context;
+            spans[next] = span;
+            next = (next + 1) % spans.length;
+            if (size < spans.length) {
+                size++;
+            }
+            error |= spanError;
+        }
+
+        synchronized boolean hasError() {
+            return error;
+        }
+
+        synchronized void drainTo(SpanSink sink) {
+            int start = (next - size + spans.length) % spans.length;
+            for (int i = 0; i < size; i++) {
+                int index = (start + i) % spans.length;
+                sink.accept(contexts[index], spans[index], Cause.FINISHED);
+            }
+            size = 0;
+        }
+    }
+}
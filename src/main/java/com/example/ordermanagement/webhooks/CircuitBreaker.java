@@ -0,0 +1,66 @@
+package com.example.ordermanagement.webhooks;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Stops requests to a destination that keeps failing.
+ * <p>
+ * The circuit opens after a number of consecutive failures. Once the open period has passed, one trial request is
+ * let through: its success closes the circuit, its failure opens it again for another period.
+ * </p>
+ */
+class CircuitBreaker {
+
+    enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final Clock clock;
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private Instant openUntil = Instant.MIN;
+
+    CircuitBreaker(int failureThreshold, Duration openDuration, Clock clock) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDuration = openDuration;
+        this.clock = clock;
+    }
+
+    /**
+     * Time left until a request may be made; zero if one may be made now.
+     */
+    synchronized Duration waitTime() {
+        if (state != State.OPEN) {
+            return Duration.ZERO;
+        }
+        Instant now = clock.instant();
+        if (now.isBefore(openUntil)) {
+            return Duration.between(now, openUntil);
+        }
+        state = State.HALF_OPEN;
+        return Duration.ZERO;
+    }
+
+    synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+    }
+
+    synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openUntil = clock.instant().plus(openDuration);
+        }
+    }
+
+    synchronized State state() {
+        return state;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.ordermanagement.webhooks;
+
+import com.example.ordermanagement.repository.WebhookSubscriptionRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Creates the {@link WebhookDispatcher}; it is shut down with the context, which stops the deliveries.
+ */
+@Configuration
+public class WebhookConfig {
+
+    @Bean
+    public WebhookDispatcher webhookDispatcher(WebhookSubscriptionRepository repository, WebhookProperties properties,
+            ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        return new WebhookDispatcher(repository, properties, objectMapper, meterRegistry);
+    }
+}
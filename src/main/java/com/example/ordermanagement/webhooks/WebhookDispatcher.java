@@ -0,0 +1,152 @@
+package com.example.ordermanagement.webhooks;
+
+import com.example.ordermanagement.entity.WebhookSubscription;
+import com.example.ordermanagement.events.OrderEvent;
+import com.example.ordermanagement.repository.WebhookSubscriptionRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.time.Clock;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Delivers committed order events to the webhook subscriptions.
+ * <p>
+ * Every endpoint has its own bounded queue and its own virtual thread, which sends the queued events in batches as
+ * JSON arrays. A failed request is retried with exponential backoff, and an endpoint that keeps failing has its
+ * circuit opened, which pauses its deliveries instead of spending requests on it. Handing an event to the endpoints
+ * never blocks: an endpoint whose queue is full drops it. Queued events are lost on shutdown; delivery is best
+ * effort, for notifications that partners can reconcile against the API. The subscriptions themselves are part of
+ * the database snapshot, so they survive a restart.
+ * </p>
+ */
+public class WebhookDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebhookDispatcher.class);
+
+    private final WebhookSubscriptionRepository repository;
+    private final WebhookProperties properties;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final HttpClient client;
+    private final Map<Long, WebhookEndpoint> endpoints = new ConcurrentHashMap<>();
+
+    public WebhookDispatcher(WebhookSubscriptionRepository repository, WebhookProperties properties,
+            ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this(repository, properties, objectMapper, meterRegistry, Clock.systemUTC());
+    }
+
+    WebhookDispatcher(WebhookSubscriptionRepository repository, WebhookProperties properties,
+            ObjectMapper objectMapper, MeterRegistry meterRegistry, Clock clock) {
+        this.repository = repository;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(properties.getTimeout())
+                .build();
+    }
+
+    /**
+     * Starts the deliveries to the stored subscriptions.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        for (WebhookSubscription subscription : repository.findAll()) {
+            try {
+                register(subscription);
+            } catch (RuntimeException ex) {
+                // Stored before the URL was checked, or restored from an older snapshot
+                logger.error("Skipping webhook {}, it cannot be delivered to: {}", subscription.getId(),
+                        ex.getMessage());
+            }
+        }
+        logger.info("Delivering order events to {} webhooks", endpoints.size());
+    }
+
+    /**
+     * Receives the events of committed transactions, and those published outside of one at once.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderEvent(OrderEvent event) {
+        for (WebhookEndpoint endpoint : endpoints.values()) {
+            endpoint.offer(event);
+        }
+    }
+
+    /**
+     * Starts delivering to the subscription, replacing an earlier version of it.
+     */
+    public void register(WebhookSubscription subscription) {
+        // Stopped first, as the new endpoint registers meters under the same names and tags
+        unregister(subscription.getId());
+        WebhookEndpoint endpoint = new WebhookEndpoint(subscription.getId(), endpointUri(subscription.getUrl()),
+                subscription.getEventTypes(), properties, client, objectMapper, meterRegistry, clock);
+        endpoints.put(subscription.getId(), endpoint);
+        endpoint.start();
+    }
+
+    /**
+     * Parses a subscription URL into the address deliveries are posted to.
+     *
+     * @throws IllegalArgumentException if it is not an absolute http or https URL with a host
+     */
+    public static URI endpointUri(String url) {
+        URI uri;
+        try {
+            uri = new URI(url);
+        } catch (URISyntaxException ex) {
+            throw new IllegalArgumentException("URL is not valid: " + ex.getMessage(), ex);
+        }
+        if (!"http".equalsIgnoreCase(uri.getScheme()) && !"https".equalsIgnoreCase(uri.getScheme())) {
+            throw new IllegalArgumentException("URL must be an http or https URL");
+        }
+        if (uri.getHost() == null) {
+            throw new IllegalArgumentException("URL must have a valid host name");
+        }
+        return uri;
+    }
+
+    /**
+     * Stops delivering to the subscription; events still queued for it are discarded.
+     */
+    public void unregister(Long subscriptionId) {
+        WebhookEndpoint endpoint = endpoints.remove(subscriptionId);
+        if (endpoint != null) {
+            endpoint.stop();
+        }
+    }
+
+    /**
+     * Events waiting for delivery to the subscription.
+     */
+    public int queued(Long subscriptionId) {
+        WebhookEndpoint endpoint = endpoints.get(subscriptionId);
+        return endpoint != null ? endpoint.queued() : 0;
+    }
+
+    /**
+     * Whether deliveries to the subscription are suspended after repeated failures.
+     */
+    public boolean circuitOpen(Long subscriptionId) {
+        WebhookEndpoint endpoint = endpoints.get(subscriptionId);
+        return endpoint != null && endpoint.circuitOpen();
+    }
+
+    public void shutdown() {
+        endpoints.values().forEach(WebhookEndpoint::stop);
+        endpoints.clear();
+        client.close();
+    }
+}
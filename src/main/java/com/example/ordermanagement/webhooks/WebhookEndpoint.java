@@ -0,0 +1,235 @@
+package com.example.ordermanagement.webhooks;
+
+import com.example.ordermanagement.events.OrderEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One subscribed endpoint: its bounded queue of events and the virtual thread that delivers them in batches.
+ */
+class WebhookEndpoint {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebhookEndpoint.class);
+
+    private final long subscriptionId;
+    private final Set<OrderEvent.Type> eventTypes;
+    private final WebhookProperties properties;
+    private final HttpClient client;
+    private final HttpRequest.Builder request;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final BlockingQueue<OrderEvent> queue;
+    private final CircuitBreaker circuit;
+    private final List<Meter> meters = new ArrayList<>();
+    private final Timer successLatency;
+    private final Timer failureLatency;
+    private final Counter delivered;
+    private final Counter dropped;
+    private final Counter failed;
+    private volatile boolean running = true;
+    private Thread worker;
+
+    WebhookEndpoint(long subscriptionId, URI url, Set<OrderEvent.Type> eventTypes, WebhookProperties properties,
+            HttpClient client, ObjectMapper objectMapper, MeterRegistry meterRegistry, Clock clock) {
+        this.subscriptionId = subscriptionId;
+        // Built first, so that an unusable URL fails here rather than on the worker thread
+        this.request = HttpRequest.newBuilder(url)
+                .timeout(properties.getTimeout())
+                .header("Content-Type", "application/json")
+                .header("X-Webhook-Subscription", Long.toString(subscriptionId));
+        this.eventTypes = Set.copyOf(eventTypes);
+        this.properties = properties;
+        this.client = client;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.queue = new LinkedBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+        this.circuit = new CircuitBreaker(properties.getFailureThreshold(), properties.getOpenDuration(), clock);
+        Tags tags = Tags.of("webhook", Long.toString(subscriptionId));
+        meters.add(Gauge.builder("app.webhooks.queue", queue, BlockingQueue::size)
+                .description("Events waiting for delivery to the endpoint")
+                .tags(tags)
+                .register(meterRegistry));
+        meters.add(Gauge.builder("app.webhooks.circuit.open", circuit,
+                        breaker -> breaker.state() == CircuitBreaker.State.CLOSED ? 0 : 1)
+                .description("Whether deliveries to the endpoint are suspended after repeated failures")
+                .tags(tags)
+                .register(meterRegistry));
+        this.successLatency = register(Timer.builder("app.webhooks.latency")
+                .description("Duration of one delivery request")
+                .tags(tags.and("outcome", "success"))
+                .register(meterRegistry));
+        this.failureLatency = register(Timer.builder("app.webhooks.latency")
+                .description("Duration of one delivery request")
+                .tags(tags.and("outcome", "failure"))
+                .register(meterRegistry));
+        this.delivered = register(Counter.builder("app.webhooks.delivered")
+                .description("Events delivered to the endpoint")
+                .tags(tags)
+                .register(meterRegistry));
+        this.dropped = register(Counter.builder("app.webhooks.dropped")
+                .description("Events dropped because the endpoint's queue was full")
+                .tags(tags)
+                .register(meterRegistry));
+        this.failed = register(Counter.builder("app.webhooks.failed")
+                .description("Events given up after the last attempt")
+                .tags(tags)
+                .register(meterRegistry));
+    }
+
+    void start() {
+        worker = Thread.ofVirtual().name("webhook-" + subscriptionId).start(this::run);
+    }
+
+    /**
+     * Stops the deliveries; the queued events are discarded.
+     */
+    void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+        meters.forEach(meterRegistry::remove);
+    }
+
+    /**
+     * Queues the event if the endpoint subscribed to its type, without waiting.
+     */
+    void offer(OrderEvent event) {
+        if (!eventTypes.isEmpty() && !eventTypes.contains(event.type())) {
+            return;
+        }
+        if (!queue.offer(event)) {
+            dropped.increment();
+        }
+    }
+
+    int queued() {
+        return queue.size();
+    }
+
+    boolean circuitOpen() {
+        return circuit.state() != CircuitBreaker.State.CLOSED;
+    }
+
+    private void run() {
+        int batchSize = Math.max(1, properties.getBatchSize());
+        List<OrderEvent> batch = new ArrayList<>(batchSize);
+        try {
+            while (running) {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + properties.getLinger().toNanos();
+                queue.drainTo(batch, batchSize - batch.size());
+                while (batch.size() < batchSize) {
+                    OrderEvent next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+                try {
+                    deliver(batch);
+                } catch (RuntimeException ex) {
+                    // The worker must outlive a bad batch, or the queue fills up and every later event is dropped
+                    failed.increment(batch.size());
+                    logger.error("Could not deliver {} events to webhook {}", batch.size(), subscriptionId, ex);
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void deliver(List<OrderEvent> batch) throws InterruptedException {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(batch);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize order events", ex);
+        }
+        int attempt = 0;
+        while (running) {
+            Duration wait = circuit.waitTime();
+            if (!wait.isZero()) {
+                // Waiting for the circuit is not an attempt
+                Thread.sleep(wait);
+                continue;
+            }
+            attempt++;
+            long start = System.nanoTime();
+            String error = send(body, attempt);
+            Duration latency = Duration.ofNanos(System.nanoTime() - start);
+            if (error == null) {
+                successLatency.record(latency);
+                circuit.onSuccess();
+                delivered.increment(batch.size());
+                return;
+            }
+            failureLatency.record(latency);
+            circuit.onFailure();
+            if (attempt >= properties.getMaxAttempts()) {
+                failed.increment(batch.size());
+                logger.warn("Gave up delivering {} events to webhook {} after {} attempts: {}", batch.size(),
+                        subscriptionId, attempt, error);
+                return;
+            }
+            logger.debug("Delivery to webhook {} failed, attempt {}: {}", subscriptionId, attempt, error);
+            Thread.sleep(backoff(attempt));
+        }
+    }
+
+    /**
+     * Posts the batch; returns why it was not accepted, or {@code null} if it was.
+     */
+    private String send(byte[] body, int attempt) throws InterruptedException {
+        HttpRequest attemptRequest = request.copy()
+                .header("X-Webhook-Attempt", Integer.toString(attempt))
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+        try {
+            int status = client.send(attemptRequest, HttpResponse.BodyHandlers.discarding()).statusCode();
+            return status / 100 == 2 ? null : "status " + status;
+        } catch (IOException ex) {
+            return ex.toString();
+        }
+    }
+
+    /**
+     * Exponential backoff with jitter: between half and all of the doubled pause, so that retries to a recovering
+     * endpoint spread out.
+     */
+    private Duration backoff(int attempt) {
+        long initial = properties.getInitialBackoff().toMillis();
+        long capped = Math.min(properties.getMaxBackoff().toMillis(), initial << Math.min(attempt - 1, 20));
+        return Duration.ofMillis(capped / 2 + ThreadLocalRandom.current().nextLong(capped / 2 + 1));
+    }
+
+    private <M extends Meter> M register(M meter) {
+        meters.add(meter);
+        return meter;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.ordermanagement.webhooks;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the delivery of order events to webhook subscriptions. They apply to each endpoint on its own.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.webhooks")
+public class WebhookProperties {
+
+    /**
+     * Events waiting for delivery per endpoint. Events for an endpoint whose queue is full are dropped, so a slow or
+     * unreachable partner only loses its own events.
+     */
+    private int queueCapacity = 10_000;
+
+    /**
+     * Most events sent in one request.
+     */
+    private int batchSize = 100;
+
+    /**
+     * How long a batch waits for more events after its first one.
+     */
+    private Duration linger = Duration.ofMillis(200);
+
+    /**
+     * Time allowed for connecting and for the whole request.
+     */
+    private Duration timeout = Duration.ofSeconds(5);
+
+    /**
+     * Attempts per batch, the first one included, before the batch is given up.
+     */
+    private int maxAttempts = 6;
+
+    /**
+     * Pause after the first failed attempt; it doubles with every further attempt, up to {@link #maxBackoff}.
+     */
+    private Duration initialBackoff = Duration.ofMillis(500);
+
+    private Duration maxBackoff = Duration.ofSeconds(30);
+
+    /**
+     * Consecutive failed attempts after which the circuit of an endpoint opens and deliveries to it stop.
+     */
+    private int failureThreshold = 5;
+
+    /**
+     * How long an open circuit stays open before one trial request is let through.
+     */
+    private Duration openDuration = Duration.ofSeconds(30);
+}
@@ -0,0 +1,64 @@
+-- Runs before Hibernate creates the tables, because the orders table draws its change_seq column from this sequence
+CREATE SEQUENCE IF NOT EXISTS order_change_seq;
+
+-- Highest change number removed by the purge job; a change feed cursor behind it may have missed deletions
+CREATE TABLE IF NOT EXISTS order_change_horizon (id INT PRIMARY KEY, purged_through BIGINT NOT NULL);
+INSERT INTO order_change_horizon (id, purged_through) SELECT 1, 0 WHERE NOT EXISTS (SELECT * FROM order_change_horizon);
+
+-- Idempotency keys of order and item creation and the responses to replay, see IdempotencyStore
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    id VARCHAR(64) PRIMARY KEY,
+    fingerprint VARCHAR(64) NOT NULL,
+    status INT,
+    content_type VARCHAR(255),
+    location VARCHAR(2048),
+    body BLOB,
+    expires_at TIMESTAMP NOT NULL
+);
+
+-- Order events waiting to be relayed downstream; written in the transaction of the change, see OutboxWriter
+CREATE TABLE IF NOT EXISTS order_outbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    order_id BIGINT NOT NULL,
+    event_type VARCHAR(32) NOT NULL,
+    payload VARCHAR(4000) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    claimed_until TIMESTAMP,
+    attempts INT DEFAULT 0 NOT NULL,
+    published_at TIMESTAMP
+);
+CREATE INDEX IF NOT EXISTS idx_order_outbox_pending ON order_outbox (published_at, id);
+CREATE INDEX IF NOT EXISTS idx_order_outbox_order ON order_outbox (order_id, id);
+
+-- Sales rollups, kept current by SalesRollupWriter; the analytics endpoints read nothing else
+CREATE TABLE IF NOT EXISTS sales_rollup (
+    sales_day DATE NOT NULL,
+    status VARCHAR(32) NOT NULL,
+    payment_status VARCHAR(32) NOT NULL,
+    order_count BIGINT NOT NULL,
+    revenue DECIMAL(19, 2) NOT NULL,
+    PRIMARY KEY (sales_day, status, payment_status)
+);
+CREATE TABLE IF NOT EXISTS sku_sales_rollup (
+    sales_day DATE NOT NULL,
+    sku VARCHAR(255) NOT NULL,
+    status VARCHAR(32) NOT NULL,
+    quantity BIGINT NOT NULL,
+    revenue DECIMAL(19, 2) NOT NULL,
+    PRIMARY KEY (sales_day, sku, status)
+);
+-- What each order and its items currently add to the rollups, so that a change is applied as a difference
+CREATE TABLE IF NOT EXISTS sales_rollup_order (
+    order_id BIGINT PRIMARY KEY,
+    sales_day DATE NOT NULL,
+    status VARCHAR(32) NOT NULL,
+    payment_status VARCHAR(32) NOT NULL,
+    revenue DECIMAL(19, 2) NOT NULL
+);
+CREATE TABLE IF NOT EXISTS sales_rollup_item (
+    order_id BIGINT NOT NULL,
+    sku VARCHAR(255) NOT NULL,
+    quantity BIGINT NOT NULL,
+    revenue DECIMAL(19, 2) NOT NULL,
+    PRIMARY KEY (order_id, sku)
+);
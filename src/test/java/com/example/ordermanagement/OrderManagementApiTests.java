@@ -0,0 +1,518 @@
+package com.example.ordermanagement;
+
+import com.example.ordermanagement.dto.AuthRequest;
+import com.example.ordermanagement.dto.AuthResponse;
+import com.example.ordermanagement.dto.ItemBatchRequest;
+import com.example.ordermanagement.dto.ItemBatchResponse;
+import com.example.ordermanagement.dto.ItemRequest;
+import com.example.ordermanagement.dto.ItemResponse;
+import com.example.ordermanagement.dto.OrderChangesResponse;
+import com.example.ordermanagement.dto.OrderRequest;
+import com.example.ordermanagement.dto.OrderResponse;
+import com.example.ordermanagement.dto.OrderStateResponse;
+import com.example.ordermanagement.dto.StatusUpdateRequest;
+import com.example.ordermanagement.entity.OrderStatus;
+import com.example.ordermanagement.outbox.InMemoryOutboxPublisher;
+import com.example.ordermanagement.outbox.OutboxMessage;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * End-to-end test over HTTP against the full application: JWT login, the security filter, Jackson binding, the
+ * MapStruct mapper, Hibernate and the method timing aspect. The {@code nativeTest} profile runs this test inside a
+ * native image to check the reachability metadata.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class OrderManagementApiTests {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private InMemoryOutboxPublisher outboxPublisher;
+
+    @Test
+    void testLoginCreateAndFetchOrder() {
+        ResponseEntity<AuthResponse> login = restTemplate.postForEntity("/api/auth/login",
+                new AuthRequest("admin", "admin"), AuthResponse.class);
+        assertEquals(HttpStatus.OK, login.getStatusCode());
+        assertNotNull(login.getBody());
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(login.getBody().getAccessToken());
+
+        ItemRequest item = ItemRequest.builder()
+                .sku("SKU-API-1")
+                .name("Widget")
+                .quantity(3)
+                .unitPrice(new BigDecimal("2.50"))
+                .build();
+        OrderRequest request = OrderRequest.builder()
+                .orderNumber("ORD-API-1")
+                .customerName("Api Test")
+                .shippingAddress("1 Test Street")
+                .billingAddress("1 Test Street")
+                .items(List.of(item))
+                .build();
+        ResponseEntity<OrderResponse> created = restTemplate.exchange("/api/orders", HttpMethod.POST,
+                new HttpEntity<>(request, headers), OrderResponse.class);
+        assertEquals(HttpStatus.CREATED, created.getStatusCode());
+        assertNotNull(created.getBody());
+
+        ResponseEntity<OrderResponse> fetched = restTemplate.exchange("/api/orders/" + created.getBody().getId(),
+                HttpMethod.GET, new HttpEntity<>(headers), OrderResponse.class);
+        assertEquals(HttpStatus.OK, fetched.getStatusCode());
+        OrderResponse order = fetched.getBody();
+        assertNotNull(order);
+        assertEquals("ORD-API-1", order.getOrderNumber());
+        assertEquals(0, new BigDecimal("7.50").compareTo(order.getTotalAmount()));
+        List<ItemResponse> items = order.getItems();
+        assertEquals(1, items.size());
+        assertEquals("SKU-API-1", items.get(0).getSku());
+    }
+
+    @Test
+    void testRetriedCreateWithIdempotencyKeyIsReplayed() {
+        HttpHeaders headers = adminHeaders();
+        headers.set("Idempotency-Key", "create-ORD-API-2");
+
+        OrderRequest request = OrderRequest.builder()
+                .orderNumber("ORD-API-2")
+                .customerName("Api Test")
+                .items(List.of(item("SKU-API-2")))
+                .build();
+        ResponseEntity<OrderResponse> first = restTemplate.exchange("/api/orders", HttpMethod.POST,
+                new HttpEntity<>(request, headers), OrderResponse.class);
+        ResponseEntity<OrderResponse> retry = restTemplate.exchange("/api/orders", HttpMethod.POST,
+                new HttpEntity<>(request, headers), OrderResponse.class);
+
+        assertEquals(HttpStatus.CREATED, first.getStatusCode());
+        assertNull(first.getHeaders().getFirst("Idempotent-Replayed"));
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertEquals("true", retry.getHeaders().getFirst("Idempotent-Replayed"));
+        assertNotNull(first.getBody());
+        assertNotNull(retry.getBody());
+        assertEquals(first.getBody().getId(), retry.getBody().getId());
+
+        request.setCustomerName("Someone Else");
+        ResponseEntity<String> reused = restTemplate.exchange("/api/orders", HttpMethod.POST,
+                new HttpEntity<>(request, headers), String.class);
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, reused.getStatusCode());
+    }
+
+    @Test
+    void testConcurrentItemCreatesOnOneOrderAreAllApplied() throws Exception {
+        HttpHeaders headers = adminHeaders();
+        OrderRequest request = OrderRequest.builder()
+                .orderNumber("ORD-API-3")
+                .customerName("Api Test")
+                .items(List.of(item("SKU-API-3-0")))
+                .build();
+        ResponseEntity<OrderResponse> created = restTemplate.exchange("/api/orders", HttpMethod.POST,
+                new HttpEntity<>(request, headers), OrderResponse.class);
+        assertNotNull(created.getBody());
+        Long orderId = created.getBody().getId();
+
+        // No more writers than retry attempts, so that every writer is guaranteed to get through
+        int writers = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        try {
+            List<Future<ResponseEntity<ItemResponse>>> responses = new ArrayList<>();
+            for (int i = 1; i <= writers; i++) {
+                ItemRequest item = item("SKU-API-3-" + i);
+                responses.add(executor.submit(() -> restTemplate.exchange("/api/items/order/" + orderId,
+                        HttpMethod.POST, new HttpEntity<>(item, headers), ItemResponse.class)));
+            }
+            for (Future<ResponseEntity<ItemResponse>> response : responses) {
+                assertEquals(HttpStatus.CREATED, response.get(30, TimeUnit.SECONDS).getStatusCode());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        ResponseEntity<OrderResponse> fetched = restTemplate.exchange("/api/orders/" + orderId, HttpMethod.GET,
+                new HttpEntity<>(headers), OrderResponse.class);
+        OrderResponse order = fetched.getBody();
+        assertNotNull(order);
+        assertEquals(writers + 1, order.getItems().size());
+        assertEquals(created.getBody().getVersion() + writers, order.getVersion());
+        assertEquals(0, BigDecimal.valueOf(writers + 1).compareTo(order.getTotalAmount()));
+
+        ResponseEntity<Void> deleted = restTemplate.exchange("/api/items/" + order.getItems().get(0).getId(),
+                HttpMethod.DELETE, new HttpEntity<>(headers), Void.class);
+        assertEquals(HttpStatus.NO_CONTENT, deleted.getStatusCode());
+        OrderResponse afterDelete = restTemplate.exchange("/api/orders/" + orderId, HttpMethod.GET,
+                new HttpEntity<>(headers), OrderResponse.class).getBody();
+        assertNotNull(afterDelete);
+        assertEquals(writers, afterDelete.getItems().size());
+        assertEquals(order.getVersion() + 1, afterDelete.getVersion());
+        assertEquals(0, BigDecimal.valueOf(writers).compareTo(afterDelete.getTotalAmount()));
+    }
+
+    @Test
+    void testStatusPatchUpdatesOnlyTheStatus() {
+        HttpHeaders headers = adminHeaders();
+        OrderRequest request = OrderRequest.builder()
+                .orderNumber("ORD-API-4")
+                .customerName("Api Test")
+                .items(List.of(item("SKU-API-4")))
+                .build();
+        OrderResponse created = restTemplate.exchange("/api/orders", HttpMethod.POST,
+                new HttpEntity<>(request, headers), OrderResponse.class).getBody();
+        assertNotNull(created);
+        restTemplate.exchange("/api/orders/" + created.getId(), HttpMethod.GET, new HttpEntity<>(headers),
+                OrderResponse.class);
+
+        ResponseEntity<OrderStateResponse> confirmed = restTemplate.exchange(
+                "/api/orders/" + created.getId() + "/status", HttpMethod.PATCH,
+                new HttpEntity<>(new StatusUpdateRequest(OrderStatus.CONFIRMED, created.getVersion()), headers),
+                OrderStateResponse.class);
+        assertEquals(HttpStatus.OK, confirmed.getStatusCode());
+        assertNotNull(confirmed.getBody());
+        assertEquals(created.getVersion() + 1, confirmed.getBody().getVersion());
+
+        OrderResponse fetched = restTemplate.exchange("/api/orders/" + created.getId(), HttpMethod.GET,
+                new HttpEntity<>(headers), OrderResponse.class).getBody();
+        assertNotNull(fetched);
+        assertEquals(OrderStatus.CONFIRMED, fetched.getStatus());
+        assertEquals(confirmed.getBody().getVersion(), fetched.getVersion());
+        assertEquals(1, fetched.getItems().size());
+        assertEquals(0, BigDecimal.ONE.compareTo(fetched.getTotalAmount()));
+
+        ResponseEntity<String> stale = restTemplate.exchange("/api/orders/" + created.getId() + "/status",
+                HttpMethod.PATCH,
+                new HttpEntity<>(new StatusUpdateRequest(OrderStatus.CANCELLED, created.getVersion()), headers),
+                String.class);
+        assertEquals(HttpStatus.CONFLICT, stale.getStatusCode());
+    }
+
+    @Test
+    void testItemBatchIsAppliedAtOnce() {
+        HttpHeaders headers = adminHeaders();
+        OrderRequest request = OrderRequest.builder()
+                .orderNumber("ORD-API-5")
+                .customerName("Api Test")
+                .items(List.of(item("SKU-API-5-0"), item("SKU-API-5-1")))
+                .build();
+        OrderResponse created = restTemplate.exchange("/api/orders", HttpMethod.POST,
+                new HttpEntity<>(request, headers), OrderResponse.class).getBody();
+        assertNotNull(created);
+        // Cached, so a stale order would show below
+        restTemplate.exchange("/api/orders/" + created.getId(), HttpMethod.GET, new HttpEntity<>(headers),
+                OrderResponse.class);
+        Long kept = created.getItems().get(0).getId();
+        Long removed = created.getItems().get(1).getId();
+        ItemRequest changed = item("SKU-API-5-0");
+        changed.setQuantity(5);
+
+        ItemBatchRequest batch = ItemBatchRequest.builder()
+                .version(created.getVersion())
+                .create(List.of(item("SKU-API-5-2"), item("SKU-API-5-3"), item("SKU-API-5-4")))
+                .update(List.of(new ItemBatchRequest.ItemUpdate(kept, changed)))
+                .delete(List.of(removed))
+                .build();
+        ResponseEntity<ItemBatchResponse> applied = restTemplate.exchange(
+                "/api/items/order/" + created.getId() + "/batch", HttpMethod.POST, new HttpEntity<>(batch, headers),
+                ItemBatchResponse.class);
+        assertEquals(HttpStatus.OK, applied.getStatusCode());
+        assertNotNull(applied.getBody());
+        assertEquals(3, applied.getBody().getCreated().size());
+        assertEquals(created.getVersion() + 1, applied.getBody().getVersion());
+        assertEquals(0, BigDecimal.valueOf(8).compareTo(applied.getBody().getTotalAmount()));
+
+        OrderResponse fetched = restTemplate.exchange("/api/orders/" + created.getId(), HttpMethod.GET,
+                new HttpEntity<>(headers), OrderResponse.class).getBody();
+        assertNotNull(fetched);
+        assertEquals(4, fetched.getItems().size());
+        assertEquals(applied.getBody().getVersion(), fetched.getVersion());
+        assertEquals(0, BigDecimal.valueOf(8).compareTo(fetched.getTotalAmount()));
+        assertEquals(5, fetched.getItems().stream().filter(item -> item.getId().equals(kept)).findFirst()
+                .orElseThrow().getQuantity());
+
+        // An item of another order fails the whole batch
+        ItemBatchRequest foreign = ItemBatchRequest.builder()
+                .create(List.of(item("SKU-API-5-5")))
+                .delete(List.of(removed))
+                .build();
+        ResponseEntity<String> rejected = restTemplate.exchange("/api/items/order/" + created.getId() + "/batch",
+                HttpMethod.POST, new HttpEntity<>(foreign, headers), String.class);
+        assertEquals(HttpStatus.NOT_FOUND, rejected.getStatusCode());
+        OrderResponse unchanged = restTemplate.exchange("/api/orders/" + created.getId(), HttpMethod.GET,
+                new HttpEntity<>(headers), OrderResponse.class).getBody();
+        assertNotNull(unchanged);
+        assertEquals(4, unchanged.getItems().size());
+    }
+
+    @Test
+    void testDeletedOrderDisappearsAtOnce() {
+        HttpHeaders headers = adminHeaders();
+        OrderRequest request = OrderRequest.builder()
+                .orderNumber("ORD-API-6")
+                .customerName("Api Test")
+                .items(List.of(item("SKU-API-6")))
+                .build();
+        OrderResponse created = restTemplate.exchange("/api/orders", HttpMethod.POST,
+                new HttpEntity<>(request, headers), OrderResponse.class).getBody();
+        assertNotNull(created);
+        restTemplate.exchange("/api/orders/" + created.getId(), HttpMethod.GET, new HttpEntity<>(headers),
+                OrderResponse.class);
+
+        ResponseEntity<Void> deleted = restTemplate.exchange("/api/orders/" + created.getId(), HttpMethod.DELETE,
+                new HttpEntity<>(headers), Void.class);
+        assertEquals(HttpStatus.NO_CONTENT, deleted.getStatusCode());
+
+        assertEquals(HttpStatus.NOT_FOUND, restTemplate.exchange("/api/orders/" + created.getId(), HttpMethod.GET,
+                new HttpEntity<>(headers), String.class).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, restTemplate.exchange("/api/items/" + created.getItems().get(0).getId(),
+                HttpMethod.PUT, new HttpEntity<>(item("SKU-API-6"), headers), String.class).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, restTemplate.exchange("/api/orders/" + created.getId(), HttpMethod.DELETE,
+                new HttpEntity<>(headers), String.class).getStatusCode());
+        // The number stays taken until the order is purged
+        assertEquals(HttpStatus.CONFLICT, restTemplate.exchange("/api/orders", HttpMethod.POST,
+                new HttpEntity<>(request, headers), String.class).getStatusCode());
+    }
+
+    @Test
+    void testChangeFeedFollowsAnOrderToItsDeletion() {
+        HttpHeaders headers = adminHeaders();
+        long since = 0;
+        OrderChangesResponse page;
+        do {
+            page = changes(headers, since, 0);
+            since = page.getNextSince();
+        } while (page.isHasMore());
+
+        OrderResponse created = restTemplate.exchange("/api/orders", HttpMethod.POST,
+                new HttpEntity<>(OrderRequest.builder()
+                        .orderNumber("ORD-API-7")
+                        .customerName("Api Test")
+                        .items(List.of(item("SKU-API-7")))
+                        .build(), headers), OrderResponse.class).getBody();
+        assertNotNull(created);
+        OrderChangesResponse.Change creation = awaitChange(headers, since, created.getId());
+        assertEquals("ORD-API-7", creation.getOrder().getOrderNumber());
+
+        restTemplate.exchange("/api/items/order/" + created.getId(), HttpMethod.POST,
+                new HttpEntity<>(item("SKU-API-7B"), headers), ItemResponse.class);
+        OrderChangesResponse.Change itemAdded = awaitChange(headers, creation.getSeq(), created.getId());
+        assertEquals(2, itemAdded.getOrder().getItems().size());
+
+        restTemplate.exchange("/api/orders/" + created.getId(), HttpMethod.DELETE, new HttpEntity<>(headers),
+                Void.class);
+        OrderChangesResponse.Change deletion = awaitChange(headers, itemAdded.getSeq(), created.getId());
+        assertTrue(deletion.isDeleted());
+        assertNull(deletion.getOrder());
+    }
+
+    @Test
+    void testEventStreamPushesTheStatusChangeOfAnOrder() throws Exception {
+        HttpHeaders headers = adminHeaders();
+        OrderResponse created = restTemplate.exchange("/api/orders", HttpMethod.POST,
+                new HttpEntity<>(OrderRequest.builder()
+                        .orderNumber("ORD-API-8")
+                        .customerName("Api Test")
+                        .items(List.of(item("SKU-API-8")))
+                        .build(), headers), OrderResponse.class).getBody();
+        assertNotNull(created);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            HttpResponse<Stream<String>> stream = subscribe(client, headers,
+                    "type=STATUS_CHANGED&orderId=" + created.getId(), null);
+            Future<List<String>> event = executor.submit(() -> nextEvent(stream));
+
+            restTemplate.exchange("/api/orders/" + created.getId() + "/status", HttpMethod.PATCH,
+                    new HttpEntity<>(new StatusUpdateRequest(OrderStatus.CONFIRMED, null), headers),
+                    OrderStateResponse.class);
+
+            List<String> lines = event.get(10, TimeUnit.SECONDS);
+            stream.body().close();
+            assertTrue(lines.contains("event:STATUS_CHANGED"), lines::toString);
+            String data = lines.stream().filter(line -> line.startsWith("data:")).findFirst().orElseThrow();
+            assertTrue(data.contains("\"orderNumber\":\"ORD-API-8\""), data);
+            assertTrue(data.contains("\"status\":\"CONFIRMED\""), data);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testEventIdOfAnotherProcessGetsAResync() throws Exception {
+        HttpHeaders headers = adminHeaders();
+        OrderResponse created = restTemplate.exchange("/api/orders", HttpMethod.POST,
+                new HttpEntity<>(OrderRequest.builder()
+                        .orderNumber("ORD-API-10")
+                        .customerName("Api Test")
+                        .items(List.of(item("SKU-API-10")))
+                        .build(), headers), OrderResponse.class).getBody();
+        assertNotNull(created);
+        String query = "type=STATUS_CHANGED&orderId=" + created.getId();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            // Sequences start again at 0 after a restart, so this is an id a client of the previous process may send
+            HttpResponse<Stream<String>> stale = subscribe(client, headers, query, "0");
+            List<String> resync = executor.submit(() -> nextEvent(stale)).get(10, TimeUnit.SECONDS);
+            stale.body().close();
+            assertTrue(resync.contains("event:resync"), resync::toString);
+            String id = resync.stream().filter(line -> line.startsWith("id:")).findFirst().orElseThrow()
+                    .substring("id:".length());
+
+            HttpResponse<Stream<String>> resumed = subscribe(client, headers, query, id);
+            Future<List<String>> event = executor.submit(() -> nextEvent(resumed));
+            restTemplate.exchange("/api/orders/" + created.getId() + "/status", HttpMethod.PATCH,
+                    new HttpEntity<>(new StatusUpdateRequest(OrderStatus.CONFIRMED, null), headers),
+                    OrderStateResponse.class);
+
+            List<String> lines = event.get(10, TimeUnit.SECONDS);
+            resumed.body().close();
+            assertTrue(lines.contains("event:STATUS_CHANGED"), lines::toString);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testOrderEventsAreRelayedThroughTheOutbox() throws Exception {
+        HttpHeaders headers = adminHeaders();
+        OrderResponse created = restTemplate.exchange("/api/orders", HttpMethod.POST,
+                new HttpEntity<>(OrderRequest.builder()
+                        .orderNumber("ORD-API-9")
+                        .customerName("Api Test")
+                        .items(List.of(item("SKU-API-9")))
+                        .build(), headers), OrderResponse.class).getBody();
+        assertNotNull(created);
+        restTemplate.exchange("/api/orders/" + created.getId() + "/status", HttpMethod.PATCH,
+                new HttpEntity<>(new StatusUpdateRequest(OrderStatus.CONFIRMED, null), headers),
+                OrderStateResponse.class);
+
+        List<String> types = List.of();
+        for (int attempt = 0; attempt < 50 && types.size() < 2; attempt++) {
+            Thread.sleep(100);
+            types = outboxPublisher.messages().stream()
+                    .filter(message -> created.getId().equals(message.orderId()))
+                    .map(OutboxMessage::type)
+                    .toList();
+        }
+        assertEquals(List.of("CREATED", "STATUS_CHANGED"), types);
+    }
+
+    @Test
+    void testRequestWithoutTokenIsRejected() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/orders", String.class);
+
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+    }
+
+    @Test
+    void testMethodMetricsSettingsNeedALogin() {
+        HttpHeaders json = new HttpHeaders();
+        json.setContentType(MediaType.APPLICATION_JSON);
+        ResponseEntity<String> anonymousUpdate = restTemplate.postForEntity("/actuator/methodmetrics",
+                new HttpEntity<>("{\"enabled\": false}", json), String.class);
+        ResponseEntity<String> anonymousRead = restTemplate.getForEntity("/actuator/methodmetrics", String.class);
+        ResponseEntity<String> authenticatedRead = restTemplate.exchange("/actuator/methodmetrics", HttpMethod.GET,
+                new HttpEntity<>(adminHeaders()), String.class);
+
+        assertEquals(HttpStatus.FORBIDDEN, anonymousUpdate.getStatusCode());
+        assertEquals(HttpStatus.FORBIDDEN, anonymousRead.getStatusCode());
+        assertEquals(HttpStatus.OK, authenticatedRead.getStatusCode());
+        assertTrue(authenticatedRead.getBody().contains("\"enabled\":true"));
+        assertEquals(HttpStatus.OK, restTemplate.getForEntity("/actuator/health", String.class).getStatusCode());
+    }
+
+    private HttpHeaders adminHeaders() {
+        ResponseEntity<AuthResponse> login = restTemplate.postForEntity("/api/auth/login",
+                new AuthRequest("admin", "admin"), AuthResponse.class);
+        assertNotNull(login.getBody());
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(login.getBody().getAccessToken());
+        return headers;
+    }
+
+    private OrderChangesResponse changes(HttpHeaders headers, long since, int wait) {
+        ResponseEntity<OrderChangesResponse> response = restTemplate.exchange("/api/orders/changes?since=" + since
+                + "&wait=" + wait, HttpMethod.GET, new HttpEntity<>(headers), OrderChangesResponse.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        return response.getBody();
+    }
+
+    /**
+     * Long-polls the change feed from {@code since} until it reports a change of the order.
+     */
+    private OrderChangesResponse.Change awaitChange(HttpHeaders headers, long since, Long orderId) {
+        for (int attempt = 0; attempt < 10; attempt++) {
+            OrderChangesResponse page = changes(headers, since, 5);
+            for (OrderChangesResponse.Change change : page.getChanges()) {
+                if (orderId.equals(change.getOrderId())) {
+                    return change;
+                }
+            }
+            since = page.getNextSince();
+        }
+        return fail("No change of order " + orderId + " after " + since);
+    }
+
+    private HttpResponse<Stream<String>> subscribe(HttpClient client, HttpHeaders headers, String query,
+            String lastEventId) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(restTemplate.getRootUri()
+                        + "/api/orders/events?" + query))
+                .header(HttpHeaders.AUTHORIZATION, headers.getFirst(HttpHeaders.AUTHORIZATION))
+                .header(HttpHeaders.ACCEPT, "text/event-stream");
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        HttpResponse<Stream<String>> stream = client.send(request.build(), HttpResponse.BodyHandlers.ofLines());
+        assertEquals(HttpStatus.OK.value(), stream.statusCode());
+        return stream;
+    }
+
+    /**
+     * Blocks until the stream has sent an event with data, skipping heartbeats.
+     */
+    private static List<String> nextEvent(HttpResponse<Stream<String>> stream) {
+        List<String> lines = new ArrayList<>();
+        Iterator<String> iterator = stream.body().iterator();
+        while (iterator.hasNext()) {
+            String line = iterator.next();
+            if (line.isEmpty() && lines.stream().anyMatch(l -> l.startsWith("data:"))) {
+                return lines;
+            }
+            lines.add(line);
+        }
+        return lines;
+    }
+
+    private static ItemRequest item(String sku) {
+        return ItemRequest.builder()
+                .sku(sku)
+                .name("Widget")
+                .quantity(1)
+                .unitPrice(BigDecimal.ONE)
+                .build();
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.ordermanagement;
+
+import com.example.ordermanagement.entity.OrderStatus;
+import com.example.ordermanagement.entity.PaymentStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Writes and reads order and item rows with plain JDBC, for the tests of code that works on the tables directly and
+ * must not see the rows through Hibernate first.
+ */
+public class OrderRows {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrderRows(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Starts a pending, unpaid order, last updated when it was created; {@link Order#insert()} writes it.
+     */
+    public Order order(String orderNumber, LocalDateTime createdAt) {
+        return new Order(orderNumber, createdAt);
+    }
+
+    public void item(long orderId, String sku, int quantity, String unitPrice) {
+        jdbcTemplate.update("INSERT INTO items (sku, name, quantity, unit_price, order_id) VALUES (?, ?, ?, ?, ?)",
+                sku, sku, quantity, new BigDecimal(unitPrice), orderId);
+    }
+
+    public String statusOf(long orderId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM orders WHERE id = ?", String.class, orderId);
+    }
+
+    public final class Order {
+
+        private final String orderNumber;
+        private final LocalDateTime createdAt;
+        private LocalDateTime updatedAt;
+        private LocalDateTime deletedAt;
+        private OrderStatus status = OrderStatus.PENDING;
+        private PaymentStatus paymentStatus = PaymentStatus.UNPAID;
+        private BigDecimal totalAmount;
+
+        private Order(String orderNumber, LocalDateTime createdAt) {
+            this.orderNumber = orderNumber;
+            this.createdAt = createdAt;
+            this.updatedAt = createdAt;
+        }
+
+        public Order status(OrderStatus status) {
+            this.status = status;
+            return this;
+        }
+
+        public Order paymentStatus(PaymentStatus paymentStatus) {
+            this.paymentStatus = paymentStatus;
+            return this;
+        }
+
+        public Order updatedAt(LocalDateTime updatedAt) {
+            this.updatedAt = updatedAt;
+            return this;
+        }
+
+        public Order deletedAt(LocalDateTime deletedAt) {
+            this.deletedAt = deletedAt;
+            return this;
+        }
+
+        public Order totalAmount(String totalAmount) {
+            this.totalAmount = new BigDecimal(totalAmount);
+            return this;
+        }
+
+        /**
+         * @return the id of the new order
+         */
+        public long insert() {
+            GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbcTemplate.update(connection -> {
+                PreparedStatement statement = connection.prepareStatement("INSERT INTO orders (order_number, "
+                        + "customer_name, created_at, updated_at, deleted_at, status, payment_status, total_amount) "
+                        + "VALUES (?, 'Test Customer', ?, ?, ?, ?, ?, ?)", new String[] {"id"});
+                statement.setString(1, orderNumber);
+                statement.setTimestamp(2, Timestamp.valueOf(createdAt));
+                statement.setTimestamp(3, Timestamp.valueOf(updatedAt));
+                statement.setTimestamp(4, deletedAt != null ? Timestamp.valueOf(deletedAt) : null);
+                statement.setString(5, status.name());
+                statement.setString(6, paymentStatus.name());
+                statement.setBigDecimal(7, totalAmount);
+                return statement;
+            }, keyHolder);
+            return keyHolder.getKey().longValue();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.ordermanagement.analytics;
+
+import com.example.ordermanagement.OrderRows;
+import com.example.ordermanagement.dto.SalesReportResponse;
+import com.example.ordermanagement.dto.SalesReportResponse.Bucket;
+import com.example.ordermanagement.dto.SkuSalesResponse.SkuSales;
+import com.example.ordermanagement.entity.OrderStatus;
+import com.example.ordermanagement.entity.PaymentStatus;
+import com.example.ordermanagement.events.OrderEvent;
+import com.example.ordermanagement.service.AnalyticsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // the writer commits its own transactions
+class SalesRollupWriterTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 6, 1);
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcTemplate jdbcTemplate;
+    private OrderRows orderRows;
+    private SalesRollupWriter writer;
+    private AnalyticsService analyticsService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        orderRows = new OrderRows(dataSource);
+        AnalyticsProperties properties = new AnalyticsProperties();
+        properties.setFlushChunkSize(2);
+        properties.setRebuildParallelism(2);
+        properties.setRebuildRangeSize(2);
+        writer = new SalesRollupWriter(dataSource, transactionManager, properties, new SimpleMeterRegistry());
+        analyticsService = new AnalyticsService(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (String table : List.of("items", "orders", "sales_rollup", "sku_sales_rollup", "sales_rollup_order",
+                "sales_rollup_item")) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+    }
+
+    @Test
+    void testRebuildAddsUpOrdersAndItems() {
+        long first = orderRows.order("R-1", DAY.atTime(10, 0)).status(OrderStatus.CONFIRMED)
+                .paymentStatus(PaymentStatus.PAID).totalAmount("30.00").insert();
+        orderRows.item(first, "SKU-A", 2, "10.00");
+        orderRows.item(first, "SKU-B", 1, "10.00");
+        long second = orderRows.order("R-2", DAY.atTime(10, 0)).totalAmount("15.00").insert();
+        orderRows.item(second, "SKU-A", 3, "5.00");
+        orderRows.order("R-3", DAY.plusDays(1).atTime(10, 0)).status(OrderStatus.CONFIRMED)
+                .paymentStatus(PaymentStatus.PAID).totalAmount("7.50").insert();
+        long deleted = orderRows.order("R-4", DAY.atTime(10, 0)).status(OrderStatus.CONFIRMED)
+                .paymentStatus(PaymentStatus.PAID).totalAmount("99.00").insert();
+        jdbcTemplate.update("UPDATE orders SET deleted_at = ? WHERE id = ?", Timestamp.valueOf(LocalDateTime.now()),
+                deleted);
+
+        assertEquals(3, writer.rebuild());
+
+        SalesReportResponse report = analyticsService.getSalesReport(DAY, DAY.plusDays(1), null, null);
+        assertEquals(3, report.getOrderCount());
+        assertEquals(new BigDecimal("52.50"), report.getRevenue());
+        assertEquals(List.of(new Bucket("2025-06-01", 2, new BigDecimal("45.00")),
+                new Bucket("2025-06-02", 1, new BigDecimal("7.50"))), report.getByDay());
+        assertEquals(List.of(new Bucket("PENDING", 1, new BigDecimal("15.00")),
+                new Bucket("CONFIRMED", 2, new BigDecimal("37.50"))), report.getByStatus());
+        assertEquals(1, analyticsService.getSalesReport(DAY, DAY, null, Set.of(PaymentStatus.PAID)).getOrderCount());
+        assertEquals(List.of(new SkuSales("SKU-A", 5, new BigDecimal("35.00")),
+                new SkuSales("SKU-B", 1, new BigDecimal("10.00"))),
+                analyticsService.getSkuSales(DAY, DAY, null, 10).getSkus());
+        assertEquals(List.of(new SkuSales("SKU-A", 2, new BigDecimal("20.00"))),
+                analyticsService.getSkuSales(DAY, DAY, Set.of(OrderStatus.CONFIRMED), 1).getSkus());
+    }
+
+    @Test
+    void testFlushAppliesChangesLikeARebuild() {
+        long kept = orderRows.order("F-1", DAY.atTime(10, 0)).totalAmount("20.00").insert();
+        orderRows.item(kept, "SKU-A", 2, "10.00");
+        long removed = orderRows.order("F-2", DAY.atTime(10, 0)).totalAmount("5.00").insert();
+        orderRows.item(removed, "SKU-B", 1, "5.00");
+        writer.rebuild();
+
+        jdbcTemplate.update("UPDATE orders SET status = 'CONFIRMED', payment_status = 'PAID', total_amount = 32.00 "
+                + "WHERE id = ?", kept);
+        orderRows.item(kept, "SKU-C", 1, "12.00");
+        jdbcTemplate.update("UPDATE orders SET deleted_at = ? WHERE id = ?", Timestamp.valueOf(LocalDateTime.now()),
+                removed);
+        long created = orderRows.order("F-3", DAY.plusDays(1).atTime(10, 0)).totalAmount("8.00").insert();
+        orderRows.item(created, "SKU-A", 1, "8.00");
+        for (long id : List.of(kept, removed, created, kept)) {
+            writer.onOrderEvent(new OrderEvent(OrderEvent.Type.UPDATED, id, "ORD-" + id, null, null, null, 0L,
+                    LocalDateTime.now()));
+        }
+
+        assertEquals(3, writer.flush());
+        List<Map<String, Object>> orders = rows("sales_rollup");
+        List<Map<String, Object>> skus = rows("sku_sales_rollup");
+        // Nothing is left of the rows the changed orders moved away from
+        assertEquals(2, orders.size());
+        assertEquals(3, skus.size());
+
+        writer.rebuild();
+        assertEquals(orders, rows("sales_rollup"));
+        assertEquals(skus, rows("sku_sales_rollup"));
+        assertEquals(0, writer.flush());
+    }
+
+    private List<Map<String, Object>> rows(String table) {
+        return jdbcTemplate.queryForList("SELECT * FROM " + table + " ORDER BY 1, 2, 3");
+    }
+}
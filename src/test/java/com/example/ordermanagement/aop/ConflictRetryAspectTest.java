@@ -0,0 +1,112 @@
+package com.example.ordermanagement.aop;
+
+import com.example.ordermanagement.dto.ItemRequest;
+import com.example.ordermanagement.service.ItemService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConflictRetryAspectTest {
+
+    @Mock
+    private ProceedingJoinPoint joinPoint;
+
+    @Mock
+    private MethodSignature signature;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConflictRetryProperties properties;
+    private ConflictRetryAspect aspect;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new ConflictRetryProperties();
+        properties.setInitialBackoff(Duration.ofMillis(1));
+        aspect = new ConflictRetryAspect(meterRegistry, properties);
+
+        Method method = ItemService.class.getMethod("create", Long.class, ItemRequest.class);
+        lenient().when(joinPoint.getSignature()).thenReturn(signature);
+        lenient().when(signature.getMethod()).thenReturn(method);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    void testRetriesUntilAttemptSucceeds() throws Throwable {
+        when(joinPoint.proceed())
+                .thenThrow(new OptimisticLockingFailureException("conflict"))
+                .thenThrow(new OptimisticLockingFailureException("conflict"))
+                .thenReturn("ok");
+
+        assertEquals("ok", aspect.retryOnConflict(joinPoint));
+
+        verify(joinPoint, times(3)).proceed();
+        assertEquals(2, count(ConflictRetryAspect.CONFLICTS_METRIC));
+        assertEquals(2, count(ConflictRetryAspect.RETRIES_METRIC));
+    }
+
+    @Test
+    void testGivesUpAfterMaxAttempts() throws Throwable {
+        properties.setMaxAttempts(3);
+        when(joinPoint.proceed()).thenThrow(new OptimisticLockingFailureException("conflict"));
+
+        assertThrows(OptimisticLockingFailureException.class, () -> aspect.retryOnConflict(joinPoint));
+
+        verify(joinPoint, times(3)).proceed();
+        assertEquals(3, count(ConflictRetryAspect.CONFLICTS_METRIC));
+        assertEquals(2, count(ConflictRetryAspect.RETRIES_METRIC));
+    }
+
+    @Test
+    void testOtherFailuresAreNotRetried() throws Throwable {
+        when(joinPoint.proceed()).thenThrow(new IllegalStateException("boom"));
+
+        assertThrows(IllegalStateException.class, () -> aspect.retryOnConflict(joinPoint));
+
+        verify(joinPoint, times(1)).proceed();
+    }
+
+    @Test
+    void testCallInsideCallersTransactionIsNotRetried() throws Throwable {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        when(joinPoint.proceed()).thenThrow(new OptimisticLockingFailureException("conflict"));
+
+        assertThrows(OptimisticLockingFailureException.class, () -> aspect.retryOnConflict(joinPoint));
+
+        verify(joinPoint, times(1)).proceed();
+    }
+
+    @Test
+    void testBackoffStaysWithinGrowingBound() {
+        properties.setInitialBackoff(Duration.ofMillis(10));
+        properties.setMaxBackoff(Duration.ofMillis(25));
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(aspect.backoffMillis(1) <= 10);
+            assertTrue(aspect.backoffMillis(5) <= 25);
+        }
+    }
+
+    private double count(String name) {
+        return meterRegistry.get(name).tags("class", "ItemService", "method", "create").counter().count();
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.ordermanagement.aop;
+
+import com.example.ordermanagement.service.OrderService;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoggingAspectTest {
+
+    @Mock
+    private ProceedingJoinPoint joinPoint;
+
+    @Mock
+    private MethodSignature signature;
+
+    private SimpleMeterRegistry meterRegistry;
+    private MethodMetricsProperties properties;
+    private LoggingAspect aspect;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new MethodMetricsProperties();
+        aspect = new LoggingAspect(meterRegistry, properties);
+
+        Method method = OrderService.class.getMethod("findById", Long.class);
+        lenient().when(joinPoint.getSignature()).thenReturn(signature);
+        lenient().when(signature.getMethod()).thenReturn(method);
+    }
+
+    @Test
+    void testRecordsSuccessTimer() throws Throwable {
+        when(joinPoint.proceed()).thenReturn("ok");
+
+        assertEquals("ok", aspect.logServiceExecution(joinPoint));
+        aspect.logServiceExecution(joinPoint);
+
+        Timer timer = meterRegistry.find(LoggingAspect.DURATION_METRIC)
+                .tags("layer", "service", "class", "OrderService", "method", "findById", "outcome", "success")
+                .timer();
+        assertNotNull(timer);
+        assertEquals(2, timer.count());
+    }
+
+    @Test
+    void testRecordsErrorTimerAndRethrows() throws Throwable {
+        when(joinPoint.proceed()).thenThrow(new IllegalStateException("boom"));
+
+        assertThrows(IllegalStateException.class, () -> aspect.logServiceExecution(joinPoint));
+
+        Timer timer = meterRegistry.find(LoggingAspect.DURATION_METRIC).tag("outcome", "error").timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    void testControllerLayerRegistersActiveTimer() throws Throwable {
+        when(joinPoint.proceed()).thenReturn(null);
+
+        aspect.logControllerExecution(joinPoint);
+
+        assertNotNull(meterRegistry.find(LoggingAspect.ACTIVE_METRIC).tag("layer", "controller").longTaskTimer());
+    }
+
+    @Test
+    void testDisabledSkipsInstrumentation() throws Throwable {
+        properties.setEnabled(false);
+        when(joinPoint.proceed()).thenReturn("ok");
+
+        assertEquals("ok", aspect.logServiceExecution(joinPoint));
+
+        assertNull(meterRegistry.find(LoggingAspect.DURATION_METRIC).timer());
+        verify(joinPoint, never()).getSignature();
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.ordermanagement.cache;
+
+import com.example.ordermanagement.entity.Item;
+import com.example.ordermanagement.entity.Order;
+import com.example.ordermanagement.repository.ItemRepository;
+import com.example.ordermanagement.repository.OrderRepository;
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.cache.CacheManager;
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Changes rows behind Hibernate's back with plain JDBC: a read that still returns the old value was served from the
+ * second-level cache.
+ */
+@DataJpaTest
+@Import(SecondLevelCacheConfig.class)
+@EnableConfigurationProperties(SecondLevelCacheProperties.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // every read needs its own session
+class SecondLevelCacheTest {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CacheManager hibernateCacheManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private Long orderId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        Order order = Order.builder().orderNumber("ORD-L2-1").customerName("Cached Customer").build();
+        order.addItem(Item.builder().sku("SKU-1").name("Widget").quantity(2).unitPrice(new BigDecimal("5.00"))
+                .build());
+        orderId = orderRepository.save(order).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        itemRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+        hibernateCacheManager.getCacheNames().forEach(name -> hibernateCacheManager.getCache(name).clear());
+    }
+
+    @Test
+    void testOrderIsServedFromEntityRegion() {
+        orderRepository.findById(orderId);
+        jdbcTemplate.update("UPDATE orders SET customer_name = 'Changed' WHERE id = ?", orderId);
+
+        assertEquals("Cached Customer", orderRepository.findById(orderId).orElseThrow().getCustomerName());
+    }
+
+    @Test
+    void testItemsAreServedFromCollectionAndItemRegions() {
+        readQuantities();
+        jdbcTemplate.update("UPDATE items SET quantity = 99 WHERE order_id = ?", orderId);
+
+        assertEquals(List.of(2), readQuantities());
+    }
+
+    @Test
+    void testItemDeletedWithoutCollectionEvictsCachedCollection() {
+        readQuantities();
+        Long itemId = itemRepository.findByOrderId(orderId).get(0).getId();
+
+        // As in ItemService.delete: Order.items is not touched
+        itemRepository.deleteById(itemId);
+
+        assertEquals(List.of(), readQuantities());
+    }
+
+    @Test
+    void testOrderNumberLookupIsServedFromQueryRegionUntilOrdersChange() {
+        assertTrue(orderRepository.existsByOrderNumber("ORD-L2-1"));
+        jdbcTemplate.update("UPDATE orders SET order_number = 'ORD-L2-RENAMED' WHERE id = ?", orderId);
+
+        assertTrue(orderRepository.existsByOrderNumber("ORD-L2-1"));
+
+        orderRepository.save(Order.builder().orderNumber("ORD-L2-2").customerName("Other").build());
+
+        assertFalse(orderRepository.existsByOrderNumber("ORD-L2-1"));
+    }
+
+    @Test
+    void testDisabledRegionsAreNotConfigured() {
+        SecondLevelCacheProperties properties = new SecondLevelCacheProperties();
+        properties.getOrder().setEnabled(false);
+        properties.getItem().setEnabled(false);
+        properties.getOrderQueries().setEnabled(false);
+        Map<String, Object> hibernateProperties = new HashMap<>();
+
+        SecondLevelCacheConfig.applyCacheSettings(hibernateProperties, hibernateCacheManager, properties);
+
+        assertEquals(false, hibernateProperties.get(AvailableSettings.USE_QUERY_CACHE));
+        assertTrue(hibernateProperties.keySet().stream().noneMatch(key -> key.startsWith("hibernate.classcache")
+                || key.startsWith("hibernate.collectioncache")), hibernateProperties::toString);
+    }
+
+    private List<Integer> readQuantities() {
+        return transactionTemplate.execute(status -> orderRepository.findById(orderId).orElseThrow().getItems()
+                .stream()
+                .map(Item::getQuantity)
+                .toList());
+    }
+}
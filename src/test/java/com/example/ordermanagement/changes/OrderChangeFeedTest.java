@@ -0,0 +1,148 @@
+package com.example.ordermanagement.changes;
+
+import com.example.ordermanagement.OrderRows;
+import com.example.ordermanagement.dto.OrderChangesResponse;
+import com.example.ordermanagement.dto.OrderChangesResponse.Change;
+import com.example.ordermanagement.exception.ChangeFeedExpiredException;
+import com.example.ordermanagement.exception.InvalidRequestException;
+import com.example.ordermanagement.mapper.OrderMapperImpl;
+import com.example.ordermanagement.repository.OrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // the feed must see committed rows only
+class OrderChangeFeedTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 6, 30, 12, 0);
+    private static final ZoneId ZONE = ZoneId.of("UTC");
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private JdbcTemplate jdbcTemplate;
+    private OrderRows orderRows;
+    private OrderChangeFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        orderRows = new OrderRows(dataSource);
+        ChangeFeedProperties properties = new ChangeFeedProperties();
+        properties.setMaxLimit(10);
+        properties.setVisibilityDelay(Duration.ofSeconds(1));
+        feed = new OrderChangeFeed(dataSource, orderRepository, new OrderMapperImpl(), properties,
+                new SimpleMeterRegistry(), Clock.fixed(NOW.atZone(ZONE).toInstant(), ZONE));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM items");
+        jdbcTemplate.update("DELETE FROM orders");
+        jdbcTemplate.update("UPDATE order_change_horizon SET purged_through = 0");
+    }
+
+    @Test
+    void testChangesFollowTheWritesIncludingItemsAndDeletes() {
+        long first = orderRows.order("CF-1", NOW.minusDays(1)).insert();
+        long second = orderRows.order("CF-2", NOW.minusDays(1)).insert();
+        long third = orderRows.order("CF-3", NOW.minusDays(1)).insert();
+
+        OrderChangesResponse initial = changes(0, 10);
+        assertEquals(List.of(first, second, third), initial.getChanges().stream().map(Change::getOrderId).toList());
+        assertEquals("CF-1", initial.getChanges().get(0).getOrder().getOrderNumber());
+        assertFalse(initial.isHasMore());
+
+        // An item change updates the order row, a delete only marks it
+        orderRows.item(first, "SKU", 2, "1.50");
+        jdbcTemplate.update("UPDATE orders SET total_amount = 3.00, version = version + 1 WHERE id = ?", first);
+        jdbcTemplate.update("UPDATE orders SET deleted_at = ? WHERE id = ?", Timestamp.valueOf(NOW.minusMinutes(1)),
+                second);
+
+        OrderChangesResponse next = changes(initial.getNextSince(), 10);
+        assertEquals(2, next.getChanges().size());
+        Change itemChange = next.getChanges().get(0);
+        assertEquals(first, itemChange.getOrderId());
+        assertEquals(1, itemChange.getOrder().getItems().size());
+        Change tombstone = next.getChanges().get(1);
+        assertEquals(second, tombstone.getOrderId());
+        assertTrue(tombstone.isDeleted());
+        assertNull(tombstone.getOrder());
+        assertTrue(itemChange.getSeq() < tombstone.getSeq());
+        assertEquals(tombstone.getSeq(), next.getNextSince());
+
+        assertTrue(changes(next.getNextSince(), 10).getChanges().isEmpty());
+    }
+
+    @Test
+    void testPagesAndRecentChangesAreHeldBack() {
+        long first = orderRows.order("CF-1", NOW.minusDays(1)).insert();
+        orderRows.order("CF-2", NOW.minusDays(1)).updatedAt(NOW.minusNanos(500_000_000)).insert();
+        orderRows.order("CF-3", NOW.minusDays(1)).insert();
+
+        OrderChangesResponse page = changes(0, 1);
+        assertEquals(List.of(first), page.getChanges().stream().map(Change::getOrderId).toList());
+        assertTrue(page.isHasMore());
+
+        // The second order changed within the visibility delay, so it and everything after it waits
+        page = changes(page.getNextSince(), 10);
+        assertTrue(page.getChanges().isEmpty());
+        assertFalse(page.isHasMore());
+    }
+
+    @Test
+    void testCursorBehindPurgedDeletionsIsRejected() {
+        orderRows.order("CF-1", NOW.minusDays(1)).insert();
+        long seq = changes(0, 10).getNextSince();
+        jdbcTemplate.update("UPDATE order_change_horizon SET purged_through = ?", seq + 5);
+
+        assertThrows(ChangeFeedExpiredException.class, () -> feed.changes(seq, 10, Duration.ZERO));
+        assertEquals(1, changes(0, 10).getChanges().size());
+        assertThrows(InvalidRequestException.class, () -> feed.changes(0, 11, Duration.ZERO));
+    }
+
+    @Test
+    void testWaitingRequestIsCompletedByTheNextChange() {
+        long first = orderRows.order("CF-1", NOW.minusDays(1)).insert();
+        long since = changes(0, 10).getNextSince();
+
+        DeferredResult<OrderChangesResponse> result = feed.changes(since, 10, Duration.ofSeconds(30));
+        assertFalse(result.hasResult());
+        feed.completeWaiters();
+        assertFalse(result.hasResult());
+
+        jdbcTemplate.update("UPDATE orders SET status = 'CONFIRMED' WHERE id = ?", first);
+        feed.completeWaiters();
+
+        assertTrue(result.hasResult());
+        OrderChangesResponse page = (OrderChangesResponse) result.getResult();
+        assertEquals(first, page.getChanges().get(0).getOrderId());
+        assertEquals("CONFIRMED", page.getChanges().get(0).getOrder().getStatus().name());
+    }
+
+    private OrderChangesResponse changes(long since, int limit) {
+        DeferredResult<OrderChangesResponse> result = feed.changes(since, limit, Duration.ZERO);
+        return (OrderChangesResponse) result.getResult();
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.ordermanagement.config;
+
+import com.example.ordermanagement.entity.Order;
+import com.example.ordermanagement.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // the seeder commits on its own connections
+class OrderDataSeederTest {
+
+    private static final String ORDER_ROWS = "SELECT customer_name, created_at, total_amount, status, "
+            + "payment_status, tracking_number FROM orders ORDER BY id";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private JdbcTemplate jdbcTemplate;
+    private SeedProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        properties = new SeedProperties();
+        properties.setOrders(500);
+        properties.setBatchSize(64);
+        properties.setThreads(4);
+        properties.setSkus(200);
+        properties.setReferenceDate(LocalDate.of(2025, 6, 30));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM items");
+        jdbcTemplate.update("DELETE FROM orders");
+    }
+
+    @Test
+    void testSeedsConsistentOrdersAndItems() {
+        OrderDataSeeder.Result result = new OrderDataSeeder(dataSource, properties).seed();
+
+        assertEquals(500, result.orders());
+        assertEquals(500, count("SELECT COUNT(*) FROM orders"));
+        assertEquals(result.items(), count("SELECT COUNT(*) FROM items"));
+        assertTrue(result.items() > 500);
+        assertEquals(0, count("SELECT COUNT(*) FROM orders o WHERE NOT EXISTS "
+                + "(SELECT 1 FROM items i WHERE i.order_id = o.id)"));
+        assertEquals(0, count("SELECT COUNT(*) FROM orders o WHERE o.total_amount <> "
+                + "(SELECT SUM(i.unit_price * i.quantity) FROM items i WHERE i.order_id = o.id)"));
+        assertEquals(0, count("SELECT COUNT(*) FROM orders WHERE created_at >= TIMESTAMP '2025-07-01 00:00:00'"));
+    }
+
+    @Test
+    void testSameSeedProducesSameData() {
+        new OrderDataSeeder(dataSource, properties).seed();
+        List<Map<String, Object>> first = jdbcTemplate.queryForList(ORDER_ROWS);
+        tearDown();
+
+        new OrderDataSeeder(dataSource, properties).seed();
+        List<Map<String, Object>> second = jdbcTemplate.queryForList(ORDER_ROWS);
+
+        assertEquals(first, second);
+    }
+
+    @Test
+    void testSkipsExistingSeedAndKeepsIdentityUsable() {
+        new OrderDataSeeder(dataSource, properties).seed();
+
+        OrderDataSeeder.Result again = new OrderDataSeeder(dataSource, properties).seed();
+        Order order = new Order();
+        order.setOrderNumber("ORD-AFTER-SEED");
+        order.setCustomerName("Customer");
+        Order saved = orderRepository.save(order);
+
+        assertEquals(0, again.orders());
+        assertEquals(501, count("SELECT COUNT(*) FROM orders"));
+        assertTrue(saved.getId() > 500);
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.ordermanagement.controller;
+
+import com.example.ordermanagement.dto.SalesReportResponse;
+import com.example.ordermanagement.dto.SkuSalesResponse;
+import com.example.ordermanagement.entity.OrderStatus;
+import com.example.ordermanagement.exception.InvalidRequestException;
+import com.example.ordermanagement.service.AnalyticsService;
+import com.example.ordermanagement.service.CustomUserDetailsService;
+import com.example.ordermanagement.service.JwtService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AnalyticsController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class AnalyticsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private AnalyticsService analyticsService;
+
+    @MockitoBean
+    private JwtService jwtService;
+
+    @MockitoBean
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Test
+    @WithMockUser
+    void testGetSalesReport() throws Exception {
+        LocalDate from = LocalDate.of(2025, 6, 1);
+        LocalDate to = LocalDate.of(2025, 6, 30);
+        SalesReportResponse report = SalesReportResponse.builder()
+                .from(from)
+                .to(to)
+                .orderCount(3)
+                .revenue(new BigDecimal("52.50"))
+                .byDay(List.of(new SalesReportResponse.Bucket("2025-06-01", 3, new BigDecimal("52.50"))))
+                .build();
+
+        when(analyticsService.getSalesReport(eq(from), eq(to), eq(Set.of(OrderStatus.CONFIRMED)), isNull()))
+                .thenReturn(report);
+
+        mockMvc.perform(get("/api/analytics/sales")
+                .param("from", "2025-06-01")
+                .param("to", "2025-06-30")
+                .param("status", "CONFIRMED"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orderCount").value(3))
+                .andExpect(jsonPath("$.byDay[0].key").value("2025-06-01"))
+                .andExpect(jsonPath("$.byDay[0].revenue").value(52.5));
+    }
+
+    @Test
+    @WithMockUser
+    void testGetSkuSales() throws Exception {
+        when(analyticsService.getSkuSales(isNull(), isNull(), isNull(), eq(5))).thenReturn(SkuSalesResponse.builder()
+                .skus(List.of(new SkuSalesResponse.SkuSales("SKU-A", 5, new BigDecimal("35.00"))))
+                .build());
+
+        mockMvc.perform(get("/api/analytics/skus").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.skus[0].sku").value("SKU-A"))
+                .andExpect(jsonPath("$.skus[0].quantity").value(5));
+    }
+
+    @Test
+    @WithMockUser
+    void testGetSkuSalesWithInvalidLimit() throws Exception {
+        when(analyticsService.getSkuSales(any(), any(), any(), anyInt()))
+                .thenThrow(new InvalidRequestException("limit must be between 1 and 1000"));
+
+        mockMvc.perform(get("/api/analytics/skus").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.ordermanagement.controller;
 
+import com.example.ordermanagement.dto.ItemBatchRequest;
+import com.example.ordermanagement.dto.ItemBatchResponse;
 import com.example.ordermanagement.dto.ItemRequest;
 import com.example.ordermanagement.dto.ItemResponse;
 import com.example.ordermanagement.exception.ResourceNotFoundException;
@@ -17,6 +19,7 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -97,6 +100,50 @@ class ItemControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @WithMockUser
+    void testBatchItems() throws Exception {
+        ItemRequest item = ItemRequest.builder()
+                .sku("SKU-NEW")
+                .name("New Item")
+                .quantity(2)
+                .unitPrice(BigDecimal.valueOf(20.00))
+                .build();
+        ItemBatchResponse response = ItemBatchResponse.builder()
+                .orderId(1L)
+                .version(3L)
+                .totalAmount(BigDecimal.valueOf(40.00))
+                .created(List.of(ItemResponse.builder().id(11L).sku("SKU-NEW").build()))
+                .deleted(List.of(10L))
+                .build();
+
+        when(itemService.batch(eq(1L), any(ItemBatchRequest.class))).thenReturn(response);
+
+        mockMvc.perform(post("/api/items/order/1/batch")
+                .header("Authorization", "Bearer mock-jwt-token")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(ItemBatchRequest.builder()
+                        .create(List.of(item))
+                        .delete(List.of(10L))
+                        .build())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(3))
+                .andExpect(jsonPath("$.created[0].id").value(11))
+                .andExpect(jsonPath("$.deleted[0]").value(10));
+    }
+
+    @Test
+    @WithMockUser
+    void testBatchItemsValidationFailure() throws Exception {
+        mockMvc.perform(post("/api/items/order/1/batch")
+                .header("Authorization", "Bearer mock-jwt-token")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"update\":[{\"id\":10,\"item\":{\"sku\":\"SKU-UPD\",\"quantity\":0}}]}"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @WithMockUser
     void testUpdateItem() throws Exception {
@@ -1,10 +1,26 @@
 package com.example.ordermanagement.controller;
 
+import com.example.ordermanagement.changes.OrderChangeFeed;
+import com.example.ordermanagement.dto.BulkDeleteRequest;
+import com.example.ordermanagement.dto.BulkDeleteResponse;
+import com.example.ordermanagement.dto.BulkStatusUpdateRequest;
+import com.example.ordermanagement.dto.BulkStatusUpdateResponse;
 import com.example.ordermanagement.dto.ItemRequest;
+import com.example.ordermanagement.dto.OrderChangesResponse;
 import com.example.ordermanagement.dto.OrderRequest;
 import com.example.ordermanagement.dto.OrderResponse;
+import com.example.ordermanagement.dto.OrderStateResponse;
 import com.example.ordermanagement.dto.PagedResponse;
+import com.example.ordermanagement.dto.StatusUpdateRequest;
+import com.example.ordermanagement.entity.OrderStatus;
+import com.example.ordermanagement.events.OrderEvent;
+import com.example.ordermanagement.events.OrderEventFilter;
+import com.example.ordermanagement.events.OrderEventStream;
+import com.example.ordermanagement.exception.InvalidStatusTransitionException;
 import com.example.ordermanagement.exception.ResourceNotFoundException;
+import com.example.ordermanagement.exception.TooManySubscribersException;
+import com.example.ordermanagement.service.BulkDeleteService;
+import com.example.ordermanagement.service.BulkStatusService;
 import com.example.ordermanagement.service.CustomUserDetailsService;
 import com.example.ordermanagement.service.JwtService;
 import com.example.ordermanagement.service.OrderService;
@@ -13,15 +29,22 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
+import java.util.Set;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -44,6 +67,18 @@ class OrderControllerTest {
     @MockitoBean
     private OrderService orderService;
 
+    @MockitoBean
+    private BulkStatusService bulkStatusService;
+
+    @MockitoBean
+    private BulkDeleteService bulkDeleteService;
+
+    @MockitoBean
+    private OrderChangeFeed orderChangeFeed;
+
+    @MockitoBean
+    private OrderEventStream orderEventStream;
+
     @MockitoBean
     private JwtService jwtService;
 
@@ -162,6 +197,107 @@ class OrderControllerTest {
                 .andExpect(jsonPath("$.customerName").value("Updated Customer"));
     }
 
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void testUpdateOrderConflict() throws Exception {
+        ItemRequest item = ItemRequest.builder().sku("SKU-TEST").name("Updated Product").quantity(3)
+                .unitPrice(BigDecimal.valueOf(75.00)).build();
+        OrderRequest request = OrderRequest.builder().orderNumber("ORD-2025-0001").customerName("Updated Customer")
+                .items(Collections.singletonList(item)).build();
+
+        when(orderService.update(eq(1L), any(OrderRequest.class)))
+                .thenThrow(new OptimisticLockingFailureException("Row was updated by another transaction"));
+
+        mockMvc.perform(put("/api/orders/1")
+                .header("Authorization", "Bearer mock-jwt-token")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Conflict"));
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void testUpdateOrderStatus() throws Exception {
+        OrderStateResponse response = OrderStateResponse.builder().id(1L).version(4L).status(OrderStatus.SHIPPED)
+                .build();
+        when(orderService.updateStatus(1L, OrderStatus.SHIPPED, 3L)).thenReturn(response);
+
+        mockMvc.perform(patch("/api/orders/1/status")
+                .header("Authorization", "Bearer mock-jwt-token")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new StatusUpdateRequest(OrderStatus.SHIPPED, 3L))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("SHIPPED"))
+                .andExpect(jsonPath("$.version").value(4));
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void testUpdateOrderStatusTransitionNotAllowed() throws Exception {
+        when(orderService.updateStatus(1L, OrderStatus.PENDING, null))
+                .thenThrow(new InvalidStatusTransitionException("Order 1 cannot move from DELIVERED to PENDING"));
+
+        mockMvc.perform(patch("/api/orders/1/status")
+                .header("Authorization", "Bearer mock-jwt-token")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"PENDING\"}"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void testBulkUpdateStatus() throws Exception {
+        BulkStatusUpdateResponse response = BulkStatusUpdateResponse.builder()
+                .status(OrderStatus.CONFIRMED)
+                .updated(1)
+                .notFound(1)
+                .results(List.of(
+                        new BulkStatusUpdateResponse.Result(1L, BulkStatusUpdateResponse.Outcome.UPDATED,
+                                OrderStatus.PENDING),
+                        new BulkStatusUpdateResponse.Result(2L, BulkStatusUpdateResponse.Outcome.NOT_FOUND, null)))
+                .build();
+        when(bulkStatusService.updateStatus(any(BulkStatusUpdateRequest.class))).thenReturn(response);
+
+        mockMvc.perform(post("/api/orders/status:bulk")
+                .header("Authorization", "Bearer mock-jwt-token")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"CONFIRMED\",\"ids\":[1,2]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(1))
+                .andExpect(jsonPath("$.results[0].outcome").value("UPDATED"))
+                .andExpect(jsonPath("$.results[0].previousStatus").value("PENDING"))
+                .andExpect(jsonPath("$.results[1].outcome").value("NOT_FOUND"));
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void testBulkUpdateStatusValidationFailure() throws Exception {
+        mockMvc.perform(post("/api/orders/status:bulk")
+                .header("Authorization", "Bearer mock-jwt-token")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\":[1]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.validationErrors.status").exists());
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void testUpdateTrackingNumberValidationFailure() throws Exception {
+        mockMvc.perform(patch("/api/orders/1/tracking")
+                .header("Authorization", "Bearer mock-jwt-token")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"trackingNumber\":\"\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.validationErrors.trackingNumber").exists());
+    }
+
     @Test
     @WithMockUser(username = "user", roles = "USER")
     void testDeleteOrder() throws Exception {
@@ -172,4 +308,68 @@ class OrderControllerTest {
                 .with(csrf())) // Add CSRF token
                 .andExpect(status().isNoContent());
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void testBulkDeleteOrders() throws Exception {
+        when(bulkDeleteService.delete(any(BulkDeleteRequest.class)))
+                .thenReturn(BulkDeleteResponse.builder().deleted(42).deletedAt(LocalDateTime.now()).build());
+
+        mockMvc.perform(post("/api/orders/delete:bulk")
+                .header("Authorization", "Bearer mock-jwt-token")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"CANCELLED\",\"orderNumberPrefix\":\"LOAD-\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(42));
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void testGetOrderChanges() throws Exception {
+        DeferredResult<OrderChangesResponse> result = new DeferredResult<>();
+        result.setResult(OrderChangesResponse.builder()
+                .changes(List.of(OrderChangesResponse.Change.builder().seq(43).orderId(7L).deleted(true).build()))
+                .nextSince(43)
+                .build());
+        when(orderChangeFeed.changes(42, 100, Duration.ofSeconds(10))).thenReturn(result);
+
+        MvcResult mvcResult = mockMvc.perform(get("/api/orders/changes")
+                .param("since", "42")
+                .param("wait", "10")
+                .header("Authorization", "Bearer mock-jwt-token"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes[0].orderId").value(7))
+                .andExpect(jsonPath("$.changes[0].deleted").value(true))
+                .andExpect(jsonPath("$.nextSince").value(43));
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void testStreamOrderEvents() throws Exception {
+        OrderEventFilter filter = new OrderEventFilter(Set.of(7L, 8L), Set.of(OrderEvent.Type.STATUS_CHANGED), null);
+        when(orderEventStream.subscribe(filter, "41")).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/orders/events")
+                .param("orderId", "7", "8")
+                .param("type", "STATUS_CHANGED")
+                .header("Last-Event-ID", "41")
+                .header("Authorization", "Bearer mock-jwt-token"))
+                .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void testStreamOrderEventsWhenNodeIsFull() throws Exception {
+        when(orderEventStream.subscribe(OrderEventFilter.ALL, null))
+                .thenThrow(new TooManySubscribersException("This node already serves 2 event streams"));
+
+        mockMvc.perform(get("/api/orders/events")
+                .header("Authorization", "Bearer mock-jwt-token"))
+                .andExpect(status().isServiceUnavailable());
+    }
+}
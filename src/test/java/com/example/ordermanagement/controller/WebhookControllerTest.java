@@ -0,0 +1,107 @@
+package com.example.ordermanagement.controller;
+
+import com.example.ordermanagement.dto.WebhookSubscriptionRequest;
+import com.example.ordermanagement.dto.WebhookSubscriptionResponse;
+import com.example.ordermanagement.events.OrderEvent;
+import com.example.ordermanagement.exception.ResourceNotFoundException;
+import com.example.ordermanagement.service.CustomUserDetailsService;
+import com.example.ordermanagement.service.JwtService;
+import com.example.ordermanagement.service.WebhookSubscriptionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(WebhookController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class WebhookControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private WebhookSubscriptionService webhookSubscriptionService;
+
+    @MockitoBean
+    private JwtService jwtService;
+
+    @MockitoBean
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Test
+    @WithMockUser
+    void testCreateWebhook() throws Exception {
+        WebhookSubscriptionRequest request = new WebhookSubscriptionRequest("https://partner.example.com/hooks",
+                Set.of(OrderEvent.Type.STATUS_CHANGED));
+        WebhookSubscriptionResponse response = WebhookSubscriptionResponse.builder()
+                .id(3L)
+                .url("https://partner.example.com/hooks")
+                .eventTypes(Set.of(OrderEvent.Type.STATUS_CHANGED))
+                .createdAt(LocalDateTime.now())
+                .build();
+
+        when(webhookSubscriptionService.create(any(WebhookSubscriptionRequest.class))).thenReturn(response);
+
+        mockMvc.perform(post("/api/webhooks")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", "http://localhost/api/webhooks/3"))
+                .andExpect(jsonPath("$.eventTypes[0]").value("STATUS_CHANGED"))
+                .andExpect(jsonPath("$.circuitOpen").value(false));
+    }
+
+    @Test
+    @WithMockUser
+    void testCreateWebhookWithInvalidUrl() throws Exception {
+        WebhookSubscriptionRequest request = new WebhookSubscriptionRequest("ftp://partner.example.com", Set.of());
+
+        mockMvc.perform(post("/api/webhooks")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+
+        verify(webhookSubscriptionService, never()).create(any());
+    }
+
+    @Test
+    @WithMockUser
+    void testDeleteWebhook() throws Exception {
+        mockMvc.perform(delete("/api/webhooks/3").with(csrf()))
+                .andExpect(status().isNoContent());
+
+        verify(webhookSubscriptionService).delete(3L);
+    }
+
+    @Test
+    @WithMockUser
+    void testDeleteWebhookNotFound() throws Exception {
+        doThrow(new ResourceNotFoundException("Webhook subscription not found with id: 9"))
+                .when(webhookSubscriptionService).delete(9L);
+
+        mockMvc.perform(delete("/api/webhooks/9").with(csrf()))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.ordermanagement.deadlines;
+
+import com.example.ordermanagement.OrderRows;
+import com.example.ordermanagement.entity.OrderStatus;
+import com.example.ordermanagement.entity.PaymentStatus;
+import com.example.ordermanagement.events.OrderEvent;
+import com.example.ordermanagement.service.BulkStatusProperties;
+import com.example.ordermanagement.service.BulkStatusService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // the cancellations commit on their own
+class OrderDeadlineSchedulerTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 6, 30, 12, 0);
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private JdbcTemplate jdbcTemplate;
+    private OrderRows orderRows;
+    private SimpleMeterRegistry meterRegistry;
+    private OrderDeadlineScheduler scheduler;
+    private Instant now = NOW.toInstant(ZoneOffset.UTC);
+
+    private final Clock clock = new Clock() {
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        orderRows = new OrderRows(dataSource);
+        meterRegistry = new SimpleMeterRegistry();
+        BulkStatusService bulkStatusService = new BulkStatusService(dataSource, transactionManager,
+                entityManagerFactory, new ConcurrentMapCacheManager("order", "orders"), new BulkStatusProperties(),
+                event -> { });
+        DeadlineProperties properties = new DeadlineProperties();
+        properties.setUnpaidTimeout(Duration.ofHours(24));
+        properties.setConfirmedSla(Duration.ofHours(48));
+        scheduler = new OrderDeadlineScheduler(dataSource, bulkStatusService, properties, meterRegistry, clock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM orders");
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void testRebuiltDeadlinesCancelUnpaidOrdersAndRaiseAlerts() {
+        long overdue = orderRows.order("D-1", NOW.minusHours(25)).insert();
+        long recent = orderRows.order("D-2", NOW.minusHours(1)).insert();
+        long paid = orderRows.order("D-3", NOW.minusHours(25)).paymentStatus(PaymentStatus.PAID).insert();
+        orderRows.order("D-4", NOW.minusHours(49)).status(OrderStatus.CONFIRMED).paymentStatus(PaymentStatus.PAID)
+                .insert();
+        orderRows.order("D-5", NOW.minusHours(49)).status(OrderStatus.SHIPPED).paymentStatus(PaymentStatus.PAID)
+                .insert();
+
+        assertEquals(3, scheduler.rebuild());
+
+        assertEquals(2, scheduler.fire());
+        assertEquals("CANCELLED", orderRows.statusOf(overdue));
+        assertEquals("PENDING", orderRows.statusOf(recent));
+        assertEquals("PENDING", orderRows.statusOf(paid));
+        assertEquals(1, meterRegistry.get("app.deadlines.cancelled").counter().count());
+        assertEquals(1, meterRegistry.get("app.deadlines.sla-breaches").counter().count());
+
+        now = now.plus(Duration.ofHours(23));
+        assertEquals(1, scheduler.fire());
+        assertEquals("CANCELLED", orderRows.statusOf(recent));
+        assertEquals(0, scheduler.scheduled());
+    }
+
+    @Test
+    void testEventsStartAndStopDeadlines() {
+        long paidLater = orderRows.order("D-6", NOW).insert();
+        long paidElsewhere = orderRows.order("D-7", NOW).insert();
+
+        scheduler.onOrderEvent(event(paidLater, OrderStatus.PENDING, PaymentStatus.UNPAID));
+        scheduler.onOrderEvent(event(paidElsewhere, OrderStatus.PENDING, PaymentStatus.UNPAID));
+        assertEquals(2, scheduler.scheduled());
+        scheduler.onOrderEvent(event(paidLater, OrderStatus.PENDING, PaymentStatus.PAID));
+        assertEquals(1, scheduler.scheduled());
+
+        // Paid without an event reaching this scheduler, as on another node
+        jdbcTemplate.update("UPDATE orders SET payment_status = 'PAID' WHERE id = ?", paidElsewhere);
+        now = now.plus(Duration.ofHours(24));
+
+        assertEquals(1, scheduler.fire());
+        assertEquals("PENDING", orderRows.statusOf(paidElsewhere));
+        assertEquals(0, meterRegistry.get("app.deadlines.cancelled").counter().count());
+    }
+
+    @Test
+    void testOrderConfirmedWithoutAnEventIsNotCancelled() {
+        long confirmedElsewhere = orderRows.order("D-8", NOW.minusHours(25)).insert();
+        scheduler.rebuild();
+
+        // Confirmed but still unpaid, as on another node; the transition rules alone would allow the cancellation
+        jdbcTemplate.update("UPDATE orders SET status = 'CONFIRMED' WHERE id = ?", confirmedElsewhere);
+
+        assertEquals(1, scheduler.fire());
+        assertEquals("CONFIRMED", orderRows.statusOf(confirmedElsewhere));
+        assertEquals(0, meterRegistry.get("app.deadlines.cancelled").counter().count());
+    }
+
+    private OrderEvent event(long orderId, OrderStatus status, PaymentStatus paymentStatus) {
+        return new OrderEvent(OrderEvent.Type.UPDATED, orderId, "ORD-" + orderId, status, paymentStatus,
+                BigDecimal.TEN, 0L, LocalDateTime.now(clock));
+    }
+}
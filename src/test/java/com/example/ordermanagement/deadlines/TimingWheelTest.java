@@ -0,0 +1,79 @@
+package com.example.ordermanagement.deadlines;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    private static final long START = 1_750_000_000_000L;
+
+    @Test
+    void testKeysAreDueAtTheirTickNeverEarly() {
+        TimingWheel<String> wheel = new TimingWheel<>(100, 8, START);
+        wheel.schedule("a", START + 250);
+        wheel.schedule("b", START + 300);
+        wheel.schedule("passed", START - 1_000);
+
+        assertEquals(List.of("passed"), wheel.advance(START));
+        assertEquals(List.of(), wheel.advance(START + 299));
+        assertEquals(Set.of("a", "b"), Set.copyOf(wheel.advance(START + 300)));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testFarDeadlinesMoveDownThroughTheLevels() {
+        TimingWheel<String> wheel = new TimingWheel<>(100, 4, START);
+        // Beyond the range of three levels of four slots (6.4 seconds)
+        wheel.schedule("far", START + 20_050);
+        wheel.schedule("near", START + 500);
+
+        assertEquals(List.of("near"), wheel.advance(START + 19_000));
+        assertEquals(List.of(), wheel.advance(START + 20_000));
+        assertEquals(List.of("far"), wheel.advance(START + 20_100));
+    }
+
+    @Test
+    void testScheduleReplacesAndCancelRemoves() {
+        TimingWheel<String> wheel = new TimingWheel<>(100, 8, START);
+        wheel.schedule("a", START + 500);
+        wheel.schedule("a", START + 5_000);
+        assertFalse(wheel.scheduleIfAbsent("a", START + 100));
+        wheel.schedule("b", START + 500);
+        assertTrue(wheel.cancel("b"));
+        assertFalse(wheel.cancel("b"));
+
+        assertEquals(List.of(), wheel.advance(START + 4_900));
+        assertEquals(List.of("a"), wheel.advance(START + 5_000));
+    }
+
+    @Test
+    void testRandomDeadlinesAreAllDueOnTime() {
+        Random random = new Random(42);
+        TimingWheel<Integer> wheel = new TimingWheel<>(10, 16, START);
+        List<Long> deadlines = new ArrayList<>();
+        for (int key = 0; key < 2_000; key++) {
+            long deadline = START + random.nextLong(1_000_000);
+            deadlines.add(deadline);
+            wheel.schedule(key, deadline);
+        }
+
+        Set<Integer> fired = new HashSet<>();
+        for (long now = START; now <= START + 1_000_000; now += 1 + random.nextInt(5_000)) {
+            for (Integer key : wheel.advance(now)) {
+                long deadline = deadlines.get(key);
+                assertTrue(deadline <= now, "fired early");
+                assertTrue(now - deadline < 5_010, "fired late");
+                assertTrue(fired.add(key));
+            }
+        }
+        fired.addAll(wheel.advance(START + 1_000_010));
+        assertEquals(2_000, fired.size());
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.ordermanagement.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderStatusTest {
+
+    @Test
+    void testForwardTransitionsAreAllowed() {
+        assertTrue(OrderStatus.PENDING.canTransitionTo(OrderStatus.CONFIRMED));
+        assertTrue(OrderStatus.CONFIRMED.canTransitionTo(OrderStatus.SHIPPED));
+        assertTrue(OrderStatus.SHIPPED.canTransitionTo(OrderStatus.DELIVERED));
+        assertTrue(OrderStatus.CONFIRMED.canTransitionTo(OrderStatus.CANCELLED));
+    }
+
+    @Test
+    void testBackwardAndFinalTransitionsAreRejected() {
+        assertFalse(OrderStatus.CONFIRMED.canTransitionTo(OrderStatus.PENDING));
+        assertFalse(OrderStatus.PENDING.canTransitionTo(OrderStatus.SHIPPED));
+        assertFalse(OrderStatus.SHIPPED.canTransitionTo(OrderStatus.CANCELLED));
+        for (OrderStatus target : OrderStatus.values()) {
+            assertFalse(OrderStatus.DELIVERED.canTransitionTo(target));
+            assertFalse(OrderStatus.CANCELLED.canTransitionTo(target));
+        }
+    }
+
+    @Test
+    void testSourcesMatchTransitions() {
+        assertEquals(EnumSet.of(OrderStatus.PENDING, OrderStatus.CONFIRMED), OrderStatus.CANCELLED.sources());
+        assertTrue(OrderStatus.PENDING.sources().isEmpty());
+    }
+}
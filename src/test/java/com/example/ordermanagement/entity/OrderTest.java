@@ -0,0 +1,62 @@
+package com.example.ordermanagement.entity;
+
+import org.hibernate.engine.spi.ManagedEntity;
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderTest {
+
+    @Test
+    void testHashCodeIsStableWhenIdIsAssigned() {
+        Order order = Order.builder().orderNumber("ORD-1").customerName("Customer").build();
+        Set<Order> orders = new HashSet<>();
+        orders.add(order);
+
+        order.setId(1L);
+
+        assertTrue(orders.contains(order));
+    }
+
+    @Test
+    void testEqualityIsByIdOnly() {
+        Order first = Order.builder().id(1L).orderNumber("ORD-1").build();
+        Order sameId = Order.builder().id(1L).orderNumber("ORD-2").build();
+        Order transientOrder = Order.builder().orderNumber("ORD-1").build();
+
+        assertEquals(first, sameId);
+        assertNotEquals(transientOrder, Order.builder().orderNumber("ORD-1").build());
+        assertEquals(transientOrder, transientOrder);
+    }
+
+    @Test
+    void testToStringDoesNotWalkAssociations() {
+        Order order = Order.builder().id(1L).orderNumber("ORD-1").build();
+        order.addItem(Item.builder().id(2L).sku("SKU-1").quantity(1).unitPrice(BigDecimal.ONE).build());
+
+        assertEquals("Order(id=1, orderNumber=ORD-1, status=PENDING)", order.toString());
+        assertEquals("Item(id=2, sku=SKU-1, quantity=1)", order.getItems().get(0).toString());
+    }
+
+    @Test
+    void testEntitiesAreBytecodeEnhanced() {
+        assertTrue(ManagedEntity.class.isAssignableFrom(Order.class));
+        assertTrue(SelfDirtinessTracker.class.isAssignableFrom(Item.class));
+    }
+
+    @Test
+    void testSettingItemOrderAddsItToTheCollection() {
+        Order order = Order.builder().orderNumber("ORD-1").build();
+        Item item = Item.builder().sku("SKU-1").quantity(1).unitPrice(BigDecimal.ONE).build();
+
+        item.setOrder(order);
+
+        assertEquals(1, order.getItems().size());
+        assertSame(item, order.getItems().get(0));
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.ordermanagement.events;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BroadcastRingTest {
+
+    @Test
+    void testCapacityIsRoundedUpToAPowerOfTwo() {
+        assertEquals(8, new BroadcastRing<String>(5).capacity());
+        assertEquals(8, new BroadcastRing<String>(8).capacity());
+        assertEquals(1, new BroadcastRing<String>(1).capacity());
+        assertThrows(IllegalArgumentException.class, () -> new BroadcastRing<String>(0));
+    }
+
+    @Test
+    void testValuesAreReadBySequence() {
+        BroadcastRing<String> ring = new BroadcastRing<>(4);
+        assertNull(ring.get(0));
+
+        assertEquals(0, ring.publish("a"));
+        assertEquals(1, ring.publish("b"));
+
+        assertEquals("a", ring.get(0));
+        assertEquals("b", ring.get(1));
+        assertNull(ring.get(2));
+        assertEquals(2, ring.next());
+        assertEquals(0, ring.oldest());
+    }
+
+    @Test
+    void testOverwrittenValueIsReportedAsOverrun() {
+        BroadcastRing<Integer> ring = new BroadcastRing<>(4);
+        IntStream.range(0, 6).forEach(ring::publish);
+
+        BroadcastRing.OverrunException ex = assertThrows(BroadcastRing.OverrunException.class, () -> ring.get(1));
+        assertEquals(1, ex.getSequence());
+        assertEquals(2, ring.oldest());
+        assertEquals(2, ring.get(2));
+        assertEquals(5, ring.get(5));
+    }
+
+    @Test
+    void testSignalIsCompletedByTheNextPublish() {
+        BroadcastRing<String> ring = new BroadcastRing<>(4);
+        CompletableFuture<Void> signal = ring.signal();
+        assertFalse(signal.isDone());
+
+        ring.publish("a");
+
+        assertTrue(signal.isDone());
+        assertFalse(ring.signal().isDone());
+    }
+
+    @Test
+    void testConcurrentPublishersEachGetTheirOwnSlot() throws Exception {
+        BroadcastRing<Integer> ring = new BroadcastRing<>(4096);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<CompletableFuture<Void>> publishers = new ArrayList<>();
+            for (int p = 0; p < 4; p++) {
+                int offset = p * 1000;
+                publishers.add(CompletableFuture.runAsync(
+                        () -> IntStream.range(offset, offset + 1000).forEach(ring::publish), executor));
+            }
+            CompletableFuture.allOf(publishers.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdown();
+        }
+
+        Set<Integer> values = new HashSet<>();
+        for (long sequence = 0; sequence < ring.next(); sequence++) {
+            values.add(ring.get(sequence));
+        }
+        assertEquals(4000, ring.next());
+        assertEquals(4000, values.size());
+    }
+}
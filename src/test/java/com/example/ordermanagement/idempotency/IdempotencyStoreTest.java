@@ -0,0 +1,163 @@
+package com.example.ordermanagement.idempotency;
+
+import com.example.ordermanagement.idempotency.IdempotencyStore.Claim;
+import com.example.ordermanagement.idempotency.IdempotencyStore.Outcome;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // the store uses its own connections
+class IdempotencyStoreTest {
+
+    private static final StoredResponse CREATED = new StoredResponse(201, "application/json", null,
+            "{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final MutableClock clock = new MutableClock();
+    private IdempotencyProperties properties;
+    private IdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        properties = new IdempotencyProperties();
+        properties.setStripes(4);
+        properties.setWaitTimeout(Duration.ofSeconds(5));
+        store = new IdempotencyStore(dataSource, properties, clock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        new JdbcTemplate(dataSource).update("DELETE FROM idempotency_keys");
+    }
+
+    @Test
+    void testCompletedKeyIsReplayed() throws InterruptedException {
+        Claim first = store.acquire("key", "body");
+        assertEquals(Outcome.ACQUIRED, first.outcome());
+        store.complete(first, CREATED);
+
+        Claim retry = store.acquire("key", "body");
+
+        assertEquals(Outcome.REPLAY, retry.outcome());
+        assertSame(CREATED, retry.response());
+    }
+
+    @Test
+    void testDuplicateWaitsForTheFirstAttempt() throws Exception {
+        Claim first = store.acquire("key", "body");
+        CompletableFuture<Claim> duplicate = CompletableFuture.supplyAsync(() -> {
+            try {
+                return store.acquire("key", "body");
+            } catch (InterruptedException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        Thread.sleep(100);
+        assertFalse(duplicate.isDone());
+
+        store.complete(first, CREATED);
+
+        Claim replayed = duplicate.get(5, TimeUnit.SECONDS);
+        assertEquals(Outcome.REPLAY, replayed.outcome());
+        assertSame(CREATED, replayed.response());
+    }
+
+    @Test
+    void testKeyReusedWithAnotherBodyIsRejected() throws InterruptedException {
+        store.complete(store.acquire("key", "body"), CREATED);
+
+        assertEquals(Outcome.MISMATCH, store.acquire("key", "other body").outcome());
+        assertEquals(Outcome.MISMATCH,
+                new IdempotencyStore(dataSource, properties, clock).acquire("key", "other body").outcome());
+    }
+
+    @Test
+    void testReleasedKeyCanBeRetried() throws InterruptedException {
+        store.release(store.acquire("key", "body"));
+
+        assertEquals(Outcome.ACQUIRED, store.acquire("key", "body").outcome());
+    }
+
+    @Test
+    void testOtherInstanceReplaysFromTheDatabase() throws InterruptedException {
+        store.complete(store.acquire("key", "body"), CREATED);
+        IdempotencyStore replica = new IdempotencyStore(dataSource, properties, clock);
+
+        Claim retry = replica.acquire("key", "body");
+
+        assertEquals(Outcome.REPLAY, retry.outcome());
+        assertEquals(201, retry.response().status());
+        assertArrayEquals(CREATED.body(), retry.response().body());
+    }
+
+    @Test
+    void testOtherInstanceReportsKeyInFlightAfterWaiting() throws InterruptedException {
+        store.acquire("key", "body");
+        properties.setWaitTimeout(Duration.ZERO);
+        IdempotencyStore replica = new IdempotencyStore(dataSource, properties, clock);
+
+        assertEquals(Outcome.BUSY, replica.acquire("key", "body").outcome());
+    }
+
+    @Test
+    void testExpiredKeyIsForgotten() throws InterruptedException {
+        store.complete(store.acquire("key", "body"), CREATED);
+        clock.advance(properties.getTtl());
+
+        store.purgeExpired();
+
+        assertEquals(0, new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM idempotency_keys",
+                Integer.class));
+        assertEquals(Outcome.ACQUIRED, store.acquire("key", "other body").outcome());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private final AtomicLong millis = new AtomicLong(Instant.parse("2025-07-01T00:00:00Z").toEpochMilli());
+
+        void advance(Duration duration) {
+            millis.addAndGet(duration.toMillis());
+        }
+
+        @Override
+        public long millis() {
+            return millis.get();
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis());
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
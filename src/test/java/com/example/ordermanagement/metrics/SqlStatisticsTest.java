@@ -0,0 +1,62 @@
+package com.example.ordermanagement.metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlStatisticsTest {
+
+    private static final String SELECT_ITEMS = "select * from items where order_id=?";
+
+    @AfterEach
+    void tearDown() {
+        SqlStatistics.end();
+    }
+
+    @Test
+    void testCountsStatementsRowsAndTime() {
+        SqlStatistics statistics = SqlStatistics.begin(10, false);
+
+        statistics.statementExecuted(SELECT_ITEMS, 1_000);
+        statistics.statementExecuted("select * from orders", 2_000);
+        statistics.rowFetched();
+        statistics.rowFetched();
+        statistics.connectionAcquired(500);
+
+        assertSame(statistics, SqlStatistics.current());
+        assertEquals(2, statistics.getStatementCount());
+        assertEquals(2, statistics.getRowsFetched());
+        assertEquals(3_000, statistics.getExecutionNanos());
+        assertEquals(1, statistics.getConnectionCount());
+        assertEquals(500, statistics.getConnectionAcquireNanos());
+        assertEquals(0, statistics.getRepeatedStatementCount());
+    }
+
+    @Test
+    void testReportsRepeatedShapeOnceWhenThresholdCrossed() {
+        SqlStatistics statistics = SqlStatistics.begin(3, false);
+
+        for (int i = 0; i < 8; i++) {
+            statistics.statementExecuted(SELECT_ITEMS, 1);
+        }
+
+        assertEquals(8, statistics.getExecutions(SELECT_ITEMS));
+        assertEquals(1, statistics.getRepeatedStatementCount());
+    }
+
+    @Test
+    void testFailModeThrowsOnRepeatedShape() {
+        SqlStatistics statistics = SqlStatistics.begin(2, true);
+
+        statistics.statementExecuted(SELECT_ITEMS, 1);
+        statistics.statementExecuted(SELECT_ITEMS, 1);
+
+        assertThrows(RepeatedStatementException.class, () -> statistics.statementExecuted(SELECT_ITEMS, 1));
+    }
+
+    @Test
+    void testNothingBoundOutsideRequest() {
+        assertNull(SqlStatistics.current());
+    }
+}
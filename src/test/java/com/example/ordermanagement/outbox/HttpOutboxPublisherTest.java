@@ -0,0 +1,68 @@
+package com.example.ordermanagement.outbox;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpOutboxPublisherTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final AtomicReference<byte[]> received = new AtomicReference<>();
+    private final AtomicInteger status = new AtomicInteger(204);
+    private HttpServer server;
+    private HttpOutboxPublisher publisher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/order-events", exchange -> {
+            received.set(exchange.getRequestBody().readAllBytes());
+            exchange.sendResponseHeaders(status.get(), -1);
+            exchange.close();
+        });
+        server.start();
+        publisher = new HttpOutboxPublisher(URI.create("http://localhost:" + server.getAddress().getPort()
+                + "/order-events"), Duration.ofSeconds(5), objectMapper);
+    }
+
+    @AfterEach
+    void tearDown() {
+        publisher.close();
+        server.stop(0);
+    }
+
+    @Test
+    void testBatchIsPostedAsJsonArrayWithTheEventsEmbedded() throws IOException {
+        publisher.publish(List.of(
+                new OutboxMessage(7, 1L, "CREATED", "{\"orderNumber\":\"ORD-1\"}", LocalDateTime.now(), 1),
+                new OutboxMessage(8, 1L, "DELETED", "{\"orderNumber\":\"ORD-1\"}", LocalDateTime.now(), 2)));
+
+        JsonNode body = objectMapper.readTree(received.get());
+        assertEquals(2, body.size());
+        assertEquals(7, body.get(0).get("id").asLong());
+        assertEquals("ORD-1", body.get(0).get("event").get("orderNumber").asText());
+        assertEquals(2, body.get(1).get("attempt").asInt());
+    }
+
+    @Test
+    void testErrorResponseFailsTheBatch() {
+        status.set(503);
+
+        assertThrows(IllegalStateException.class, () -> publisher.publish(List.of(
+                new OutboxMessage(7, 1L, "CREATED", "{}", LocalDateTime.now(), 1))));
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.ordermanagement.outbox;
+
+import com.example.ordermanagement.entity.OrderStatus;
+import com.example.ordermanagement.entity.PaymentStatus;
+import com.example.ordermanagement.events.OrderEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // the writer and the relay work with committed rows
+class OutboxRelayTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 6, 30, 12, 0);
+    private static final ZoneId ZONE = ZoneId.of("UTC");
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private OutboxWriter writer;
+    private OutboxProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        meterRegistry = new SimpleMeterRegistry();
+        writer = new OutboxWriter(dataSource, new ObjectMapper().findAndRegisterModules(), meterRegistry);
+        properties = new OutboxProperties();
+        properties.setBatchSize(10);
+        properties.setLanes(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM order_outbox");
+    }
+
+    @Test
+    void testEventsAreWrittenOnlyWhenTheTransactionCommits() {
+        transactionTemplate.executeWithoutResult(status -> {
+            writer.onOrderEvent(event(1L, OrderEvent.Type.CREATED));
+            writer.onOrderEvent(event(1L, OrderEvent.Type.STATUS_CHANGED));
+            // Nothing is written before the commit
+            assertEquals(0, count());
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            writer.onOrderEvent(event(2L, OrderEvent.Type.CREATED));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(List.of("CREATED", "STATUS_CHANGED"), jdbcTemplate.queryForList(
+                "SELECT event_type FROM order_outbox ORDER BY id", String.class));
+        assertTrue(jdbcTemplate.queryForObject("SELECT payload FROM order_outbox FETCH FIRST 1 ROWS ONLY",
+                String.class).contains("\"orderNumber\":\"ORD-1\""));
+    }
+
+    @Test
+    void testMessagesAreRelayedAndMarkedPublished() {
+        write(event(1L, OrderEvent.Type.CREATED), event(2L, OrderEvent.Type.CREATED),
+                event(1L, OrderEvent.Type.STATUS_CHANGED));
+        InMemoryOutboxPublisher publisher = new InMemoryOutboxPublisher(100);
+
+        assertEquals(3, relay(publisher, NOW).relay());
+
+        List<OutboxMessage> messages = publisher.messages();
+        assertEquals(3, messages.size());
+        assertEquals(List.of("CREATED", "STATUS_CHANGED"), messages.stream()
+                .filter(message -> message.orderId() == 1L).map(OutboxMessage::type).toList());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_outbox WHERE published_at IS NULL",
+                Integer.class));
+        assertEquals(3, meterRegistry.get("app.outbox.published").counter().count());
+        assertEquals(0, relay(publisher, NOW).relay());
+    }
+
+    @Test
+    void testFailedOrderIsRetriedAfterTheLeaseWithoutBeingOvertaken() {
+        write(event(1L, OrderEvent.Type.CREATED), event(2L, OrderEvent.Type.CREATED));
+        List<OutboxMessage> delivered = new ArrayList<>();
+        OutboxPublisher rejectingOrder1 = messages -> {
+            if (messages.stream().anyMatch(message -> message.orderId() == 1L)) {
+                throw new IllegalStateException("Receiver down");
+            }
+            delivered.addAll(messages);
+        };
+
+        assertEquals(1, relay(rejectingOrder1, NOW).relay());
+        assertEquals(List.of(2L), delivered.stream().map(OutboxMessage::orderId).toList());
+
+        // The next event of order 1 must wait for the failed one, even once it could be claimed
+        write(event(1L, OrderEvent.Type.STATUS_CHANGED));
+        InMemoryOutboxPublisher publisher = new InMemoryOutboxPublisher(100);
+        assertEquals(0, relay(publisher, NOW.plusSeconds(1)).relay());
+
+        assertEquals(2, relay(publisher, NOW.plus(properties.getLease()).plusSeconds(1)).relay());
+        List<OutboxMessage> retried = publisher.messages();
+        assertEquals(List.of("CREATED", "STATUS_CHANGED"), retried.stream().map(OutboxMessage::type).toList());
+        assertEquals(2, retried.get(0).attempt());
+        assertEquals(1, retried.get(1).attempt());
+    }
+
+    @Test
+    void testPublishedMessagesAreRemovedAfterTheRetention() {
+        write(event(1L, OrderEvent.Type.CREATED));
+        relay(new InMemoryOutboxPublisher(100), NOW).relay();
+
+        assertEquals(0, relay(new InMemoryOutboxPublisher(100), NOW.plusMinutes(59)).removePublished());
+        assertEquals(1, relay(new InMemoryOutboxPublisher(100), NOW.plusMinutes(61)).removePublished());
+        assertEquals(0, count());
+    }
+
+    private OutboxRelay relay(OutboxPublisher publisher, LocalDateTime now) {
+        return new OutboxRelay(dataSource, transactionManager, publisher, properties, meterRegistry,
+                Clock.fixed(now.atZone(ZONE).toInstant(), ZONE));
+    }
+
+    private void write(OrderEvent... events) {
+        for (OrderEvent event : events) {
+            writer.onOrderEvent(event);
+        }
+    }
+
+    private int count() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_outbox", Integer.class);
+    }
+
+    private static OrderEvent event(Long orderId, OrderEvent.Type type) {
+        return new OrderEvent(type, orderId, "ORD-" + orderId, OrderStatus.PENDING, PaymentStatus.UNPAID,
+                BigDecimal.TEN, 0L, NOW);
+    }
+}
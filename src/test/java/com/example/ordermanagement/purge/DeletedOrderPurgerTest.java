@@ -0,0 +1,135 @@
+package com.example.ordermanagement.purge;
+
+import com.example.ordermanagement.OrderRows;
+import com.example.ordermanagement.cache.SecondLevelCacheConfig;
+import com.example.ordermanagement.cache.SecondLevelCacheProperties;
+import com.example.ordermanagement.entity.Order;
+import com.example.ordermanagement.entity.OrderStatus;
+import com.example.ordermanagement.repository.OrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.cache.CacheManager;
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(SecondLevelCacheConfig.class)
+@EnableConfigurationProperties(SecondLevelCacheProperties.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // the purger commits chunk by chunk
+class DeletedOrderPurgerTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 6, 30, 12, 0);
+    private static final ZoneId ZONE = ZoneId.of("UTC");
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CacheManager hibernateCacheManager;
+
+    private JdbcTemplate jdbcTemplate;
+    private OrderRows orderRows;
+    private SimpleMeterRegistry meterRegistry;
+    private DeletedOrderPurger purger;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        orderRows = new OrderRows(dataSource);
+        meterRegistry = new SimpleMeterRegistry();
+        PurgeProperties properties = new PurgeProperties();
+        properties.setRetention(Duration.ofHours(1));
+        properties.setChunkSize(2);
+        purger = new DeletedOrderPurger(dataSource, transactionManager, entityManagerFactory, properties,
+                meterRegistry, Clock.fixed(NOW.atZone(ZONE).toInstant(), ZONE));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM items");
+        jdbcTemplate.update("DELETE FROM orders");
+        jdbcTemplate.update("UPDATE order_change_horizon SET purged_through = 0");
+        hibernateCacheManager.getCacheNames().forEach(name -> hibernateCacheManager.getCache(name).clear());
+    }
+
+    @Test
+    void testOrdersDeletedBeforeTheRetentionPeriodArePurgedWithTheirItems() {
+        long live = insert("P-1", null);
+        long recent = insert("P-2", NOW.minusMinutes(10));
+        insert("P-3", NOW.minusHours(2));
+        insert("P-4", NOW.minusHours(3));
+        insert("P-5", NOW.minusDays(1));
+        long highestPurgedChange = jdbcTemplate.queryForObject("SELECT MAX(change_seq) FROM orders "
+                + "WHERE order_number IN ('P-3', 'P-4', 'P-5')", Long.class);
+
+        assertEquals(3, purger.purge());
+
+        assertEquals(List.of(live, recent), jdbcTemplate.queryForList("SELECT id FROM orders ORDER BY id",
+                Long.class));
+        assertEquals(List.of(live, recent), jdbcTemplate.queryForList(
+                "SELECT DISTINCT order_id FROM items ORDER BY order_id", Long.class));
+        assertEquals(3, meterRegistry.get("app.purge.orders").counter().count());
+        assertEquals(6, meterRegistry.get("app.purge.items").counter().count());
+        assertEquals(highestPurgedChange, jdbcTemplate.queryForObject(
+                "SELECT purged_through FROM order_change_horizon", Long.class));
+    }
+
+    @Test
+    void testNothingToPurge() {
+        insert("P-1", null);
+
+        assertEquals(0, purger.purge());
+    }
+
+    @Test
+    void testPurgedOrderNumberCanBeUsedAgain() {
+        long id = insert("P-1", null);
+        assertTrue(orderRepository.existsByOrderNumber("P-1"));
+        // Deleted behind Hibernate's back, so the cached lookup still reports the number as taken
+        jdbcTemplate.update("UPDATE orders SET deleted_at = ? WHERE id = ?", NOW.minusHours(2), id);
+
+        assertEquals(1, purger.purge());
+
+        assertFalse(orderRepository.existsByOrderNumber("P-1"));
+        orderRepository.save(Order.builder().orderNumber("P-1").customerName("Returning Customer").build());
+        assertTrue(orderRepository.existsByOrderNumber("P-1"));
+    }
+
+    private long insert(String orderNumber, LocalDateTime deletedAt) {
+        long id = orderRows.order(orderNumber, NOW.minusDays(2))
+                .status(OrderStatus.CANCELLED)
+                .deletedAt(deletedAt)
+                .insert();
+        for (int i = 0; i < 2; i++) {
+            orderRows.item(id, orderNumber + "-" + i, 1, "1.00");
+        }
+        return id;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.ordermanagement.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlockSequenceAllocatorTest {
+
+    @Test
+    void testValuesAreUniqueAcrossThreadsAndAllocators() throws Exception {
+        // Two allocators on one sequence stand in for two replicas sharing the database
+        AtomicLong sequence = new AtomicLong(1);
+        AtomicInteger reservations = new AtomicInteger();
+        LongSupplier blockSource = () -> {
+            reservations.incrementAndGet();
+            return sequence.getAndAdd(100);
+        };
+        List<BlockSequenceAllocator> allocators = List.of(new BlockSequenceAllocator(blockSource, 100, 8, 4),
+                new BlockSequenceAllocator(blockSource, 100, 8, 4));
+        Set<Long> values = ConcurrentHashMap.newKeySet();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                BlockSequenceAllocator allocator = allocators.get(t % 2);
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 5_000; i++) {
+                        assertTrue(values.add(allocator.next()));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(40_000, values.size());
+        // One round trip per block, not per value; skipped chunks only add a few blocks
+        assertTrue(reservations.get() < 40_000 / 100 * 2, "reservations: " + reservations.get());
+    }
+
+    @Test
+    void testValuesIncreaseWithinThread() {
+        AtomicLong sequence = new AtomicLong(1);
+        BlockSequenceAllocator allocator = new BlockSequenceAllocator(() -> sequence.getAndAdd(10), 10, 5, 1);
+
+        long previous = 0;
+        for (int i = 0; i < 100; i++) {
+            long value = allocator.next();
+            assertTrue(value > previous);
+            previous = value;
+        }
+    }
+
+    @Test
+    void testFailedReservationIsRetried() {
+        AtomicInteger calls = new AtomicInteger();
+        BlockSequenceAllocator allocator = new BlockSequenceAllocator(() -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new IllegalStateException("database unavailable");
+            }
+            return 1;
+        }, 10, 5, 1);
+
+        assertThrows(IllegalStateException.class, allocator::next);
+        assertEquals(1, allocator.next());
+    }
+}
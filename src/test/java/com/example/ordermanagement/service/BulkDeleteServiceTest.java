@@ -0,0 +1,116 @@
+package com.example.ordermanagement.service;
+
+import com.example.ordermanagement.cache.SecondLevelCacheConfig;
+import com.example.ordermanagement.cache.SecondLevelCacheProperties;
+import com.example.ordermanagement.dto.BulkDeleteRequest;
+import com.example.ordermanagement.dto.BulkDeleteResponse;
+import com.example.ordermanagement.entity.OrderStatus;
+import com.example.ordermanagement.events.OrderEvent;
+import com.example.ordermanagement.exception.InvalidRequestException;
+import com.example.ordermanagement.repository.OrderRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.cache.CacheManager;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(SecondLevelCacheConfig.class)
+@EnableConfigurationProperties(SecondLevelCacheProperties.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // the service commits chunk by chunk
+class BulkDeleteServiceTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CacheManager hibernateCacheManager;
+
+    private JdbcTemplate jdbcTemplate;
+    private BulkDeleteService service;
+    private final List<Object> events = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        BulkDeleteProperties properties = new BulkDeleteProperties();
+        properties.setChunkSize(2);
+        service = new BulkDeleteService(dataSource, transactionManager, entityManagerFactory,
+                new ConcurrentMapCacheManager("order", "orders"), properties, events::add);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM orders");
+        hibernateCacheManager.getCacheNames().forEach(name -> hibernateCacheManager.getCache(name).clear());
+    }
+
+    @Test
+    void testMatchingOrdersAreMarkedAsDeleted() {
+        for (int i = 0; i < 5; i++) {
+            insert("LOAD_" + i, OrderStatus.CANCELLED);
+        }
+        insert("LOAD_5", OrderStatus.DELIVERED);
+        insert("LOADX6", OrderStatus.CANCELLED);
+        insert("REAL-1", OrderStatus.CANCELLED);
+
+        BulkDeleteResponse response = service.delete(BulkDeleteRequest.builder()
+                .status(OrderStatus.CANCELLED)
+                .orderNumberPrefix("LOAD_")
+                .build());
+
+        assertEquals(5, response.getDeleted());
+        // The underscore of the prefix is matched literally
+        assertEquals(List.of("LOADX6", "LOAD_5", "REAL-1"), jdbcTemplate.queryForList(
+                "SELECT order_number FROM orders WHERE deleted_at IS NULL ORDER BY order_number", String.class));
+        assertEquals(3, orderRepository.count());
+        assertEquals(5, events.size());
+        assertTrue(events.stream().allMatch(event -> ((OrderEvent) event).type() == OrderEvent.Type.DELETED));
+    }
+
+    @Test
+    void testCriteriaAreRequired() {
+        assertThrows(InvalidRequestException.class, () -> service.delete(new BulkDeleteRequest()));
+    }
+
+    @Test
+    void testDeletedOrdersAreTakenOutOfTheCachedLookups() {
+        insert("LOAD_1", OrderStatus.CANCELLED);
+        assertTrue(orderRepository.findByOrderNumber("LOAD_1").isPresent());
+
+        service.delete(BulkDeleteRequest.builder()
+                .orderNumberPrefix("LOAD_")
+                .build());
+
+        assertTrue(orderRepository.findByOrderNumber("LOAD_1").isEmpty());
+    }
+
+    private void insert(String orderNumber, OrderStatus status) {
+        jdbcTemplate.update("INSERT INTO orders (order_number, customer_name, created_at, status, payment_status) "
+                + "VALUES (?, 'Bulk', CURRENT_TIMESTAMP, ?, 'UNPAID')", orderNumber, status.name());
+    }
+}
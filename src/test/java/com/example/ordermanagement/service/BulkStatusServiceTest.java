@@ -0,0 +1,200 @@
+package com.example.ordermanagement.service;
+
+import com.example.ordermanagement.OrderRows;
+import com.example.ordermanagement.cache.SecondLevelCacheConfig;
+import com.example.ordermanagement.cache.SecondLevelCacheProperties;
+import com.example.ordermanagement.dto.BulkStatusUpdateRequest;
+import com.example.ordermanagement.dto.BulkStatusUpdateResponse;
+import com.example.ordermanagement.dto.BulkStatusUpdateResponse.Outcome;
+import com.example.ordermanagement.dto.BulkStatusUpdateResponse.Result;
+import com.example.ordermanagement.entity.OrderStatus;
+import com.example.ordermanagement.exception.InvalidRequestException;
+import com.example.ordermanagement.repository.OrderRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(SecondLevelCacheConfig.class)
+@EnableConfigurationProperties(SecondLevelCacheProperties.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // the service commits chunk by chunk
+class BulkStatusServiceTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2025, 6, 1, 0, 0);
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private JdbcTemplate jdbcTemplate;
+    private OrderRows orderRows;
+    private ConcurrentMapCacheManager cacheManager;
+    private BulkStatusProperties properties;
+    private BulkStatusService service;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        orderRows = new OrderRows(dataSource);
+        cacheManager = new ConcurrentMapCacheManager("order", "orders");
+        properties = new BulkStatusProperties();
+        properties.setChunkSize(2);
+        service = new BulkStatusService(dataSource, transactionManager, entityManagerFactory, cacheManager,
+                properties, event -> { });
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM orders");
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void testIdsAreUpdatedWhereTheTransitionIsAllowed() {
+        long pending = orderRows.order("B-1", DAY).insert();
+        long confirmed = orderRows.order("B-2", DAY).status(OrderStatus.CONFIRMED).insert();
+        long delivered = orderRows.order("B-3", DAY).status(OrderStatus.DELIVERED).insert();
+        long otherPending = orderRows.order("B-4", DAY).insert();
+        long missing = otherPending + 100;
+
+        BulkStatusUpdateResponse response = service.updateStatus(BulkStatusUpdateRequest.builder()
+                .status(OrderStatus.CONFIRMED)
+                .ids(List.of(pending, confirmed, delivered, missing, otherPending, pending))
+                .build());
+
+        assertEquals(List.of(
+                new Result(pending, Outcome.UPDATED, OrderStatus.PENDING),
+                new Result(confirmed, Outcome.UNCHANGED, OrderStatus.CONFIRMED),
+                new Result(delivered, Outcome.REJECTED, OrderStatus.DELIVERED),
+                new Result(missing, Outcome.NOT_FOUND, null),
+                new Result(otherPending, Outcome.UPDATED, OrderStatus.PENDING)), response.getResults());
+        assertEquals(2, response.getUpdated());
+        assertEquals(1, response.getUnchanged());
+        assertEquals(1, response.getRejected());
+        assertEquals(1, response.getNotFound());
+        assertEquals("CONFIRMED", orderRows.statusOf(pending));
+        assertEquals(1L, versionOf(pending));
+        assertEquals("DELIVERED", orderRows.statusOf(delivered));
+        assertEquals(0L, versionOf(delivered));
+    }
+
+    @Test
+    void testFilterSelectsByStatusAndCreationTime() {
+        long early = orderRows.order("F-1", DAY.minusDays(1)).insert();
+        long first = orderRows.order("F-2", DAY).insert();
+        long confirmed = orderRows.order("F-3", DAY.plusHours(1)).status(OrderStatus.CONFIRMED).insert();
+        long second = orderRows.order("F-4", DAY.plusHours(2)).insert();
+        long third = orderRows.order("F-5", DAY.plusHours(3)).insert();
+        long late = orderRows.order("F-6", DAY.plusDays(1)).insert();
+
+        BulkStatusUpdateResponse response = service.updateStatus(BulkStatusUpdateRequest.builder()
+                .status(OrderStatus.CANCELLED)
+                .filter(new BulkStatusUpdateRequest.Filter(OrderStatus.PENDING, DAY, DAY.plusDays(1)))
+                .build());
+
+        assertEquals(List.of(first, second, third), response.getResults().stream().map(Result::id).toList());
+        assertEquals(3, response.getUpdated());
+        assertEquals("PENDING", orderRows.statusOf(early));
+        assertEquals("CONFIRMED", orderRows.statusOf(confirmed));
+        assertEquals("PENDING", orderRows.statusOf(late));
+        assertEquals("CANCELLED", orderRows.statusOf(third));
+    }
+
+    @Test
+    void testUpdatedOrdersAreEvictedFromTheCaches() {
+        long id = orderRows.order("C-1", DAY).insert();
+        long untouched = orderRows.order("C-2", DAY).status(OrderStatus.DELIVERED).insert();
+        assertEquals(OrderStatus.PENDING, orderRepository.findById(id).orElseThrow().getStatus());
+        cacheManager.getCache("order").put(id, "stale");
+        cacheManager.getCache("order").put(untouched, "current");
+        cacheManager.getCache("orders").put("0-20-UNSORTED", "stale");
+
+        service.updateStatus(BulkStatusUpdateRequest.builder()
+                .status(OrderStatus.CONFIRMED)
+                .ids(List.of(id, untouched))
+                .build());
+
+        assertEquals(OrderStatus.CONFIRMED, orderRepository.findById(id).orElseThrow().getStatus());
+        assertNull(cacheManager.getCache("order").get(id));
+        assertNotNull(cacheManager.getCache("order").get(untouched));
+        assertNull(cacheManager.getCache("orders").get("0-20-UNSORTED"));
+    }
+
+    @Test
+    void testExactlyOneOfIdsAndFilterIsRequired() {
+        assertThrows(InvalidRequestException.class, () -> service.updateStatus(BulkStatusUpdateRequest.builder()
+                .status(OrderStatus.CONFIRMED)
+                .build()));
+        assertThrows(InvalidRequestException.class, () -> service.updateStatus(BulkStatusUpdateRequest.builder()
+                .status(OrderStatus.CONFIRMED)
+                .ids(List.of(1L))
+                .filter(new BulkStatusUpdateRequest.Filter())
+                .build()));
+    }
+
+    @Test
+    void testFilterWithoutCriteriaIsRejected() {
+        long id = orderRows.order("E-1", DAY).insert();
+
+        assertThrows(InvalidRequestException.class, () -> service.updateStatus(BulkStatusUpdateRequest.builder()
+                .status(OrderStatus.CANCELLED)
+                .filter(new BulkStatusUpdateRequest.Filter())
+                .build()));
+
+        assertEquals("PENDING", orderRows.statusOf(id));
+    }
+
+    @Test
+    void testFilterMatchingTooManyOrdersIsRejectedBeforeAnythingChanges() {
+        properties.setMaxFilterMatches(2);
+        long first = orderRows.order("M-1", DAY).insert();
+        long second = orderRows.order("M-2", DAY).insert();
+        long third = orderRows.order("M-3", DAY).insert();
+        BulkStatusUpdateRequest.Filter filter = BulkStatusUpdateRequest.Filter.builder()
+                .currentStatus(OrderStatus.PENDING)
+                .build();
+
+        assertThrows(InvalidRequestException.class, () -> service.updateStatus(BulkStatusUpdateRequest.builder()
+                .status(OrderStatus.CONFIRMED)
+                .filter(filter)
+                .build()));
+        assertEquals("PENDING", orderRows.statusOf(first));
+        assertEquals("PENDING", orderRows.statusOf(second));
+        assertEquals("PENDING", orderRows.statusOf(third));
+
+        jdbcTemplate.update("UPDATE orders SET status = 'CANCELLED' WHERE id = ?", third);
+        BulkStatusUpdateResponse response = service.updateStatus(BulkStatusUpdateRequest.builder()
+                .status(OrderStatus.CONFIRMED)
+                .filter(filter)
+                .build());
+        assertEquals(2, response.getResults().size());
+    }
+
+    private long versionOf(long id) {
+        return jdbcTemplate.queryForObject("SELECT version FROM orders WHERE id = ?", Long.class, id);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.ordermanagement.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // the generator uses its own connections
+class OrderNumberGeneratorTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2025-06-30T23:59:59Z"), ZoneOffset.UTC);
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+    private OrderNumberProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        properties = new OrderNumberProperties();
+        properties.setServerGenerated(true);
+        properties.setBlockSize(50);
+        properties.setChunkSize(5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM orders");
+        jdbcTemplate.execute("DROP SEQUENCE IF EXISTS " + OrderNumberGenerator.SEQUENCE);
+    }
+
+    @Test
+    void testNumbersCarryDateAndSequence() {
+        OrderNumberGenerator generator = new OrderNumberGenerator(properties, dataSource, new SimpleMeterRegistry(),
+                CLOCK);
+
+        assertEquals("ORD-20250630-000000000001", generator.next());
+        assertEquals("ORD-20250630-000000000002", generator.next());
+    }
+
+    @Test
+    void testExistingSequenceIncrementIsKept() {
+        new OrderNumberGenerator(properties, dataSource, new SimpleMeterRegistry(), CLOCK).next();
+        properties.setBlockSize(500);
+
+        OrderNumberGenerator generator = new OrderNumberGenerator(properties, dataSource, new SimpleMeterRegistry(),
+                CLOCK);
+
+        // The first replica holds 1..50, so the second one starts at the next block of 50
+        assertEquals("ORD-20250630-000000000051", generator.next());
+    }
+
+    @Test
+    void testSequenceSkipsPastRestoredNumbers() {
+        OrderNumberGenerator generator = new OrderNumberGenerator(properties, dataSource, new SimpleMeterRegistry(),
+                CLOCK);
+        jdbcTemplate.update("INSERT INTO orders (order_number, customer_name, created_at, status, payment_status) "
+                + "VALUES ('ORD-20250629-000000004711', 'Restored', CURRENT_TIMESTAMP, 'PENDING', 'UNPAID')");
+
+        generator.skipExistingNumbers();
+
+        assertEquals("ORD-20250630-000000004712", generator.next());
+    }
+
+    @Test
+    void testDisabledGeneratorDoesNotTouchDatabase() {
+        properties.setServerGenerated(false);
+
+        OrderNumberGenerator generator = new OrderNumberGenerator(properties, dataSource, new SimpleMeterRegistry(),
+                CLOCK);
+
+        assertFalse(generator.isEnabled());
+        assertThrows(IllegalStateException.class, generator::next);
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.SEQUENCES "
+                + "WHERE LOWER(SEQUENCE_NAME) = ?", Integer.class, OrderNumberGenerator.SEQUENCE));
+    }
+}
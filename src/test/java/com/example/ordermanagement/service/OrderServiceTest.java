@@ -3,24 +3,37 @@ package com.example.ordermanagement.service;
 import com.example.ordermanagement.dto.ItemRequest;
 import com.example.ordermanagement.dto.OrderRequest;
 import com.example.ordermanagement.dto.OrderResponse;
+import com.example.ordermanagement.dto.OrderStateResponse;
 import com.example.ordermanagement.dto.PagedResponse;
 import com.example.ordermanagement.entity.Order;
+import com.example.ordermanagement.entity.OrderStatus;
+import com.example.ordermanagement.entity.PaymentStatus;
+import com.example.ordermanagement.events.OrderEvent;
 import com.example.ordermanagement.exception.DuplicateOrderNumberException;
+import com.example.ordermanagement.exception.InvalidRequestException;
+import com.example.ordermanagement.exception.InvalidStatusTransitionException;
+import com.example.ordermanagement.exception.OrderVersionMismatchException;
 import com.example.ordermanagement.exception.ResourceNotFoundException;
 import com.example.ordermanagement.mapper.OrderMapper;
 import com.example.ordermanagement.repository.OrderRepository;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.Optional;
 
@@ -37,6 +50,15 @@ class OrderServiceTest {
     @Mock
     private OrderMapper orderMapper;
 
+    @Mock
+    private OrderNumberFilter orderNumberFilter;
+
+    @Mock
+    private OrderNumberGenerator orderNumberGenerator;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private OrderService orderService;
 
@@ -46,6 +68,9 @@ class OrderServiceTest {
 
     @BeforeEach
     void setUp() {
+        // The soft-delete check is part of the repository contract, so the stubs below go through it
+        lenient().when(orderRepository.findActiveById(any())).thenCallRealMethod();
+
         order = Order.builder()
                 .id(1L)
                 .orderNumber("ORD-2025-0001")
@@ -108,6 +133,7 @@ class OrderServiceTest {
 
     @Test
     void testCreateSuccess() {
+        when(orderNumberFilter.mightContain(anyString())).thenReturn(true);
         when(orderRepository.existsByOrderNumber(anyString())).thenReturn(false);
         
         when(orderRepository.save(any(Order.class))).thenReturn(order);
@@ -117,15 +143,74 @@ class OrderServiceTest {
 
         assertNotNull(result);
         verify(orderRepository, times(1)).save(any(Order.class));
+        ArgumentCaptor<Object> event = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(OrderEvent.Type.CREATED, ((OrderEvent) event.getValue()).type());
     }
 
     @Test
     void testCreateDuplicateOrderNumber() {
+        when(orderNumberFilter.mightContain(anyString())).thenReturn(true);
         when(orderRepository.existsByOrderNumber(anyString())).thenReturn(true);
 
         assertThrows(DuplicateOrderNumberException.class, () -> orderService.create(orderRequest));
     }
 
+    @Test
+    void testCreateSkipsLookupForOrderNumberRuledOutByFilter() {
+        when(orderNumberFilter.mightContain("ORD-2025-0001")).thenReturn(false);
+        when(orderRepository.save(any(Order.class))).thenReturn(order);
+        when(orderMapper.toResponse(any(Order.class))).thenReturn(orderResponse);
+
+        orderService.create(orderRequest);
+
+        verify(orderRepository, never()).existsByOrderNumber(anyString());
+        verify(orderNumberFilter).add("ORD-2025-0001");
+    }
+
+    @Test
+    void testCreateMapsOrderNumberConstraintViolation() {
+        when(orderNumberFilter.mightContain(anyString())).thenReturn(false);
+        when(orderRepository.save(any(Order.class))).thenThrow(new DataIntegrityViolationException("duplicate",
+                new ConstraintViolationException("duplicate", new SQLException(),
+                        "PUBLIC.UK_ORDERS_ORDER_NUMBER_INDEX_8")));
+
+        assertThrows(DuplicateOrderNumberException.class, () -> orderService.create(orderRequest));
+        verify(orderNumberFilter, never()).add(anyString());
+    }
+
+    @Test
+    void testCreatePassesOnOtherConstraintViolations() {
+        when(orderNumberFilter.mightContain(anyString())).thenReturn(false);
+        when(orderRepository.save(any(Order.class))).thenThrow(new DataIntegrityViolationException("not null",
+                new ConstraintViolationException("not null", new SQLException(), null)));
+
+        assertThrows(DataIntegrityViolationException.class, () -> orderService.create(orderRequest));
+    }
+
+    @Test
+    void testCreateGeneratesMissingOrderNumber() {
+        orderRequest.setOrderNumber(null);
+        when(orderNumberGenerator.isEnabled()).thenReturn(true);
+        when(orderNumberGenerator.next()).thenReturn("ORD-20250630-000000000001");
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderMapper.toResponse(any(Order.class))).thenReturn(orderResponse);
+
+        orderService.create(orderRequest);
+
+        verify(orderRepository).save(argThat(saved -> saved.getOrderNumber().equals("ORD-20250630-000000000001")));
+        verify(orderRepository, never()).existsByOrderNumber(anyString());
+    }
+
+    @Test
+    void testCreateRequiresOrderNumberWhenNotGenerated() {
+        orderRequest.setOrderNumber(" ");
+        when(orderNumberGenerator.isEnabled()).thenReturn(false);
+
+        assertThrows(InvalidRequestException.class, () -> orderService.create(orderRequest));
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
     @Test
     void testUpdateSuccess() {
         when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
@@ -137,6 +222,9 @@ class OrderServiceTest {
 
         assertNotNull(result);
         verify(orderRepository, times(1)).save(any(Order.class));
+        ArgumentCaptor<Object> event = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(OrderEvent.Type.UPDATED, ((OrderEvent) event.getValue()).type());
     }
 
     @Test
@@ -146,19 +234,66 @@ class OrderServiceTest {
         assertThrows(ResourceNotFoundException.class, () -> orderService.update(1L, orderRequest));
     }
 
+    @Test
+    void testUpdateStatusAppliesAllowedTransition() {
+        order.setVersion(3L);
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(orderMapper.toStateResponse(order)).thenReturn(new OrderStateResponse());
+
+        orderService.updateStatus(1L, OrderStatus.CONFIRMED, 3L);
+
+        assertEquals(OrderStatus.CONFIRMED, order.getStatus());
+        verify(orderRepository).flush();
+    }
+
+    @Test
+    void testUpdateStatusRejectsTransitionNotAllowed() {
+        order.setStatus(OrderStatus.DELIVERED);
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+
+        assertThrows(InvalidStatusTransitionException.class,
+                () -> orderService.updateStatus(1L, OrderStatus.PENDING, null));
+        assertEquals(OrderStatus.DELIVERED, order.getStatus());
+    }
+
+    @Test
+    void testUpdatePaymentStatusRejectsStaleVersion() {
+        order.setVersion(4L);
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+
+        assertThrows(OrderVersionMismatchException.class,
+                () -> orderService.updatePaymentStatus(1L, PaymentStatus.PAID, 3L));
+        assertEquals(PaymentStatus.UNPAID, order.getPaymentStatus());
+        verify(orderRepository, never()).flush();
+    }
+
     @Test
     void testDeleteSuccess() {
-        when(orderRepository.existsById(1L)).thenReturn(true);
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
 
         orderService.delete(1L);
 
-        verify(orderRepository, times(1)).deleteById(1L);
+        assertNotNull(order.getDeletedAt());
+        verify(orderRepository, never()).deleteById(any());
+        ArgumentCaptor<Object> event = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(OrderEvent.Type.DELETED, ((OrderEvent) event.getValue()).type());
     }
 
     @Test
     void testDeleteNotFound() {
-        when(orderRepository.existsById(1L)).thenReturn(false);
+        when(orderRepository.findById(1L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> orderService.delete(1L));
     }
+
+    @Test
+    void testDeletedOrderIsNotFound() {
+        // As served from the second-level cache, where the entity's restriction does not apply
+        order.setDeletedAt(LocalDateTime.now());
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+
+        assertThrows(ResourceNotFoundException.class, () -> orderService.findById(1L));
+        assertThrows(ResourceNotFoundException.class, () -> orderService.delete(1L));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.example.ordermanagement.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScalableBloomFilterTest {
+
+    @Test
+    void testAddedValuesAreAlwaysReported() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+
+        for (int i = 0; i < 20_000; i++) {
+            filter.put("ORD-" + i);
+        }
+
+        for (int i = 0; i < 20_000; i++) {
+            assertTrue(filter.mightContain("ORD-" + i), "ORD-" + i);
+        }
+    }
+
+    @Test
+    void testFalsePositiveRateStaysBoundedWhileGrowing() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+        for (int i = 0; i < 50_000; i++) {
+            filter.put("ORD-" + i);
+        }
+
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("NEW-" + i)) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(filter.stageCount() > 1);
+        assertTrue(falsePositives < probes * 0.02, "false positives: " + falsePositives);
+        assertTrue(filter.expectedFalsePositiveProbability() < 0.02);
+    }
+
+    @Test
+    void testDuplicatesAreCountedOnce() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(100, 0.01);
+
+        filter.put("ORD-1");
+        filter.put("ORD-1");
+
+        assertEquals(1, filter.size());
+        assertFalse(filter.mightContain("ORD-2"));
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.ordermanagement.service;
+
+import com.example.ordermanagement.dto.WebhookSubscriptionRequest;
+import com.example.ordermanagement.dto.WebhookSubscriptionResponse;
+import com.example.ordermanagement.entity.WebhookSubscription;
+import com.example.ordermanagement.exception.InvalidRequestException;
+import com.example.ordermanagement.repository.WebhookSubscriptionRepository;
+import com.example.ordermanagement.webhooks.WebhookDispatcher;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WebhookSubscriptionServiceTest {
+
+    @Mock
+    private WebhookSubscriptionRepository repository;
+
+    @Mock
+    private WebhookDispatcher dispatcher;
+
+    @InjectMocks
+    private WebhookSubscriptionService service;
+
+    @Test
+    void testCreateRegistersTheSavedSubscription() {
+        when(repository.save(any(WebhookSubscription.class))).thenAnswer(invocation -> {
+            WebhookSubscription subscription = invocation.getArgument(0);
+            subscription.setId(4L);
+            return subscription;
+        });
+
+        WebhookSubscriptionResponse response = service.create(
+                new WebhookSubscriptionRequest("https://partner.example.com/hooks", Set.of()));
+
+        assertEquals(4L, response.getId());
+        verify(dispatcher).register(any(WebhookSubscription.class));
+    }
+
+    @Test
+    void testCreateRejectsUrlsThatCannotBeDeliveredTo() {
+        // An unparseable URL, a host name that is not one, another scheme and no scheme at all
+        for (String url : List.of("http://a|b", "http://partner_hooks.example.com/x", "ftp://partner.example.com/x",
+                "partner.example.com/x")) {
+            assertThrows(InvalidRequestException.class,
+                    () -> service.create(new WebhookSubscriptionRequest(url, Set.of())), url);
+        }
+
+        verify(repository, never()).save(any());
+        verifyNoInteractions(dispatcher);
+    }
+}
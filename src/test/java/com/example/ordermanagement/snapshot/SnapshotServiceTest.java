@@ -0,0 +1,154 @@
+package com.example.ordermanagement.snapshot;
+
+import com.example.ordermanagement.config.OrderDataSeeder;
+import com.example.ordermanagement.config.SeedProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // snapshot and restore use their own connections
+class SnapshotServiceTest {
+
+    private static final Map<String, String> TABLE_ORDERING = Map.of(
+            "users", "id",
+            "user_roles", "user_id, role",
+            "refresh_token", "id",
+            "orders", "id",
+            "items", "id",
+            "order_change_horizon", "id",
+            "order_outbox", "id",
+            "webhook_subscriptions", "id",
+            "webhook_subscription_event_types", "subscription_id, event_type");
+
+    @Autowired
+    private DataSource dataSource;
+
+    @TempDir
+    private Path directory;
+
+    private JdbcTemplate jdbcTemplate;
+    private SnapshotService snapshotService;
+    private SnapshotProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        properties = new SnapshotProperties();
+        properties.setFile(directory.resolve("snapshot.bin"));
+        properties.setBatchSize(100);
+        properties.setRestoreThreads(3);
+        snapshotService = new SnapshotService(dataSource, properties, new SimpleMeterRegistry());
+
+        jdbcTemplate.update("INSERT INTO users (id, username, password, email, active) VALUES (7, 'alice', 'x', "
+                + "'alice@example.com', TRUE)");
+        jdbcTemplate.update("INSERT INTO user_roles (user_id, role) VALUES (7, 'ADMIN')");
+        jdbcTemplate.update("INSERT INTO refresh_token (id, token, expiry_date, user_id) VALUES (3, 'token', ?, 7)",
+                Instant.parse("2030-01-01T10:15:30.123456Z"));
+
+        SeedProperties seed = new SeedProperties();
+        seed.setOrders(400);
+        seed.setBatchSize(50);
+        seed.setThreads(2);
+        seed.setSkus(100);
+        seed.setReferenceDate(LocalDate.of(2025, 6, 30));
+        new OrderDataSeeder(dataSource, seed).seed();
+        jdbcTemplate.update("UPDATE order_change_horizon SET purged_through = 42");
+        jdbcTemplate.update("INSERT INTO order_outbox (order_id, event_type, payload, created_at) "
+                + "VALUES (1, 'CREATED', '{}', CURRENT_TIMESTAMP)");
+        jdbcTemplate.update("INSERT INTO webhook_subscriptions (id, url, created_at) "
+                + "VALUES (5, 'http://partner.example.com/hook', CURRENT_TIMESTAMP)");
+        jdbcTemplate.update("INSERT INTO webhook_subscription_event_types (subscription_id, event_type) "
+                + "VALUES (5, 'CREATED')");
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (String table : List.of("webhook_subscription_event_types", "webhook_subscriptions", "order_outbox",
+                "items", "orders", "refresh_token", "user_roles", "users")) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+        jdbcTemplate.update("UPDATE order_change_horizon SET purged_through = 0");
+    }
+
+    @Test
+    void testRestoreReproducesAllTables() throws IOException {
+        Map<String, List<Map<String, Object>>> before = dump();
+
+        SnapshotService.Result written = snapshotService.write();
+        tearDown();
+        SnapshotService.Result restored = snapshotService.restore();
+
+        assertEquals(written.rows(), restored.rows());
+        assertEquals(before, dump());
+        assertTrue(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM items", Long.class) > 400);
+    }
+
+    @Test
+    void testRestoredIdentityContinuesAfterMaximum() throws IOException {
+        snapshotService.write();
+        tearDown();
+        snapshotService.restore();
+
+        jdbcTemplate.update("INSERT INTO orders (order_number, customer_name, created_at, status, payment_status) "
+                + "VALUES ('NEW', 'New Customer', CURRENT_TIMESTAMP, 'PENDING', 'UNPAID')");
+
+        Long id = jdbcTemplate.queryForObject("SELECT id FROM orders WHERE order_number = 'NEW'", Long.class);
+        assertEquals(401L, id);
+        Long changeSeq = jdbcTemplate.queryForObject("SELECT change_seq FROM orders WHERE id = ?", Long.class, id);
+        Long restoredMax = jdbcTemplate.queryForObject("SELECT MAX(change_seq) FROM orders WHERE id < ?", Long.class,
+                id);
+        assertTrue(changeSeq > restoredMax);
+    }
+
+    @Test
+    void testCorruptSnapshotIsRejectedBeforeLoading() throws IOException {
+        snapshotService.write();
+        tearDown();
+        try (RandomAccessFile file = new RandomAccessFile(properties.getFile().toFile(), "rw")) {
+            file.seek(file.length() / 2);
+            int value = file.read();
+            file.seek(file.length() / 2);
+            file.write(value ^ 0xFF);
+        }
+
+        assertThrows(IOException.class, () -> snapshotService.restore());
+        assertEquals(0L, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders", Long.class));
+    }
+
+    @Test
+    void testDoesNotRestoreIntoPopulatedDatabase() throws IOException {
+        snapshotService.write();
+
+        SnapshotService.Result result = snapshotService.restore();
+
+        assertEquals(0, result.rows());
+        assertEquals(400L, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders", Long.class));
+    }
+
+    private Map<String, List<Map<String, Object>>> dump() {
+        Map<String, List<Map<String, Object>>> tables = new HashMap<>();
+        TABLE_ORDERING.forEach((table, ordering) -> tables.put(table,
+                jdbcTemplate.queryForList("SELECT * FROM " + table + " ORDER BY " + ordering)));
+        return tables;
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.ordermanagement.tracing;
+
+import brave.Span;
+import brave.Tracer;
+import brave.Tracing;
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TailSamplingSpanHandlerTest {
+
+    private final List<MutableSpan> exported = new ArrayList<>();
+    private long nanoTime;
+    private SimpleMeterRegistry meterRegistry;
+    private TailSamplingProperties properties;
+    private TailSamplingSpanHandler handler;
+    private Tracing tracing;
+    private Tracer tracer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new TailSamplingProperties();
+        properties.setLatencyThreshold(Duration.ofMillis(100));
+        properties.setSampleRate(0.0);
+        properties.setMaxSpansPerTrace(4);
+
+        SpanHandler collector = new SpanHandler() {
+            @Override
+            public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+                exported.add(span);
+                return true;
+            }
+        };
+        handler = new TailSamplingSpanHandler(List.of(collector), properties, meterRegistry, () -> 0.5,
+                () -> nanoTime);
+        tracing = Tracing.newBuilder().addSpanHandler(handler).build();
+        tracer = tracing.tracer();
+    }
+
+    @AfterEach
+    void tearDown() {
+        tracing.close();
+    }
+
+    @Test
+    void testFastSuccessfulTraceIsDropped() {
+        runTrace(10_000, false);
+
+        assertTrue(exported.isEmpty());
+        assertEquals(0, handler.bufferedTraces());
+        assertEquals(1.0, counter("dropped", "fast"));
+    }
+
+    @Test
+    void testSlowTraceIsKeptWithChildren() {
+        runTrace(200_000, false);
+
+        assertEquals(2, exported.size());
+        assertEquals("child", exported.get(0).name());
+        assertEquals("root", exported.get(1).name());
+        assertEquals(1.0, counter("kept", "slow"));
+    }
+
+    @Test
+    void testErrorInChildKeepsTrace() {
+        runTrace(10_000, true);
+
+        assertEquals(2, exported.size());
+        assertEquals(1.0, counter("kept", "error"));
+    }
+
+    @Test
+    void testSampleRateKeepsFastTraces() {
+        properties.setSampleRate(1.0);
+
+        runTrace(10_000, false);
+
+        assertEquals(2, exported.size());
+        assertEquals(1.0, counter("kept", "sampled"));
+    }
+
+    @Test
+    void testRingBufferKeepsNewestSpans() {
+        Span root = tracer.newTrace().name("root").start(1_000);
+        for (int i = 0; i < 6; i++) {
+            tracer.newChild(root.context()).name("child-" + i).start(1_000).finish(2_000);
+        }
+        root.finish(500_000);
+
+        assertEquals(5, exported.size());
+        assertEquals("child-2", exported.get(0).name());
+        assertEquals("root", exported.get(4).name());
+    }
+
+    @Test
+    void testChildFinishingAfterItsRootFollowsTheDecision() {
+        Span root = tracer.newTrace().name("root").start(1_000);
+        Span late = tracer.newChild(root.context()).name("late").start(1_010);
+        root.finish(500_000);
+        late.finish(600_000);
+
+        Span fastRoot = tracer.newTrace().name("fast").start(1_000);
+        Span fastLate = tracer.newChild(fastRoot.context()).name("fast-late").start(1_010);
+        fastRoot.finish(2_000);
+        fastLate.finish(3_000);
+
+        assertEquals(List.of("root", "late"), exported.stream().map(MutableSpan::name).toList());
+        assertEquals(0, handler.bufferedTraces());
+    }
+
+    @Test
+    void testTracesWhoseRootNeverFinishesAreEvicted() {
+        properties.setMaxTraces(2);
+        Span first = tracer.newTrace().name("first").start(1_000);
+        tracer.newChild(first.context()).name("child").start(1_010).finish(1_020);
+        Span failed = tracer.newTrace().name("failed").start(1_000);
+        tracer.newChild(failed.context()).name("broken").start(1_010).error(new IllegalStateException("boom"))
+                .finish(1_020);
+        assertEquals(2, handler.bufferedTraces());
+
+        nanoTime += properties.getTraceTimeout().toNanos() + 1;
+        handler.evictStale();
+
+        assertEquals(0, handler.bufferedTraces());
+        assertEquals(List.of("broken"), exported.stream().map(MutableSpan::name).toList());
+        assertEquals(1.0, counter("dropped", "expired"));
+        // There is room for new traces again
+        runTrace(200_000, false);
+        assertEquals(3, exported.size());
+        assertEquals(0.0, counter("dropped", "overflow"));
+    }
+
+    private void runTrace(long rootDurationMicros, boolean childError) {
+        long start = 1_000;
+        Span root = tracer.newTrace().name("root").start(start);
+        Span child = tracer.newChild(root.context()).name("child").start(start + 10);
+        if (childError) {
+            child.error(new IllegalStateException("boom"));
+        }
+        child.finish(start + 20);
+        root.finish(start + rootDurationMicros);
+    }
+
+    private double counter(String decision, String reason) {
+        return meterRegistry.get("app.tracing.tail.traces").tag("decision", decision).tag("reason", reason)
+                .counter().count();
+    }
+}
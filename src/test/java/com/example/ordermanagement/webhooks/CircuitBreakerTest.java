@@ -0,0 +1,67 @@
+package com.example.ordermanagement.webhooks;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private Instant now = Instant.parse("2025-06-30T12:00:00Z");
+
+    private final Clock clock = new Clock() {
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    };
+
+    @Test
+    void testOpensAfterConsecutiveFailuresOnly() {
+        CircuitBreaker circuit = new CircuitBreaker(3, Duration.ofSeconds(30), clock);
+
+        circuit.onFailure();
+        circuit.onFailure();
+        circuit.onSuccess();
+        circuit.onFailure();
+        circuit.onFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, circuit.state());
+        assertEquals(Duration.ZERO, circuit.waitTime());
+
+        circuit.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, circuit.state());
+        assertEquals(Duration.ofSeconds(30), circuit.waitTime());
+    }
+
+    @Test
+    void testTrialRequestClosesOrReopensTheCircuit() {
+        CircuitBreaker circuit = new CircuitBreaker(1, Duration.ofSeconds(30), clock);
+        circuit.onFailure();
+
+        now = now.plusSeconds(30);
+        assertEquals(Duration.ZERO, circuit.waitTime());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuit.state());
+        circuit.onFailure();
+        assertEquals(Duration.ofSeconds(30), circuit.waitTime());
+
+        now = now.plusSeconds(30);
+        assertEquals(Duration.ZERO, circuit.waitTime());
+        circuit.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, circuit.state());
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.ordermanagement.webhooks;
+
+import com.example.ordermanagement.entity.OrderStatus;
+import com.example.ordermanagement.entity.PaymentStatus;
+import com.example.ordermanagement.entity.WebhookSubscription;
+import com.example.ordermanagement.events.OrderEvent;
+import com.example.ordermanagement.repository.WebhookSubscriptionRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the deliveries against a stub HTTP server whose answers each test controls.
+ */
+class WebhookDispatcherTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Queue<Request> requests = new ConcurrentLinkedQueue<>();
+    private volatile IntSupplier status = () -> 204;
+    private volatile CountDownLatch release = new CountDownLatch(0);
+    private HttpServer server;
+    private WebhookProperties properties;
+    private WebhookDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(command -> Thread.ofVirtual().start(command));
+        server.createContext("/hook", exchange -> {
+            requests.add(new Request(objectMapper.readTree(exchange.getRequestBody()),
+                    Integer.parseInt(exchange.getRequestHeaders().getFirst("X-Webhook-Attempt"))));
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(status.getAsInt(), -1);
+            exchange.close();
+        });
+        server.start();
+        properties = new WebhookProperties();
+        properties.setLinger(Duration.ofMillis(300));
+        properties.setInitialBackoff(Duration.ofMillis(10));
+        dispatcher = new WebhookDispatcher(mock(WebhookSubscriptionRepository.class), properties, objectMapper,
+                meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        dispatcher.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    void testEventsAreBatchedAndFilteredByType() throws InterruptedException {
+        dispatcher.register(subscription(1L, Set.of(OrderEvent.Type.CREATED, OrderEvent.Type.DELETED)));
+
+        dispatcher.onOrderEvent(event(1L, OrderEvent.Type.CREATED));
+        dispatcher.onOrderEvent(event(2L, OrderEvent.Type.STATUS_CHANGED));
+        dispatcher.onOrderEvent(event(3L, OrderEvent.Type.CREATED));
+        dispatcher.onOrderEvent(event(1L, OrderEvent.Type.DELETED));
+
+        await(() -> delivered("1") == 3);
+        assertEquals(1, requests.size());
+        JsonNode body = requests.peek().body();
+        assertEquals(List.of(1L, 3L, 1L), List.of(body.get(0).get("orderId").asLong(),
+                body.get(1).get("orderId").asLong(), body.get(2).get("orderId").asLong()));
+        assertEquals("DELETED", body.get(2).get("type").asText());
+        assertEquals(1, meterRegistry.get("app.webhooks.latency").tags("webhook", "1", "outcome", "success")
+                .timer().count());
+    }
+
+    @Test
+    void testFailedBatchIsRetried() throws InterruptedException {
+        int[] calls = {0};
+        status = () -> ++calls[0] < 3 ? 503 : 200;
+        dispatcher.register(subscription(1L, Set.of()));
+
+        dispatcher.onOrderEvent(event(1L, OrderEvent.Type.CREATED));
+
+        await(() -> delivered("1") == 1);
+        assertEquals(List.of(1, 2, 3), requests.stream().map(Request::attempt).toList());
+        assertFalse(dispatcher.circuitOpen(1L));
+    }
+
+    @Test
+    void testCircuitOpensAfterRepeatedFailures() throws InterruptedException {
+        status = () -> 500;
+        properties.setMaxAttempts(2);
+        properties.setFailureThreshold(2);
+        properties.setOpenDuration(Duration.ofMinutes(1));
+        dispatcher.register(subscription(1L, Set.of()));
+
+        dispatcher.onOrderEvent(event(1L, OrderEvent.Type.CREATED));
+        await(() -> meterRegistry.get("app.webhooks.failed").tag("webhook", "1").counter().count() == 1);
+        assertTrue(dispatcher.circuitOpen(1L));
+
+        // Nothing is sent while the circuit is open
+        dispatcher.onOrderEvent(event(2L, OrderEvent.Type.CREATED));
+        Thread.sleep(500);
+        assertEquals(2, requests.size());
+        assertTrue(dispatcher.circuitOpen(1L));
+    }
+
+    @Test
+    void testWaitingForTheCircuitIsNotCountedAsAnAttempt() throws InterruptedException {
+        int[] calls = {0};
+        status = () -> ++calls[0] < 3 ? 500 : 200;
+        properties.setMaxAttempts(3);
+        properties.setFailureThreshold(2);
+        properties.setOpenDuration(Duration.ofMillis(200));
+        dispatcher.register(subscription(1L, Set.of()));
+
+        dispatcher.onOrderEvent(event(1L, OrderEvent.Type.CREATED));
+
+        // The third attempt goes out once the circuit lets a trial request through
+        await(() -> delivered("1") == 1);
+        assertEquals(List.of(1, 2, 3), requests.stream().map(Request::attempt).toList());
+        assertFalse(dispatcher.circuitOpen(1L));
+    }
+
+    @Test
+    void testFullQueueDropsOnlyTheSlowEndpointsEvents() throws InterruptedException {
+        properties.setQueueCapacity(2);
+        properties.setBatchSize(1);
+        properties.setLinger(Duration.ZERO);
+        release = new CountDownLatch(1);
+        dispatcher.register(subscription(1L, Set.of()));
+
+        // The first event is in flight and holds up the endpoint
+        dispatcher.onOrderEvent(event(1L, OrderEvent.Type.CREATED));
+        await(() -> requests.size() == 1);
+        for (long id = 2; id <= 5; id++) {
+            dispatcher.onOrderEvent(event(id, OrderEvent.Type.CREATED));
+        }
+
+        assertEquals(2, dispatcher.queued(1L));
+        assertEquals(2, meterRegistry.get("app.webhooks.queue").tag("webhook", "1").gauge().value());
+        assertEquals(2, meterRegistry.get("app.webhooks.dropped").tag("webhook", "1").counter().count());
+        release.countDown();
+        await(() -> delivered("1") == 3);
+    }
+
+    @Test
+    void testStoredSubscriptionThatCannotBeDeliveredToIsSkipped() throws InterruptedException {
+        WebhookSubscriptionRepository repository = mock(WebhookSubscriptionRepository.class);
+        WebhookSubscription unusable = WebhookSubscription.builder()
+                .id(2L)
+                .url("http://partner_hooks.example.com/x")
+                .createdAt(LocalDateTime.now())
+                .build();
+        when(repository.findAll()).thenReturn(List.of(unusable, subscription(1L, Set.of())));
+        dispatcher.shutdown();
+        dispatcher = new WebhookDispatcher(repository, properties, objectMapper, meterRegistry);
+
+        dispatcher.start();
+        dispatcher.onOrderEvent(event(1L, OrderEvent.Type.CREATED));
+
+        await(() -> delivered("1") == 1);
+        assertEquals(0, dispatcher.queued(2L));
+    }
+
+    @Test
+    void testWorkerSurvivesABatchThatFails() throws InterruptedException {
+        AtomicInteger serialized = new AtomicInteger();
+        ObjectMapper failingOnce = new ObjectMapper() {
+            @Override
+            public byte[] writeValueAsBytes(Object value) throws JsonProcessingException {
+                if (serialized.getAndIncrement() == 0) {
+                    throw new JsonMappingException(null, "boom");
+                }
+                return objectMapper.writeValueAsBytes(value);
+            }
+        };
+        properties.setLinger(Duration.ZERO);
+        dispatcher.shutdown();
+        dispatcher = new WebhookDispatcher(mock(WebhookSubscriptionRepository.class), properties, failingOnce,
+                meterRegistry);
+        dispatcher.register(subscription(1L, Set.of()));
+
+        dispatcher.onOrderEvent(event(1L, OrderEvent.Type.CREATED));
+        await(() -> meterRegistry.get("app.webhooks.failed").tag("webhook", "1").counter().count() == 1);
+        dispatcher.onOrderEvent(event(2L, OrderEvent.Type.CREATED));
+
+        await(() -> delivered("1") == 1);
+        assertEquals(2L, requests.peek().body().get(0).get("orderId").asLong());
+    }
+
+    private double delivered(String webhook) {
+        return meterRegistry.get("app.webhooks.delivered").tag("webhook", webhook).counter().count();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Condition not met within 10 seconds");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private WebhookSubscription subscription(Long id, Set<OrderEvent.Type> eventTypes) {
+        return WebhookSubscription.builder()
+                .id(id)
+                .url("http://localhost:" + server.getAddress().getPort() + "/hook")
+                .eventTypes(eventTypes)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static OrderEvent event(Long orderId, OrderEvent.Type type) {
+        return new OrderEvent(type, orderId, "ORD-" + orderId, OrderStatus.PENDING, PaymentStatus.UNPAID,
+                BigDecimal.TEN, 0L, LocalDateTime.now());
+    }
+
+    private record Request(JsonNode body, int attempt) {
+    }
+}
@@ -0,0 +1,54 @@
+#!/bin/bash
+# Measures time-to-first-successful-request: from launching the JVM until the first HTTP 200 from the service.
+#
+# Usage: ./startup-benchmark.sh [runs] [path]
+#   runs  number of cold starts to measure (default 5)
+#   path  request that must succeed (default /actuator/health)
+#
+# Environment:
+#   JAR        jar to start (default target/order-management-0.0.1-SNAPSHOT.jar)
+#   JAVA_OPTS  extra JVM options, e.g. "-Dspring.aot.enabled=true -XX:SharedArchiveFile=app.jsa"
+#   PORT       port to run on (default 18080)
+#
+# Example, comparing a plain build with the fast-startup profile:
+#   mvn clean package -DskipTests && ./startup-benchmark.sh
+#   mvn -Pfast-startup clean package -DskipTests && JAVA_OPTS="-Dspring.aot.enabled=true" ./startup-benchmark.sh
+
+RUNS=${1:-5}
+CHECK_PATH=${2:-/actuator/health}
+JAR=${JAR:-target/order-management-0.0.1-SNAPSHOT.jar}
+PORT=${PORT:-18080}
+LOG=$(mktemp)
+
+if [ ! -f "$JAR" ]; then
+    echo "Jar not found: $JAR (run mvn package first)"
+    exit 1
+fi
+
+echo "Measuring $RUNS cold starts of $JAR until GET $CHECK_PATH succeeds"
+echo "JAVA_OPTS: ${JAVA_OPTS:-<none>}"
+
+results=()
+for run in $(seq 1 "$RUNS"); do
+    start=$(date +%s%N)
+    java $JAVA_OPTS -jar "$JAR" --server.port="$PORT" > "$LOG" 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "http://localhost:$PORT$CHECK_PATH"; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "Application exited during startup, log follows:"
+            cat "$LOG"
+            exit 1
+        fi
+        sleep 0.01
+    done
+    end=$(date +%s%N)
+    elapsed=$(( (end - start) / 1000000 ))
+    results+=("$elapsed")
+    echo "Run $run: ${elapsed} ms"
+    kill "$pid"
+    wait "$pid" 2>/dev/null
+done
+rm -f "$LOG"
+
+sorted=($(printf '%s\n' "${results[@]}" | sort -n))
+echo "min: ${sorted[0]} ms, median: ${sorted[$(( RUNS / 2 ))]} ms, max: ${sorted[$(( RUNS - 1 ))]} ms"